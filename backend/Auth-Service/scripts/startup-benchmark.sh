@@ -0,0 +1,51 @@
+#!/bin/sh
+# Compares startup time and latency of the first requests between two Auth-Service images.
+#
+#   ./scripts/startup-benchmark.sh <baseline-image> <candidate-image> [requests]
+#
+# For each image: starts a container against the database in DB_HOST, measures the time
+# until /actuator/health/readiness (or, for images without probes, the first successful
+# API call) answers, then fires the first N requests at GET /api/v1/users/all and reports
+# their p50 and p99. Requires docker, curl and a reachable PostgreSQL.
+set -eu
+
+BASELINE=${1:?baseline image}
+CANDIDATE=${2:?candidate image}
+REQUESTS=${3:-200}
+PORT=${PORT:-19091}
+DB_HOST=${DB_HOST:-host.docker.internal}
+
+now_ms() { date +%s%3N; }
+
+measure() {
+    image=$1
+    name=auth-startup-bench-$$
+    started=$(now_ms)
+    docker run -d --rm --name "$name" -p "$PORT:9091" -e DB_HOST="$DB_HOST" "$image" >/dev/null
+    trap 'docker rm -f "$name" >/dev/null 2>&1 || true' EXIT
+
+    until curl -fs "http://localhost:$PORT/actuator/health/readiness" >/dev/null 2>&1 \
+        || curl -fs "http://localhost:$PORT/api/v1/users/all?size=1" >/dev/null 2>&1; do
+        sleep 0.05
+    done
+    ready=$(now_ms)
+
+    latencies=$(mktemp)
+    i=0
+    while [ "$i" -lt "$REQUESTS" ]; do
+        curl -s -o /dev/null -w '%{time_total}\n' "http://localhost:$PORT/api/v1/users/all?size=10" >>"$latencies"
+        i=$((i + 1))
+    done
+    sort -n "$latencies" | awk -v image="$image" -v startup=$((ready - started)) '
+        { v[NR] = $1 * 1000 }
+        END {
+            p50 = v[int(NR * 0.50 + 0.5)]; p99 = v[int(NR * 0.99 + 0.5)]
+            printf "%-50s startup=%6d ms  first-%d p50=%7.2f ms  p99=%7.2f ms\n", image, startup, NR, p50, p99
+        }'
+    rm -f "$latencies"
+    docker rm -f "$name" >/dev/null 2>&1 || true
+    trap - EXIT
+}
+
+measure "$BASELINE"
+measure "$CANDIDATE"
@@ -0,0 +1,91 @@
+package in.food.restro.authservice.audit;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import in.food.restro.authservice.enums.UserChangeType;
+
+/**
+ * Binary layout of audit segments. All numbers are big-endian.
+ *
+ * <pre>
+ * segment header, 64 bytes:
+ *   int    magic 'UAUD'
+ *   short  version
+ *   short  unused
+ *   long   sequence of the first record
+ *   long   time of the first record, microseconds since the epoch
+ *   byte[] hash of the last record of the previous segment, 32 bytes, zeros for the first segment
+ *
+ * record, 71 bytes plus detail:
+ *   int    length of the whole record, 0 marks the end of the segment
+ *   long   sequence
+ *   long   time, microseconds since the epoch
+ *   long   user id, most significant bits
+ *   long   user id, least significant bits
+ *   byte   change type, 0 for a gap
+ *   short  length of the detail
+ *   byte[] detail, UTF-8
+ *   byte[] SHA-256 of the previous hash followed by all preceding bytes of this record
+ * </pre>
+ *
+ * Chaining every record to its predecessor makes any edit, removal or reordering show up
+ * when the log is read.
+ */
+final class AuditFormat {
+
+    static final int MAGIC = 0x55415544;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int HEADER_FIRST_SEQUENCE = 8;
+    static final int HEADER_FIRST_TIME = 16;
+    static final int HEADER_SEED = 24;
+
+    static final int HASH_SIZE = 32;
+    static final int FIXED_SIZE = 4 + 8 + 8 + 16 + 1 + 2 + HASH_SIZE;
+    static final int MAX_DETAIL = 1024;
+    static final int DETAIL_LENGTH_OFFSET = 4 + 8 + 8 + 16 + 1;
+
+    static final String SUFFIX = ".audit";
+    static final byte[] NO_HASH = new byte[HASH_SIZE];
+
+    private static final UserChangeType[] TYPES = UserChangeType.values();
+
+    private AuditFormat() {
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    static boolean isSegment(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    static byte typeCode(UserChangeType type) {
+        return type == null ? 0 : (byte) (type.ordinal() + 1);
+    }
+
+    /**
+     * @return The change type, null for a gap.
+     * @throws IllegalArgumentException If the code is unknown.
+     */
+    static UserChangeType type(byte code) {
+        if (code == 0) {
+            return null;
+        }
+        if (code < 0 || code > TYPES.length) {
+            throw new IllegalArgumentException("Unknown change type code " + code);
+        }
+        return TYPES[code - 1];
+    }
+
+    static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    static Instant instant(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,188 @@
+package in.food.restro.authservice.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import in.food.restro.authservice.enums.UserChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tamper-evident log of user changes, kept in local files next to the service.
+ * <p>
+ * Changes are appended once their transaction has committed, so the database carries no
+ * extra writes. Request threads only put the change into a {@link AuditRingBuffer}; a single
+ * writer thread takes them out in batches and writes them with {@link AuditSegmentWriter}.
+ * If the writer falls so far behind that the buffer is full, the change is counted instead
+ * and the writer records a gap of that size, so a reader always sees that entries are missing.
+ */
+@Slf4j
+public class AuditLog {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final AuditRingBuffer<Entry> buffer;
+    private final AuditSegmentWriter writer;
+    private final Set<UserChangeType> types;
+    private final AuditProperties.Fsync fsync;
+    private final long fsyncIntervalNanos;
+    private final AtomicLong lost = new AtomicLong();
+    private final Counter writtenCounter;
+    private final Counter lostCounter;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean idle;
+    private long reportedLost;
+    private long lastFsync = System.nanoTime();
+
+    public AuditLog(AuditProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.buffer = new AuditRingBuffer<>(properties.getBufferSize());
+        this.writer = new AuditSegmentWriter(Path.of(properties.getDirectory()),
+                (int) properties.getSegmentSize().toBytes(), properties.getRetention(), Clock.systemUTC());
+        this.types = Set.copyOf(properties.getTypes());
+        this.fsync = properties.getFsync();
+        this.fsyncIntervalNanos = properties.getFsyncInterval().toNanos();
+        this.writtenCounter = Counter.builder("auth.audit.records")
+                .description("User changes written to the audit log")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("auth.audit.lost")
+                .description("User changes not audited because the audit buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.audit.pending", buffer, AuditRingBuffer::size)
+                .description("User changes waiting for the audit writer")
+                .register(meterRegistry);
+        this.thread = Thread.ofPlatform().name("audit-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Logs a change once the current transaction commits, or immediately outside of one.
+     *
+     * @param detail Role name of role changes, otherwise null.
+     */
+    public void appendAfterCommit(UserChangeType type, UUID userId, String detail) {
+        if (!types.contains(type)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(type, userId, detail);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(type, userId, detail);
+            }
+        });
+    }
+
+    /**
+     * Logs the same change of many users once the current transaction commits.
+     */
+    public void appendAllAfterCommit(UserChangeType type, Collection<UUID> userIds, String detail) {
+        if (!types.contains(type) || userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIds.forEach(userId -> append(type, userId, detail));
+            return;
+        }
+        List<UUID> changed = List.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed.forEach(userId -> append(type, userId, detail));
+            }
+        });
+    }
+
+    private void append(UserChangeType type, UUID userId, String detail) {
+        if (!buffer.offer(new Entry(type, userId, detail))) {
+            lost.incrementAndGet();
+            lostCounter.increment();
+            return;
+        }
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        long parkNanos = fsync == AuditProperties.Fsync.INTERVAL ? fsyncIntervalNanos : TimeUnit.SECONDS.toNanos(1);
+        while (running || !buffer.isEmpty()) {
+            try {
+                int written = writeBatch();
+                if (written > 0) {
+                    writtenCounter.increment(written);
+                    sync(fsync == AuditProperties.Fsync.BATCH);
+                    continue;
+                }
+                sync(false);
+                idle = true;
+                if (buffer.isEmpty() && running) {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+                idle = false;
+            } catch (IOException | UncheckedIOException ex) {
+                log.error("Audit: writing to the audit log failed, retrying in a second", ex);
+                LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+        writer.close();
+    }
+
+    private int writeBatch() throws IOException {
+        long lostNow = lost.get();
+        if (lostNow > reportedLost) {
+            writer.appendGap(lostNow - reportedLost);
+            log.warn("Audit: {} changes were not audited because the buffer was full", lostNow - reportedLost);
+            reportedLost = lostNow;
+        }
+        return buffer.drain(entry -> {
+            try {
+                writer.append(entry.type(), entry.userId(), entry.detail());
+            } catch (IOException ex) {
+                // Shows up as a gap in the next batch
+                lost.incrementAndGet();
+                lostCounter.increment();
+                throw new UncheckedIOException(ex);
+            }
+        }, BATCH_SIZE);
+    }
+
+    private void sync(boolean force) {
+        long now = System.nanoTime();
+        if (force || (fsync == AuditProperties.Fsync.INTERVAL && now - lastFsync >= fsyncIntervalNanos)) {
+            writer.flush();
+            lastFsync = now;
+        }
+    }
+
+    /**
+     * Writes what is still buffered and forces it to disk.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private record Entry(UserChangeType type, UUID userId, String detail) {
+    }
+}
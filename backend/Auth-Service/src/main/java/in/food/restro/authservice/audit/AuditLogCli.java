@@ -0,0 +1,75 @@
+package in.food.restro.authservice.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Prints audit records from the command line, without starting the application:
+ *
+ * <pre>
+ * java -cp Auth-Service.jar -Dloader.main=in.food.restro.authservice.audit.AuditLogCli \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     audit [--user &lt;id&gt;] [--from &lt;instant&gt;] [--to &lt;instant&gt;]
+ * </pre>
+ *
+ * One tab-separated line per record: sequence, time, change type, user id, detail. The
+ * summary goes to standard error; the exit status is 1 if the log is damaged.
+ */
+public final class AuditLogCli {
+
+    private AuditLogCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.err.println("Usage: AuditLogCli <directory> [--user <id>] [--from <instant>] [--to <instant>]");
+            System.exit(2);
+        }
+        UUID userId = null;
+        Instant from = null;
+        Instant to = null;
+        for (int i = 1; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--user" -> userId = UUID.fromString(args[i + 1]);
+                case "--from" -> from = Instant.parse(args[i + 1]);
+                case "--to" -> to = Instant.parse(args[i + 1]);
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        AuditLogReader.Result result = new AuditLogReader(Path.of(args[0]))
+                .scan(new AuditLogReader.Query(userId, from, to), auditRecord -> print(out, auditRecord));
+        out.flush();
+
+        System.err.printf("%d records scanned, %d matched%n", result.scanned(), result.matched());
+        result.problems().forEach(problem -> System.err.println("DAMAGED " + problem));
+        System.exit(result.isIntact() ? 0 : 1);
+    }
+
+    private static void print(BufferedWriter out, AuditRecord auditRecord) {
+        try {
+            out.write(Long.toString(auditRecord.sequence()));
+            out.write('\t');
+            out.write(auditRecord.recordedAt().toString());
+            out.write('\t');
+            out.write(auditRecord.isGap() ? "GAP" : auditRecord.type().name());
+            out.write('\t');
+            out.write(auditRecord.userId() == null ? "-" : auditRecord.userId().toString());
+            out.write('\t');
+            out.write(auditRecord.detail() == null ? "-" : auditRecord.detail());
+            out.newLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
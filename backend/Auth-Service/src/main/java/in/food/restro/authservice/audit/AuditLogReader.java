@@ -0,0 +1,113 @@
+package in.food.restro.authservice.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Scans the segments of an audit log, verifying the hash chain of every record it reads.
+ * <p>
+ * Segments are mapped read-only and records are only decoded when they match, so a scan
+ * runs at about the speed the files can be read and hashed. Because records are in time
+ * order, a time range lets the scan skip segments before it and stop after it.
+ */
+public class AuditLogReader {
+
+    private final Path directory;
+
+    public AuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Records to select; null fields do not filter.
+     *
+     * @param userId Only changes of this user.
+     * @param from Only records written at or after this time.
+     * @param to Only records written before this time.
+     */
+    public record Query(UUID userId, Instant from, Instant to) {
+
+        public static Query all() {
+            return new Query(null, null, null);
+        }
+    }
+
+    /**
+     * @param scanned Records read and verified.
+     * @param matched Records handed to the consumer.
+     * @param problems Damage found: broken chains, torn or edited records. Empty if the
+     *        scanned part of the log is intact.
+     */
+    public record Result(long scanned, long matched, List<String> problems) {
+
+        public boolean isIntact() {
+            return problems.isEmpty();
+        }
+    }
+
+    /**
+     * Hands every record matching the query to the consumer, oldest first.
+     */
+    public Result scan(Query query, Consumer<AuditRecord> consumer) throws IOException {
+        long fromMicros = query.from() == null ? Long.MIN_VALUE : AuditFormat.micros(query.from());
+        long toMicros = query.to() == null ? Long.MAX_VALUE : AuditFormat.micros(query.to());
+        List<Path> segments = AuditSegment.list(directory);
+        List<String> problems = new ArrayList<>();
+        long scanned = 0;
+        long matched = 0;
+        byte[] previousHash = null;
+        long previousEnd = -1;
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            if (i + 1 < segments.size()) {
+                AuditSegment.Header following = AuditSegment.readHeader(segments.get(i + 1));
+                if (following != null && following.firstMicros() < fromMicros) {
+                    // Every record of this segment is older than the next segment's first one
+                    previousHash = null;
+                    continue;
+                }
+            }
+            MappedByteBuffer mapped = AuditSegment.map(path, FileChannel.MapMode.READ_ONLY, -1);
+            AuditSegment.Header header = AuditSegment.Header.read(mapped);
+            if (header == null) {
+                problems.add(path.getFileName() + ": no segment header");
+                previousHash = null;
+                continue;
+            }
+            if (header.firstMicros() >= toMicros) {
+                break;
+            }
+            if (previousHash != null && (!Arrays.equals(previousHash, header.seed()) || previousEnd != header.firstSequence())) {
+                problems.add(path.getFileName() + ": does not continue the chain of the previous segment");
+            }
+
+            AuditSegment.Cursor cursor = new AuditSegment.Cursor(mapped, header);
+            while (cursor.next()) {
+                scanned++;
+                long micros = cursor.micros();
+                if (micros >= toMicros) {
+                    return new Result(scanned, matched, problems);
+                }
+                if (micros >= fromMicros && (query.userId() == null || cursor.isUser(query.userId()))) {
+                    matched++;
+                    consumer.accept(cursor.record());
+                }
+            }
+            if (cursor.problem() != null) {
+                problems.add(path.getFileName() + ": " + cursor.problem());
+            }
+            previousHash = cursor.hash();
+            previousEnd = cursor.nextSequence();
+        }
+        return new Result(scanned, matched, problems);
+    }
+}
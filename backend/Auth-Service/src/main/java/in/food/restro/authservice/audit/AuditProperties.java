@@ -0,0 +1,52 @@
+package in.food.restro.authservice.audit;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import in.food.restro.authservice.enums.UserChangeType;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the local audit log of user changes, bound from {@code app.audit.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+	private boolean enabled = false;
+
+	/** Directory holding the segment files. */
+	private String directory = "audit";
+
+	/** Size each segment file is preallocated to. */
+	private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+	/** How long records are kept; whole segments are deleted once all their records are older. */
+	private Duration retention = Duration.ofDays(90);
+
+	private Fsync fsync = Fsync.BATCH;
+
+	/** How often records are forced to disk with {@link Fsync#INTERVAL}. */
+	private Duration fsyncInterval = Duration.ofSeconds(1);
+
+	/** Changes waiting for the writer before further ones are counted as lost; a power of two. */
+	private int bufferSize = 65536;
+
+	/** Change types that are logged. */
+	private Set<UserChangeType> types = EnumSet.complementOf(EnumSet.of(UserChangeType.LAST_LOGIN_UPDATED));
+
+	public enum Fsync {
+		/** Leave writing back to the operating system. */
+		NEVER,
+		/** Force every batch taken from the buffer to disk. */
+		BATCH,
+		/** Force to disk at most once per {@code fsync-interval}. */
+		INTERVAL
+	}
+}
@@ -0,0 +1,25 @@
+package in.food.restro.authservice.audit;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import in.food.restro.authservice.enums.UserChangeType;
+
+/**
+ * One entry of the audit log.
+ *
+ * @param sequence Position in the log, starting at 1 and without gaps.
+ * @param recordedAt When the entry was written, after its transaction committed.
+ * @param userId The changed user, null for a gap.
+ * @param type The kind of change, null for a gap.
+ * @param detail Role name of role changes, number of lost entries for a gap, otherwise null.
+ */
+public record AuditRecord(long sequence, Instant recordedAt, UUID userId, UserChangeType type, String detail) {
+
+    /**
+     * Whether this entry stands for changes that could not be logged because the writer fell behind.
+     */
+    public boolean isGap() {
+        return type == null;
+    }
+}
@@ -0,0 +1,85 @@
+package in.food.restro.authservice.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue with many producers and a single consumer, backed by a ring of slots.
+ * <p>
+ * Producers claim a slot with one compare-and-set on the tail and publish it by stamping
+ * the slot with its sequence; they never wait. The consumer takes slots in order as long as
+ * they are published, so a producer that claimed a slot but has not published it yet holds
+ * back the ones after it until it does.
+ */
+final class AuditRingBuffer<E> {
+
+    private final Object[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two, got " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * @return False if the buffer is full.
+     */
+    boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        int slot = (int) sequence & mask;
+        slots[slot] = element;
+        published.set(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published elements to the consumer, in order. Only the
+     * consuming thread may call this.
+     *
+     * @return Number of elements drained.
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<? super E> consumer, int max) {
+        long next = head;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) next & mask;
+            if (published.get(slot) != next) {
+                break;
+            }
+            E element = (E) slots[slot];
+            slots[slot] = null;
+            next++;
+            drained++;
+            // Free the slot before handing the element on, so producers are held up as little as possible
+            head = next;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return published.get((int) head & mask) != head;
+    }
+
+    int size() {
+        return (int) (tail.get() - head);
+    }
+}
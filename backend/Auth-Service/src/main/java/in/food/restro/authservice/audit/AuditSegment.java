@@ -0,0 +1,207 @@
+package in.food.restro.authservice.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import in.food.restro.authservice.enums.UserChangeType;
+
+/**
+ * Access to the segment files of an audit log directory, see {@link AuditFormat}.
+ */
+final class AuditSegment {
+
+    private AuditSegment() {
+    }
+
+    /**
+     * @return The segment files of the directory, oldest first.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // Names are zero-padded first sequences, so they sort in log order
+            return files.filter(AuditFormat::isSegment).sorted().toList();
+        }
+    }
+
+    static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] { StandardOpenOption.READ }
+                : new StandardOpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE };
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, size < 0 ? channel.size() : size);
+        }
+    }
+
+    /**
+     * Reads the header of a segment without mapping it.
+     *
+     * @return The header, or null if the file does not start with one.
+     */
+    static Header readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(AuditFormat.HEADER_SIZE);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            return buffer.hasRemaining() ? null : Header.read(buffer.flip());
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    record Header(long firstSequence, long firstMicros, byte[] seed) {
+
+        /**
+         * @return The header at the start of the buffer, or null if there is none.
+         */
+        static Header read(ByteBuffer buffer) {
+            if (buffer.limit() < AuditFormat.HEADER_SIZE || buffer.getInt(0) != AuditFormat.MAGIC) {
+                return null;
+            }
+            if (buffer.getShort(4) != AuditFormat.VERSION) {
+                throw new IllegalStateException("Unsupported audit segment version " + buffer.getShort(4));
+            }
+            byte[] seed = new byte[AuditFormat.HASH_SIZE];
+            buffer.get(AuditFormat.HEADER_SEED, seed);
+            return new Header(buffer.getLong(AuditFormat.HEADER_FIRST_SEQUENCE),
+                    buffer.getLong(AuditFormat.HEADER_FIRST_TIME), seed);
+        }
+
+        void write(ByteBuffer buffer) {
+            buffer.putInt(0, AuditFormat.MAGIC)
+                    .putShort(4, AuditFormat.VERSION)
+                    .putLong(AuditFormat.HEADER_FIRST_SEQUENCE, firstSequence)
+                    .putLong(AuditFormat.HEADER_FIRST_TIME, firstMicros)
+                    .put(AuditFormat.HEADER_SEED, seed);
+        }
+    }
+
+    /**
+     * Walks the records of one mapped segment, checking each against the hash chain.
+     * Fields are only decoded on demand, so skipping records costs little more than hashing them.
+     */
+    static final class Cursor {
+
+        private final ByteBuffer buffer;
+        private final MessageDigest digest = sha256();
+        private final byte[] stored = new byte[AuditFormat.HASH_SIZE];
+        private byte[] hash;
+        private long expectedSequence;
+        private int position = AuditFormat.HEADER_SIZE;
+        private int next = AuditFormat.HEADER_SIZE;
+        private String problem;
+
+        Cursor(ByteBuffer buffer, Header header) {
+            this.buffer = buffer;
+            this.hash = header.seed();
+            this.expectedSequence = header.firstSequence();
+        }
+
+        /**
+         * Moves to the next record.
+         *
+         * @return False at the end of the segment, or at the first record that is torn or
+         *         does not match the chain; {@link #problem()} tells which.
+         */
+        boolean next() {
+            if (problem != null || next + 4 > buffer.limit()) {
+                return false;
+            }
+            int length = buffer.getInt(next);
+            if (length == 0) {
+                return false;
+            }
+            if (length < AuditFormat.FIXED_SIZE || length > buffer.limit() - next
+                    || AuditFormat.FIXED_SIZE + Short.toUnsignedInt(buffer.getShort(next + AuditFormat.DETAIL_LENGTH_OFFSET)) != length) {
+                problem = "malformed record at offset " + next;
+                return false;
+            }
+            digest.update(hash);
+            digest.update(buffer.slice(next, length - AuditFormat.HASH_SIZE));
+            byte[] computed = digest.digest();
+            buffer.get(next + length - AuditFormat.HASH_SIZE, stored);
+            if (!Arrays.equals(computed, stored)) {
+                problem = "hash mismatch at offset " + next;
+                return false;
+            }
+            if (buffer.getLong(next + 4) != expectedSequence) {
+                problem = "sequence " + buffer.getLong(next + 4) + " where " + expectedSequence + " was expected";
+                return false;
+            }
+            hash = computed;
+            expectedSequence++;
+            position = next;
+            next += length;
+            return true;
+        }
+
+        /**
+         * @return Why reading stopped before the end of the written records, null if it did not.
+         */
+        String problem() {
+            return problem;
+        }
+
+        /** Offset just after the last valid record. */
+        int end() {
+            return next;
+        }
+
+        /** Hash of the last valid record, or the seed if there is none. */
+        byte[] hash() {
+            return hash;
+        }
+
+        /** Sequence the record after the last valid one must have. */
+        long nextSequence() {
+            return expectedSequence;
+        }
+
+        long sequence() {
+            return buffer.getLong(position + 4);
+        }
+
+        long micros() {
+            return buffer.getLong(position + 12);
+        }
+
+        boolean isUser(UUID userId) {
+            return buffer.getLong(position + 20) == userId.getMostSignificantBits()
+                    && buffer.getLong(position + 28) == userId.getLeastSignificantBits();
+        }
+
+        AuditRecord record() {
+            UserChangeType type = AuditFormat.type(buffer.get(position + 36));
+            int detailLength = Short.toUnsignedInt(buffer.getShort(position + AuditFormat.DETAIL_LENGTH_OFFSET));
+            String detail = null;
+            if (detailLength > 0) {
+                byte[] bytes = new byte[detailLength];
+                buffer.get(position + AuditFormat.DETAIL_LENGTH_OFFSET + 2, bytes);
+                detail = new String(bytes, StandardCharsets.UTF_8);
+            }
+            UUID userId = type == null ? null : new UUID(buffer.getLong(position + 20), buffer.getLong(position + 28));
+            return new AuditRecord(sequence(), AuditFormat.instant(micros()), userId, type, detail);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package in.food.restro.authservice.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import in.food.restro.authservice.enums.UserChangeType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends hash-chained records to memory-mapped segment files.
+ * <p>
+ * Segments are preallocated to a fixed size and mapped once, so an append is a handful of
+ * stores into memory; the operating system writes the pages back unless {@link #flush()}
+ * forces them. When a record no longer fits, the segment is flushed and the next one started,
+ * and segments whose records are all older than the retention are deleted.
+ * <p>
+ * On startup the last segment is read back up to its last valid record. If it ends in
+ * anything but zeros, for example a torn record or an edited one, writing resumes in a new
+ * segment so that the evidence stays as it is. A segment damaged at its first record would
+ * share its name with that new segment, so it is renamed to {@code .damaged} first; it is then
+ * no longer read or deleted by retention. Not thread-safe: there is one writer per log.
+ */
+@Slf4j
+public class AuditSegmentWriter implements Closeable {
+
+    static final String DAMAGED_SUFFIX = ".damaged";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration retention;
+    private final Clock clock;
+    private final MessageDigest digest = AuditSegment.sha256();
+
+    private MappedByteBuffer segment;
+    private int position;
+    private int flushedPosition;
+    private long nextSequence;
+    private long lastMicros;
+    private byte[] lastHash;
+
+    public AuditSegmentWriter(Path directory, int segmentSize, Duration retention, Clock clock) throws IOException {
+        if (segmentSize < AuditFormat.HEADER_SIZE + AuditFormat.FIXED_SIZE + AuditFormat.MAX_DETAIL) {
+            throw new IllegalArgumentException("Audit segments must be able to hold a record of maximum size");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retention = retention;
+        this.clock = clock;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Appends a change.
+     *
+     * @param detail Optional detail, truncated to {@value AuditFormat#MAX_DETAIL} bytes.
+     * @return The sequence of the record.
+     */
+    public long append(UserChangeType type, UUID userId, String detail) throws IOException {
+        return write(type, userId, detail);
+    }
+
+    /**
+     * Appends a record standing for {@code lost} changes that were never handed to the writer.
+     */
+    public long appendGap(long lost) throws IOException {
+        return write(null, null, Long.toString(lost));
+    }
+
+    /**
+     * Forces the records written since the last flush to disk.
+     */
+    public void flush() {
+        if (position > flushedPosition) {
+            segment.force(flushedPosition, position - flushedPosition);
+            flushedPosition = position;
+        }
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private long write(UserChangeType type, UUID userId, String detail) throws IOException {
+        byte[] detailBytes = detail == null ? new byte[0] : detail.getBytes(StandardCharsets.UTF_8);
+        if (detailBytes.length > AuditFormat.MAX_DETAIL) {
+            detailBytes = Arrays.copyOf(detailBytes, AuditFormat.MAX_DETAIL);
+        }
+        int length = AuditFormat.FIXED_SIZE + detailBytes.length;
+        // Records are ordered by time as well as by sequence, which lets readers skip whole segments
+        long micros = Math.max(lastMicros, AuditFormat.micros(clock.instant()));
+        if (position + length > segmentSize) {
+            roll(micros);
+        }
+
+        long sequence = nextSequence;
+        segment.position(position)
+                .putInt(length)
+                .putLong(sequence)
+                .putLong(micros)
+                .putLong(userId == null ? 0 : userId.getMostSignificantBits())
+                .putLong(userId == null ? 0 : userId.getLeastSignificantBits())
+                .put(AuditFormat.typeCode(type))
+                .putShort((short) detailBytes.length)
+                .put(detailBytes);
+        digest.update(lastHash);
+        digest.update(segment.slice(position, length - AuditFormat.HASH_SIZE));
+        lastHash = digest.digest();
+        segment.put(lastHash);
+
+        position += length;
+        nextSequence++;
+        lastMicros = micros;
+        return sequence;
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = AuditSegment.list(directory);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Path path = segments.get(i);
+            MappedByteBuffer mapped = AuditSegment.map(path, FileChannel.MapMode.READ_WRITE, -1);
+            AuditSegment.Header header = AuditSegment.Header.read(mapped);
+            if (header == null) {
+                // Crashed between creating the file and writing its header
+                log.warn("Audit: removing segment {} without a header", path.getFileName());
+                Files.delete(path);
+                continue;
+            }
+            AuditSegment.Cursor cursor = new AuditSegment.Cursor(mapped, header);
+            long micros = header.firstMicros();
+            while (cursor.next()) {
+                micros = cursor.micros();
+            }
+            nextSequence = cursor.nextSequence();
+            lastHash = cursor.hash();
+            lastMicros = micros;
+            if (cursor.problem() != null || mapped.capacity() != segmentSize) {
+                if (cursor.problem() != null) {
+                    log.error("Audit: segment {} is damaged ({}), continuing in a new segment", path.getFileName(),
+                            cursor.problem());
+                    if (nextSequence == header.firstSequence()) {
+                        quarantine(path);
+                    }
+                }
+                startSegment(micros);
+            } else {
+                segment = mapped;
+                position = cursor.end();
+                flushedPosition = position;
+            }
+            log.info("Audit: resuming at sequence {} in {}", nextSequence, directory);
+            return;
+        }
+        nextSequence = 1;
+        lastHash = AuditFormat.NO_HASH;
+        lastMicros = AuditFormat.micros(clock.instant());
+        startSegment(lastMicros);
+    }
+
+    /**
+     * Moves a damaged segment out of the way of the one replacing it, keeping earlier quarantined
+     * copies of the same name.
+     */
+    private void quarantine(Path path) throws IOException {
+        Path target = path.resolveSibling(path.getFileName() + DAMAGED_SUFFIX);
+        for (int copy = 1; Files.exists(target); copy++) {
+            target = path.resolveSibling(path.getFileName() + DAMAGED_SUFFIX + "." + copy);
+        }
+        Files.move(path, target);
+        log.error("Audit: moved damaged segment {} to {}", path.getFileName(), target.getFileName());
+    }
+
+    private void roll(long firstMicros) throws IOException {
+        flush();
+        startSegment(firstMicros);
+        deleteExpired(firstMicros);
+    }
+
+    private void startSegment(long firstMicros) throws IOException {
+        Path path = directory.resolve(AuditFormat.fileName(nextSequence));
+        segment = AuditSegment.map(path, FileChannel.MapMode.READ_WRITE, segmentSize);
+        new AuditSegment.Header(nextSequence, firstMicros, lastHash).write(segment);
+        segment.force(0, AuditFormat.HEADER_SIZE);
+        position = AuditFormat.HEADER_SIZE;
+        flushedPosition = position;
+    }
+
+    /**
+     * Deletes old segments, oldest first. A segment only holds records older than the first
+     * record of the segment after it, so that is the time compared with the retention.
+     */
+    private void deleteExpired(long nowMicros) throws IOException {
+        long cutoff = nowMicros - retention.toSeconds() * 1_000_000;
+        List<Path> segments = AuditSegment.list(directory);
+        for (int i = 0; i < segments.size() - 1; i++) {
+            AuditSegment.Header following = AuditSegment.readHeader(segments.get(i + 1));
+            if (following == null || following.firstMicros() >= cutoff) {
+                return;
+            }
+            Files.delete(segments.get(i));
+            log.info("Audit: deleted expired segment {}", segments.get(i).getFileName());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package in.food.restro.authservice.concurrency;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the latency of the operations it admits.
+ * <p>
+ * Every operation keeps its own no-load latency: the lowest latency seen, allowed to creep up
+ * slowly while latency is within the tolerance or the limit is already at its minimum, so that a
+ * lasting change in the data is eventually accepted as the new normal but sustained queueing is
+ * not. Each
+ * completed operation contributes the ratio of its latency to that baseline, and a moving
+ * average of those ratios drives the limit:
+ * <ul>
+ * <li>while the ratio stays within the tolerance, the limit grows by about its square root per
+ * sample, but only when at least half of it is in use;</li>
+ * <li>beyond the tolerance, the limit shrinks in proportion to the excess, at most halving per
+ * sample (the gradient);</li>
+ * <li>an operation that fails for lack of database resources, such as a connection wait that
+ * timed out, cuts the limit by a fixed factor (multiplicative decrease).</li>
+ * </ul>
+ * Comparing each operation with its own baseline keeps a burst of slow listings from being
+ * mistaken for queueing. Admission is lock-free; limit updates are serialized.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /** How a released operation should be counted. */
+    public enum Outcome {
+        /** Completed, normally or with an expected error; its latency is a sample. */
+        SUCCESS,
+        /** Failed because the database was out of capacity. */
+        OVERLOAD,
+        /** Failed for an unrelated reason; not counted. */
+        IGNORE
+    }
+
+    /** Per-sample upward drift of a baseline, about 2x per 1400 samples of that operation. */
+    private static final double BASELINE_DRIFT = 0.0005;
+
+    /** Weight of a sample in the latency ratio average, about the last 10 samples. */
+    private static final double RATIO_WEIGHT = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final Map<Priority, Double> shares;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private final Map<String, Double> baselines = new HashMap<>();
+    private double latencyRatio = 1.0;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.shares = new EnumMap<>(properties.getShares());
+        this.limit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+    }
+
+    /**
+     * Admits an operation if its priority's share of the limit is not yet in use.
+     * Every admitted operation must be released exactly once.
+     *
+     * @return True if admitted.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * shares.getOrDefault(priority, 1.0)));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted operation and feeds its outcome into the limit.
+     *
+     * @param operation Name of the operation, which selects its latency baseline.
+     * @param latencyNanos How long the operation took.
+     * @param outcome How the operation ended.
+     */
+    public void release(String operation, long latencyNanos, Outcome outcome) {
+        int inUse = inflight.getAndDecrement();
+        switch (outcome) {
+            case SUCCESS -> sample(operation, Math.max(1, latencyNanos), inUse);
+            case OVERLOAD -> backOff();
+            case IGNORE -> {
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void sample(String operation, long latencyNanos, int inUse) {
+        double baseline = baselines.getOrDefault(operation, (double) latencyNanos);
+        if (latencyNanos <= baseline * tolerance || limit <= minLimit) {
+            baseline *= 1 + BASELINE_DRIFT;
+        }
+        baseline = Math.min(latencyNanos, baseline);
+        baselines.put(operation, baseline);
+        latencyRatio += RATIO_WEIGHT * (latencyNanos / baseline - latencyRatio);
+
+        double current = limit;
+        double gradient = Math.clamp(tolerance / latencyRatio, 0.5, 1.0);
+        double target = current * gradient + Math.sqrt(current);
+        if (target > current && inUse < current / 2) {
+            // Not enough load to tell whether a higher limit would hold
+            return;
+        }
+        limit = Math.clamp((1 - smoothing) * current + smoothing * target, minLimit, maxLimit);
+    }
+
+    private synchronized void backOff() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
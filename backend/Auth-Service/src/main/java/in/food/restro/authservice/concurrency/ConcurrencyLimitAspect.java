@@ -0,0 +1,95 @@
+package in.food.restro.authservice.concurrency;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import in.food.restro.authservice.concurrency.AdaptiveConcurrencyLimiter.Outcome;
+import in.food.restro.authservice.exception.DomainException;
+import in.food.restro.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts {@link AdaptiveConcurrencyLimiter} in front of every public method of the user service.
+ * <p>
+ * The aspect runs outside the transaction advice, so a shed operation never borrows a
+ * connection: it fails at once with {@link ServiceOverloadedException} (503) instead of
+ * waiting up to the pool's connection timeout. With sharding, each per-shard call of a
+ * scatter-gather is admitted on its own, which is where the database work happens.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitAspect {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<String, Priority> priorities = new HashMap<>();
+    private final Map<Priority, Counter> shedCounters = new HashMap<>();
+
+    public ConcurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties,
+            MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        properties.getCritical().forEach(method -> priorities.put(method, Priority.CRITICAL));
+        properties.getLow().forEach(method -> priorities.put(method, Priority.LOW));
+        for (Priority priority : Priority.values()) {
+            shedCounters.put(priority, Counter.builder("auth.concurrency.shed")
+                    .description("Service operations rejected at the concurrency limit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the user service")
+                .register(meterRegistry);
+        Gauge.builder("auth.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("User service operations in progress")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public * in.food.restro.authservice.service.impl.UserServiceImpl.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Priority priority = priorities.getOrDefault(operation, Priority.NORMAL);
+        if (!limiter.tryAcquire(priority)) {
+            shedCounters.get(priority).increment();
+            throw new ServiceOverloadedException(operation);
+        }
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.IGNORE;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (Throwable ex) {
+            outcome = classify(ex);
+            throw ex;
+        } finally {
+            limiter.release(operation, System.nanoTime() - start, outcome);
+        }
+    }
+
+    /**
+     * Expected failures still measure the database; running out of connections or hitting
+     * statement timeouts means the database is saturated.
+     */
+    private static Outcome classify(Throwable ex) {
+        if (ex instanceof DomainException || ex instanceof IllegalArgumentException) {
+            return Outcome.SUCCESS;
+        }
+        if (ex instanceof CannotCreateTransactionException || ex instanceof QueryTimeoutException
+                || ex instanceof TransientDataAccessResourceException || ex instanceof DataAccessResourceFailureException) {
+            return Outcome.OVERLOAD;
+        }
+        return Outcome.IGNORE;
+    }
+}
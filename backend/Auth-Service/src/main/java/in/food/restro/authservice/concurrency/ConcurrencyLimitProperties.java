@@ -0,0 +1,54 @@
+package in.food.restro.authservice.concurrency;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the adaptive concurrency limit on the user service, bound from
+ * {@code app.concurrency-limit.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+	private boolean enabled = true;
+
+	private int initialLimit = 20;
+
+	private int minLimit = 4;
+
+	private int maxLimit = 200;
+
+	/** Latency, relative to the no-load latency of each operation, accepted before the limit shrinks. */
+	private double tolerance = 1.5;
+
+	/** Weight of each new sample in the limit, between 0 and 1. */
+	private double smoothing = 0.2;
+
+	/** Factor applied to the limit when an operation fails for lack of database resources. */
+	private double backoffRatio = 0.9;
+
+	/** Share of the limit each priority may fill. */
+	private Map<Priority, Double> shares = new EnumMap<>(Map.of(
+			Priority.CRITICAL, 1.0,
+			Priority.NORMAL, 0.8,
+			Priority.LOW, 0.5));
+
+	/** Service methods admitted as {@link Priority#CRITICAL}. */
+	private List<String> critical = new ArrayList<>(List.of(
+			"getUserById", "getUserByUsername", "getUserByEmail", "getUserByPhoneNumber",
+			"getUserRoleDetailsById", "isUserIdExists", "updateLastLoginAt"));
+
+	/** Service methods admitted as {@link Priority#LOW}; all others are {@link Priority#NORMAL}. */
+	private List<String> low = new ArrayList<>(List.of(
+			"getAllUsers", "searchUsers", "getUsersByIds", "getUserStatistics",
+			"grantRoleToUsers", "revokeRoleFromUsers"));
+}
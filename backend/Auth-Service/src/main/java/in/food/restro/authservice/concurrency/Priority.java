@@ -0,0 +1,18 @@
+package in.food.restro.authservice.concurrency;
+
+/**
+ * Admission priority of a service operation. Each priority may only fill its share of the
+ * current concurrency limit, so when the limit is reached the lower priorities are shed first
+ * and critical operations keep some headroom.
+ */
+public enum Priority {
+
+    /** Lookups on the login path and last-login updates. */
+    CRITICAL,
+
+    /** Profile changes, registrations and other single-user writes. */
+    NORMAL,
+
+    /** Listings, searches, statistics and bulk changes. */
+    LOW
+}
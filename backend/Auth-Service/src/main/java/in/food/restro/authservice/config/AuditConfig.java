@@ -0,0 +1,26 @@
+package in.food.restro.authservice.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import in.food.restro.authservice.audit.AuditLog;
+import in.food.restro.authservice.audit.AuditProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enables the local audit log of user changes with {@code app.audit.enabled=true}.
+ */
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+@ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true")
+public class AuditConfig {
+
+	@Bean
+	public AuditLog auditLog(AuditProperties properties, MeterRegistry meterRegistry) throws IOException {
+		return new AuditLog(properties, meterRegistry);
+	}
+}
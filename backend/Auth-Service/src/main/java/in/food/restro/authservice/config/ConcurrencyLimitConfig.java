@@ -0,0 +1,32 @@
+package in.food.restro.authservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import in.food.restro.authservice.concurrency.AdaptiveConcurrencyLimiter;
+import in.food.restro.authservice.concurrency.ConcurrencyLimitAspect;
+import in.food.restro.authservice.concurrency.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the adaptive concurrency limit in front of the user service.
+ * Disabled with {@code app.concurrency-limit.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+	@Bean
+	public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+		return new AdaptiveConcurrencyLimiter(properties);
+	}
+
+	@Bean
+	public ConcurrencyLimitAspect concurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter,
+			ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+		return new ConcurrencyLimitAspect(limiter, properties, meterRegistry);
+	}
+}
@@ -0,0 +1,43 @@
+package in.food.restro.authservice.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import in.food.restro.authservice.images.ImageProperties;
+import in.food.restro.authservice.images.ImageResponseWriter;
+import in.food.restro.authservice.images.ImageStore;
+import in.food.restro.authservice.images.ProfileImageService;
+import in.food.restro.authservice.images.ThumbnailGenerator;
+import in.food.restro.authservice.service.UserService;
+
+/**
+ * Wires profile image storage, thumbnail generation and serving.
+ */
+@Configuration
+@EnableConfigurationProperties(ImageProperties.class)
+public class ImageConfig {
+
+	@Bean
+	public ImageStore imageStore(ImageProperties properties) throws IOException {
+		return new ImageStore(properties);
+	}
+
+	@Bean
+	public ThumbnailGenerator thumbnailGenerator(ImageStore imageStore, ImageProperties properties) {
+		return new ThumbnailGenerator(imageStore, properties);
+	}
+
+	@Bean
+	public ProfileImageService profileImageService(UserService userService, ImageStore imageStore,
+			ThumbnailGenerator thumbnailGenerator) {
+		return new ProfileImageService(userService, imageStore, thumbnailGenerator);
+	}
+
+	@Bean
+	public ImageResponseWriter imageResponseWriter(ImageProperties properties) {
+		return new ImageResponseWriter(properties.getCacheMaxAge());
+	}
+}
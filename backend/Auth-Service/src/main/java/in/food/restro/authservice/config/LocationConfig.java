@@ -0,0 +1,43 @@
+package in.food.restro.authservice.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import in.food.restro.authservice.config.ShardingConfig.ShardDataSources;
+import in.food.restro.authservice.location.LocationBackfill;
+import in.food.restro.authservice.location.LocationDictionary;
+
+/**
+ * Wires the location dictionary behind {@code user_addr.location_id} and the backfill of
+ * addresses that predate it. Both work on every shard when sharding is enabled.
+ */
+@Configuration
+public class LocationConfig {
+
+	@Bean
+	public LocationDictionary locationDictionary(DataSource dataSource, ObjectProvider<ShardDataSources> shards) {
+		return new LocationDictionary(shardsOrSingle(dataSource, shards));
+	}
+
+	@Bean
+	public LocationBackfill locationBackfill(LocationDictionary locationDictionary, DataSource dataSource,
+			ObjectProvider<ShardDataSources> shards,
+			@Value("${app.location.backfill.enabled:true}") boolean enabled,
+			@Value("${app.location.backfill.batch-size:1000}") int batchSize,
+			@Value("${app.location.backfill.pause-between-batches:100ms}") Duration pauseBetweenBatches) {
+		return new LocationBackfill(locationDictionary, shardsOrSingle(dataSource, shards), enabled, batchSize,
+				pauseBetweenBatches);
+	}
+
+	private static List<? extends DataSource> shardsOrSingle(DataSource dataSource, ObjectProvider<ShardDataSources> shards) {
+		ShardDataSources sharded = shards.getIfAvailable();
+		return sharded != null ? sharded.pools() : List.of(dataSource);
+	}
+}
@@ -0,0 +1,27 @@
+package in.food.restro.authservice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import in.food.restro.authservice.lookup.LookupBatchingProperties;
+import in.food.restro.authservice.lookup.UserLookupBatcher;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Registers the micro-batching of user lookups. The batcher always exists; with
+ * {@code app.lookup-batching.enabled=false} it runs every lookup on its own.
+ */
+@Configuration
+@EnableConfigurationProperties(LookupBatchingProperties.class)
+public class LookupBatchingConfig {
+
+	@Bean
+	public UserLookupBatcher userLookupBatcher(UserRepository userRepository, EntityManagerFactory entityManagerFactory,
+			ShardRouter shardRouter, LookupBatchingProperties properties, MeterRegistry meterRegistry) {
+		return new UserLookupBatcher(userRepository, entityManagerFactory, shardRouter, properties, meterRegistry);
+	}
+}
@@ -0,0 +1,59 @@
+package in.food.restro.authservice.config;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.food.restro.authservice.outbox.ApplicationEventSink;
+import in.food.restro.authservice.outbox.FileSink;
+import in.food.restro.authservice.outbox.OutboxDispatcher;
+import in.food.restro.authservice.outbox.OutboxProperties;
+import in.food.restro.authservice.outbox.OutboxWriter;
+import in.food.restro.authservice.outbox.UserChangeSink;
+import in.food.restro.authservice.outbox.WebhookSink;
+import in.food.restro.authservice.repositories.OutboxEventRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires the user change outbox: the in-process sink is always present, the webhook and
+ * file sinks are enabled by setting {@code app.outbox.webhook.url} and {@code app.outbox.file.path}.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+	@Bean
+	public ApplicationEventSink applicationEventSink(ApplicationEventPublisher publisher) {
+		return new ApplicationEventSink(publisher);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "app.outbox.webhook", name = "url")
+	public WebhookSink webhookSink(RestClient.Builder restClientBuilder, OutboxProperties properties) {
+		return new WebhookSink(restClientBuilder, properties.getWebhook());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "app.outbox.file", name = "path")
+	public FileSink fileSink(ObjectMapper objectMapper, OutboxProperties properties) {
+		return new FileSink(objectMapper, properties.getFile());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "app.outbox", name = "dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+	public OutboxDispatcher outboxDispatcher(OutboxEventRepository repository, OutboxWriter outboxWriter,
+			List<UserChangeSink> sinks, TransactionTemplate transactionTemplate, OutboxProperties properties,
+			ShardRouter shardRouter, MeterRegistry meterRegistry) {
+		return new OutboxDispatcher(repository, outboxWriter, sinks, transactionTemplate, properties, shardRouter,
+				meterRegistry);
+	}
+}
@@ -1,13 +1,27 @@
 package in.food.restro.authservice.config;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.food.restro.authservice.json.UserJsonHttpMessageConverter;
+
 @Configuration
 public class ProjectConfig {
 	@Bean
 	public ModelMapper modelMapper() {
 		return new ModelMapper();
 	}
+	
+	/**
+	 * Picked up by Spring Boot and placed ahead of the Jackson converter for user responses.
+	 */
+	@Bean
+	public UserJsonHttpMessageConverter userJsonHttpMessageConverter(ObjectMapper objectMapper,
+			@Value("${app.timing.enabled:true}") boolean timingEnabled) {
+		return new UserJsonHttpMessageConverter(objectMapper.getFactory(), timingEnabled);
+	}
 }
@@ -0,0 +1,46 @@
+package in.food.restro.authservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import in.food.restro.authservice.ratelimit.ClientRateLimiter;
+import in.food.restro.authservice.ratelimit.RateLimitInterceptor;
+import in.food.restro.authservice.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registers the per-client rate limiter in front of the lookup and existence endpoints.
+ * Disabled with {@code app.rate-limit.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+	@Bean
+	public ClientRateLimiter clientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+		return new ClientRateLimiter(properties, meterRegistry);
+	}
+
+	@Bean
+	public RateLimitInterceptor rateLimitInterceptor(ClientRateLimiter clientRateLimiter, RateLimitProperties properties) {
+		return new RateLimitInterceptor(clientRateLimiter, properties);
+	}
+
+	@Configuration
+	@RequiredArgsConstructor
+	static class RateLimitWebConfig implements WebMvcConfigurer {
+
+		private final RateLimitInterceptor rateLimitInterceptor;
+
+		@Override
+		public void addInterceptors(InterceptorRegistry registry) {
+			registry.addInterceptor(rateLimitInterceptor).addPathPatterns(rateLimitInterceptor.patterns());
+		}
+	}
+}
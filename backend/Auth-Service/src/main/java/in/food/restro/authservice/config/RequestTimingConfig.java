@@ -0,0 +1,43 @@
+package in.food.restro.authservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import in.food.restro.authservice.timing.RequestTimingFilter;
+import in.food.restro.authservice.timing.SlowRequestLog;
+import in.food.restro.authservice.timing.SlowRequestsEndpoint;
+import in.food.restro.authservice.timing.TimingProperties;
+
+/**
+ * Registers per-request stage timing, the {@code Server-Timing} header and the slow request
+ * buffer behind {@code /actuator/slowrequests}. Disabled with {@code app.timing.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(TimingProperties.class)
+@ConditionalOnProperty(prefix = "app.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfig {
+
+	@Bean
+	public SlowRequestLog slowRequestLog(TimingProperties properties) {
+		return new SlowRequestLog(properties.getSlowBufferSize());
+	}
+
+	@Bean
+	public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestLog slowRequestLog, TimingProperties properties) {
+		return new SlowRequestsEndpoint(slowRequestLog, properties);
+	}
+
+	@Bean
+	public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(TimingProperties properties,
+			SlowRequestLog slowRequestLog) {
+		// Outermost, so the correlation id is set for every log line and the total covers all other filters
+		FilterRegistrationBean<RequestTimingFilter> registration =
+				new FilterRegistrationBean<>(new RequestTimingFilter(properties, slowRequestLog));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+}
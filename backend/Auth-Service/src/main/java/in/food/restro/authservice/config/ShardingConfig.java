@@ -0,0 +1,177 @@
+package in.food.restro.authservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import in.food.restro.authservice.search.UserSearchIndex;
+import in.food.restro.authservice.service.impl.UserServiceImpl;
+import in.food.restro.authservice.sharding.ShardConnectionProvider;
+import in.food.restro.authservice.sharding.ShardRebalancer;
+import in.food.restro.authservice.sharding.ShardRouter;
+import in.food.restro.authservice.sharding.ShardSchemaInitializer;
+import in.food.restro.authservice.sharding.ShardTenantResolver;
+import in.food.restro.authservice.sharding.ShardedRoleCatalog;
+import in.food.restro.authservice.sharding.ShardedUserService;
+import in.food.restro.authservice.sharding.ShardingProperties;
+import in.food.restro.authservice.sharding.UserDirectory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wires hash-sharded user storage when {@code app.sharding.enabled} is set.
+ * <p>
+ * The {@link ShardRouter} always exists; without sharding it has a single shard, so jobs can
+ * loop over shards unconditionally. With sharding, every shard gets its own connection pool,
+ * Hibernate picks the pool per session through its database-per-tenant support, and
+ * {@link ShardedUserService} takes over as the primary {@code UserService}.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+	@Bean
+	public ShardRouter shardRouter(ShardingProperties properties) {
+		return new ShardRouter(properties.isEnabled() ? properties.getShards().size() : 1);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+	static class Sharded {
+
+		Sharded(ShardingProperties properties, @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+			if (properties.getShards().isEmpty()) {
+				throw new IllegalStateException("app.sharding.shards must list at least one database");
+			}
+			// An open-in-view EntityManager would hold one shard's connection for the whole request
+			if (openInView) {
+				throw new IllegalStateException("spring.jpa.open-in-view must be false when app.sharding.enabled is set");
+			}
+		}
+
+		@Bean
+		public ShardDataSources shardDataSources(ShardingProperties properties) {
+			List<HikariDataSource> pools = new ArrayList<>();
+			for (int shard = 0; shard < properties.getShards().size(); shard++) {
+				pools.add(pool(properties.getShards().get(shard), "HikariPool-Auth-Shard-" + shard));
+			}
+			log.info("Sharding: {} shards configured", pools.size());
+			return new ShardDataSources(pools);
+		}
+
+		/**
+		 * Shard 0, for Spring Boot's JPA setup and health checks. Sessions get their
+		 * connections from {@link ShardConnectionProvider} instead.
+		 */
+		@Bean(destroyMethod = "")
+		@Primary
+		public DataSource dataSource(ShardDataSources shards) {
+			return shards.pools().get(0);
+		}
+
+		@Bean
+		public HibernatePropertiesCustomizer shardTenancyCustomizer(ShardDataSources shards) {
+			return hibernateProperties -> {
+				hibernateProperties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER,
+						new ShardConnectionProvider(shards.pools()));
+				hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new ShardTenantResolver());
+			};
+		}
+
+		@Bean(destroyMethod = "close")
+		public HikariDataSource directoryDataSource(ShardingProperties properties) {
+			ShardingProperties.Database directory = properties.getDirectory() != null
+					? properties.getDirectory()
+					: properties.getShards().get(0);
+			return pool(directory, "HikariPool-Auth-Directory");
+		}
+
+		@Bean
+		public UserDirectory userDirectory(HikariDataSource directoryDataSource) {
+			UserDirectory directory = new UserDirectory(directoryDataSource);
+			directory.initializeSchema();
+			return directory;
+		}
+
+		@Bean
+		public ShardedRoleCatalog shardedRoleCatalog(ShardRouter shardRouter, EntityManager entityManager,
+				TransactionTemplate transactionTemplate) {
+			return new ShardedRoleCatalog(shardRouter, entityManager, transactionTemplate);
+		}
+
+		@Bean
+		public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+				ShardRouter shardRouter, ShardedRoleCatalog roleCatalog, ShardingProperties properties) {
+			return new ShardSchemaInitializer(entityManagerFactory, shardRouter, roleCatalog,
+					properties.isInitializeSchema());
+		}
+
+		@Bean
+		@Primary
+		public ShardedUserService shardedUserService(UserServiceImpl userServiceImpl, ShardRouter shardRouter,
+				UserDirectory userDirectory, ShardedRoleCatalog roleCatalog, UserSearchIndex userSearchIndex) {
+			return new ShardedUserService(userServiceImpl, shardRouter, userDirectory, roleCatalog, userSearchIndex);
+		}
+
+		@Bean
+		public ShardRebalancer shardRebalancer(ShardDataSources shards, ShardRouter shardRouter,
+				UserDirectory userDirectory, ShardingProperties properties) {
+			return new ShardRebalancer(shards.pools(), shardRouter, userDirectory, properties.getRebalance());
+		}
+
+		/**
+		 * Started with {@code --rebalance-shards}: rebalances once and shuts the application down.
+		 */
+		@Bean
+		public ApplicationRunner shardRebalanceRunner(ShardRebalancer rebalancer, ApplicationContext context) {
+			return args -> {
+				if (args.containsOption("rebalance-shards")) {
+					rebalancer.rebalance();
+					System.exit(SpringApplication.exit(context));
+				}
+			};
+		}
+
+		private static HikariDataSource pool(ShardingProperties.Database database, String poolName) {
+			HikariDataSource pool = DataSourceBuilder.create()
+					.type(HikariDataSource.class)
+					.url(database.getUrl())
+					.username(database.getUsername())
+					.password(database.getPassword())
+					.build();
+			pool.setPoolName(poolName);
+			pool.setMaximumPoolSize(database.getMaximumPoolSize());
+			return pool;
+		}
+	}
+
+	/**
+	 * The connection pools of all shards, in shard order; closed with the context.
+	 */
+	public record ShardDataSources(List<HikariDataSource> pools) implements AutoCloseable {
+
+		@Override
+		public void close() {
+			pools.forEach(HikariDataSource::close);
+		}
+	}
+}
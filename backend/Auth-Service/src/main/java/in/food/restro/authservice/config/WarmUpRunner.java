@@ -0,0 +1,78 @@
+package in.food.restro.authservice.config;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.entities.User;
+import in.food.restro.authservice.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exercises the hot {@link UserService} read paths before the instance reports ready.
+ * <p>
+ * Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC} only after all
+ * {@link ApplicationRunner}s have completed, so traffic reaches the instance once the
+ * Hikari pool is filled, Hibernate's query plans are cached, ModelMapper has built its
+ * type maps and the JIT has compiled the common paths. Failures are logged and ignored:
+ * a cold instance is better than one that never becomes ready.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.warm-up", name = "enabled", havingValue = "true")
+@Slf4j
+public class WarmUpRunner implements ApplicationRunner {
+
+    private final UserService userService;
+    private final ModelMapper modelMapper;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public WarmUpRunner(UserService userService, ModelMapper modelMapper,
+            @Value("${app.warm-up.iterations:200}") int iterations,
+            @Value("${app.warm-up.max-duration:20s}") Duration maxDuration) {
+        this.userService = userService;
+        this.modelMapper = modelMapper;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int completed = 0;
+        try {
+            String probe = "warmup-" + UUID.randomUUID();
+            for (; completed < iterations && System.nanoTime() < deadline; completed++) {
+                Iterable<UserDto> page = userService.getAllUsers(0, 10, "id", "asc");
+                for (UserDto user : page) {
+                    userService.getUserById(user.getId().toString());
+                    userService.getUserByUsername(user.getUsername());
+                    break;
+                }
+                userService.isUsernameExists(probe);
+                userService.isEmailExists(probe);
+                userService.isPhoneNumberExists(probe);
+                modelMapper.map(modelMapper.map(sampleUser(probe), User.class), UserDto.class);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("WarmUp: Aborted after {} iterations: {}", completed, ex.getMessage());
+        }
+        log.info("WarmUp: Completed {} iterations in {} ms", completed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private UserDto sampleUser(String probe) {
+        UserDto user = new UserDto();
+        user.setId(UUID.randomUUID());
+        user.setUsername(probe);
+        user.setEmail(probe + "@warmup.local");
+        return user;
+    }
+}
@@ -0,0 +1,84 @@
+package in.food.restro.authservice.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.images.ImageResponseWriter;
+import in.food.restro.authservice.images.ProfileImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controller for profile images.
+ * <p>
+ * Images are uploaded per user and served by their content key, so their URLs can be
+ * cached indefinitely: {@code GET /api/v1/users/images/{profileImage}}, optionally with
+ * {@code ?size=} for a square thumbnail.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+@AllArgsConstructor
+@Slf4j
+public class ProfileImageController {
+
+    private final ProfileImageService profileImageService;
+    private final ImageResponseWriter imageResponseWriter;
+
+    /**
+     * Uploads a profile image and assigns it to the user.
+     * Endpoint: POST /api/v1/users/{id}/image (multipart, part "file")
+     *
+     * @param id The UUID of the user.
+     * @param file A JPEG, PNG or GIF image.
+     * @return ResponseEntity containing the updated UserDto, whose profileImage is the image key.
+     */
+    @PostMapping(path = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserDto> uploadImage(@PathVariable String id, @RequestPart("file") MultipartFile file)
+            throws IOException {
+        log.info("Controller: Request to upload profile image for user ID: {} ({} bytes)", id, file.getSize());
+        UserDto user = profileImageService.upload(id, file);
+        log.info("Controller: Profile image of user ID {} is now {}", id, user.getProfileImage());
+        return ResponseEntity.ok(user);
+    }
+
+    /**
+     * Removes the profile image of the user.
+     * Endpoint: DELETE /api/v1/users/{id}/image
+     *
+     * @param id The UUID of the user.
+     * @return ResponseEntity containing the updated UserDto.
+     */
+    @DeleteMapping("/{id}/image")
+    public ResponseEntity<UserDto> removeImage(@PathVariable String id) {
+        log.info("Controller: Request to remove profile image of user ID: {}", id);
+        return ResponseEntity.ok(profileImageService.remove(id));
+    }
+
+    /**
+     * Serves an image or one of its thumbnails, with ETag and Range support.
+     * Endpoint: GET /api/v1/users/images/{key}?size=
+     *
+     * @param key The image key, as found in a user's profileImage.
+     * @param size Optional thumbnail edge length.
+     */
+    @GetMapping("/images/{key}")
+    public void getImage(@PathVariable String key, @RequestParam(required = false) Integer size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("Controller: Request for image {} size {}", key, size);
+        imageResponseWriter.write(profileImageService.resolve(key, size), request, response);
+    }
+}
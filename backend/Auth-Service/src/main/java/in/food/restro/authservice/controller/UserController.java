@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,7 +17,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import in.food.restro.authservice.dtos.BulkRoleRequestDto;
+import in.food.restro.authservice.dtos.BulkRoleResultDto;
 import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.dtos.UserSearchResultDto;
+import in.food.restro.authservice.dtos.UserStatsDto;
 import in.food.restro.authservice.service.UserService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -135,6 +140,40 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserByPhoneNumber(phoneNumber));
     }
 
+    /**
+     * Searches users by prefix or fuzzy match across first/last name, username, email and phone.
+     * Endpoint: GET /api/v1/users/search?q={text}&page={page}&size={size}
+     *
+     * @param q The text to search for.
+     * @param page Page number (default 0).
+     * @param size Number of records per page (default 20).
+     * @return ResponseEntity containing the ranked users and the total number of matches.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<UserSearchResultDto> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.info("Controller: Search users for '{}' - Page: {}, Size: {}", q, page, size);
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and 100");
+        }
+        return ResponseEntity.ok(userService.searchUsers(q, page, size));
+    }
+
+    /**
+     * Retrieves user counts by status, provider, city, state and signup day for dashboards.
+     * Endpoint: GET /api/v1/users/stats
+     *
+     * @return ResponseEntity containing the current statistics.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<UserStatsDto> getUserStatistics() {
+        log.info("Controller: Fetching user statistics");
+        return ResponseEntity.ok(userService.getUserStatistics());
+    }
+
     /**
      * Updates an existing user's profile information.
      * Endpoint: PUT /api/v1/users/{id}
@@ -151,6 +190,23 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Partially updates a user's profile with a JSON Merge Patch.
+     * Endpoint: PATCH /api/v1/users/{id}
+     * <p>
+     * Only the members present in the body are applied; a {@code null} member clears the field.
+     * Patchable fields: firstName, middleName, lastName, phoneNumber, gender, dob, profileImage.
+     *
+     * @param id The UUID of the user to update.
+     * @param patch The merge patch document.
+     * @return ResponseEntity containing the updated UserDto.
+     */
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<UserDto> patchUser(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        log.info("Controller: Request to patch user ID: {}", id);
+        return ResponseEntity.ok(userService.patchUser(id, patch));
+    }
+
     /**
      * Deletes a user from the system.
      * Endpoint: DELETE /api/v1/users/{id}
@@ -220,6 +276,36 @@ public class UserController {
         return ResponseEntity.ok(userService.removeRoleFromUser(userId, roleId));
     }
 
+    /**
+     * Grants a role to many users at once.
+     * Endpoint: POST /api/v1/users/roles/{roleId}/grant
+     *
+     * @param roleId The UUID of the role to grant.
+     * @param request The target users: {@code userIds}, a filter ({@code provider}, {@code active}) or {@code allUsers}.
+     * @return ResponseEntity containing the number of matched and changed users.
+     */
+    @PostMapping("/roles/{roleId}/grant")
+    public ResponseEntity<BulkRoleResultDto> grantRoleToUsers(@PathVariable String roleId,
+            @RequestBody BulkRoleRequestDto request) {
+        log.info("Controller: Request to grant role {} in bulk", roleId);
+        return ResponseEntity.ok(userService.grantRoleToUsers(roleId, request));
+    }
+
+    /**
+     * Revokes a role from many users at once.
+     * Endpoint: POST /api/v1/users/roles/{roleId}/revoke
+     *
+     * @param roleId The UUID of the role to revoke.
+     * @param request The target users: {@code userIds}, a filter ({@code provider}, {@code active}) or {@code allUsers}.
+     * @return ResponseEntity containing the number of matched and changed users.
+     */
+    @PostMapping("/roles/{roleId}/revoke")
+    public ResponseEntity<BulkRoleResultDto> revokeRoleFromUsers(@PathVariable String roleId,
+            @RequestBody BulkRoleRequestDto request) {
+        log.info("Controller: Request to revoke role {} in bulk", roleId);
+        return ResponseEntity.ok(userService.revokeRoleFromUsers(roleId, request));
+    }
+
     /**
      * Changes the password for a user.
      * Endpoint: PATCH /api/v1/users/{id}/password
@@ -0,0 +1,27 @@
+package in.food.restro.authservice.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+import in.food.restro.authservice.enums.Provider;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Selects the users of a bulk role grant or revoke: the listed ids, the users matching the
+ * filter, or both combined. {@code allUsers} must be set to target every user explicitly.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRoleRequestDto {
+	private List<UUID> userIds;
+	private Provider provider;
+	private Boolean active;
+	private boolean allUsers;
+}
@@ -0,0 +1,24 @@
+package in.food.restro.authservice.dtos;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRoleResultDto {
+	private UUID roleId;
+	private String roleName;
+	private boolean granted;
+	/** Users that matched the request. */
+	private long matchedUsers;
+	/** Users whose membership actually changed. */
+	private long affectedUsers;
+}
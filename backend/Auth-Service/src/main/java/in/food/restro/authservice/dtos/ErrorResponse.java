@@ -2,6 +2,8 @@ package in.food.restro.authservice.dtos;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,5 +20,11 @@ public class ErrorResponse {
     private LocalDateTime timestamp;
     private String path;
 
+    /** Request field that caused the error, only present for field-level errors. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String field;
 
-}
\ No newline at end of file
+    public ErrorResponse(String message, int status, String error, LocalDateTime timestamp, String path) {
+        this(message, status, error, timestamp, path, null);
+    }
+}
@@ -0,0 +1,32 @@
+package in.food.restro.authservice.dtos;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import in.food.restro.authservice.enums.UserChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Change notification delivered to outbox sinks.
+ * {@code user} is the state after the change (never including the password);
+ * {@code role} is set for role assignment and removal. {@code sequence} identifies the event,
+ * {@code version} orders the events of one user: it is the user's change version after it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEvent {
+	private Long sequence;
+	private Long version;
+	private UserChangeType type;
+	private UUID userId;
+	private Instant occurredAt;
+	private String role;
+	private UserDto user;
+}
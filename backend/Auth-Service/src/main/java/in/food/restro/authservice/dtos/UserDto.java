@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import in.food.restro.authservice.entities.Address;
 import in.food.restro.authservice.entities.Role;
 import in.food.restro.authservice.enums.Provider;
@@ -23,6 +25,8 @@ public class UserDto {
 	
 	private UUID id;
 	private String username;
+	// Accepted on create, never written to a response
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	private String password;
 	private String email;
 	private boolean isActive=true;
@@ -41,4 +45,7 @@ public class UserDto {
 	private Provider provider=Provider.LOCAL;
 	
 	private Set<RoleDto> roles=new HashSet<>();
+	
+	// Change version of the user as read; lets consumers order a snapshot against change events
+	private long changeVersion;
 }
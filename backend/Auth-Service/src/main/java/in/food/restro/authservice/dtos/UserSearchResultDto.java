@@ -0,0 +1,22 @@
+package in.food.restro.authservice.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResultDto {
+	private String query;
+	private int page;
+	private int size;
+	private long totalMatches;
+	private List<UserDto> users;
+}
@@ -0,0 +1,28 @@
+package in.food.restro.authservice.dtos;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDto {
+	private long totalUsers;
+	private long activeUsers;
+	private long inactiveUsers;
+	private Map<String, Long> byProvider;
+	private Map<String, Long> byCity;
+	private Map<String, Long> byState;
+	/** Signups per day (ISO date), most recent days only. */
+	private Map<String, Long> signupsPerDay;
+	private Instant generatedAt;
+	private Instant lastReconciledAt;
+}
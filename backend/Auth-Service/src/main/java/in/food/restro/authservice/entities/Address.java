@@ -2,12 +2,15 @@ package in.food.restro.authservice.entities;
 
 import java.util.UUID;
 
+import in.food.restro.authservice.ids.TimeOrderedUuid;
+import in.food.restro.authservice.location.CanonicalLocation;
+import in.food.restro.authservice.location.LocationConverter;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -23,13 +26,45 @@ import lombok.Setter;
 public class Address {
 	@Id
 	@Column(name="user_addr_id")
-	@GeneratedValue(strategy = GenerationType.UUID)
-	private UUID id=UUID.randomUUID();
+	@TimeOrderedUuid
+	private UUID id;
 	private String street;
-	private String city;
-	private String state;
-	private String country;
+	/** Country, state and city, stored as the id of a shared dictionary entry. */
+	@Convert(converter = LocationConverter.class)
+	@Column(name="location_id")
+	private CanonicalLocation location;
 	private String zipCode;
 
+	/*
+	 * The names of addresses written before the dictionary. LocationBackfill moves them onto
+	 * location_id and clears them; until it has reached a row they are read in its place.
+	 * Never written from here. Remove these once every shard reports the backfill complete.
+	 */
 
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@Column(name="city", insertable=false, updatable=false)
+	private String legacyCity;
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@Column(name="state", insertable=false, updatable=false)
+	private String legacyState;
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@Column(name="country", insertable=false, updatable=false)
+	private String legacyCountry;
+
+	public String getCity() {
+		return location != null ? location.city() : legacyCity;
+	}
+
+	public String getState() {
+		return location != null ? location.state() : legacyState;
+	}
+
+	public String getCountry() {
+		return location != null ? location.country() : legacyCountry;
+	}
 }
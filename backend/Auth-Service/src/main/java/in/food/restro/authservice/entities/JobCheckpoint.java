@@ -0,0 +1,49 @@
+package in.food.restro.authservice.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progress of a background job that walks the users table in id order, so that a pass
+ * interrupted by a crash or a per-run limit resumes where it stopped.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name="job_checkpoint")
+public class JobCheckpoint {
+	@Id
+	@Column(name="job_name", length=100)
+	private String name;
+
+	/** Every user id up to and including this one has been processed in the current pass; null before the first chunk. */
+	private UUID position;
+
+	/** Fixed for the whole pass, so a resumed pass applies the same rule. */
+	private Instant cutoff;
+
+	private Instant passStartedAt;
+
+	/** Set when the pass has covered every user; the next pass starts from the beginning. */
+	private Instant passCompletedAt;
+
+	private long rowsScanned;
+
+	private long rowsChanged;
+
+	@Column(nullable=false)
+	private Instant updatedAt;
+}
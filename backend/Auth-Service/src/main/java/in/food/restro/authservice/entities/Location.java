@@ -0,0 +1,43 @@
+package in.food.restro.authservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A canonical country, state and city combination, referenced by addresses through its id.
+ * Read and written by {@link in.food.restro.authservice.location.LocationDictionary}; mapped
+ * here so the schema tooling creates the table on every shard. Missing parts are stored as
+ * empty strings so the unique constraint also covers partial locations.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name="location", uniqueConstraints = @UniqueConstraint(name = "uk_location_name", columnNames = { "country", "state", "city" }))
+public class Location {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name="location_id")
+	private Integer id;
+
+	@Column(nullable=false)
+	private String country;
+
+	@Column(nullable=false)
+	private String state;
+
+	@Column(nullable=false)
+	private String city;
+}
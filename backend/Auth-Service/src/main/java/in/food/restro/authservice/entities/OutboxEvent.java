@@ -0,0 +1,74 @@
+package in.food.restro.authservice.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import in.food.restro.authservice.enums.UserChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A user change event written in the same transaction as the change itself.
+ * The id is the delivery sequence: the dispatcher reads pending rows in id order. Ids are
+ * allocated in blocks per instance and do not follow commit order, so the events of one user
+ * are ordered by {@code userVersion}, the user's change version the event was written with.
+ * <p>
+ * A row is pending until it is dispatched or parked. {@code nextAttemptAt} holds back a row
+ * that a dispatcher has claimed, or whose last delivery failed, until that time.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name="user_outbox", indexes = {
+		@Index(name = "idx_user_outbox_pending", columnList = "dispatched_at, parked_at, outbox_id"),
+		@Index(name = "idx_user_outbox_user", columnList = "user_id, user_version")
+})
+public class OutboxEvent {
+	@Id
+	@Column(name="outbox_id")
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_outbox_seq")
+	@SequenceGenerator(name = "user_outbox_seq", sequenceName = "user_outbox_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name="user_id", nullable=false)
+	private UUID userId;
+
+	/** {@code users.change_version} after this change; ascends with the commit order of the user's changes. */
+	@Column(name="user_version", nullable=false, columnDefinition = "bigint default 0")
+	private long userVersion;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable=false, length=32)
+	private UserChangeType eventType;
+
+	@Column(columnDefinition = "text", nullable=false)
+	private String payload;
+
+	@Column(nullable=false)
+	private Instant createdAt;
+
+	private Instant dispatchedAt;
+
+	private int attempts;
+
+	private Instant nextAttemptAt;
+
+	/** Set when the event was given up on: undecodable, or out of attempts. */
+	private Instant parkedAt;
+}
@@ -2,10 +2,9 @@ package in.food.restro.authservice.entities;
 
 import java.util.UUID;
 
+import in.food.restro.authservice.ids.TimeOrderedUuid;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -24,7 +23,7 @@ import lombok.Setter;
 public class Role {
 	@Id
 	@Column(name="user_role_id")
-	@GeneratedValue(strategy = GenerationType.UUID)
+	@TimeOrderedUuid
 	private UUID id;
 	
 	@Column(name="User_role_name",unique = true, nullable=false)
@@ -4,16 +4,17 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.stereotype.Component;
 import in.food.restro.authservice.enums.Provider;
+import in.food.restro.authservice.ids.TimeOrderedUuid;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
@@ -22,6 +23,7 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -36,23 +38,35 @@ import lombok.ToString;
 @Builder
 @ToString
 @Entity
-@Table(name="users")
+@Table(name="users", uniqueConstraints = {
+		@UniqueConstraint(name = User.UK_USERNAME, columnNames = "user_name"),
+		@UniqueConstraint(name = User.UK_EMAIL, columnNames = "user_email"),
+		@UniqueConstraint(name = User.UK_PHONE_NUMBER, columnNames = "mobile")
+})
+@SQLRestriction("deleted = false")
+// UPDATEs name only the changed columns, so a profile edit never rewrites the unique keys or other fields
+@DynamicUpdate
 @Component
 public class User {
+	/** Named unique constraints, so a violation can be traced back to the offending field. */
+	public static final String UK_USERNAME = "uk_users_user_name";
+	public static final String UK_EMAIL = "uk_users_user_email";
+	public static final String UK_PHONE_NUMBER = "uk_users_mobile";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.UUID)
+	@TimeOrderedUuid
 	@Column(name="user_id")
 	private UUID id;
 	
-	@Column(name="user_name", unique=true)
+	@Column(name="user_name")
 	private String username;
 	
 	private String password;
-	@Column(name="user_email",unique=true)
+	@Column(name="user_email")
 	private String email;
 	
 	private boolean isActive=true;
-	@Column(name="mobile", unique=true)
+	@Column(name="mobile")
 	private String phoneNumber;
 	private String dob;
 	private String gender;
@@ -74,7 +88,8 @@ public class User {
 	@Enumerated(EnumType.STRING)
 	private Provider provider=Provider.LOCAL;
 	
-	@ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	// Roles are shared between users, so removing a user must never cascade to them
+	@ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.EAGER)
 	@JoinTable(name="user_user_roles",
 		joinColumns = @JoinColumn(name="user_id"),
 		inverseJoinColumns = @JoinColumn(name="user_role_id")
@@ -82,6 +97,20 @@ public class User {
 	@Builder.Default
 	private Set<Role> roles=new HashSet<>();
 	
+	/** Soft-delete marker; deleted users are invisible to every query and purged in the background. */
+	// The default lets schema updates add the column to a populated table
+	@Column(nullable=false, columnDefinition = "boolean default false")
+	private boolean deleted;
+	private Instant deletedAt;
+	
+	/**
+	 * Bumped by the outbox for every change event of the user, in the transaction writing it. The
+	 * row lock taken to bump it orders the events of a user by commit, which outbox ids do not.
+	 */
+	@Column(name="change_version", nullable=false, insertable=false, updatable=false,
+			columnDefinition = "bigint default 0")
+	private long changeVersion;
+	
 	@PrePersist
 	protected void oncreate() {
 		Instant now=Instant.now();
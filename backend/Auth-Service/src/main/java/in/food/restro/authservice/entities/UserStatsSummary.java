@@ -0,0 +1,41 @@
+package in.food.restro.authservice.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checkpoint of one user statistics counter, e.g. dimension {@code PROVIDER}, bucket {@code GOOGLE}.
+ * Lets a restarted instance answer stats requests before its first full recount has finished.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name="user_stats_summary")
+public class UserStatsSummary {
+	@Id
+	@Column(name="stat_key", length=200)
+	private String key;
+
+	@Column(nullable=false, length=32)
+	private String dimension;
+
+	@Column(nullable=false, length=160)
+	private String bucket;
+
+	private long userCount;
+
+	@Column(nullable=false)
+	private Instant checkpointedAt;
+}
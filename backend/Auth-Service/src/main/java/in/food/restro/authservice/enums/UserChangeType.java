@@ -0,0 +1,13 @@
+package in.food.restro.authservice.enums;
+
+public enum UserChangeType {
+	CREATED,
+	UPDATED,
+	DELETED,
+	ACTIVATED,
+	DEACTIVATED,
+	ROLE_ASSIGNED,
+	ROLE_REMOVED,
+	PASSWORD_CHANGED,
+	LAST_LOGIN_UPDATED
+}
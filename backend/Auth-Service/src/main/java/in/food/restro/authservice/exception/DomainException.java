@@ -0,0 +1,22 @@
+package in.food.restro.authservice.exception;
+
+/**
+ * Base class of the expected failures of the user domain: missing resources, conflicts and
+ * exhausted rate limits.
+ * <p>
+ * These are control flow rather than bugs. Each one is mapped to a 4xx response by
+ * {@link GlobalExceptionHandler} and is never logged with a trace, so filling in the stack on
+ * construction would only cost time on hot paths such as lookups of nonexistent users.
+ * Subclasses are therefore created without a stack trace or suppression list. A cause, when
+ * given, keeps its own trace.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        this(message, null);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -4,8 +4,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.CONFLICT)
-public class DuplicateResourceException extends RuntimeException {
+public class DuplicateResourceException extends DomainException {
+
+    /** Name of the request field holding the conflicting value, if known. */
+    private final String field;
+
     public DuplicateResourceException(String message) {
+        this(null, message);
+    }
+
+    public DuplicateResourceException(String field, String message) {
         super(message);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
     }
-}
\ No newline at end of file
+}
@@ -2,12 +2,21 @@ package in.food.restro.authservice.exception;
 
 import in.food.restro.authservice.dtos.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -15,27 +24,120 @@ import java.util.Optional;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Budget for the 4xx lines below. Crawlers and stale links can hit the not-found path
+     * thousands of times a second; one line per kind every few seconds is enough to notice.
+     */
+    private static final RateLimitedLogger CLIENT_ERRORS = new RateLimitedLogger(log, 10, Duration.ofSeconds(10));
+
+    /** Budget for unexpected failures, which are still logged with their stack trace. */
+    private static final RateLimitedLogger SERVER_ERRORS = new RateLimitedLogger(log, 20, Duration.ofSeconds(10));
+
     /**
      * Handles Custom UserNotFoundException (HTTP 404).
      * This is much cleaner than checking string contains("not found").
      */
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException ex, WebRequest request) {
+        return notFound(ex, request);
+    }
+
+    /**
+     * Handles RoleNotFoundException (HTTP 404).
+     */
+    @ExceptionHandler(RoleNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleRoleNotFound(RoleNotFoundException ex, WebRequest request) {
+        return notFound(ex, request);
+    }
+
+    /**
+     * Handles ResourceNotFoundException (HTTP 404).
+     * Without this it fell through to the RuntimeException handler and missing users came back as 500.
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex, WebRequest request) {
+        return notFound(ex, request);
+    }
+
+    /**
+     * Handles DuplicateResourceException (HTTP 409).
+     * Carries the name of the conflicting field so clients can highlight it.
+     */
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateResource(DuplicateResourceException ex, WebRequest request) {
         String path = extractPath(request);
-        log.warn("User lookup failed at path [{}]: {}", path, ex.getMessage());
-        return createErrorResponse(ex, HttpStatus.NOT_FOUND, path);
+        CLIENT_ERRORS.log(Level.WARN, "conflict", "Duplicate resource at path [{}]: field={}, {}",
+                path, ex.getField(), ex.getMessage());
+        ResponseEntity<ErrorResponse> response = createErrorResponse(ex, HttpStatus.CONFLICT, path);
+        response.getBody().setField(ex.getField());
+        return response;
+    }
+
+    /**
+     * Handles RateLimitExceededException (HTTP 429).
+     * Sets Retry-After so well-behaved clients back off for the right amount of time.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex, WebRequest request) {
+        String path = extractPath(request);
+        log.debug("Rate limit exceeded at path [{}]: {}", path, ex.getMessage());
+        ResponseEntity<ErrorResponse> response = createErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS, path);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    /**
+     * Handles ServiceOverloadedException (HTTP 503).
+     * Shedding is meant to be cheap, so this is only logged at debug level; the shed counters are the signal.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(ServiceOverloadedException ex, WebRequest request) {
+        String path = extractPath(request);
+        log.debug("Request shed at path [{}]: {}", path, ex.getMessage());
+        ResponseEntity<ErrorResponse> response = createErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, path);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
     }
 
     /**
-     * Handles IllegalArgumentException (HTTP 400).
+     * Handles IllegalArgumentException (HTTP 400), which includes malformed UUIDs in path variables.
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
         String path = extractPath(request);
-        log.warn("Invalid argument at path [{}]: {}", path, ex.getMessage());
+        CLIENT_ERRORS.log(Level.WARN, "bad-request", "Invalid argument at path [{}]: {}", path, ex.getMessage());
         return createErrorResponse(ex, HttpStatus.BAD_REQUEST, path);
     }
 
+    /**
+     * Handles unreadable bodies, unconvertible parameters and missing parameters (HTTP 400).
+     * These used to reach the RuntimeException and Exception handlers and were answered with a 500.
+     */
+    @ExceptionHandler({
+            HttpMessageNotReadableException.class,
+            MethodArgumentTypeMismatchException.class,
+            MissingServletRequestParameterException.class,
+            MissingServletRequestPartException.class,
+            MultipartException.class
+    })
+    public ResponseEntity<ErrorResponse> handleMalformedRequest(Exception ex, WebRequest request) {
+        String path = extractPath(request);
+        CLIENT_ERRORS.log(Level.WARN, "bad-request", "Malformed request at path [{}]: {}", path, ex.getMessage());
+        return createErrorResponse(ex, HttpStatus.BAD_REQUEST, path);
+    }
+
+    /**
+     * Handles uploads beyond spring.servlet.multipart.max-file-size (HTTP 413).
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSize(MaxUploadSizeExceededException ex, WebRequest request) {
+        String path = extractPath(request);
+        CLIENT_ERRORS.log(Level.WARN, "too-large", "Upload too large at path [{}]: {}", path, ex.getMessage());
+        return createErrorResponse(ex, HttpStatus.PAYLOAD_TOO_LARGE, path);
+    }
+
     /**
      * Handles generic RuntimeException (HTTP 500).
      * Now strictly for unexpected runtime issues.
@@ -43,7 +145,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex, WebRequest request) {
         String path = extractPath(request);
-        log.error("Runtime exception at path [{}]: {}", path, ex.getMessage(), ex);
+        SERVER_ERRORS.log(Level.ERROR, "runtime", "Runtime exception at path [{}]: {}", path, ex.getMessage(), ex);
         return createErrorResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, path);
     }
 
@@ -53,7 +155,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
         String path = extractPath(request);
-        log.error("Unexpected system error at path [{}]: {}", path, ex.getMessage(), ex);
+        SERVER_ERRORS.log(Level.ERROR, "unexpected", "Unexpected system error at path [{}]: {}",
+                path, ex.getMessage(), ex);
 
         String customMessage = "An unexpected error occurred: " + 
                                Optional.ofNullable(ex.getMessage()).orElse("No details available");
@@ -73,6 +176,12 @@ public class GlobalExceptionHandler {
     // Private Helper Methods
     // -------------------------------------------------------------------------
 
+    private ResponseEntity<ErrorResponse> notFound(ResourceNotFoundException ex, WebRequest request) {
+        String path = extractPath(request);
+        CLIENT_ERRORS.log(Level.WARN, "not-found", "Lookup failed at path [{}]: {}", path, ex.getMessage());
+        return createErrorResponse(ex, HttpStatus.NOT_FOUND, path);
+    }
+
     private ResponseEntity<ErrorResponse> createErrorResponse(Exception ex, HttpStatus status, String path) {
         ErrorResponse errorResponse = new ErrorResponse(
                 Optional.ofNullable(ex.getMessage()).orElse("Error occurred"),
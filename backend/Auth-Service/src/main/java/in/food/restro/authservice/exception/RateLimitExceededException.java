@@ -0,0 +1,22 @@
+package in.food.restro.authservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a client exceeds the request budget of a rate-limited endpoint group.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends DomainException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String group, long retryAfterSeconds) {
+        super("Too many requests to '" + group + "' endpoints, retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
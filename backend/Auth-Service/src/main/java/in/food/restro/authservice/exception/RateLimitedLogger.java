@@ -0,0 +1,91 @@
+package in.food.restro.authservice.exception;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Wraps a logger so that each kind of message is written at most a fixed number of times per
+ * time window.
+ * <p>
+ * Error paths driven by clients, such as crawlers requesting users that do not exist, can
+ * produce thousands of identical lines a second. Messages beyond the budget of their kind are
+ * only counted, and the count is reported once when the next window opens. The budget is
+ * approximate under contention, which is fine for logging.
+ * <p>
+ * Kinds are meant to be a small fixed set of names chosen by the caller, not request data.
+ */
+public final class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int permitsPerWindow;
+    private final long windowNanos;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger logger, int permitsPerWindow, Duration window) {
+        if (permitsPerWindow < 1 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("permitsPerWindow and window must be positive");
+        }
+        this.logger = logger;
+        this.permitsPerWindow = permitsPerWindow;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Logs the message unless its kind has used up the budget of the current window.
+     * As with SLF4J, a trailing {@link Throwable} argument is logged with its stack trace.
+     *
+     * @param level The level to log at.
+     * @param kind Name of the kind of message the budget applies to.
+     * @param format The SLF4J message format.
+     * @param arguments The format arguments.
+     */
+    public void log(Level level, String kind, String format, Object... arguments) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+        Window window = windows.computeIfAbsent(kind, k -> new Window(System.nanoTime()));
+        long suppressed = window.rollIfExpired(System.nanoTime(), windowNanos);
+        if (suppressed > 0) {
+            logger.atLevel(level).log("Suppressed {} '{}' log messages in the last {}s",
+                    suppressed, kind, Duration.ofNanos(windowNanos).toSeconds());
+        }
+        if (window.tryAcquire(permitsPerWindow)) {
+            logger.atLevel(level).log(format, arguments);
+        }
+    }
+
+    private static final class Window {
+
+        private final AtomicLong startedAt;
+        private final AtomicInteger used = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        Window(long now) {
+            this.startedAt = new AtomicLong(now);
+        }
+
+        /** Starts a new window if the current one is over; returns how many messages the old one dropped. */
+        long rollIfExpired(long now, long windowNanos) {
+            long start = startedAt.get();
+            if (now - start < windowNanos || !startedAt.compareAndSet(start, now)) {
+                return 0;
+            }
+            used.set(0);
+            return suppressed.getAndSet(0);
+        }
+
+        boolean tryAcquire(int permits) {
+            if (used.get() < permits && used.incrementAndGet() <= permits) {
+                return true;
+            }
+            suppressed.incrementAndGet();
+            return false;
+        }
+    }
+}
@@ -1,16 +1,53 @@
 package in.food.restro.authservice.exception;
 
-public class ResourceNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a looked-up resource does not exist (HTTP 404).
+ * <p>
+ * When created from a resource name, a field and a value, the message is only assembled if
+ * something actually reads it, which most 404 responses on the hot path never need twice.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ResourceNotFoundException extends DomainException {
+
+	private final String resource;
+	private final String field;
+	private final Object value;
 
 	public ResourceNotFoundException(String message) {
-		super(message);
+		this(message, null);
 	}
 	
 	public ResourceNotFoundException() {
-		super("Resource Not Found");
+		this("Resource Not Found");
 	}
 	
 	public ResourceNotFoundException(String message, Throwable cause) {
 		super(message, cause);
+		this.resource = null;
+		this.field = null;
+		this.value = null;
+	}
+
+	/**
+	 * @param resource Name of the missing resource, e.g. {@code "User"}.
+	 * @param field The field it was looked up by, e.g. {@code "id"}.
+	 * @param value The value that matched nothing.
+	 */
+	public ResourceNotFoundException(String resource, String field, Object value) {
+		super(null);
+		this.resource = resource;
+		this.field = field;
+		this.value = value;
+	}
+
+	@Override
+	public String getMessage() {
+		if (resource == null) {
+			return super.getMessage();
+		}
+		return resource + " not found with " + field + ": " + value;
 	}
 }
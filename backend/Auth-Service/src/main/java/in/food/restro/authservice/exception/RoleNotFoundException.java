@@ -4,8 +4,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class RoleNotFoundException extends RuntimeException {
+public class RoleNotFoundException extends ResourceNotFoundException {
     public RoleNotFoundException(String message) {
         super(message);
     }
-}
\ No newline at end of file
+
+    public RoleNotFoundException(String field, Object value) {
+        super("Role", field, value);
+    }
+}
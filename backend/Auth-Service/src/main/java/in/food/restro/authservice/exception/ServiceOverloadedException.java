@@ -0,0 +1,15 @@
+package in.food.restro.authservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an operation is shed because the service is at its concurrency limit.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends DomainException {
+
+    public ServiceOverloadedException(String operation) {
+        super("Service is overloaded, '" + operation + "' was not started");
+    }
+}
@@ -0,0 +1,64 @@
+package in.food.restro.authservice.exception;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import in.food.restro.authservice.entities.User;
+
+/**
+ * Translates unique constraint violations raised by the database on the {@code users} table
+ * into a {@link DuplicateResourceException} naming the conflicting field.
+ * <p>
+ * Registration relies on the unique constraints instead of pre-check queries, so the
+ * violation is the only signal of a duplicate. The constraint name is matched first; the
+ * column name in the driver message is used as a fallback for databases whose constraints
+ * were generated before they were given explicit names.
+ */
+public final class UniqueConstraintTranslator {
+
+    private UniqueConstraintTranslator() {
+    }
+
+    /**
+     * Resolves the violated unique constraint of the given exception.
+     *
+     * @param ex The exception thrown while flushing a {@link User}.
+     * @return The matching DuplicateResourceException, or empty if the violation is not a known unique key.
+     */
+    public static Optional<DuplicateResourceException> translate(DataIntegrityViolationException ex) {
+        String constraint = constraintName(ex);
+        String message = Optional.ofNullable(ex.getMostSpecificCause().getMessage()).orElse("").toLowerCase(Locale.ROOT);
+
+        if (matches(constraint, message, User.UK_EMAIL, "user_email")) {
+            return Optional.of(new DuplicateResourceException("email", "Email already exists."));
+        }
+        if (matches(constraint, message, User.UK_USERNAME, "user_name")) {
+            return Optional.of(new DuplicateResourceException("username", "Username already exists."));
+        }
+        if (matches(constraint, message, User.UK_PHONE_NUMBER, "mobile")) {
+            return Optional.of(new DuplicateResourceException("phoneNumber", "Phone number already exists."));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean matches(String constraint, String message, String constraintName, String column) {
+        if (constraint != null && constraint.contains(constraintName)) {
+            return true;
+        }
+        return message.contains(constraintName) || message.contains("(" + column);
+    }
+
+    private static String constraintName(DataIntegrityViolationException ex) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException cve
+                    && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            cause = cause.getCause();
+        }
+        return null;
+    }
+}
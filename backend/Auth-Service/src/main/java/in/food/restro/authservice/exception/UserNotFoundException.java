@@ -9,9 +9,17 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * it still defaults to a 404.
  */
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends ResourceNotFoundException {
     
     public UserNotFoundException(String message) {
         super(message);
     }
-}
\ No newline at end of file
+
+    /**
+     * @param field The field the user was looked up by.
+     * @param value The value that matched no user.
+     */
+    public UserNotFoundException(String field, Object value) {
+        super("User", field, value);
+    }
+}
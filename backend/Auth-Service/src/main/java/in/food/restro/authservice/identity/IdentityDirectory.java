@@ -0,0 +1,187 @@
+package in.food.restro.authservice.identity;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Resolves a username, email or phone number to the id of its user without a query.
+ * <p>
+ * Keys are normalized (whitespace dropped, lower case, and for phone numbers also the usual
+ * separators) and hashed with their kind into a 64-bit fingerprint; only the fingerprint and
+ * the id are kept, in an off-heap {@link IdentityTable}. That is 34 to 69 bytes per key, depending
+ * on how full the table is between two doublings, so 100 to 200 bytes per user outside the Java
+ * heap: size {@code -XX:MaxDirectMemorySize} accordingly.
+ * <p>
+ * An id found here is a candidate only: two keys may share a fingerprint, normalization is
+ * looser than the exact match of the repository, and other instances change users without
+ * telling this one. Callers load the user by id and check the key, and report a mismatch with
+ * {@link #evict}. A miss is not authoritative either; callers fall back to the query.
+ * <p>
+ * Kept current by {@link IdentityDirectoryLoader} at startup and by every user mutation of
+ * this instance through {@link #record}, applied once the transaction commits.
+ * <p>
+ * The table starts at {@code app.identity.expected-users} and doubles as it fills, holding
+ * the old and the new slots while it copies. With {@code app.identity.enabled=false} nothing is
+ * allocated and every lookup misses, so callers always query.
+ */
+@Component
+public class IdentityDirectory {
+
+    public enum Kind {
+        USERNAME, EMAIL, PHONE
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final IdentityTable table;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+
+    public IdentityDirectory(MeterRegistry meterRegistry,
+            @Value("${app.identity.enabled:true}") boolean enabled,
+            @Value("${app.identity.expected-users:10000}") long expectedUsers) {
+        this.table = enabled ? new IdentityTable(expectedUsers * KINDS.length) : null;
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.stale = lookups(meterRegistry, "stale");
+        if (table == null) {
+            return;
+        }
+        Gauge.builder("auth.identity.entries", table, IdentityTable::size)
+                .description("Keys held by the identity directory")
+                .register(meterRegistry);
+        Gauge.builder("auth.identity.memory", table, IdentityTable::offHeapBytes)
+                .description("Off-heap bytes reserved by the identity directory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return table != null;
+    }
+
+    /**
+     * @return The candidate id for the key, or null if the directory has none.
+     */
+    public UUID find(Kind kind, String value) {
+        if (table == null || value == null) {
+            return null;
+        }
+        UUID id = table.get(fingerprint(kind, value));
+        (id != null ? hits : misses).increment();
+        return id;
+    }
+
+    /**
+     * Stores the key of a user found by query, e.g. one created on another instance.
+     */
+    public void put(Kind kind, String value, UUID id) {
+        if (table != null && value != null && !value.isBlank()) {
+            table.put(fingerprint(kind, value), id);
+        }
+    }
+
+    /**
+     * Drops an entry that turned out not to belong to the key looked up.
+     */
+    public void evict(Kind kind, String value, UUID id) {
+        if (table == null) {
+            return;
+        }
+        table.remove(fingerprint(kind, value), id);
+        stale.increment();
+    }
+
+    /**
+     * Adds the keys of a user loaded in bulk, without overwriting entries that changes applied
+     * in the meantime.
+     */
+    public void load(IdentityKeys user) {
+        if (table == null) {
+            return;
+        }
+        for (Kind kind : KINDS) {
+            String value = user.value(kind);
+            if (value != null && !value.isBlank()) {
+                table.putIfAbsent(fingerprint(kind, value), user.id());
+            }
+        }
+    }
+
+    /**
+     * Records a change of a user's keys from {@code before} to {@code after}; either side is
+     * {@code null} for a create or delete. Inside a transaction the directory changes only
+     * after it commits.
+     */
+    public void record(IdentityKeys before, IdentityKeys after) {
+        if (table == null || Objects.equals(before, after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    public long size() {
+        return table != null ? table.size() : 0;
+    }
+
+    private void apply(IdentityKeys before, IdentityKeys after) {
+        for (Kind kind : KINDS) {
+            String oldValue = before != null ? before.value(kind) : null;
+            String newValue = after != null ? after.value(kind) : null;
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (oldValue != null) {
+                table.remove(fingerprint(kind, oldValue), before.id());
+            }
+            put(kind, newValue, after != null ? after.id() : null);
+        }
+    }
+
+    /**
+     * Hashes the normalized key without materializing it: FNV-1a over the kept characters,
+     * seeded by the kind, then the MurmurHash3 finalizer so the low bits pick slots evenly.
+     */
+    static long fingerprint(Kind kind, String value) {
+        long hash = 0xcbf29ce484222325L ^ (kind.ordinal() + 1) * 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c) || (kind == Kind.PHONE && (c == '-' || c == '(' || c == ')' || c == '.'))) {
+                continue;
+            }
+            hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash != 0 ? hash : 1;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.identity.lookups")
+                .description("Identity directory lookups by result; stale hits were not confirmed by the user row")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
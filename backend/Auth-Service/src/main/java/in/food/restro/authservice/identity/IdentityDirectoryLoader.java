@@ -0,0 +1,76 @@
+package in.food.restro.authservice.identity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import in.food.restro.authservice.repositories.UserIdentityView;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk-loads {@link IdentityDirectory} from the {@code users} table of every shard in the
+ * background once the application is ready. Until it finishes, lookups simply miss more often.
+ */
+@Component
+@Slf4j
+public class IdentityDirectoryLoader {
+
+    private final IdentityDirectory directory;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final int pageSize;
+
+    public IdentityDirectoryLoader(IdentityDirectory directory, UserRepository userRepository, ShardRouter shardRouter,
+            @Value("${app.identity.load-page-size:5000}") int pageSize) {
+        this.directory = directory;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!directory.isEnabled()) {
+            return;
+        }
+        Thread.ofVirtual().name("identity-directory-load").start(this::load);
+    }
+
+    /**
+     * Scans the users table of every shard in id order and adds every key not present yet.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            shardRouter.forEachShard(shard -> {
+                UUID after = new UUID(0, 0);
+                while (true) {
+                    List<UserIdentityView> page = userRepository.findIdentitiesAfter(after, PageRequest.of(0, pageSize));
+                    for (UserIdentityView user : page) {
+                        directory.load(new IdentityKeys(user.getId(), user.getUsername(), user.getEmail(),
+                                user.getPhoneNumber()));
+                    }
+                    loaded.addAndGet(page.size());
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    after = page.get(page.size() - 1).getId();
+                }
+            });
+            log.info("Identity: Loaded {} users ({} keys) in {} ms", loaded.get(), directory.size(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException ex) {
+            log.error("Identity: Directory load failed after {} users: {}", loaded.get(), ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package in.food.restro.authservice.identity;
+
+import java.util.UUID;
+
+import in.food.restro.authservice.entities.User;
+
+/**
+ * The login identifiers of a user that {@link IdentityDirectory} resolves to its id.
+ */
+public record IdentityKeys(UUID id, String username, String email, String phoneNumber) {
+
+    public static IdentityKeys of(User user) {
+        return new IdentityKeys(user.getId(), user.getUsername(), user.getEmail(), user.getPhoneNumber());
+    }
+
+    String value(IdentityDirectory.Kind kind) {
+        return switch (kind) {
+            case USERNAME -> username;
+            case EMAIL -> email;
+            case PHONE -> phoneNumber;
+        };
+    }
+}
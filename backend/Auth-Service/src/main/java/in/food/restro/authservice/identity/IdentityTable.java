@@ -0,0 +1,265 @@
+package in.food.restro.authservice.identity;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from 64-bit key fingerprints to user ids, stored off-heap.
+ * <p>
+ * A slot is 24 bytes: the fingerprint followed by the two halves of the id, so the table
+ * costs {@code 24 / load factor} bytes per entry and the garbage collector sees a handful of
+ * buffer objects no matter how many entries it holds. Slots live in direct buffers of at most
+ * 2<sup>25</sup> slots (768 MiB), since a single buffer is limited to 2 GiB. Collisions are
+ * resolved by linear probing and removal shifts the following entries back, so there are no
+ * tombstones and lookups never degrade with churn.
+ * <p>
+ * Fingerprint 0 marks an empty slot; callers map a zero hash to another value. Two keys with
+ * the same fingerprint share a slot, so a lookup result is a candidate that the caller must
+ * verify against the key itself.
+ * <p>
+ * Lookups are optimistic reads that retry under a read lock only if a writer interfered;
+ * writers are serialized.
+ */
+public class IdentityTable {
+
+    static final int SLOT_BYTES = 24;
+    private static final int PAGE_SHIFT = 25;
+    private static final double MAX_LOAD = 0.7;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Slots slots;
+    private long size;
+
+    /**
+     * @param expectedEntries Entries the table should hold without growing.
+     */
+    public IdentityTable(long expectedEntries) {
+        this.slots = new Slots(capacityFor(Math.max(expectedEntries, 16)));
+    }
+
+    /**
+     * @return The id stored for the fingerprint, or null.
+     */
+    public UUID get(long fingerprint) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            UUID id = slots.get(fingerprint);
+            if (lock.validate(stamp)) {
+                return id;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return slots.get(fingerprint);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores the id for the fingerprint, replacing any previous one.
+     */
+    public void put(long fingerprint, UUID id) {
+        put(fingerprint, id, true);
+    }
+
+    /**
+     * Stores the id only if the fingerprint has none yet.
+     *
+     * @return Whether the id was stored.
+     */
+    public boolean putIfAbsent(long fingerprint, UUID id) {
+        return put(fingerprint, id, false);
+    }
+
+    /**
+     * Removes the entry of the fingerprint if it holds the given id.
+     *
+     * @return Whether an entry was removed.
+     */
+    public boolean remove(long fingerprint, UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            if (slots.remove(fingerprint, id)) {
+                size--;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long capacity() {
+        return slots.mask + 1;
+    }
+
+    public long offHeapBytes() {
+        return capacity() * SLOT_BYTES;
+    }
+
+    private boolean put(long fingerprint, UUID id, boolean replace) {
+        requireFingerprint(fingerprint);
+        long stamp = lock.writeLock();
+        try {
+            Slots current = slots;
+            if (size + 1 > (current.mask + 1) * MAX_LOAD) {
+                current = grow(current);
+            }
+            int result = current.put(fingerprint, id, replace);
+            if (result > 0) {
+                size++;
+            }
+            return result >= 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Slots grow(Slots current) {
+        Slots grown = new Slots((current.mask + 1) * 2);
+        for (long slot = 0; slot <= current.mask; slot++) {
+            long fingerprint = current.fingerprint(slot);
+            if (fingerprint != 0) {
+                grown.put(fingerprint, current.id(slot), true);
+            }
+        }
+        slots = grown;
+        return grown;
+    }
+
+    private static long capacityFor(long entries) {
+        long needed = (long) Math.ceil(entries / MAX_LOAD);
+        return Long.highestOneBit(needed - 1) << 1;
+    }
+
+    private static void requireFingerprint(long fingerprint) {
+        if (fingerprint == 0) {
+            throw new IllegalArgumentException("Fingerprint 0 marks empty slots");
+        }
+    }
+
+    /**
+     * The slot array of one table size, replaced as a whole when the table grows.
+     */
+    private static final class Slots {
+
+        private final ByteBuffer[] pages;
+        private final long mask;
+        private final long pageMask;
+
+        Slots(long capacity) {
+            this.mask = capacity - 1;
+            long slotsPerPage = Math.min(capacity, 1L << PAGE_SHIFT);
+            this.pageMask = slotsPerPage - 1;
+            this.pages = new ByteBuffer[(int) (capacity / slotsPerPage)];
+            for (int page = 0; page < pages.length; page++) {
+                pages[page] = ByteBuffer.allocateDirect((int) (slotsPerPage * SLOT_BYTES)).order(ByteOrder.nativeOrder());
+            }
+        }
+
+        UUID get(long fingerprint) {
+            // Bounded, so a read racing with a writer cannot spin; the caller discards its result
+            for (long probe = 0, slot = fingerprint & mask; probe <= mask; probe++, slot = (slot + 1) & mask) {
+                long stored = fingerprint(slot);
+                if (stored == 0) {
+                    return null;
+                }
+                if (stored == fingerprint) {
+                    return id(slot);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return 1 if a new entry was added, 0 if an existing one was replaced, -1 if it was kept.
+         */
+        int put(long fingerprint, UUID id, boolean replace) {
+            for (long slot = fingerprint & mask; ; slot = (slot + 1) & mask) {
+                long stored = fingerprint(slot);
+                if (stored == fingerprint) {
+                    if (!replace) {
+                        return -1;
+                    }
+                    write(slot, fingerprint, id.getMostSignificantBits(), id.getLeastSignificantBits());
+                    return 0;
+                }
+                if (stored == 0) {
+                    write(slot, fingerprint, id.getMostSignificantBits(), id.getLeastSignificantBits());
+                    return 1;
+                }
+            }
+        }
+
+        boolean remove(long fingerprint, UUID id) {
+            long slot = fingerprint & mask;
+            while (true) {
+                long stored = fingerprint(slot);
+                if (stored == 0) {
+                    return false;
+                }
+                if (stored == fingerprint) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (!id.equals(id(slot))) {
+                return false;
+            }
+            // Shift back every following entry of the run whose home slot does not lie between the gap and itself
+            long gap = slot;
+            for (long next = (gap + 1) & mask; ; next = (next + 1) & mask) {
+                long stored = fingerprint(next);
+                if (stored == 0) {
+                    break;
+                }
+                long home = stored & mask;
+                boolean stays = gap <= next ? (home > gap && home <= next) : (home > gap || home <= next);
+                if (!stays) {
+                    write(gap, stored, page(next).getLong(offset(next) + 8), page(next).getLong(offset(next) + 16));
+                    gap = next;
+                }
+            }
+            write(gap, 0, 0, 0);
+            return true;
+        }
+
+        long fingerprint(long slot) {
+            return page(slot).getLong(offset(slot));
+        }
+
+        UUID id(long slot) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            return new UUID(page.getLong(offset + 8), page.getLong(offset + 16));
+        }
+
+        private void write(long slot, long fingerprint, long mostSigBits, long leastSigBits) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            page.putLong(offset + 8, mostSigBits);
+            page.putLong(offset + 16, leastSigBits);
+            page.putLong(offset, fingerprint);
+        }
+
+        private ByteBuffer page(long slot) {
+            return pages[(int) (slot >>> PAGE_SHIFT)];
+        }
+
+        private int offset(long slot) {
+            return (int) ((slot & pageMask) * SLOT_BYTES);
+        }
+    }
+}
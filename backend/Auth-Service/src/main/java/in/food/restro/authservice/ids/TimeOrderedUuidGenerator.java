@@ -0,0 +1,58 @@
+package in.food.restro.authservice.ids;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/**
+ * Generates UUIDv7 identifiers (RFC 9562): a 48-bit Unix millisecond timestamp, followed by
+ * 12 bits of sub-millisecond time and 62 random bits.
+ * <p>
+ * Ids created later sort after earlier ones, so inserts append to the right edge of the
+ * primary key and join table indexes instead of landing on random pages. The ids are still
+ * ordinary {@link UUID}s in the canonical text form. No state is shared between threads: the
+ * clock and {@link ThreadLocalRandom} are all it reads.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return currentValue != null ? currentValue : next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    /**
+     * Creates a UUIDv7 for the current time.
+     */
+    public static UUID next() {
+        return create(Instant.now(), ThreadLocalRandom.current().nextLong());
+    }
+
+    static UUID create(Instant time, long random) {
+        long millis = time.toEpochMilli();
+        // Fraction of the current millisecond in 1/4096 steps, so ids within a millisecond still ascend
+        long subMillis = (time.getNano() % 1_000_000L) * 4096 / 1_000_000L;
+        long mostSignificant = (millis & 0xFFFF_FFFF_FFFFL) << 16 | VERSION_7 | subMillis;
+        long leastSignificant = VARIANT_RFC | (random & 0x3FFF_FFFF_FFFF_FFFFL);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,14 @@
+package in.food.restro.authservice.images;
+
+import java.nio.file.Path;
+
+/**
+ * A file to send in response to an image request.
+ *
+ * @param path The file.
+ * @param etag Strong entity tag, quoted.
+ * @param mediaType Content type of the file.
+ * @param immutable Whether the content at this URL can never change, so caches may keep it indefinitely.
+ */
+public record ImageFile(Path path, String etag, String mediaType, boolean immutable) {
+}
@@ -0,0 +1,59 @@
+package in.food.restro.authservice.images;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Image formats accepted for profile images, recognised by their leading bytes rather
+ * than by what the client claims.
+ */
+public enum ImageFormat {
+
+    JPEG("jpg", "image/jpeg", "jpg", new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF }),
+    PNG("png", "image/png", "png", new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' }),
+    // Thumbnails of GIFs are PNGs: only the first frame is kept anyway
+    GIF("gif", "image/gif", "png", new byte[] { 'G', 'I', 'F', '8' });
+
+    /** Longest signature, the number of bytes needed to detect a format. */
+    static final int SIGNATURE_LENGTH = 8;
+
+    private final String extension;
+    private final String mediaType;
+    private final String thumbnailExtension;
+    private final byte[] signature;
+
+    ImageFormat(String extension, String mediaType, String thumbnailExtension, byte[] signature) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+        this.thumbnailExtension = thumbnailExtension;
+        this.signature = signature;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /** Extension of the thumbnail files, which is also the ImageIO format name they are written with. */
+    public String getThumbnailExtension() {
+        return thumbnailExtension;
+    }
+
+    static Optional<ImageFormat> detect(byte[] head, int length) {
+        return Arrays.stream(values())
+                .filter(format -> length >= format.signature.length
+                        && Arrays.equals(head, 0, format.signature.length, format.signature, 0, format.signature.length))
+                .findFirst();
+    }
+
+    static Optional<ImageFormat> forExtension(String extension) {
+        return Arrays.stream(values()).filter(format -> format.extension.equals(extension)).findFirst();
+    }
+
+    static String mediaTypeOf(String extension) {
+        return forExtension(extension).map(ImageFormat::getMediaType).orElse("application/octet-stream");
+    }
+}
@@ -0,0 +1,40 @@
+package in.food.restro.authservice.images;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of profile image storage, bound from {@code app.images.*}.
+ * The directory must be shared by all instances of the service.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.images")
+public class ImageProperties {
+
+	/** Directory of the content-addressed image store. */
+	private String directory = "images";
+
+	private DataSize maxSize = DataSize.ofMegabytes(5);
+
+	/** Images with more pixels are rejected before being decoded. */
+	private long maxPixels = 40_000_000;
+
+	/** Edge lengths of the square thumbnails generated for every image. */
+	private List<Integer> thumbnailSizes = new ArrayList<>(List.of(64, 256));
+
+	private int thumbnailThreads = 2;
+
+	/** Thumbnail jobs waiting for a thread; beyond that they are generated on first request. */
+	private int thumbnailQueueCapacity = 100;
+
+	/** Cache lifetime of served images; their URLs change with their content. */
+	private Duration cacheMaxAge = Duration.ofDays(365);
+}
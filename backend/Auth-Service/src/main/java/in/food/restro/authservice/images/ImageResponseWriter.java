@@ -0,0 +1,134 @@
+package in.food.restro.authservice.images;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends image files with validators, caching headers and single byte ranges.
+ * <p>
+ * The body is never copied through the heap. On Tomcat the file is handed to the connector's
+ * sendfile support, which moves it from the page cache to the socket with
+ * {@link FileChannel#transferTo}; elsewhere it is transferred to the response stream in one call.
+ */
+public class ImageResponseWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Cache lifetime of responses whose content may still change, such as a pending thumbnail. */
+    private static final long SHORT_MAX_AGE = 60;
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final long maxAgeSeconds;
+
+    public ImageResponseWriter(Duration cacheMaxAge) {
+        this.maxAgeSeconds = cacheMaxAge.toSeconds();
+    }
+
+    public void write(ImageFile image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(image.path());
+        response.setHeader(HttpHeaders.ETAG, image.etag());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, image.immutable()
+                ? "public, max-age=" + maxAgeSeconds + ", immutable"
+                : "public, max-age=" + SHORT_MAX_AGE);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(image.etag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(image.etag()))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == UNSATISFIABLE) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+        response.setContentType(image.mediaType());
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || start == end) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(image.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += file.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    /**
+     * Parses a single byte range; lists of ranges are answered with the whole file.
+     *
+     * @return Start and exclusive end, {@link #UNSATISFIABLE}, or null to ignore the header.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[] { Math.max(0, length - suffix), length };
+            }
+            long start = Long.parseLong(first);
+            long lastByte = last.isEmpty() ? Long.MAX_VALUE - 1 : Long.parseLong(last);
+            if (start < 0 || lastByte < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new long[] { start, Math.min(lastByte + 1, length) };
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package in.food.restro.authservice.images;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed store of profile images on the local file system.
+ * <p>
+ * An image is named after the first 128 bits of the SHA-256 of its bytes plus its extension,
+ * for example {@code 3f0c9d...e1.jpg}; that key is all the user row keeps. Uploads are streamed
+ * through the hash into a temporary file in fixed-size chunks, checked, and then moved into
+ * place, so no image is ever held in the heap and the same image uploaded twice is stored once.
+ * Files live in {@code <directory>/<first two key characters>/} next to their thumbnails.
+ */
+@Slf4j
+public class ImageStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{32}\\.(jpg|png|gif)");
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Path uploads;
+    private final long maxBytes;
+    private final long maxPixels;
+
+    public ImageStore(ImageProperties properties) throws IOException {
+        this.directory = Path.of(properties.getDirectory());
+        this.uploads = directory.resolve("uploads");
+        this.maxBytes = properties.getMaxSize().toBytes();
+        this.maxPixels = properties.getMaxPixels();
+        Files.createDirectories(uploads);
+    }
+
+    /**
+     * Whether the value has the form of an image key.
+     */
+    public static boolean isKey(String value) {
+        return value != null && KEY.matcher(value).matches();
+    }
+
+    /**
+     * Stores an image read from the stream, which is not closed.
+     *
+     * @return The stored image.
+     * @throws IllegalArgumentException If the content is not a JPEG, PNG or GIF image, is too
+     *         large or has too many pixels.
+     */
+    public StoredImage store(InputStream content) throws IOException {
+        Path upload = Files.createTempFile(uploads, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int headLength = content.readNBytes(chunk, 0, ImageFormat.SIGNATURE_LENGTH);
+            ImageFormat format = ImageFormat.detect(chunk, headLength)
+                    .orElseThrow(() -> new IllegalArgumentException("Profile images must be JPEG, PNG or GIF"));
+
+            long size = 0;
+            try (FileChannel out = FileChannel.open(upload, StandardOpenOption.WRITE)) {
+                int read = headLength;
+                while (read > 0) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("Profile images may be at most " + maxBytes + " bytes");
+                    }
+                    digest.update(chunk, 0, read);
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    read = content.read(chunk);
+                }
+            }
+
+            int[] dimensions = readDimensions(upload, format);
+            String key = HexFormat.of().formatHex(digest.digest(), 0, 16) + "." + format.getExtension();
+            Path target = path(key);
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Images: stored {} ({} bytes, {}x{})", key, size, dimensions[0], dimensions[1]);
+            } catch (FileAlreadyExistsException ex) {
+                log.debug("Images: {} is already stored", key);
+            }
+            return new StoredImage(key, format, dimensions[0], dimensions[1]);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * @return The file of the image, if it is stored.
+     */
+    public Optional<Path> find(String key) {
+        if (!isKey(key)) {
+            return Optional.empty();
+        }
+        Path path = path(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * @return Where the thumbnail of the given edge length is or will be stored.
+     */
+    public Path thumbnailPath(String key, int size) {
+        ImageFormat format = formatOf(key);
+        String hash = key.substring(0, key.indexOf('.'));
+        return path(key).resolveSibling(hash + "_" + size + "." + format.getThumbnailExtension());
+    }
+
+    /**
+     * @return The format of a stored image, from its key.
+     */
+    public ImageFormat formatOf(String key) {
+        return ImageFormat.forExtension(key.substring(key.indexOf('.') + 1))
+                .orElseThrow(() -> new IllegalArgumentException("Not an image key: " + key));
+    }
+
+    /**
+     * Temporary file in the store, on the same file system so it can be moved into place atomically.
+     */
+    Path createTempFile() throws IOException {
+        return Files.createTempFile(uploads, "thumbnail-", ".part");
+    }
+
+    long getMaxPixels() {
+        return maxPixels;
+    }
+
+    private Path path(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Reads only the header of the image, which catches corrupt files and decompression bombs
+     * without decoding any pixels.
+     */
+    private int[] readDimensions(Path file, ImageFormat format) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersBySuffix(format.getExtension());
+            if (input == null || !readers.hasNext()) {
+                throw new IllegalStateException("No image reader for " + format);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Profile images may have at most " + maxPixels + " pixels");
+                }
+                return new int[] { width, height };
+            } catch (IOException ex) {
+                throw new IllegalArgumentException("Profile image is not a readable " + format + " image", ex);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
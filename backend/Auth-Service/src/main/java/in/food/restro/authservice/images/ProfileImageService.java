@@ -0,0 +1,92 @@
+package in.food.restro.authservice.images;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.exception.ResourceNotFoundException;
+import in.food.restro.authservice.exception.UserNotFoundException;
+import in.food.restro.authservice.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Uploads and resolves profile images. Images go to the {@link ImageStore}; the user only
+ * keeps the image key, so user rows and responses stay small.
+ */
+@Slf4j
+public class ProfileImageService {
+
+    private final UserService userService;
+    private final ImageStore store;
+    private final ThumbnailGenerator thumbnails;
+
+    public ProfileImageService(UserService userService, ImageStore store, ThumbnailGenerator thumbnails) {
+        this.userService = userService;
+        this.store = store;
+        this.thumbnails = thumbnails;
+    }
+
+    /**
+     * Stores the uploaded image and makes it the user's profile image. Thumbnails are
+     * generated in the background.
+     *
+     * @param userId The UUID of the user.
+     * @param file The uploaded file; only its content is used.
+     * @return UserDto The updated user.
+     * @throws UserNotFoundException If the user is not found.
+     * @throws IllegalArgumentException If the file is not an acceptable image.
+     */
+    public UserDto upload(String userId, MultipartFile file) throws IOException {
+        if (!userService.isUserIdExists(userId)) {
+            throw new UserNotFoundException("id", userId);
+        }
+        StoredImage image;
+        try (InputStream content = file.getInputStream()) {
+            image = store.store(content);
+        }
+        UserDto user = userService.updateProfileImage(userId, image.key());
+        thumbnails.schedule(image.key());
+        return user;
+    }
+
+    /**
+     * Removes the profile image of a user. The stored file stays, since other users may have
+     * uploaded the same image.
+     */
+    public UserDto remove(String userId) {
+        return userService.updateProfileImage(userId, null);
+    }
+
+    /**
+     * Finds the file to serve for an image.
+     *
+     * @param key The image key.
+     * @param size Edge length of the wanted thumbnail, null for the original image. Until the
+     *        thumbnail exists the original is served, but only briefly cacheable.
+     * @throws ResourceNotFoundException If no such image is stored.
+     * @throws IllegalArgumentException If no thumbnails of that size are generated.
+     */
+    public ImageFile resolve(String key, Integer size) {
+        Path original = store.find(key).orElseThrow(() -> new ResourceNotFoundException("Image", "key", key));
+        ImageFormat format = store.formatOf(key);
+        ImageFile originalFile = new ImageFile(original, "\"" + key + "\"", format.getMediaType(), true);
+        if (size == null) {
+            return originalFile;
+        }
+        if (!thumbnails.isThumbnailSize(size)) {
+            throw new IllegalArgumentException("No thumbnails of size " + size);
+        }
+        Path thumbnail = store.thumbnailPath(key, size);
+        if (Files.exists(thumbnail)) {
+            return new ImageFile(thumbnail, "\"" + thumbnail.getFileName() + "\"",
+                    ImageFormat.mediaTypeOf(format.getThumbnailExtension()), true);
+        }
+        log.debug("Images: thumbnail {} of {} is not ready", size, key);
+        thumbnails.schedule(key);
+        return new ImageFile(original, originalFile.etag(), originalFile.mediaType(), false);
+    }
+}
@@ -0,0 +1,12 @@
+package in.food.restro.authservice.images;
+
+/**
+ * An image in the {@link ImageStore}.
+ *
+ * @param key Name of the image: a hash of its content and its extension.
+ * @param format Format of the image.
+ * @param width Width in pixels.
+ * @param height Height in pixels.
+ */
+public record StoredImage(String key, ImageFormat format, int width, int height) {
+}
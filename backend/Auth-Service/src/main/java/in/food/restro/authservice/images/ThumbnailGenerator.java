@@ -0,0 +1,152 @@
+package in.food.restro.authservice.images;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates the square thumbnails of stored images in the background.
+ * <p>
+ * Jobs run on a small fixed pool with a bounded queue. When the queue is full the job is
+ * dropped rather than holding up the upload; the thumbnail is scheduled again the first time
+ * it is requested. Large images are subsampled while decoding, so a job needs memory for
+ * about twice the largest thumbnail rather than for the whole image.
+ */
+@Slf4j
+public class ThumbnailGenerator {
+
+    private final ImageStore store;
+    private final List<Integer> sizes;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailGenerator(ImageStore store, ImageProperties properties) {
+        this.store = store;
+        this.sizes = properties.getThumbnailSizes().stream().sorted().toList();
+        this.executor = new ThreadPoolExecutor(properties.getThumbnailThreads(), properties.getThumbnailThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getThumbnailQueueCapacity()),
+                Thread.ofPlatform().name("thumbnails-", 0).daemon().factory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isThumbnailSize(int size) {
+        return sizes.contains(size);
+    }
+
+    /**
+     * Queues the generation of all thumbnails of the image, unless it is already queued.
+     */
+    public void schedule(String key) {
+        if (!scheduled.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } catch (IOException | RuntimeException ex) {
+                    log.error("Images: generating thumbnails of {} failed", key, ex);
+                } finally {
+                    scheduled.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            scheduled.remove(key);
+            log.debug("Images: thumbnail queue is full, {} is deferred", key);
+        }
+    }
+
+    /**
+     * Writes the missing thumbnails of a stored image.
+     */
+    void generate(String key) throws IOException {
+        List<Integer> missing = sizes.stream().filter(size -> !Files.exists(store.thumbnailPath(key, size))).toList();
+        Path original = store.find(key).orElse(null);
+        if (missing.isEmpty() || original == null) {
+            return;
+        }
+        BufferedImage square = decodeSquare(original, store.formatOf(key), missing.get(missing.size() - 1));
+        for (int size : missing) {
+            write(scale(square, size, store.formatOf(key)), store.thumbnailPath(key, size), store.formatOf(key));
+        }
+        log.debug("Images: generated thumbnails {} of {}", missing, key);
+    }
+
+    /**
+     * Decodes the centred square of the image, subsampled to no less than twice the given size.
+     */
+    private BufferedImage decodeSquare(Path file, ImageFormat format, int largest) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersBySuffix(format.getExtension());
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > store.getMaxPixels()) {
+                    throw new IllegalStateException("Stored image " + file.getFileName() + " has too many pixels");
+                }
+                int edge = Math.min(width, height);
+                int step = Math.max(1, edge / (2 * largest));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - edge) / 2, (height - edge) / 2, edge, edge));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage square, int size, ImageFormat format) {
+        int edge = Math.min(size, Math.min(square.getWidth(), square.getHeight()));
+        boolean opaque = "jpg".equals(format.getThumbnailExtension());
+        BufferedImage thumbnail = new BufferedImage(edge, edge, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(square, 0, 0, edge, edge, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private void write(BufferedImage thumbnail, Path target, ImageFormat format) throws IOException {
+        Path temp = store.createTempFile();
+        try {
+            if (!ImageIO.write(thumbnail, format.getThumbnailExtension(), temp.toFile())) {
+                throw new IllegalStateException("No image writer for " + format.getThumbnailExtension());
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
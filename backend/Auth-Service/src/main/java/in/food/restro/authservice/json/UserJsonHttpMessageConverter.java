@@ -0,0 +1,115 @@
+package in.food.restro.authservice.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.timing.RequestTimings;
+import in.food.restro.authservice.timing.Stage;
+
+/**
+ * Writes {@link UserDto} and {@code Iterable<UserDto>} response bodies with {@link UserJsonWriter}
+ * instead of going through {@code ObjectMapper}. Registered ahead of the Jackson converter; every
+ * other type, and every request body, is still handled by Jackson.
+ * <p>
+ * Lists always stream straight into the response. With request timing enabled, a single user is
+ * rendered into a buffer first, so that its JSON stage makes it into the {@code Server-Timing}
+ * header, and copied into the response after; without timing it streams too.
+ */
+public class UserJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final JsonFactory jsonFactory;
+    private final boolean timingEnabled;
+
+    /**
+     * @param timingEnabled Whether {@code app.timing} is enabled, i.e. single users are buffered.
+     */
+    public UserJsonHttpMessageConverter(JsonFactory jsonFactory, boolean timingEnabled) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = jsonFactory;
+        this.timingEnabled = timingEnabled;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        return (clazz != null && UserDto.class.isAssignableFrom(clazz)) || isUserIterable(type);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        UserJsonWriter writer = new UserJsonWriter();
+        long start = RequestTimings.start();
+        if (timingEnabled && start != 0 && body instanceof UserDto user) {
+            // Render a single user before opening the body, so the Server-Timing header can still include it
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+            try (JsonGenerator json = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8)) {
+                writer.writeUser(json, user);
+            }
+            RequestTimings.stop(Stage.JSON, start);
+            buffer.writeTo(outputMessage.getBody());
+            return;
+        }
+        try (JsonGenerator json = jsonFactory.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (body instanceof UserDto user) {
+                writer.writeUser(json, user);
+            } else {
+                writer.writeUsers(json, (Iterable<?>) body);
+            }
+        }
+        RequestTimings.stop(Stage.JSON, start);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    private static boolean isUserIterable(Type type) {
+        if (!(type instanceof ParameterizedType parameterized)) {
+            return false;
+        }
+        Type raw = parameterized.getRawType();
+        return (raw == Iterable.class || raw == Collection.class || raw == List.class)
+                && parameterized.getActualTypeArguments()[0] == UserDto.class;
+    }
+}
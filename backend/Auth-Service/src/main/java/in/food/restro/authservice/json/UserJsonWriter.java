@@ -0,0 +1,191 @@
+package in.food.restro.authservice.json;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import in.food.restro.authservice.dtos.AddressDto;
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.enums.Provider;
+
+/**
+ * Writes {@link UserDto} JSON straight to a {@link JsonGenerator}, bypassing bean introspection.
+ * <p>
+ * Field names and enum values are encoded once, up front. UUIDs and instants are formatted
+ * into a per-call char buffer instead of temporary strings. The output is the same as the
+ * default Jackson serialization, field order included, except that the password is never
+ * written. A field added to {@code UserDto}, {@code AddressDto} or {@code RoleDto} must
+ * be added here too; {@code UserJsonWriterTest} fails until it is.
+ */
+public final class UserJsonWriter {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString ACTIVE = new SerializedString("active");
+    private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final SerializedString DOB = new SerializedString("dob");
+    private static final SerializedString GENDER = new SerializedString("gender");
+    private static final SerializedString PROFILE_IMAGE = new SerializedString("profileImage");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString MIDDLE_NAME = new SerializedString("middleName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString LAST_LOGIN_AT = new SerializedString("lastLoginAt");
+    private static final SerializedString PROVIDER = new SerializedString("provider");
+    private static final SerializedString ROLES = new SerializedString("roles");
+    private static final SerializedString CHANGE_VERSION = new SerializedString("changeVersion");
+
+    private static final SerializedString STREET = new SerializedString("street");
+    private static final SerializedString CITY = new SerializedString("city");
+    private static final SerializedString STATE = new SerializedString("state");
+    private static final SerializedString COUNTRY = new SerializedString("country");
+    private static final SerializedString ZIP_CODE = new SerializedString("zipCode");
+
+    private static final SerializedString NAME = new SerializedString("name");
+
+    private static final Map<Provider, SerializedString> PROVIDERS = new EnumMap<>(Provider.class);
+    static {
+        for (Provider provider : Provider.values()) {
+            PROVIDERS.put(provider, new SerializedString(provider.name()));
+        }
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Scratch space for one response; never shared between threads. */
+    private final char[] chars = new char[48];
+    private final StringBuilder instantText = new StringBuilder(32);
+
+    public void writeUser(JsonGenerator json, UserDto user) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(ID);
+        writeUuid(json, user.getId());
+        writeString(json, USERNAME, user.getUsername());
+        writeString(json, EMAIL, user.getEmail());
+        writeString(json, PHONE_NUMBER, user.getPhoneNumber());
+        writeString(json, DOB, user.getDob());
+        writeString(json, GENDER, user.getGender());
+        writeString(json, PROFILE_IMAGE, user.getProfileImage());
+        json.writeFieldName(ADDRESS);
+        writeAddress(json, user.getAddress());
+        writeString(json, FIRST_NAME, user.getFirstName());
+        writeString(json, MIDDLE_NAME, user.getMiddleName());
+        writeString(json, LAST_NAME, user.getLastName());
+        writeInstant(json, CREATED_AT, user.getCreatedAt());
+        writeInstant(json, UPDATED_AT, user.getUpdatedAt());
+        writeInstant(json, LAST_LOGIN_AT, user.getLastLoginAt());
+        json.writeFieldName(PROVIDER);
+        if (user.getProvider() == null) {
+            json.writeNull();
+        } else {
+            json.writeString(PROVIDERS.get(user.getProvider()));
+        }
+        json.writeFieldName(ROLES);
+        writeRoles(json, user.getRoles());
+        json.writeFieldName(CHANGE_VERSION);
+        json.writeNumber(user.getChangeVersion());
+        // Last, as Jackson orders getter-only properties after field-backed ones
+        json.writeFieldName(ACTIVE);
+        json.writeBoolean(user.isActive());
+        json.writeEndObject();
+    }
+
+    public void writeUsers(JsonGenerator json, Iterable<?> users) throws IOException {
+        json.writeStartArray();
+        for (Object user : users) {
+            writeUser(json, (UserDto) user);
+        }
+        json.writeEndArray();
+    }
+
+    private void writeAddress(JsonGenerator json, AddressDto address) throws IOException {
+        if (address == null) {
+            json.writeNull();
+            return;
+        }
+        json.writeStartObject();
+        json.writeFieldName(ID);
+        writeUuid(json, address.getId());
+        writeString(json, STREET, address.getStreet());
+        writeString(json, CITY, address.getCity());
+        writeString(json, STATE, address.getState());
+        writeString(json, COUNTRY, address.getCountry());
+        writeString(json, ZIP_CODE, address.getZipCode());
+        json.writeEndObject();
+    }
+
+    private void writeRoles(JsonGenerator json, Set<RoleDto> roles) throws IOException {
+        if (roles == null) {
+            json.writeNull();
+            return;
+        }
+        json.writeStartArray();
+        for (RoleDto role : roles) {
+            json.writeStartObject();
+            json.writeFieldName(ID);
+            writeUuid(json, role.getId());
+            writeString(json, NAME, role.getName());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeString(JsonGenerator json, SerializedString field, String value) throws IOException {
+        json.writeFieldName(field);
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeString(value);
+        }
+    }
+
+    private void writeInstant(JsonGenerator json, SerializedString field, Instant value) throws IOException {
+        json.writeFieldName(field);
+        if (value == null) {
+            json.writeNull();
+            return;
+        }
+        instantText.setLength(0);
+        DateTimeFormatter.ISO_INSTANT.formatTo(value, instantText);
+        int length = instantText.length();
+        instantText.getChars(0, length, chars, 0);
+        json.writeString(chars, 0, length);
+    }
+
+    private void writeUuid(JsonGenerator json, UUID id) throws IOException {
+        if (id == null) {
+            json.writeNull();
+            return;
+        }
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        hex(msb >>> 32, 8, 0);
+        chars[8] = '-';
+        hex(msb >>> 16, 4, 9);
+        chars[13] = '-';
+        hex(msb, 4, 14);
+        chars[18] = '-';
+        hex(lsb >>> 48, 4, 19);
+        chars[23] = '-';
+        hex(lsb, 12, 24);
+        json.writeString(chars, 0, 36);
+    }
+
+    private void hex(long value, int digits, int offset) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
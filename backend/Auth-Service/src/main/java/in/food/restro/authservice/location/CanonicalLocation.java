@@ -0,0 +1,14 @@
+package in.food.restro.authservice.location;
+
+/**
+ * A dictionary entry of {@link LocationDictionary}. There is one instance per id, and its
+ * names are shared with every other entry using them, so any number of loaded addresses and
+ * mapped DTOs hold references instead of copies.
+ *
+ * @param id The {@code location_id} stored in {@code user_addr}.
+ * @param country Canonical country, null if unknown.
+ * @param state Canonical state, null if unknown.
+ * @param city Canonical city, null if unknown.
+ */
+public record CanonicalLocation(int id, String country, String state, String city) {
+}
@@ -0,0 +1,122 @@
+package in.food.restro.authservice.location;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves addresses written before {@link LocationDictionary} existed onto dictionary ids.
+ * <p>
+ * Those rows still carry their names in the old {@code city}, {@code state} and
+ * {@code country} columns, which the schema update leaves in place. Once the dictionary is
+ * loaded, every shard that still has the columns is migrated in batches: each batch locks
+ * rows without a location (skipping rows locked by another instance), canonicalizes their
+ * names, stores the id and clears the old columns, in one short transaction. Rows are found
+ * by the cleared columns, so an interrupted backfill simply continues on the next start.
+ * Until then {@link in.food.restro.authservice.entities.Address} reads the old columns of
+ * rows it has not reached. The columns can be dropped, together with that mapping, once
+ * every shard reports that nothing is left.
+ */
+@Slf4j
+public class LocationBackfill {
+
+    private final LocationDictionary dictionary;
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pauseBetweenBatches;
+
+    public LocationBackfill(LocationDictionary dictionary, List<? extends DataSource> shards, boolean enabled,
+            int batchSize, Duration pauseBetweenBatches) {
+        this.dictionary = dictionary;
+        for (DataSource dataSource : shards) {
+            this.shards.add(new JdbcTemplate(dataSource));
+            this.transactions.add(new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dictionary.load();
+        if (enabled) {
+            Thread.ofVirtual().name("location-backfill").start(this::run);
+        }
+    }
+
+    /**
+     * Migrates every shard in turn.
+     */
+    public void run() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            try {
+                migrate(shard);
+            } catch (RuntimeException ex) {
+                log.error("Location: Backfill of shard {} failed: {}", shard, ex.getMessage(), ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void migrate(int shard) throws InterruptedException {
+        JdbcTemplate jdbc = shards.get(shard);
+        if (!hasLegacyColumns(jdbc)) {
+            return;
+        }
+        long start = System.nanoTime();
+        long migrated = 0;
+        while (true) {
+            Integer batch = transactions.get(shard).execute(status -> migrateBatch(jdbc));
+            migrated += batch;
+            if (batch < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseBetweenBatches);
+        }
+        if (migrated > 0) {
+            log.info("Location: Moved {} addresses of shard {} to the dictionary in {} ms", migrated, shard,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        log.info("Location: Shard {} has no addresses left in the old columns city, state and country "
+                + "of user_addr", shard);
+    }
+
+    private int migrateBatch(JdbcTemplate jdbc) {
+        List<Object[]> updates = jdbc.query("""
+                SELECT user_addr_id, country, state, city FROM user_addr
+                WHERE location_id IS NULL AND (country IS NOT NULL OR state IS NOT NULL OR city IS NOT NULL)
+                LIMIT ? FOR UPDATE SKIP LOCKED""", (row, rowNum) -> {
+            CanonicalLocation location = dictionary.canonicalize(row.getString(2), row.getString(3), row.getString(4));
+            return new Object[] { location != null ? location.id() : null, row.getObject(1, UUID.class) };
+        }, batchSize);
+        if (!updates.isEmpty()) {
+            jdbc.batchUpdate("UPDATE user_addr SET location_id = ?, country = NULL, state = NULL, city = NULL "
+                    + "WHERE user_addr_id = ?", updates);
+        }
+        return updates.size();
+    }
+
+    private static boolean hasLegacyColumns(JdbcTemplate jdbc) {
+        Integer columns = jdbc.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = CURRENT_SCHEMA AND LOWER(table_name) = 'user_addr' AND LOWER(column_name) = 'city'""",
+                Integer.class);
+        return columns != null && columns > 0;
+    }
+}
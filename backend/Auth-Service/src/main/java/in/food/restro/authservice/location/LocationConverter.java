@@ -0,0 +1,29 @@
+package in.food.restro.authservice.location;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an address location as its dictionary id and resolves ids to the shared entries of
+ * {@link LocationDictionary}. Instantiated by Hibernate through Spring, which injects the
+ * dictionary.
+ */
+@Converter
+public class LocationConverter implements AttributeConverter<CanonicalLocation, Integer> {
+
+    private final LocationDictionary dictionary;
+
+    public LocationConverter(LocationDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(CanonicalLocation location) {
+        return location != null ? location.id() : null;
+    }
+
+    @Override
+    public CanonicalLocation convertToEntityAttribute(Integer id) {
+        return id != null ? dictionary.get(id) : null;
+    }
+}
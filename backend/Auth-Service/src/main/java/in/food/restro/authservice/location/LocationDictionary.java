@@ -0,0 +1,247 @@
+package in.food.restro.authservice.location;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Country, state and city reference data, kept in the {@code location} table and in memory.
+ * <p>
+ * Addresses are written through {@link #canonicalize}: the names are trimmed, their
+ * whitespace collapsed and their case normalized, and the combination is looked up or
+ * added once. An address row then stores a four-byte id instead of three strings. Every
+ * entry is held once in memory with its names shared between entries, so the addresses of
+ * loaded users and the DTOs mapped from them all point at the same strings.
+ * <p>
+ * Ids must mean the same on every shard, since users move between shards with their address.
+ * Shard 0 is the source of truth: entries are created there and copied, id included, to the
+ * other shards, like roles. Unknown ids, e.g. added by another instance, are read from shard 0
+ * on first use. All access goes through plain JDBC in short transactions of its own, never
+ * through the caller's, so an entry stays valid even if the write that introduced it rolls
+ * back, and a conflicting insert cannot abort the caller's transaction. Such a transaction
+ * takes a second pooled connection while the caller holds one; that only happens for names or
+ * ids this instance has not seen yet.
+ */
+@Slf4j
+public class LocationDictionary {
+
+    private static final String COLUMNS = "location_id, country, state, city";
+
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+    private final Map<Integer, CanonicalLocation> byId = new ConcurrentHashMap<>();
+    private final Map<String, CanonicalLocation> byName = new ConcurrentHashMap<>();
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * @param shards The data source of every shard in shard order, or just the one database.
+     */
+    public LocationDictionary(List<? extends DataSource> shards) {
+        for (DataSource dataSource : shards) {
+            // Spring binds a JPA transaction's connection to the pool it came from; behind a
+            // wrapper of their own, these templates never join it
+            DataSource own = new DelegatingDataSource(dataSource);
+            TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(own));
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.shards.add(new JdbcTemplate(own));
+            this.transactions.add(transaction);
+        }
+    }
+
+    /**
+     * Returns the dictionary entry for the given names, creating it if needed.
+     *
+     * @return The entry, or null if all three names are blank.
+     */
+    public CanonicalLocation canonicalize(String country, String state, String city) {
+        String canonicalCountry = canonicalCountry(country);
+        String canonicalState = canonicalName(state);
+        String canonicalCity = canonicalName(city);
+        if (canonicalCountry == null && canonicalState == null && canonicalCity == null) {
+            return null;
+        }
+        CanonicalLocation known = byName.get(key(canonicalCountry, canonicalState, canonicalCity));
+        if (known != null) {
+            return known;
+        }
+        CanonicalLocation location = findOrCreate(canonicalCountry, canonicalState, canonicalCity);
+        copyToOtherShards(location);
+        return register(location);
+    }
+
+    /**
+     * @return The entry of the id. An id missing from the table yields an entry without names,
+     *         so the reference survives the next write of the address.
+     */
+    public CanonicalLocation get(int id) {
+        CanonicalLocation known = byId.get(id);
+        if (known != null) {
+            return known;
+        }
+        List<CanonicalLocation> rows = transactions.get(0).execute(status -> shards.get(0).query(
+                "SELECT " + COLUMNS + " FROM location WHERE location_id = ?", LocationDictionary::mapRow, id));
+        if (rows.isEmpty()) {
+            log.warn("Location: Unknown location id {}", id);
+            return new CanonicalLocation(id, null, null, null);
+        }
+        return register(rows.get(0));
+    }
+
+    /**
+     * Reads every entry of shard 0 into memory.
+     */
+    public void load() {
+        transactions.get(0).executeWithoutResult(status -> shards.get(0).query("SELECT " + COLUMNS + " FROM location",
+                (ResultSet row) -> {
+                    register(mapRow(row, 0));
+                }));
+        log.info("Location: Loaded {} locations with {} distinct names", byId.size(), names.size());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Trims and collapses whitespace, drops trailing dots and commas and capitalizes every word,
+     * including the parts of hyphenated words.
+     *
+     * @return The canonical name, or null if nothing is left.
+     */
+    static String canonicalName(String name) {
+        if (name == null) {
+            return null;
+        }
+        StringBuilder canonical = new StringBuilder(name.length());
+        boolean wordStart = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!wordStart && !canonical.isEmpty()) {
+                    canonical.append(' ');
+                }
+                wordStart = true;
+                continue;
+            }
+            canonical.append(wordStart ? Character.toUpperCase(c) : Character.toLowerCase(c));
+            wordStart = c == '-';
+        }
+        int end = canonical.length();
+        while (end > 0 && (canonical.charAt(end - 1) == ' ' || canonical.charAt(end - 1) == '.'
+                || canonical.charAt(end - 1) == ',')) {
+            end--;
+        }
+        return end > 0 ? canonical.substring(0, end) : null;
+    }
+
+    /**
+     * Like {@link #canonicalName}, except that codes of up to three letters such as {@code IN}
+     * are kept in upper case.
+     */
+    static String canonicalCountry(String country) {
+        String canonical = canonicalName(country);
+        if (canonical != null && canonical.length() <= 3 && canonical.chars().allMatch(Character::isLetter)) {
+            return canonical.toUpperCase(Locale.ROOT);
+        }
+        return canonical;
+    }
+
+    private CanonicalLocation findOrCreate(String country, String state, String city) {
+        JdbcTemplate primary = shards.get(0);
+        TransactionTemplate transaction = transactions.get(0);
+        CanonicalLocation existing = transaction.execute(status -> find(primary, country, state, city));
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            return transaction.execute(status -> {
+                KeyHolder keys = new GeneratedKeyHolder();
+                primary.update(connection -> {
+                    PreparedStatement insert = connection.prepareStatement(
+                            "INSERT INTO location (country, state, city) VALUES (?, ?, ?)", new String[] { "location_id" });
+                    insert.setString(1, stored(country));
+                    insert.setString(2, stored(state));
+                    insert.setString(3, stored(city));
+                    return insert;
+                }, keys);
+                CanonicalLocation created = new CanonicalLocation(keys.getKey().intValue(), country, state, city);
+                log.debug("Location: Added {}", created);
+                return created;
+            });
+        } catch (DuplicateKeyException ex) {
+            // Added concurrently by another write; the failed insert only rolled back its own transaction
+            CanonicalLocation concurrent = transaction.execute(status -> find(primary, country, state, city));
+            if (concurrent == null) {
+                throw ex;
+            }
+            return concurrent;
+        }
+    }
+
+    private static CanonicalLocation find(JdbcTemplate jdbc, String country, String state, String city) {
+        List<CanonicalLocation> rows = jdbc.query("SELECT " + COLUMNS + " FROM location WHERE country = ? AND state = ? AND city = ?",
+                LocationDictionary::mapRow, stored(country), stored(state), stored(city));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void copyToOtherShards(CanonicalLocation location) {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            JdbcTemplate jdbc = shards.get(shard);
+            try {
+                transactions.get(shard).executeWithoutResult(status -> jdbc.update("INSERT INTO location (" + COLUMNS
+                        + ") SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM location WHERE location_id = ?)",
+                        location.id(), stored(location.country()), stored(location.state()), stored(location.city()),
+                        location.id()));
+            } catch (DuplicateKeyException ex) {
+                // Copied concurrently by another write
+            }
+        }
+    }
+
+    private CanonicalLocation register(CanonicalLocation location) {
+        CanonicalLocation shared = new CanonicalLocation(location.id(), intern(location.country()),
+                intern(location.state()), intern(location.city()));
+        CanonicalLocation registered = byId.computeIfAbsent(shared.id(), id -> shared);
+        byName.putIfAbsent(key(registered.country(), registered.state(), registered.city()), registered);
+        return registered;
+    }
+
+    private String intern(String name) {
+        return name != null ? names.computeIfAbsent(name, n -> n) : null;
+    }
+
+    private static CanonicalLocation mapRow(ResultSet row, int rowNum) throws SQLException {
+        return new CanonicalLocation(row.getInt(1), loaded(row.getString(2)), loaded(row.getString(3)),
+                loaded(row.getString(4)));
+    }
+
+    private static String key(String country, String state, String city) {
+        return stored(country) + '\u0000' + stored(state) + '\u0000' + stored(city);
+    }
+
+    private static String stored(String name) {
+        return name != null ? name : "";
+    }
+
+    private static String loaded(String name) {
+        return name == null || name.isEmpty() ? null : name;
+    }
+}
@@ -0,0 +1,185 @@
+package in.food.restro.authservice.lookup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Coalesces concurrent single-key lookups into one query per batch.
+ * <p>
+ * The first lookup to arrive opens a batch and becomes its leader; lookups arriving while the
+ * batch is open join it. The leader closes the batch once it holds {@code maxBatchSize} keys or
+ * the window has passed, runs the query for all of its keys on its own thread and completes
+ * every caller's future with that caller's result, or with the query's failure.
+ * <p>
+ * The window is only waited out while an earlier batch of this loader is still running. An idle
+ * loader sends a lone lookup straight away, so batching adds no latency at low load, and a zero
+ * window never waits at all: lookups then only share a query when they arrive together.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type; keys the query does not return resolve to {@code null}.
+ */
+public class BatchLoader<K, V> {
+
+    private static final class Lookup<K, V> {
+        final K key;
+        final long arrivedAt = System.nanoTime();
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Lookup(K key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Batch<K, V> {
+        final Thread leader = Thread.currentThread();
+        final long openedAt = System.nanoTime();
+        final List<Lookup<K, V>> lookups = new ArrayList<>();
+        volatile boolean full;
+    }
+
+    private final Function<List<K>, Map<K, V>> query;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final DistributionSummary batchSizes;
+    private final Timer waits;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private Batch<K, V> open;
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * @param name Value of the {@code lookup} tag on the metrics.
+     * @param query Resolves distinct keys to their values; keys without a value are left out.
+     * @param maxBatchSize Keys after which a batch is sent without waiting any longer.
+     * @param window Longest time the first lookup of a batch waits for others to join.
+     */
+    public BatchLoader(String name, Function<List<K>, Map<K, V>> query, int maxBatchSize, Duration window,
+            MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1 || window.isNegative()) {
+            throw new IllegalArgumentException("Lookup batches need a positive size and a window of zero or more");
+        }
+        this.query = query;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.batchSizes = DistributionSummary.builder("auth.lookup.batch.size")
+                .description("Lookups answered by one batched query")
+                .tag("lookup", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.waits = Timer.builder("auth.lookup.batch.wait")
+                .description("Time a lookup waited for its batch to be sent")
+                .tag("lookup", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks the key up, sharing the query with concurrent lookups, and waits for the result.
+     *
+     * @return The value, or null if the query did not return one.
+     */
+    public V load(K key) {
+        try {
+            return loadAsync(key).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Adds the key to the open batch. On the thread that leads the batch the query has already
+     * run when this returns; on the others the future completes once the leader is done.
+     */
+    public CompletableFuture<V> loadAsync(K key) {
+        Lookup<K, V> lookup = new Lookup<>(key);
+        Batch<K, V> batch;
+        boolean leader;
+        boolean filled;
+        synchronized (lock) {
+            leader = open == null;
+            if (leader) {
+                open = new Batch<>();
+            }
+            batch = open;
+            batch.lookups.add(lookup);
+            filled = batch.lookups.size() >= maxBatchSize;
+            if (filled) {
+                open = null;
+                batch.full = true;
+            }
+        }
+        if (leader) {
+            if (!filled) {
+                awaitCompanions(batch);
+            }
+            run(batch);
+        } else if (filled) {
+            LockSupport.unpark(batch.leader);
+        }
+        return lookup.result;
+    }
+
+    private void awaitCompanions(Batch<K, V> batch) {
+        if (windowNanos > 0 && running.get() > 0) {
+            long deadline = batch.openedAt + windowNanos;
+            for (long left = windowNanos; left > 0 && !batch.full; left = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(this, left);
+            }
+        }
+        synchronized (lock) {
+            if (open == batch) {
+                open = null;
+            }
+        }
+    }
+
+    private void run(Batch<K, V> batch) {
+        // Nothing joins a batch once it is closed, so its lookups can be read without the lock
+        List<Lookup<K, V>> lookups = batch.lookups;
+        running.incrementAndGet();
+        try {
+            long now = System.nanoTime();
+            Set<K> keys = new LinkedHashSet<>();
+            for (Lookup<K, V> lookup : lookups) {
+                waits.record(now - lookup.arrivedAt, TimeUnit.NANOSECONDS);
+                keys.add(lookup.key);
+            }
+            batchSizes.record(lookups.size());
+            Map<K, V> found = query.apply(List.copyOf(keys));
+            for (Lookup<K, V> lookup : lookups) {
+                lookup.result.complete(found.get(lookup.key));
+            }
+        } catch (Throwable ex) {
+            // Every caller is waiting on this thread, so each of them must hear about the failure
+            for (Lookup<K, V> lookup : lookups) {
+                lookup.result.completeExceptionally(ex);
+            }
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package in.food.restro.authservice.lookup;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the micro-batching of user lookups, bound from {@code app.lookup-batching.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.lookup-batching")
+public class LookupBatchingProperties {
+
+	/** When false every lookup runs its own query. */
+	private boolean enabled = true;
+
+	/** Longest time a lookup waits for others to share its query, only while an earlier batch is running; may be zero. */
+	private Duration window = Duration.ofNanos(200_000);
+
+	/** Lookups after which a batch is sent at once. */
+	private int maxBatchSize = 64;
+}
@@ -0,0 +1,110 @@
+package in.food.restro.authservice.lookup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import in.food.restro.authservice.entities.User;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardContext;
+import in.food.restro.authservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+/**
+ * Loads users by id, username or email through {@link BatchLoader}s, so that concurrent
+ * lookups share one {@code IN} query, and one pooled connection, instead of taking one each.
+ * <p>
+ * Each shard has its own loaders, since a batch runs against the shard of the thread that
+ * leads it. Lookups made inside a transaction bypass batching: they must see that transaction's
+ * own changes, which a query run by another thread would not.
+ * <p>
+ * A batch answers the lookups of other requests too, so it never runs in the leader's
+ * persistence context, not even an open-in-view one. Each batch opens its own EntityManager,
+ * queries in a short read-only transaction and closes it, which hands every caller detached
+ * users with their roles and address already loaded.
+ */
+public class UserLookupBatcher {
+
+    private static final String FETCH_USERS = "SELECT u FROM User u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.address ";
+
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+    private final List<BatchLoader<UUID, User>> byId = new ArrayList<>();
+    private final List<BatchLoader<String, User>> byUsername = new ArrayList<>();
+    private final List<BatchLoader<String, User>> byEmail = new ArrayList<>();
+
+    public UserLookupBatcher(UserRepository userRepository, EntityManagerFactory entityManagerFactory,
+            ShardRouter shardRouter, LookupBatchingProperties properties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = properties.isEnabled();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            byId.add(new BatchLoader<>("id", ids -> query("u.id", ids, User::getId),
+                    properties.getMaxBatchSize(), properties.getWindow(), meterRegistry));
+            byUsername.add(new BatchLoader<>("username", usernames -> query("u.username", usernames, User::getUsername),
+                    properties.getMaxBatchSize(), properties.getWindow(), meterRegistry));
+            byEmail.add(new BatchLoader<>("email", emails -> query("u.email", emails, User::getEmail),
+                    properties.getMaxBatchSize(), properties.getWindow(), meterRegistry));
+        }
+    }
+
+    public Optional<User> findById(UUID id) {
+        if (!batching()) {
+            return userRepository.findById(id);
+        }
+        return Optional.ofNullable(byId.get(ShardContext.current()).load(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (!batching()) {
+            return userRepository.findByUsername(username);
+        }
+        return Optional.ofNullable(byUsername.get(ShardContext.current()).load(username));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (!batching()) {
+            return userRepository.findByEmail(email);
+        }
+        return Optional.ofNullable(byEmail.get(ShardContext.current()).load(email));
+    }
+
+    private boolean batching() {
+        return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Loads the users whose property is among the keys. The tenant of the new EntityManager,
+     * and with it the shard, is resolved on the leader's thread.
+     */
+    private <K> Map<K, User> query(String property, List<K> keys, Function<User, K> key) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            List<User> users = entityManager.createQuery(FETCH_USERS + "WHERE " + property + " IN :keys", User.class)
+                    .setParameter("keys", keys)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultList();
+            transaction.commit();
+            return users.stream().collect(Collectors.toMap(key, Function.identity(), (first, second) -> first));
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            // Detaches the users before any caller sees them
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package in.food.restro.authservice.outbox;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes events to in-process listeners, which receive them with
+ * {@code @EventListener} on a {@link UserChangeEvent} parameter.
+ */
+@RequiredArgsConstructor
+public class ApplicationEventSink implements UserChangeSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void deliver(List<UserChangeEvent> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
@@ -0,0 +1,292 @@
+package in.food.restro.authservice.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import in.food.restro.authservice.entities.OutboxEvent;
+import in.food.restro.authservice.repositories.OutboxEventRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tails the outbox in batches and hands the events to every {@link UserChangeSink}.
+ * <p>
+ * A batch is claimed in a short transaction: the due head of the queue is locked with
+ * SKIP LOCKED and held for this instance by moving its {@code next_attempt_at} past the lease.
+ * The sinks are called with no transaction or connection held, and the outcome is written in a
+ * second short transaction. An instance that dies mid-batch leaves its claim to expire.
+ * <p>
+ * Events of one user are delivered in the order of their user version, which follows the commit
+ * order of the user's changes; sequences are allocated in blocks per instance and do not. An event
+ * is only claimed while no earlier event of its user is pending elsewhere, the events of a user
+ * within a batch are put in version order, and a batch is first delivered as a whole; if any sink
+ * fails, it is redelivered event by event and the first failing event holds back the remaining
+ * events of the same user, while other users make progress. A failed event is retried after an
+ * exponentially growing delay and parked after {@code max-attempts} failures; an undecodable
+ * event is parked straight away. Parked events stay in the table, with later events of their
+ * user flowing past them. Events are marked delivered only after every sink accepted them
+ * (at-least-once).
+ * <p>
+ * With sharding, each shard has its own outbox next to its users and is drained in turn.
+ * Sequence numbers are per shard; user versions live in the user's row, on the user's shard.
+ */
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository repository;
+    private final OutboxWriter outboxWriter;
+    private final List<UserChangeSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final ShardRouter shardRouter;
+
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxDispatcher(OutboxEventRepository repository, OutboxWriter outboxWriter, List<UserChangeSink> sinks,
+            TransactionTemplate transactionTemplate, OutboxProperties properties, ShardRouter shardRouter,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.outboxWriter = outboxWriter;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.deliveredCounter = Counter.builder("auth.outbox.delivered")
+                .description("User change events delivered to all sinks")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.outbox.failed")
+                .description("User change event deliveries that failed and will be retried")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("auth.outbox.parked")
+                .description("User change events given up on, undecodable or out of attempts")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("auth.outbox.batch")
+                .description("Time to dispatch one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("auth.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest undelivered event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        log.info("Outbox: Dispatching to sinks {}", sinks.stream().map(UserChangeSink::name).toList());
+    }
+
+    /**
+     * Drains the outbox until it is empty, a batch hits a failure or the per-run cap is reached.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500}")
+    public void dispatch() {
+        AtomicLong oldest = new AtomicLong();
+        shardRouter.forEachShard(shard -> {
+            drain();
+            oldest.accumulateAndGet(repository.findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc()
+                    .map(event -> Duration.between(event.getCreatedAt(), Instant.now()).toMillis())
+                    .orElse(0L), Math::max);
+        });
+        lagMillis.set(oldest.get());
+    }
+
+    /**
+     * Deletes delivered events past the retention period.
+     */
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 0 3 * * *}")
+    public void purgeDelivered() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        shardRouter.forEachShard(shard -> {
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteDispatchedBefore(cutoff));
+            log.info("Outbox: Purged {} delivered events on shard {}", deleted, shard);
+        });
+    }
+
+    private void drain() {
+        for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+            BatchResult result = batchTimer.record(this::dispatchBatch);
+            if (result.claimed() == 0 || result.failed() > 0 || result.fetched() < properties.getBatchSize()) {
+                break;
+            }
+        }
+    }
+
+    private BatchResult dispatchBatch() {
+        Claim claim = transactionTemplate.execute(status -> claim());
+        if (claim.events().isEmpty()) {
+            return new BatchResult(claim.fetched(), 0, 0);
+        }
+        List<UserChangeEvent> events = claim.events();
+
+        List<Long> delivered = new ArrayList<>(events.size());
+        List<UserChangeEvent> failed = new ArrayList<>();
+        List<Long> heldBack = new ArrayList<>();
+        if (deliverToAll(events)) {
+            events.forEach(event -> delivered.add(event.getSequence()));
+        } else {
+            Set<UUID> blockedUsers = new HashSet<>();
+            for (UserChangeEvent event : events) {
+                if (blockedUsers.contains(event.getUserId())) {
+                    heldBack.add(event.getSequence());
+                } else if (deliverToAll(List.of(event))) {
+                    delivered.add(event.getSequence());
+                } else {
+                    blockedUsers.add(event.getUserId());
+                    failed.add(event);
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            if (!delivered.isEmpty()) {
+                repository.markDispatched(delivered, now);
+            }
+            if (!heldBack.isEmpty()) {
+                repository.release(heldBack);
+            }
+            recordFailures(failed, claim.attempts(), now);
+        });
+        deliveredCounter.increment(delivered.size());
+        failedCounter.increment(failed.size());
+        log.debug("Outbox: Batch of {} events, delivered {}, failed {}", events.size(), delivered.size(), failed.size());
+        return new BatchResult(claim.fetched(), events.size(), failed.size());
+    }
+
+    /**
+     * Locks the due head of the queue, keeps the events no earlier pending event of their user
+     * precedes, parks those that cannot be decoded and holds the rest for this instance.
+     */
+    private Claim claim() {
+        Instant now = Instant.now();
+        List<OutboxEvent> rows = repository.lockDue(now, properties.getBatchSize());
+        if (rows.isEmpty()) {
+            return new Claim(0, List.of(), Map.of());
+        }
+
+        // An earlier event of the user may be claimed by a dispatcher that has not committed yet
+        Map<UUID, Long> oldestElsewhere = new HashMap<>();
+        Set<UUID> userIds = rows.stream().map(OutboxEvent::getUserId).collect(Collectors.toSet());
+        List<Long> ids = rows.stream().map(OutboxEvent::getId).toList();
+        for (Object[] oldest : repository.findLowestPendingVersionOutside(userIds, ids)) {
+            oldestElsewhere.put((UUID) oldest[0], ((Number) oldest[1]).longValue());
+        }
+
+        List<UserChangeEvent> events = new ArrayList<>(rows.size());
+        Map<Long, Integer> attempts = new HashMap<>();
+        List<Long> undecodable = new ArrayList<>();
+        for (OutboxEvent row : rows) {
+            Long blocker = oldestElsewhere.get(row.getUserId());
+            if (blocker != null && blocker < row.getUserVersion()) {
+                continue;
+            }
+            try {
+                events.add(outboxWriter.decode(row));
+                attempts.put(row.getId(), row.getAttempts());
+            } catch (RuntimeException ex) {
+                log.error("Outbox: Parking event {} of user {}: {}", row.getId(), row.getUserId(), ex.getMessage());
+                undecodable.add(row.getId());
+            }
+        }
+        if (!undecodable.isEmpty()) {
+            repository.park(undecodable, 0, now);
+            parkedCounter.increment(undecodable.size());
+        }
+        if (!events.isEmpty()) {
+            repository.holdUntil(attempts.keySet(), now.plus(properties.getLease()));
+        }
+        return new Claim(rows.size(), inVersionOrder(events), attempts);
+    }
+
+    /**
+     * Reorders the events of each user by version, within the slots the user's events already
+     * take in the batch; events of different users keep their sequence order.
+     */
+    static List<UserChangeEvent> inVersionOrder(List<UserChangeEvent> events) {
+        Map<UUID, List<UserChangeEvent>> byUser = new HashMap<>();
+        for (UserChangeEvent event : events) {
+            byUser.computeIfAbsent(event.getUserId(), id -> new ArrayList<>()).add(event);
+        }
+        byUser.values().forEach(userEvents -> userEvents.sort(Comparator.comparing(UserChangeEvent::getVersion)));
+        Map<UUID, Integer> taken = new HashMap<>();
+        List<UserChangeEvent> ordered = new ArrayList<>(events.size());
+        for (UserChangeEvent event : events) {
+            int next = taken.merge(event.getUserId(), 1, Integer::sum) - 1;
+            ordered.add(byUser.get(event.getUserId()).get(next));
+        }
+        return ordered;
+    }
+
+    private void recordFailures(List<UserChangeEvent> failed, Map<Long, Integer> attempts, Instant now) {
+        List<Long> parked = new ArrayList<>();
+        Map<Integer, List<Long>> retries = new HashMap<>();
+        for (UserChangeEvent event : failed) {
+            int failures = attempts.get(event.getSequence()) + 1;
+            if (failures >= properties.getMaxAttempts()) {
+                log.error("Outbox: Parking event {} of user {} after {} failed deliveries",
+                        event.getSequence(), event.getUserId(), failures);
+                parked.add(event.getSequence());
+            } else {
+                retries.computeIfAbsent(failures, key -> new ArrayList<>()).add(event.getSequence());
+            }
+        }
+        if (!parked.isEmpty()) {
+            repository.park(parked, 1, now);
+            parkedCounter.increment(parked.size());
+        }
+        retries.forEach((failures, ids) -> repository.recordFailure(ids, now.plus(retryDelay(failures))));
+    }
+
+    /**
+     * The retry backoff doubled for every failure after the first, up to the maximum.
+     */
+    private Duration retryDelay(int failures) {
+        Duration max = properties.getMaxRetryBackoff();
+        Duration delay = properties.getRetryBackoff();
+        for (int i = 1; i < failures && delay.compareTo(max) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(max) < 0 ? delay : max;
+    }
+
+    private boolean deliverToAll(List<UserChangeEvent> events) {
+        for (UserChangeSink sink : sinks) {
+            try {
+                sink.deliver(events);
+            } catch (Exception ex) {
+                log.warn("Outbox: Sink '{}' failed for {} events starting at sequence {}: {}",
+                        sink.name(), events.size(), events.get(0).getSequence(), ex.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param fetched Rows locked, including those left for a later batch.
+     * @param events Decoded events held for this instance, each user's in version order.
+     * @param attempts Failed deliveries so far, by sequence.
+     */
+    private record Claim(int fetched, List<UserChangeEvent> events, Map<Long, Integer> attempts) {
+    }
+
+    private record BatchResult(int fetched, int claimed, int failed) {
+    }
+}
@@ -0,0 +1,66 @@
+package in.food.restro.authservice.outbox;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the user change outbox, bound from {@code app.outbox.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+	/** Whether this instance tails the outbox; events are always written. */
+	private boolean dispatcherEnabled = true;
+
+	private int batchSize = 200;
+
+	/** Upper bound on batches per poll, so one run cannot monopolise a connection. */
+	private int maxBatchesPerRun = 20;
+
+	/**
+	 * How long a claimed batch is held for this instance while its sinks are called. Must cover
+	 * the slowest delivery, a batch and its event-by-event retry, or another instance redelivers it.
+	 */
+	private Duration lease = Duration.ofMinutes(5);
+
+	/** Deliveries of an event before it is parked; parked events are kept but no longer sent. */
+	private int maxAttempts = 20;
+
+	/** Delay before the first retry of a failed event, doubled on every further failure. */
+	private Duration retryBackoff = Duration.ofSeconds(1);
+
+	private Duration maxRetryBackoff = Duration.ofMinutes(5);
+
+	/** How long delivered events are kept before being deleted. */
+	private Duration retention = Duration.ofDays(7);
+
+	private Webhook webhook = new Webhook();
+
+	private File file = new File();
+
+	@Getter
+	@Setter
+	public static class Webhook {
+		/** Endpoint receiving batches of events as a JSON array; disabled when empty. */
+		private String url;
+		/** Sent as a bearer token; the receiving User-Service refuses pushes without its token. */
+		private String token;
+		private Duration connectTimeout = Duration.ofSeconds(2);
+		private Duration readTimeout = Duration.ofSeconds(5);
+	}
+
+	@Getter
+	@Setter
+	public static class File {
+		/** File receiving one JSON event per line; disabled when empty. */
+		private String path;
+		/** Force every batch to disk before the events are marked delivered. */
+		private boolean fsync = false;
+	}
+}
@@ -0,0 +1,185 @@
+package in.food.restro.authservice.outbox;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.food.restro.authservice.audit.AuditLog;
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.entities.OutboxEvent;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.repositories.OutboxEventRepository;
+import in.food.restro.authservice.repositories.UserRepository;
+
+/**
+ * Writes user change events into the {@code user_outbox} table.
+ * <p>
+ * Must be called inside the transaction performing the change, so the event is committed
+ * if and only if the change is. Payloads are compact JSON: null fields and the password
+ * are never written. When the audit log is enabled, every recorded change is also handed
+ * to it once the transaction commits.
+ * <p>
+ * Every event bumps the change version of its user and carries the new value. The bump locks
+ * the user's row until the transaction ends, so the versions of a user's events ascend in the
+ * order their transactions commit, whichever instance wrote them and whatever ids they got.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository repository;
+    private final UserRepository userRepository;
+    private final ObjectMapper payloadMapper;
+    private final AuditLog auditLog;
+
+    public OutboxWriter(OutboxEventRepository repository, UserRepository userRepository, ObjectMapper objectMapper,
+            ObjectProvider<AuditLog> auditLog) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.auditLog = auditLog.getIfAvailable();
+        this.payloadMapper = objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .addMixIn(UserDto.class, PasswordlessUserDto.class);
+    }
+
+    /**
+     * Records a change of the given user.
+     *
+     * @param type The kind of change.
+     * @param user State of the user after the change; its change version is set to the new one.
+     * @param role Name of the assigned or removed role, null for other changes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UserChangeType type, UserDto user, String role) {
+        Instant now = Instant.now();
+        long version = nextVersions(List.of(user.getId())).get(user.getId());
+        user.setChangeVersion(version);
+        UserChangeEvent event = UserChangeEvent.builder()
+                .type(type)
+                .userId(user.getId())
+                .occurredAt(now)
+                .role(role)
+                .user(user)
+                .build();
+        repository.save(OutboxEvent.builder()
+                .userId(user.getId())
+                .userVersion(version)
+                .eventType(type)
+                .payload(encode(event))
+                .createdAt(now)
+                .build());
+        if (auditLog != null) {
+            auditLog.appendAfterCommit(type, user.getId(), role);
+        }
+    }
+
+    /**
+     * Records the same role change for many users at once. The events carry no user snapshot;
+     * consumers apply the role delta to the state they already hold.
+     *
+     * @param type {@link UserChangeType#ROLE_ASSIGNED} or {@link UserChangeType#ROLE_REMOVED}.
+     * @param userIds Users whose membership changed.
+     * @param role Name of the role.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRoleChanges(UserChangeType type, Collection<UUID> userIds, String role) {
+        recordAll(type, userIds, role);
+    }
+
+    /**
+     * Records the same status change for many users at once, without user snapshots.
+     *
+     * @param type {@link UserChangeType#ACTIVATED} or {@link UserChangeType#DEACTIVATED}.
+     * @param userIds Users whose status changed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(UserChangeType type, Collection<UUID> userIds) {
+        recordAll(type, userIds, null);
+    }
+
+    /**
+     * Rebuilds the event of an outbox row, using the row id as sequence and the user version
+     * it was written with as version.
+     */
+    public UserChangeEvent decode(OutboxEvent row) {
+        try {
+            UserChangeEvent event = payloadMapper.readValue(row.getPayload(), UserChangeEvent.class);
+            event.setSequence(row.getId());
+            event.setVersion(row.getUserVersion());
+            return event;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + row.getId(), ex);
+        }
+    }
+
+    private void recordAll(UserChangeType type, Collection<UUID> userIds, String role) {
+        Instant now = Instant.now();
+        Map<UUID, Long> versions = nextVersions(userIds);
+        List<OutboxEvent> rows = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            UserChangeEvent event = UserChangeEvent.builder()
+                    .type(type)
+                    .userId(userId)
+                    .occurredAt(now)
+                    .role(role)
+                    .build();
+            rows.add(OutboxEvent.builder()
+                    .userId(userId)
+                    .userVersion(versions.get(userId))
+                    .eventType(type)
+                    .payload(encode(event))
+                    .createdAt(now)
+                    .build());
+        }
+        repository.saveAll(rows);
+        if (auditLog != null) {
+            auditLog.appendAllAfterCommit(type, userIds, role);
+        }
+    }
+
+    /**
+     * Locks the users' rows, bumps their change versions and returns the new values.
+     */
+    private Map<UUID, Long> nextVersions(Collection<UUID> userIds) {
+        // A user created in this transaction must be in the table before its row can be locked
+        userRepository.flush();
+        Map<UUID, Long> versions = new HashMap<>();
+        for (Object[] row : userRepository.lockChangeVersions(userIds)) {
+            versions.put((UUID) row[0], ((Number) row[1]).longValue() + 1);
+        }
+        for (UUID userId : userIds) {
+            if (!versions.containsKey(userId)) {
+                throw new IllegalStateException("Cannot record a change event for unknown user " + userId);
+            }
+        }
+        userRepository.bumpChangeVersions(userIds);
+        return versions;
+    }
+
+    private String encode(UserChangeEvent event) {
+        try {
+            return payloadMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize change event for user " + event.getUserId(), ex);
+        }
+    }
+
+    private abstract static class PasswordlessUserDto {
+        @JsonIgnore
+        abstract String getPassword();
+    }
+}
@@ -0,0 +1,22 @@
+package in.food.restro.authservice.outbox;
+
+import java.util.List;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+
+/**
+ * Destination of user change events tailed from the outbox.
+ * <p>
+ * Delivery is at-least-once: a batch is redelivered to every sink when any sink fails,
+ * so implementations must tolerate duplicates (the event {@code sequence} is unique).
+ * Events of the same user always arrive in {@code version} order.
+ */
+public interface UserChangeSink {
+
+    String name();
+
+    /**
+     * Delivers the events in order. Throwing marks the whole batch as undelivered.
+     */
+    void deliver(List<UserChangeEvent> events) throws Exception;
+}
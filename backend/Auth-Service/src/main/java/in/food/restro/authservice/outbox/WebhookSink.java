@@ -0,0 +1,48 @@
+package in.food.restro.authservice.outbox;
+
+import java.net.http.HttpClient;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+
+/**
+ * Posts each batch as a JSON array to a configured URL, with the configured token as bearer token.
+ * Any non-2xx response fails the batch, which is then retried.
+ */
+public class WebhookSink implements UserChangeSink {
+
+    private final RestClient restClient;
+
+    public WebhookSink(RestClient.Builder builder, OutboxProperties.Webhook webhook) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(webhook.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(webhook.getReadTimeout());
+        builder.baseUrl(webhook.getUrl())
+                .requestFactory(requestFactory);
+        if (webhook.getToken() != null && !webhook.getToken().isBlank()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + webhook.getToken());
+        }
+        this.restClient = builder.build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<UserChangeEvent> events) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,151 @@
+package in.food.restro.authservice.purge;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import in.food.restro.authservice.sharding.UserDirectory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hard-deletes soft-deleted users once their grace period has passed.
+ * <p>
+ * Each batch is one short transaction that removes the users' role links, address links,
+ * addresses and finally the user rows, all with set-based statements. Role rows are shared
+ * and never touched. Batches are separated by a pause, and a run stops after a fixed number
+ * of batches, so a large backlog drains steadily instead of saturating the database.
+ * <p>
+ * With sharding, every shard is purged in turn with its own batch budget, and the directory
+ * entries of purged users are released once their batch has committed.
+ * <p>
+ * Counting the backlog scans the soft-deleted rows, so a shard is only recounted after a run
+ * that purged some of them, and once at the first run. Deletions still within their grace period
+ * show up in the backlog once the first of them is purged.
+ */
+@Component
+@Slf4j
+public class DeletedUserPurger {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectProvider<UserDirectory> userDirectory;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    /** Soft-deleted users per shard at its last count, -1 until the first. */
+    private final long[] shardBacklog;
+
+    public DeletedUserPurger(UserRepository userRepository, TransactionTemplate transactionTemplate,
+            ShardRouter shardRouter, ObjectProvider<UserDirectory> userDirectory, MeterRegistry meterRegistry,
+            @Value("${app.purge.grace-period:10m}") Duration gracePeriod,
+            @Value("${app.purge.batch-size:500}") int batchSize,
+            @Value("${app.purge.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${app.purge.pause-between-batches:200ms}") Duration pauseBetweenBatches) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.userDirectory = userDirectory;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.shardBacklog = new long[shardRouter.shardCount()];
+        Arrays.fill(shardBacklog, -1);
+        this.purgedCounter = Counter.builder("auth.purge.users")
+                .description("Soft-deleted users removed for good")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("auth.purge.batch")
+                .description("Time to purge one batch of soft-deleted users")
+                .register(meterRegistry);
+        Gauge.builder("auth.purge.backlog", backlog, AtomicLong::get)
+                .description("Soft-deleted users still waiting to be purged")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.interval:60000}", initialDelayString = "${app.purge.interval:60000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        AtomicLong purged = new AtomicLong();
+        shardRouter.forEachShard(shard -> {
+            long purgedOnShard = purgeShard(cutoff);
+            purged.addAndGet(purgedOnShard);
+            if (purgedOnShard > 0 || shardBacklog[shard] < 0) {
+                shardBacklog[shard] = countBacklog(shardBacklog[shard]);
+            }
+        });
+        backlog.set(Arrays.stream(shardBacklog).map(count -> Math.max(count, 0)).sum());
+        if (purged.get() > 0) {
+            log.info("Purge: Removed {} soft-deleted users, {} remaining", purged.get(), backlog.get());
+        }
+    }
+
+    private long countBacklog(long previous) {
+        try {
+            return userRepository.countDeleted();
+        } catch (RuntimeException ex) {
+            log.warn("Purge: Could not count the backlog: {}", ex.getMessage());
+            return previous;
+        }
+    }
+
+    private long purgeShard(Instant cutoff) {
+        long purged = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<UUID> removed = batchTimer.record(() -> transactionTemplate.execute(status -> purgeBatch(cutoff)));
+                if (removed == null || removed.isEmpty()) {
+                    break;
+                }
+                purged += removed.size();
+                purgedCounter.increment(removed.size());
+                userDirectory.ifAvailable(directory -> directory.releaseAll(removed));
+                if (removed.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseBetweenBatches.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Purge: Failed after removing {} users: {}", purged, ex.getMessage(), ex);
+        }
+        return purged;
+    }
+
+    private List<UUID> purgeBatch(Instant cutoff) {
+        List<UUID> userIds = userRepository.lockDeletedBefore(cutoff, batchSize);
+        if (userIds.isEmpty()) {
+            return userIds;
+        }
+        List<UUID> addressIds = userRepository.findAddressIds(userIds);
+        userRepository.deleteAllRoleLinks(userIds);
+        userRepository.deleteAddressLinks(userIds);
+        if (!addressIds.isEmpty()) {
+            userRepository.deleteAddresses(addressIds);
+        }
+        int removed = userRepository.deleteSoftDeleted(userIds);
+        log.debug("Purge: Batch removed {} users and {} addresses", removed, addressIds.size());
+        return userIds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package in.food.restro.authservice.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the per-client token buckets of every endpoint group.
+ * <p>
+ * Buckets live in a {@link ConcurrentHashMap} per group, which gives lock-free reads and
+ * striped writes; the allowed path is one map lookup and one CAS. Memory is bounded by
+ * {@link RateLimitProperties#getMaxClients()}: once a group is full, unseen clients share
+ * a single overflow bucket until the idle sweep frees space.
+ */
+@Slf4j
+public class ClientRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<String, GroupBuckets> groups = new LinkedHashMap<>();
+
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        properties.getGroups().forEach((name, group) -> {
+            GroupBuckets buckets = new GroupBuckets(group,
+                    Counter.builder("auth.ratelimit.rejected")
+                            .description("Requests rejected by the per-client rate limiter")
+                            .tag("group", name)
+                            .register(meterRegistry));
+            Gauge.builder("auth.ratelimit.clients", buckets.buckets, Map::size)
+                    .description("Clients currently tracked by the rate limiter")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            groups.put(name, buckets);
+        });
+    }
+
+    /**
+     * Takes a token from the bucket of the given client.
+     *
+     * @param group Endpoint group name.
+     * @param clientKey API key or remote address of the caller.
+     * @return 0 if allowed, otherwise the nanoseconds the client has to wait.
+     */
+    public long tryAcquire(String group, String clientKey) {
+        GroupBuckets buckets = groups.get(group);
+        if (buckets == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long wait = buckets.bucketFor(clientKey, now).tryAcquire(now);
+        if (wait > 0) {
+            buckets.rejected.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Evicts buckets that have not been used within the idle timeout.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        groups.forEach((name, buckets) -> {
+            int before = buckets.buckets.size();
+            buckets.buckets.values().removeIf(bucket -> bucket.isIdleSince(threshold));
+            int evicted = before - buckets.buckets.size();
+            if (evicted > 0) {
+                log.debug("RateLimit: Evicted {} idle clients from group '{}'", evicted, name);
+            }
+        });
+    }
+
+    private final class GroupBuckets {
+        private final RateLimitProperties.Group config;
+        private final Counter rejected;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflow;
+
+        private GroupBuckets(RateLimitProperties.Group config, Counter rejected) {
+            this.config = config;
+            this.rejected = rejected;
+            this.overflow = newBucket(System.nanoTime());
+        }
+
+        private TokenBucket bucketFor(String clientKey, long now) {
+            TokenBucket bucket = buckets.get(clientKey);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= properties.getMaxClients()) {
+                return overflow;
+            }
+            return buckets.computeIfAbsent(clientKey, key -> newBucket(now));
+        }
+
+        private TokenBucket newBucket(long now) {
+            return new TokenBucket(config.getCapacity(), config.getRefillPerSecond(), now);
+        }
+    }
+}
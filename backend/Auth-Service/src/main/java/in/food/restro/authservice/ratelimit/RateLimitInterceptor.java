@@ -0,0 +1,85 @@
+package in.food.restro.authservice.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import in.food.restro.authservice.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the per-client rate limit to the endpoint groups configured under
+ * {@code app.rate-limit.groups}.
+ * <p>
+ * The client is identified by its API key header when the key is one of
+ * {@code app.rate-limit.api-keys}, otherwise by its remote address. Rejected requests raise {@link RateLimitExceededException}, which is rendered
+ * as {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final ClientRateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final List<GroupMatcher> matchers = new ArrayList<>();
+
+    public RateLimitInterceptor(ClientRateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = properties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        for (Map.Entry<String, RateLimitProperties.Group> group : properties.getGroups().entrySet()) {
+            for (String path : group.getValue().getPaths()) {
+                matchers.add(new GroupMatcher(group.getKey(), PathPatternParser.defaultInstance.parse(path)));
+            }
+        }
+    }
+
+    /**
+     * Path patterns of all configured groups, used to register the interceptor.
+     */
+    public List<String> patterns() {
+        return matchers.stream().map(matcher -> matcher.pattern().getPatternString()).toList();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String group = resolveGroup(request);
+        if (group == null) {
+            return true;
+        }
+        long waitNanos = rateLimiter.tryAcquire(group, clientKey(request));
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException(group, retryAfterSeconds);
+        }
+        return true;
+    }
+
+    private String resolveGroup(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (GroupMatcher matcher : matchers) {
+            if (matcher.pattern().matches(path)) {
+                return matcher.group();
+            }
+        }
+        return null;
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record GroupMatcher(String group, PathPattern pattern) {
+    }
+}
@@ -0,0 +1,59 @@
+package in.food.restro.authservice.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the per-client rate limiter, bound from {@code app.rate-limit.*}.
+ * <p>
+ * Each endpoint group has its own bucket per client, so exhausting the budget of the
+ * existence checks does not block the same client on the search endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+
+	/** Header carrying the client API key; the remote address is used when absent or unknown. */
+	private String apiKeyHeader = "X-API-Key";
+
+	/**
+	 * API keys issued to clients. Only these get a bucket of their own; any other header value
+	 * is ignored, so a caller cannot escape its limit by sending a fresh key with every request.
+	 */
+	private Set<String> apiKeys = new HashSet<>();
+
+	/** Upper bound on tracked clients per group; new clients beyond it share an overflow bucket. */
+	private int maxClients = 100_000;
+
+	/** Buckets not touched for this long are evicted. */
+	private Duration idleTimeout = Duration.ofMinutes(5);
+
+	private Map<String, Group> groups = new LinkedHashMap<>();
+
+	@Getter
+	@Setter
+	public static class Group {
+
+		/** Ant-style path patterns covered by this group. */
+		private List<String> paths = new ArrayList<>();
+
+		/** Maximum burst of requests a client can make at once. */
+		private int capacity = 20;
+
+		/** Sustained requests per second a client is allowed. */
+		private double refillPerSecond = 5;
+	}
+}
@@ -0,0 +1,50 @@
+package in.food.restro.authservice.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for a single client.
+ * <p>
+ * Implemented as a generic cell rate algorithm: the whole bucket state is one
+ * "theoretical arrival time" in nanoseconds, so acquiring a token is a single CAS
+ * and the bucket costs one {@link AtomicLong} of memory.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, capacity - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}.
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long tat = Math.max(current, nowNanos);
+            long wait = tat - burstToleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, tat + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle once it has fully refilled and has not been used since.
+     */
+    boolean isIdleSince(long thresholdNanos) {
+        return theoreticalArrival.get() - thresholdNanos < 0;
+    }
+}
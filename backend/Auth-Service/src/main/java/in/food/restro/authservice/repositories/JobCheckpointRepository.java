@@ -0,0 +1,8 @@
+package in.food.restro.authservice.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import in.food.restro.authservice.entities.JobCheckpoint;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
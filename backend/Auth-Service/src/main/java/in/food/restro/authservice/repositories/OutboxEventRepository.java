@@ -0,0 +1,66 @@
+package in.food.restro.authservice.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import in.food.restro.authservice.entities.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+	/**
+	 * Locks the oldest pending events that are due, skipping rows locked by a dispatcher on
+	 * another instance and users whose earlier events, by user version, are held back by a
+	 * claim or a retry delay.
+	 */
+	@Query(value = "SELECT * FROM user_outbox e WHERE e.dispatched_at IS NULL AND e.parked_at IS NULL "
+			+ "AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now) AND NOT EXISTS "
+			+ "(SELECT 1 FROM user_outbox p WHERE p.user_id = e.user_id AND p.user_version < e.user_version "
+			+ "AND p.dispatched_at IS NULL AND p.parked_at IS NULL AND p.next_attempt_at > :now) "
+			+ "ORDER BY e.outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<OutboxEvent> lockDue(Instant now, int limit);
+
+	/**
+	 * The lowest user version among the pending events of each of the given users that are not
+	 * among the given ids.
+	 */
+	@Query("SELECT e.userId, MIN(e.userVersion) FROM OutboxEvent e WHERE e.userId IN :userIds AND e.id NOT IN :ids "
+			+ "AND e.dispatchedAt IS NULL AND e.parkedAt IS NULL GROUP BY e.userId")
+	List<Object[]> findLowestPendingVersionOutside(Collection<UUID> userIds, Collection<Long> ids);
+
+	Optional<OutboxEvent> findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc();
+
+	/**
+	 * Holds the events back until the given time; used both to claim events and to delay a retry.
+	 */
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :until WHERE e.id IN :ids")
+	int holdUntil(Collection<Long> ids, Instant until);
+
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.nextAttemptAt = NULL WHERE e.id IN :ids")
+	int release(Collection<Long> ids);
+
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.dispatchedAt = :dispatchedAt, e.nextAttemptAt = NULL WHERE e.id IN :ids")
+	int markDispatched(Collection<Long> ids, Instant dispatchedAt);
+
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :retryAt WHERE e.id IN :ids")
+	int recordFailure(Collection<Long> ids, Instant retryAt);
+
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + :failed, e.parkedAt = :parkedAt, "
+			+ "e.nextAttemptAt = NULL WHERE e.id IN :ids")
+	int park(Collection<Long> ids, int failed, Instant parkedAt);
+
+	@Modifying
+	@Query("DELETE FROM OutboxEvent e WHERE e.dispatchedAt < :before")
+	int deleteDispatchedBefore(Instant before);
+}
@@ -0,0 +1,22 @@
+package in.food.restro.authservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Lightweight projection of the identifying columns of a user, used to bulk-load
+ * in-memory indexes without hydrating roles and address.
+ */
+public interface UserIdentityView {
+
+	UUID getId();
+
+	String getUsername();
+
+	String getEmail();
+
+	String getPhoneNumber();
+
+	String getFirstName();
+
+	String getLastName();
+}
@@ -1,11 +1,21 @@
 package in.food.restro.authservice.repositories;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import in.food.restro.authservice.entities.User;
+import in.food.restro.authservice.enums.Provider;
+import jakarta.persistence.QueryHint;
 
 public interface UserRepository extends JpaRepository<User, UUID>{
 	
@@ -24,4 +34,158 @@ public interface UserRepository extends JpaRepository<User, UUID>{
 	boolean existsByPhoneNumber(String phoneNumber);
 	
 	boolean existsById(UUID id);
+	
+	/**
+	 * Keyset-paged scan of identifying columns in id order, starting after the given id.
+	 */
+	@Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.phoneNumber AS phoneNumber, "
+			+ "u.firstName AS firstName, u.lastName AS lastName FROM User u WHERE u.id > :after ORDER BY u.id")
+	List<UserIdentityView> findIdentitiesAfter(UUID after, Pageable pageable);
+	
+	/**
+	 * Does nothing but make a repeatable-read transaction take its snapshot now, which it
+	 * otherwise takes at its first real query.
+	 */
+	@Query(value = "SELECT 1", nativeQuery = true)
+	int openSnapshot();
+	
+	@Query("SELECT u.isActive, COUNT(u) FROM User u GROUP BY u.isActive")
+	List<Object[]> countByActive();
+	
+	@Query("SELECT u.provider, COUNT(u) FROM User u GROUP BY u.provider")
+	List<Object[]> countByProvider();
+	
+	/**
+	 * Users per address location; the location comes back as its shared dictionary entry, or
+	 * null with the country, state and city of an address the backfill has not reached yet.
+	 */
+	@Query("SELECT a.location, a.legacyCountry, a.legacyState, a.legacyCity, COUNT(u) FROM User u LEFT JOIN u.address a "
+			+ "GROUP BY a.location, a.legacyCountry, a.legacyState, a.legacyCity")
+	List<Object[]> countByLocation();
+	
+	/**
+	 * Streams signup timestamps; must be consumed inside a transaction and closed.
+	 */
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	@Query("SELECT u.createdAt FROM User u WHERE u.createdAt >= :since")
+	Stream<Instant> streamCreatedAtSince(Instant since);
+	
+	/*
+	 * Change versions of the outbox. The rows are locked in id order, so two transactions
+	 * bumping overlapping sets of users cannot deadlock.
+	 */
+	
+	@Query(value = "SELECT user_id, change_version FROM users WHERE user_id IN (:userIds) ORDER BY user_id FOR UPDATE",
+			nativeQuery = true)
+	List<Object[]> lockChangeVersions(Collection<UUID> userIds);
+	
+	@Modifying
+	@Query(value = "UPDATE users SET change_version = change_version + 1 WHERE user_id IN (:userIds)", nativeQuery = true)
+	int bumpChangeVersions(Collection<UUID> userIds);
+	
+	/*
+	 * Role membership, written straight to the join table so the user and its role set
+	 * are never loaded. Inserts are idempotent: an existing link is left alone, including one
+	 * inserted by a concurrent transaction, which a NOT EXISTS check would not see and which
+	 * would then fail on the primary key instead.
+	 */
+	
+	@Modifying
+	@Query(value = "INSERT INTO user_user_roles (user_id, user_role_id) VALUES (:userId, :roleId) "
+			+ "ON CONFLICT DO NOTHING", nativeQuery = true)
+	int insertRoleLink(UUID userId, UUID roleId);
+	
+	@Modifying
+	@Query(value = "DELETE FROM user_user_roles WHERE user_id = :userId AND user_role_id = :roleId", nativeQuery = true)
+	int deleteRoleLink(UUID userId, UUID roleId);
+	
+	@Modifying
+	@Query(value = "INSERT INTO user_user_roles (user_id, user_role_id) SELECT u.user_id, :roleId FROM users u "
+			+ "WHERE u.user_id IN (:userIds) ON CONFLICT DO NOTHING", nativeQuery = true)
+	int insertRoleLinks(UUID roleId, Collection<UUID> userIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM user_user_roles WHERE user_role_id = :roleId AND user_id IN (:userIds)", nativeQuery = true)
+	int deleteRoleLinks(UUID roleId, Collection<UUID> userIds);
+	
+	@Query(value = "SELECT user_id FROM user_user_roles WHERE user_role_id = :roleId AND user_id IN (:userIds)",
+			nativeQuery = true)
+	List<UUID> findUsersHavingRole(UUID roleId, Collection<UUID> userIds);
+	
+	/**
+	 * Keyset-paged ids of the users matching the filter; a null criterion matches everyone.
+	 */
+	@Query("SELECT u.id FROM User u WHERE u.id > :after AND (:provider IS NULL OR u.provider = :provider) "
+			+ "AND (:active IS NULL OR u.isActive = :active) ORDER BY u.id")
+	List<UUID> findIdsMatching(Provider provider, Boolean active, UUID after, Pageable pageable);
+	
+	/**
+	 * The given ids that belong to existing users matching the filter.
+	 */
+	@Query("SELECT u.id FROM User u WHERE u.id IN :ids AND (:provider IS NULL OR u.provider = :provider) "
+			+ "AND (:active IS NULL OR u.isActive = :active)")
+	List<UUID> findIdsMatchingAmong(Collection<UUID> ids, Provider provider, Boolean active);
+	
+	/*
+	 * Purge of soft-deleted users. These are native queries because the entity's
+	 * soft-delete restriction hides exactly the rows they work on.
+	 */
+	
+	/**
+	 * Locks a batch of users deleted before the cutoff, oldest first. Rows locked by a purge
+	 * running on another instance are skipped rather than waited for.
+	 */
+	@Query(value = "SELECT user_id FROM users WHERE deleted = true AND deleted_at < :cutoff "
+			+ "ORDER BY deleted_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<UUID> lockDeletedBefore(Instant cutoff, int limit);
+	
+	@Query(value = "SELECT COUNT(*) FROM users WHERE deleted = true", nativeQuery = true)
+	long countDeleted();
+	
+	@Query(value = "SELECT user_addr_id FROM user_user_addr WHERE user_id IN (:userIds)", nativeQuery = true)
+	List<UUID> findAddressIds(Collection<UUID> userIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM user_user_roles WHERE user_id IN (:userIds)", nativeQuery = true)
+	int deleteAllRoleLinks(Collection<UUID> userIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM user_user_addr WHERE user_id IN (:userIds)", nativeQuery = true)
+	int deleteAddressLinks(Collection<UUID> userIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM user_addr WHERE user_addr_id IN (:addressIds)", nativeQuery = true)
+	int deleteAddresses(Collection<UUID> addressIds);
+	
+	@Modifying
+	@Query(value = "DELETE FROM users WHERE user_id IN (:userIds) AND deleted = true", nativeQuery = true)
+	int deleteSoftDeleted(Collection<UUID> userIds);
+	
+	/*
+	 * Inactive-account sweep. The users table is walked in primary key order; each chunk is
+	 * a range of ids, so every statement is an index range scan however large the table.
+	 */
+	
+	/**
+	 * The id {@code offset + 1} rows after {@code after}, i.e. the inclusive upper bound of the
+	 * next chunk; empty when fewer rows remain.
+	 */
+	@Query(value = "SELECT user_id FROM users WHERE user_id > :after ORDER BY user_id LIMIT 1 OFFSET :offset",
+			nativeQuery = true)
+	List<UUID> findIdAfter(UUID after, int offset);
+	
+	@Query(value = "SELECT COUNT(*) FROM users WHERE user_id > :after", nativeQuery = true)
+	long countIdsAfter(UUID after);
+	
+	/**
+	 * Locks the active users of the id range that have not logged in since the cutoff. Rows
+	 * locked by a sweep on another instance are skipped; that instance deactivates them.
+	 */
+	@Query(value = "SELECT user_id FROM users WHERE user_id > :low AND user_id <= :high AND is_active = true "
+			+ "AND deleted = false AND last_login_at < :cutoff FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<UUID> lockInactiveBetween(UUID low, UUID high, Instant cutoff);
+	
+	@Modifying
+	@Query(value = "UPDATE users SET is_active = false, updated_at = :now WHERE user_id IN (:userIds)", nativeQuery = true)
+	int deactivateAll(Collection<UUID> userIds, Instant now);
 }
@@ -0,0 +1,29 @@
+package in.food.restro.authservice.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import in.food.restro.authservice.entities.UserStatsSummary;
+import jakarta.persistence.LockModeType;
+
+public interface UserStatsSummaryRepository extends JpaRepository<UserStatsSummary, String> {
+
+	/**
+	 * The checkpoint, locked until the end of the transaction, so that instances replace it one at a time.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM UserStatsSummary s")
+	List<UserStatsSummary> lockAll();
+
+	/**
+	 * Drops counters that were not part of the latest checkpoint, e.g. signup days past the window.
+	 */
+	@Modifying
+	@Query("DELETE FROM UserStatsSummary s WHERE s.checkpointedAt < :checkpointedAt")
+	int deleteCheckpointedBefore(Instant checkpointedAt);
+}
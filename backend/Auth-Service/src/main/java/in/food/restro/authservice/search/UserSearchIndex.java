@@ -0,0 +1,422 @@
+package in.food.restro.authservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory trigram index over user names, username, email and phone, for prefix and
+ * fuzzy matching.
+ * <p>
+ * Every field is normalized (lower case, letters/digits/{@code @}/{@code .} only) and padded
+ * with two start markers, so the first trigrams of a field double as prefix keys and
+ * one- and two-character queries still hit the index. Posting lists hold document numbers
+ * in ascending order; updates append a new document and tombstone the old one, and the
+ * index is compacted once a quarter of the documents are dead.
+ * <p>
+ * A query only walks the rarest posting lists of its trigrams (common trigrams such as
+ * those of {@code gmail.com} are skipped while rarer ones exist), then scores each
+ * candidate exactly: prefix matches first, then substring matches, then trigram similarity.
+ * <p>
+ * Writers are serialized among themselves and take the read-write lock only for the few
+ * posting appends of one user; trigrams are computed before. A compaction builds the new
+ * tables while searches keep using the old ones, and swaps them in under the lock.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final char MARK = '\u0002';
+    private static final int MAX_LISTS_PER_QUERY = 6;
+    private static final int MAX_CANDIDATES = 20_000;
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private static final int MIN_DEAD_DOCS_TO_COMPACT = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Held by writers; the tables only change while it is held, so writers read them without the lock. */
+    private final Object writeMonitor = new Object();
+    /** Replaced by a compaction; read under the read lock, changed under the write lock. */
+    private Tables tables = new Tables();
+    /** Users removed since the bulk load started, which it must not add back; null outside a load. */
+    private Set<UUID> removedDuringLoad;
+
+    /**
+     * Adds or replaces the entry of a user.
+     */
+    public void put(UUID id, String firstName, String lastName, String username, String email, String phoneNumber) {
+        Doc doc = doc(id, firstName, lastName, username, email, phoneNumber);
+        long[] grams = grams(doc);
+        synchronized (writeMonitor) {
+            store(doc, grams);
+        }
+    }
+
+    /**
+     * Adds the entry only if the user is not indexed yet and was not removed since the bulk load
+     * started. Used by the bulk load, so it never overwrites a newer entry applied from a change
+     * event nor brings back a user deleted after the load read it.
+     */
+    public void putIfAbsent(UUID id, String firstName, String lastName, String username, String email, String phoneNumber) {
+        Doc doc = doc(id, firstName, lastName, username, email, phoneNumber);
+        long[] grams = grams(doc);
+        synchronized (writeMonitor) {
+            if (tables.docNumbers.containsKey(id) || removedDuringLoad != null && removedDuringLoad.contains(id)) {
+                return;
+            }
+            store(doc, grams);
+        }
+    }
+
+    public void remove(UUID id) {
+        synchronized (writeMonitor) {
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(id);
+            }
+            lock.writeLock().lock();
+            try {
+                tables.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Starts remembering removed users, until {@link #finishLoad()}, for {@link #putIfAbsent}.
+     */
+    public void startLoad() {
+        synchronized (writeMonitor) {
+            removedDuringLoad = new HashSet<>();
+        }
+    }
+
+    public void finishLoad() {
+        synchronized (writeMonitor) {
+            removedDuringLoad = null;
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tables.docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the users matching the query.
+     *
+     * @param query Free text: part of a name, username, email or phone number.
+     * @param page Page number, 0-based.
+     * @param size Page size.
+     * @return The hits of the requested page and the total number of matches
+     *         (a lower bound when the query is too unselective to examine every candidate).
+     */
+    public SearchPage search(String query, int page, int size) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return new SearchPage(0, List.of());
+        }
+        long[] queryGrams = trigrams(q);
+        List<Hit> hits = new ArrayList<>();
+        long[] scratch = new long[64];
+
+        lock.readLock().lock();
+        try {
+            Tables current = tables;
+            for (int docNumber : candidates(current, queryGrams)) {
+                Doc doc = current.docs.get(docNumber);
+                if (doc == null) {
+                    continue;
+                }
+                if (scratch.length < doc.maxLength()) {
+                    scratch = new long[doc.maxLength()];
+                }
+                double score = score(doc, q, queryGrams, scratch);
+                if (score > 0) {
+                    hits.add(new Hit(doc.id(), score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        int from = Math.min(hits.size(), page * size);
+        return new SearchPage(hits.size(), List.copyOf(hits.subList(from, Math.min(hits.size(), from + size))));
+    }
+
+    private static int[] candidates(Tables tables, long[] queryGrams) {
+        List<IntList> lists = new ArrayList<>();
+        for (long gram : queryGrams) {
+            IntList list = tables.postings.get(gram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+
+        Set<Integer> seen = new HashSet<>();
+        int listsUsed = 0;
+        for (IntList list : lists) {
+            if (listsUsed == MAX_LISTS_PER_QUERY || (listsUsed > 0 && seen.size() + list.size() > MAX_CANDIDATES)) {
+                break;
+            }
+            for (int i = 0; i < list.size() && seen.size() < MAX_CANDIDATES; i++) {
+                seen.add(list.get(i));
+            }
+            listsUsed++;
+        }
+        return seen.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @param scratch Room for the trigrams of the longest field of the document.
+     */
+    private static double score(Doc doc, String q, long[] queryGrams, long[] scratch) {
+        double best = 0;
+        for (String field : doc.fields()) {
+            if (field.isEmpty()) {
+                continue;
+            }
+            double lengthBonus = (double) q.length() / field.length();
+            if (field.startsWith(q)) {
+                best = Math.max(best, 2 + lengthBonus);
+            } else if (field.contains(q)) {
+                best = Math.max(best, 1 + lengthBonus);
+            } else if (best < 1) {
+                // Similarity is at most 1, so it is only worth computing while no field matched
+                double similarity = similarity(queryGrams, scratch, trigrams(field, scratch));
+                if (similarity >= MIN_SIMILARITY) {
+                    best = Math.max(best, similarity);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Jaccard similarity of the sorted, distinct trigrams {@code a} and the first {@code bCount} of {@code b}.
+     */
+    private static double similarity(long[] a, long[] b, int bCount) {
+        int common = 0;
+        for (long gram : a) {
+            if (Arrays.binarySearch(b, 0, bCount, gram) >= 0) {
+                common++;
+            }
+        }
+        return (double) common / (a.length + bCount - common);
+    }
+
+    /**
+     * Stores the document, replacing the user's previous one. The caller holds the write monitor.
+     */
+    private void store(Doc doc, long[] grams) {
+        lock.writeLock().lock();
+        try {
+            tables.remove(doc.id());
+            tables.add(doc, grams);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Rebuilds the tables once a quarter of the documents are dead, whether they were removed
+     * or replaced by an update. The caller holds the write monitor, so nothing changes the old
+     * tables meanwhile and searches keep using them until the swap.
+     */
+    private void compactIfNeeded() {
+        if (tables.deadDocs <= MIN_DEAD_DOCS_TO_COMPACT || tables.deadDocs <= tables.docs.size() / 4) {
+            return;
+        }
+        Tables compacted = new Tables();
+        for (Doc doc : tables.docs) {
+            if (doc != null) {
+                compacted.add(doc, grams(doc));
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            tables = compacted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Documents held, live or dead; for tests. */
+    int docCount() {
+        lock.readLock().lock();
+        try {
+            return tables.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Doc doc(UUID id, String firstName, String lastName, String username, String email, String phoneNumber) {
+        return new Doc(id, new String[] {
+                normalize(join(firstName, lastName)),
+                normalize(lastName),
+                normalize(username),
+                normalize(email),
+                normalize(phoneNumber) });
+    }
+
+    /**
+     * Distinct trigrams over all fields of the document.
+     */
+    private static long[] grams(Doc doc) {
+        int total = 0;
+        for (String field : doc.fields()) {
+            total += field.length();
+        }
+        long[] all = new long[total];
+        long[] scratch = new long[doc.maxLength()];
+        int count = 0;
+        for (String field : doc.fields()) {
+            int fieldCount = trigrams(field, scratch);
+            System.arraycopy(scratch, 0, all, count, fieldCount);
+            count += fieldCount;
+        }
+        Arrays.sort(all, 0, count);
+        return Arrays.copyOf(all, distinct(all, count));
+    }
+
+    /**
+     * Distinct, sorted trigrams of the marker-padded value, three 16-bit chars packed in a long.
+     */
+    static long[] trigrams(String value) {
+        long[] grams = new long[value.length()];
+        return Arrays.copyOf(grams, trigrams(value, grams));
+    }
+
+    /**
+     * Writes the distinct, sorted trigrams of the value to the start of {@code into}, which must
+     * hold at least as many elements as the value has chars.
+     *
+     * @return The number of trigrams written.
+     */
+    static int trigrams(String value, long[] into) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char first = i < 2 ? MARK : value.charAt(i - 2);
+            char second = i < 1 ? MARK : value.charAt(i - 1);
+            into[i] = ((long) first << 32) | ((long) second << 16) | value.charAt(i);
+        }
+        Arrays.sort(into, 0, length);
+        return distinct(into, length);
+    }
+
+    /**
+     * Drops repeats from the first {@code count} sorted values in place.
+     *
+     * @return The number of distinct values.
+     */
+    private static int distinct(long[] sorted, int count) {
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c) || c == '@' || c == '.') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String join(String first, String last) {
+        return (first == null ? "" : first) + (last == null ? "" : last);
+    }
+
+    private record Doc(UUID id, String[] fields) {
+        int maxLength() {
+            int max = 0;
+            for (String field : fields) {
+                max = Math.max(max, field.length());
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Posting lists and documents, replaced as a whole by a compaction.
+     */
+    private static final class Tables {
+        private final Map<Long, IntList> postings = new HashMap<>();
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<UUID, Integer> docNumbers = new HashMap<>();
+        private int deadDocs;
+
+        void add(Doc doc, long[] grams) {
+            int docNumber = docs.size();
+            docs.add(doc);
+            docNumbers.put(doc.id(), docNumber);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, key -> new IntList()).add(docNumber);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer docNumber = docNumbers.remove(id);
+            if (docNumber != null) {
+                docs.set(docNumber, null);
+                deadDocs++;
+            }
+        }
+    }
+
+    public record Hit(UUID id, double score) {
+    }
+
+    public record SearchPage(int total, List<Hit> hits) {
+    }
+
+    /**
+     * Growable list of primitive ints, to keep posting lists compact.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
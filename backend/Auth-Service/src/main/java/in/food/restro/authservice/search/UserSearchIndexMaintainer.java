@@ -0,0 +1,168 @@
+package in.food.restro.authservice.search;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.repositories.UserIdentityView;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@link UserSearchIndex} in step with the {@code users} table: bulk-loads it in
+ * the background once the application is ready, applies the changes made by this instance
+ * as soon as they commit, and the user change events delivered by the outbox's in-process
+ * sink, which also carry the changes of other instances when this one dispatches. Events of
+ * a user arrive in order, so whichever path comes last, the index ends on the user's last change.
+ * <p>
+ * Changes are queued and applied by a single writer thread, so request threads never wait
+ * for the index's write lock, nor for a compaction.
+ */
+@Component
+@Slf4j
+public class UserSearchIndexMaintainer {
+
+    private final UserSearchIndex index;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final int pageSize;
+    private final BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+
+    public UserSearchIndexMaintainer(UserSearchIndex index, UserRepository userRepository, ShardRouter shardRouter,
+            @Value("${app.search.load-page-size:5000}") int pageSize) {
+        this.index = index;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofVirtual().name("user-search-index-writer").start(this::applyChanges);
+        Thread.ofVirtual().name("user-search-index-load").start(this::load);
+    }
+
+    /**
+     * Scans the users table of every shard in id order and indexes every user not indexed yet,
+     * nor removed while the scan runs.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        index.startLoad();
+        try {
+            shardRouter.forEachShard(shard -> {
+                UUID after = new UUID(0, 0);
+                while (true) {
+                    List<UserIdentityView> page = userRepository.findIdentitiesAfter(after, PageRequest.of(0, pageSize));
+                    for (UserIdentityView user : page) {
+                        index.putIfAbsent(user.getId(), user.getFirstName(), user.getLastName(),
+                                user.getUsername(), user.getEmail(), user.getPhoneNumber());
+                    }
+                    loaded.addAndGet(page.size());
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    after = page.get(page.size() - 1).getId();
+                }
+            });
+            log.info("Search: Indexed {} users in {} ms", loaded.get(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException ex) {
+            log.error("Search: Index load failed after {} users: {}", loaded.get(), ex.getMessage(), ex);
+        } finally {
+            index.finishLoad();
+        }
+    }
+
+    /**
+     * Queues a change made by this instance once the surrounding transaction commits, or
+     * straight away outside a transaction.
+     *
+     * @param type The kind of change.
+     * @param user The user after the change.
+     */
+    public void record(UserChangeType type, UserDto user) {
+        if (!changesIndexedFields(type)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.add(new Change(type, user.getId(), user));
+                }
+            });
+        } else {
+            changes.add(new Change(type, user.getId(), user));
+        }
+    }
+
+    @EventListener
+    public void onUserChange(UserChangeEvent event) {
+        changes.add(new Change(event.getType(), event.getUserId(), event.getUser()));
+    }
+
+    /**
+     * Applies the queued changes, in the order they were queued.
+     *
+     * @return The number of changes applied.
+     */
+    int applyPending() {
+        int applied = 0;
+        for (Change change = changes.poll(); change != null; change = changes.poll()) {
+            apply(change);
+            applied++;
+        }
+        return applied;
+    }
+
+    private void applyChanges() {
+        while (true) {
+            try {
+                apply(changes.take());
+                applyPending();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Search: Applying a change to the index failed: {}", ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private void apply(Change change) {
+        UserChangeType type = change.type();
+        UserDto user = change.user();
+        if (type == UserChangeType.DELETED) {
+            index.remove(change.id());
+        } else if (changesIndexedFields(type) && user != null) {
+            index.put(user.getId(), user.getFirstName(), user.getLastName(),
+                    user.getUsername(), user.getEmail(), user.getPhoneNumber());
+        }
+    }
+
+    /**
+     * Status, role, password and login changes never touch indexed fields.
+     */
+    private static boolean changesIndexedFields(UserChangeType type) {
+        return type == UserChangeType.CREATED || type == UserChangeType.UPDATED || type == UserChangeType.DELETED;
+    }
+
+    private record Change(UserChangeType type, UUID id, UserDto user) {
+    }
+}
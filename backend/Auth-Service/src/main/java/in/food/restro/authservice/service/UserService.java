@@ -1,6 +1,12 @@
 package in.food.restro.authservice.service;
 
+import java.util.Map;
+
+import in.food.restro.authservice.dtos.BulkRoleRequestDto;
+import in.food.restro.authservice.dtos.BulkRoleResultDto;
 import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.dtos.UserSearchResultDto;
+import in.food.restro.authservice.dtos.UserStatsDto;
 
 public interface UserService {
 	UserDto createUser(UserDto userDto);
@@ -15,6 +21,8 @@ public interface UserService {
 	
 	UserDto updateUser(String id, UserDto userDto);
 	
+	UserDto patchUser(String id, Map<String, Object> patch);
+	
 	UserDto deleteUser(String id);
 	
 	UserDto assignRoleToUser(String userId, String roleId);
@@ -27,6 +35,8 @@ public interface UserService {
 	
 	UserDto changeUserPassword(String id, String newPassword);
 	
+	UserDto updateProfileImage(String id, String imageKey);
+	
 	boolean isUsernameExists(String username);
 	
 	boolean isEmailExists(String email);
@@ -40,4 +50,12 @@ public interface UserService {
 	Iterable<UserDto> getAllUsers(int pageNumber, int pageSize, String sortBy, String sortDir);
 	
 	UserDto getUserRoleDetailsById(String id);
+	
+	UserSearchResultDto searchUsers(String query, int pageNumber, int pageSize);
+	
+	UserStatsDto getUserStatistics();
+	
+	BulkRoleResultDto grantRoleToUsers(String roleId, BulkRoleRequestDto request);
+	
+	BulkRoleResultDto revokeRoleFromUsers(String roleId, BulkRoleRequestDto request);
 }
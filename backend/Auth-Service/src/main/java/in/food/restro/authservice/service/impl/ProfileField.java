@@ -0,0 +1,72 @@
+package in.food.restro.authservice.service.impl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import in.food.restro.authservice.entities.User;
+
+/**
+ * The profile fields a JSON Merge Patch (RFC 7396) may change, by JSON name. All of them are
+ * strings; a {@code null} member clears the field.
+ */
+enum ProfileField {
+    FIRST_NAME("firstName", User::getFirstName, User::setFirstName),
+    MIDDLE_NAME("middleName", User::getMiddleName, User::setMiddleName),
+    LAST_NAME("lastName", User::getLastName, User::setLastName),
+    PHONE_NUMBER("phoneNumber", User::getPhoneNumber, User::setPhoneNumber),
+    GENDER("gender", User::getGender, User::setGender),
+    DOB("dob", User::getDob, User::setDob),
+    PROFILE_IMAGE("profileImage", User::getProfileImage, User::setProfileImage);
+
+    private final String jsonName;
+    private final Function<User, String> getter;
+    private final BiConsumer<User, String> setter;
+
+    ProfileField(String jsonName, Function<User, String> getter, BiConsumer<User, String> setter) {
+        this.jsonName = jsonName;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Validates a merge patch document and returns the members it sets.
+     *
+     * @throws IllegalArgumentException If a member is not a patchable field or not a string or null.
+     */
+    static Map<ProfileField, String> parse(Map<String, Object> patch) {
+        Map<ProfileField, String> changes = new EnumMap<>(ProfileField.class);
+        patch.forEach((name, value) -> {
+            ProfileField field = forJsonName(name);
+            if (value != null && !(value instanceof String)) {
+                throw new IllegalArgumentException("Field '" + name + "' must be a string or null");
+            }
+            changes.put(field, (String) value);
+        });
+        return changes;
+    }
+
+    /**
+     * Sets the field if the value differs from the current one.
+     *
+     * @return Whether the user changed.
+     */
+    boolean apply(User user, String value) {
+        if (Objects.equals(getter.apply(user), value)) {
+            return false;
+        }
+        setter.accept(user, value);
+        return true;
+    }
+
+    private static ProfileField forJsonName(String name) {
+        for (ProfileField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Field '" + name + "' cannot be changed with PATCH");
+    }
+}
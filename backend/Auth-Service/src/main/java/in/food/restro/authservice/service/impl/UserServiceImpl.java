@@ -2,27 +2,56 @@ package in.food.restro.authservice.service.impl;
 
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import in.food.restro.authservice.dtos.AddressDto;
+import in.food.restro.authservice.dtos.BulkRoleRequestDto;
+import in.food.restro.authservice.dtos.BulkRoleResultDto;
 import in.food.restro.authservice.dtos.RoleDto;
 import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.dtos.UserSearchResultDto;
+import in.food.restro.authservice.dtos.UserStatsDto;
 import in.food.restro.authservice.entities.Role;
 import in.food.restro.authservice.entities.User;
 import in.food.restro.authservice.enums.Provider;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.exception.DuplicateResourceException;
 import in.food.restro.authservice.exception.ResourceNotFoundException;
+import in.food.restro.authservice.exception.RoleNotFoundException;
+import in.food.restro.authservice.exception.UserNotFoundException;
+import in.food.restro.authservice.exception.UniqueConstraintTranslator;
+import in.food.restro.authservice.identity.IdentityDirectory;
+import in.food.restro.authservice.identity.IdentityKeys;
+import in.food.restro.authservice.images.ImageStore;
+import in.food.restro.authservice.location.LocationDictionary;
+import in.food.restro.authservice.lookup.UserLookupBatcher;
+import in.food.restro.authservice.outbox.OutboxWriter;
 import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.search.UserSearchIndex;
+import in.food.restro.authservice.search.UserSearchIndexMaintainer;
 import in.food.restro.authservice.service.UserService;
+import in.food.restro.authservice.stats.UserFacts;
+import in.food.restro.authservice.stats.UserStatistics;
+import in.food.restro.authservice.timing.RequestTimings;
+import in.food.restro.authservice.timing.Stage;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,31 +62,50 @@ import lombok.extern.slf4j.Slf4j;
  * This class handles the core business logic for the User module, including:
  * <ul>
  * <li>CRUD operations (Create, Read, Update, Delete)</li>
- * <li>Role management (Assigning/Removing roles via EntityManager to prevent duplicates)</li>
+ * <li>Role management (single and bulk changes written directly to the join table)</li>
  * <li>Account status management (Activate/Deactivate)</li>
  * <li>Security operations (Password changes)</li>
  * <li>Search and Existence checks</li>
  * </ul>
+ * Every mutation records a change event in the outbox within its own transaction and reports
+ * its effect to {@link UserStatistics}, which applies it once the transaction commits.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    /** Users per statement and per transaction in bulk role changes. */
+    private static final int BULK_ROLE_CHUNK = 1000;
+
+    /** Length of the profile_image column. */
+    private static final int MAX_IMAGE_URL_LENGTH = 255;
+
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
     private final EntityManager entityManager;
+    private final OutboxWriter outboxWriter;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSearchIndexMaintainer userSearchIndexMaintainer;
+    private final IdentityDirectory identityDirectory;
+    private final UserLookupBatcher userLookups;
+    private final LocationDictionary locationDictionary;
+    private final UserStatistics userStatistics;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Creates a new user in the system.
      * <p>
-     * Performs validation on required fields and checks for duplicate Email/Username.
+     * Performs validation on required fields. Duplicate Email/Username/Phone are detected by the
+     * unique constraints on the {@code users} table rather than by pre-check queries, which saves
+     * two round trips per registration and cannot race with a concurrent registration.
      * Uses {@link EntityManager} to check if roles already exist in the database to avoid
      * 'Duplicate Key' constraint violations.
      *
      * @param userDto Data Transfer Object containing user registration details.
      * @return UserDto The created user.
-     * @throws IllegalArgumentException If validation fails or if Email/Username already exists.
+     * @throws IllegalArgumentException If validation fails.
+     * @throws DuplicateResourceException If Email, Username or Phone already exists.
      */
     @Override
     @Transactional
@@ -71,18 +119,16 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Email, Username, and Password are required fields.");
         }
 
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            log.warn("Service: Registration failed. Email {} already exists.", userDto.getEmail());
-            throw new IllegalArgumentException("Email already exists.");
-        }
-        if (userRepository.existsByUsername(userDto.getUsername())) {
-            log.warn("Service: Registration failed. Username {} already exists.", userDto.getUsername());
-            throw new IllegalArgumentException("Username already exists.");
-        }
-
         User user = modelMapper.map(userDto, User.class);
+        user.setProfileImage(requireImageReference(userDto.getProfileImage()));
+        if (user.getAddress() != null && userDto.getAddress() != null) {
+            AddressDto address = userDto.getAddress();
+            user.getAddress().setLocation(locationDictionary.canonicalize(address.getCountry(), address.getState(),
+                    address.getCity()));
+        }
 
         Set<Role> managedRoles = new HashSet<>();
+        long rolesStart = RequestTimings.start();
         if (userDto.getRoles() != null) {
             for (RoleDto roleDto : userDto.getRoles()) {
                 // Check if role exists in DB to prevent duplicate insertion
@@ -101,13 +147,22 @@ public class UserServiceImpl implements UserService {
                 }
             }
         }
+        RequestTimings.stop(Stage.ROLES, rolesStart);
         user.setRoles(managedRoles);
         user.setProvider(userDto.getProvider() != null ? userDto.getProvider() : Provider.LOCAL);
         user.setActive(true);
 
-        User savedUser = userRepository.save(user);
+        // Flush inside the try so a unique key violation surfaces here instead of at commit
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateDuplicate(ex, userDto.getUsername());
+        }
         log.info("Service: User created successfully with ID: {}", savedUser.getId());
-        return modelMapper.map(savedUser, UserDto.class);
+        userStatistics.record(null, UserFacts.of(savedUser));
+        identityDirectory.record(null, IdentityKeys.of(savedUser));
+        return publish(UserChangeType.CREATED, savedUser);
     }
 
     /**
@@ -117,15 +172,16 @@ public class UserServiceImpl implements UserService {
      * @param userDto DTO containing updated fields.
      * @return UserDto The updated user details.
      * @throws ResourceNotFoundException If the user is not found.
+     * @throws DuplicateResourceException If the new phone number belongs to another user.
      */
     @Override
+    @Transactional
     public UserDto updateUser(String id, UserDto userDto) {
         log.info("Service: Request to update user profile for ID: {}", id);
         User user = userRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> {
-                    log.error("Service: Update failed. User not found with ID: {}", id);
-                    return new ResourceNotFoundException("User not found with id: " + id);
-                });
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+        UserFacts before = UserFacts.of(user);
+        IdentityKeys keysBefore = IdentityKeys.of(user);
 
         user.setFirstName(userDto.getFirstName());
         user.setMiddleName(userDto.getMiddleName());
@@ -133,37 +189,104 @@ public class UserServiceImpl implements UserService {
         user.setPhoneNumber(userDto.getPhoneNumber());
         user.setGender(userDto.getGender());
         user.setDob(userDto.getDob());
-        user.setProfileImage(userDto.getProfileImage());
+        user.setProfileImage(requireImageReference(userDto.getProfileImage()));
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateDuplicate(ex, id);
+        }
         log.info("Service: User profile updated successfully for ID: {}", id);
-        return modelMapper.map(updatedUser, UserDto.class);
+        userStatistics.record(before, UserFacts.of(updatedUser));
+        identityDirectory.record(keysBefore, IdentityKeys.of(updatedUser));
+        return publish(UserChangeType.UPDATED, updatedUser);
     }
 
     /**
-     * Deletes a user by their unique ID.
+     * Applies a JSON Merge Patch to the user's profile: members present in the patch are set,
+     * {@code null} members are cleared, absent fields are left alone.
+     * <p>
+     * Only fields whose value actually differs are touched, and the entity updates name only
+     * dirty columns, so the UPDATE carries just those columns. If nothing differs, nothing is
+     * written and no change event is recorded.
+     *
+     * @param id The UUID of the user to update.
+     * @param patch The merge patch document.
+     * @return UserDto The user after the patch.
+     * @throws IllegalArgumentException If the patch names a field that cannot be patched.
+     * @throws ResourceNotFoundException If the user is not found.
+     * @throws DuplicateResourceException If the new phone number belongs to another user.
+     */
+    @Override
+    @Transactional
+    public UserDto patchUser(String id, Map<String, Object> patch) {
+        log.info("Service: Request to patch fields {} of user ID: {}", patch.keySet(), id);
+        Map<ProfileField, String> changes = ProfileField.parse(patch);
+        if (changes.containsKey(ProfileField.PROFILE_IMAGE)) {
+            changes.put(ProfileField.PROFILE_IMAGE, requireImageReference(changes.get(ProfileField.PROFILE_IMAGE)));
+        }
+        User user = userRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+        UserFacts before = UserFacts.of(user);
+        IdentityKeys keysBefore = IdentityKeys.of(user);
+
+        boolean changed = false;
+        for (Map.Entry<ProfileField, String> change : changes.entrySet()) {
+            changed |= change.getKey().apply(user, change.getValue());
+        }
+        if (!changed) {
+            log.debug("Service: Patch leaves user {} unchanged, nothing written", id);
+            return toDto(user);
+        }
+
+        User patchedUser;
+        try {
+            patchedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateDuplicate(ex, id);
+        }
+        log.info("Service: User profile patched successfully for ID: {}", id);
+        userStatistics.record(before, UserFacts.of(patchedUser));
+        identityDirectory.record(keysBefore, IdentityKeys.of(patchedUser));
+        return publish(UserChangeType.UPDATED, patchedUser);
+    }
+
+    /**
+     * Soft-deletes a user by their unique ID.
+     * <p>
+     * Only the {@code deleted} flag is set; from then on the user is hidden from every lookup,
+     * listing and existence check. The row, its role links and its address are removed later in
+     * batches by {@link in.food.restro.authservice.purge.DeletedUserPurger}. Until then the
+     * username, email and phone number remain reserved.
      *
      * @param id The UUID of the user to delete.
      * @return UserDto The details of the user that was deleted.
      * @throws ResourceNotFoundException If the user is not found.
      */
     @Override
+    @Transactional
     public UserDto deleteUser(String id) {
         log.warn("Service: Request to delete user ID: {}", id);
         User user = userRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> {
-                    log.error("Service: Delete failed. User not found with ID: {}", id);
-                    return new ResourceNotFoundException("User not found with id: " + id);
-                });
-
-        UserDto deletedUserDto = modelMapper.map(user, UserDto.class);
-        userRepository.delete(user);
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+
+        UserFacts before = UserFacts.of(user);
+        user.setDeleted(true);
+        user.setDeletedAt(Instant.now());
+        UserDto deletedUserDto = toDto(userRepository.save(user));
+        outboxWriter.record(UserChangeType.DELETED, deletedUserDto, null);
+        userSearchIndexMaintainer.record(UserChangeType.DELETED, deletedUserDto);
+        userStatistics.record(before, null);
+        identityDirectory.record(IdentityKeys.of(user), null);
         log.info("Service: User deleted successfully: {}", id);
         return deletedUserDto;
     }
 
     /**
      * Retrieves a user by their unique ID.
+     * <p>
+     * Outside a transaction, concurrent calls share one query through {@link UserLookupBatcher}.
      *
      * @param id The UUID of the user.
      * @return UserDto The found user.
@@ -172,12 +295,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUserById(String id) {
         log.debug("Service: Fetching user by ID: {}", id);
-        User user = userRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> {
-                    log.error("Service: User not found with ID: {}", id);
-                    return new ResourceNotFoundException("User not found with id: " + id);
-                });
-        return modelMapper.map(user, UserDto.class);
+        User user = userLookups.findById(UUID.fromString(id))
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+        return toDto(user);
     }
 
     /**
@@ -190,12 +310,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUserByEmail(String email) {
         log.debug("Service: Fetching user by email: {}", email);
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.error("Service: User not found with email: {}", email);
-                    return new ResourceNotFoundException("User not found with email: " + email);
-                });
-        return modelMapper.map(user, UserDto.class);
+        User user = findByKey(IdentityDirectory.Kind.EMAIL, email, User::getEmail, userLookups::findByEmail)
+                .orElseThrow(() -> new UserNotFoundException("email", email));
+        return toDto(user);
     }
 
     /**
@@ -208,12 +325,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUserByUsername(String username) {
         log.debug("Service: Fetching user by username: {}", username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    log.error("Service: User not found with username: {}", username);
-                    return new ResourceNotFoundException("User not found with username: " + username);
-                });
-        return modelMapper.map(user, UserDto.class);
+        User user = findByKey(IdentityDirectory.Kind.USERNAME, username, User::getUsername, userLookups::findByUsername)
+                .orElseThrow(() -> new UserNotFoundException("username", username));
+        return toDto(user);
     }
 
     /**
@@ -226,12 +340,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUserByPhoneNumber(String phoneNumber) {
         log.debug("Service: Fetching user by phone: {}", phoneNumber);
-        User user = userRepository.findByPhoneNumber(phoneNumber)
-                .orElseThrow(() -> {
-                    log.error("Service: User not found with phone: {}", phoneNumber);
-                    return new ResourceNotFoundException("User not found with phone: " + phoneNumber);
-                });
-        return modelMapper.map(user, UserDto.class);
+        User user = findByKey(IdentityDirectory.Kind.PHONE, phoneNumber, User::getPhoneNumber, userRepository::findByPhoneNumber)
+                .orElseThrow(() -> new UserNotFoundException("phone", phoneNumber));
+        return toDto(user);
     }
 
     /**
@@ -253,10 +364,65 @@ public class UserServiceImpl implements UserService {
         
         log.info("Service: Successfully fetched {} users.", page.getNumberOfElements());
         return page.getContent().stream()
-                .map(u -> modelMapper.map(u, UserDto.class))
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Searches users by prefix or fuzzy match on name, username, email and phone.
+     * Ranking and paging come from the in-memory {@link UserSearchIndex}; only the users
+     * of the requested page are loaded from the database.
+     *
+     * @param query Free text to match.
+     * @param pageNumber The page index (0-based).
+     * @param pageSize The size of the page.
+     * @return UserSearchResultDto The ranked users of the page and the total match count.
+     */
+    @Override
+    public UserSearchResultDto searchUsers(String query, int pageNumber, int pageSize) {
+        log.debug("Service: Searching users for '{}' - Page: {}, Size: {}", query, pageNumber, pageSize);
+        UserSearchIndex.SearchPage result = userSearchIndex.search(query, pageNumber, pageSize);
+        List<UUID> ids = result.hits().stream().map(UserSearchIndex.Hit::id).toList();
+        List<UserDto> ranked = getUsersByIds(ids);
+
+        return UserSearchResultDto.builder()
+                .query(query)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalMatches(result.total())
+                .users(ranked)
+                .build();
+    }
+
+    /**
+     * Loads the given users in one query and returns them in the order of the ids.
+     * Ids without a (non-deleted) user are skipped.
+     *
+     * @param ids The UUIDs of the users, in the order wanted.
+     * @return List<UserDto> The users found.
+     */
+    public List<UserDto> getUsersByIds(List<UUID> ids) {
+        Map<UUID, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns user counts by status, provider, location and signup day.
+     * Served from incrementally maintained counters, so the cost does not grow with the number of users.
+     *
+     * @return UserStatsDto The current statistics.
+     */
+    @Override
+    public UserStatsDto getUserStatistics() {
+        log.debug("Service: Fetching user statistics");
+        return userStatistics.snapshot();
+    }
+
     /**
      * Activates a user account (sets isActive = true).
      *
@@ -265,14 +431,17 @@ public class UserServiceImpl implements UserService {
      * @throws ResourceNotFoundException If the user is not found.
      */
     @Override
+    @Transactional
     public UserDto activateUser(String id) {
         log.info("Service: Request to activate user ID: {}", id);
         User user = userRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+        UserFacts before = UserFacts.of(user);
         user.setActive(true);
         User savedUser = userRepository.save(user);
         log.info("Service: User ID {} is now ACTIVE.", id);
-        return modelMapper.map(savedUser, UserDto.class);
+        userStatistics.record(before, UserFacts.of(savedUser));
+        return publish(UserChangeType.ACTIVATED, savedUser);
     }
 
     /**
@@ -283,19 +452,23 @@ public class UserServiceImpl implements UserService {
      * @throws ResourceNotFoundException If the user is not found.
      */
     @Override
+    @Transactional
     public UserDto deactivateUser(String id) {
         log.info("Service: Request to deactivate user ID: {}", id);
         User user = userRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+        UserFacts before = UserFacts.of(user);
         user.setActive(false);
         User savedUser = userRepository.save(user);
         log.info("Service: User ID {} is now INACTIVE.", id);
-        return modelMapper.map(savedUser, UserDto.class);
+        userStatistics.record(before, UserFacts.of(savedUser));
+        return publish(UserChangeType.DEACTIVATED, savedUser);
     }
 
     /**
      * Assigns an existing role to a user.
-     * Uses EntityManager to fetch the Role entity to ensure it attaches to the existing database record.
+     * The link is inserted straight into the {@code user_user_roles} join table, so neither the
+     * user nor its role set is loaded for the write; assigning a role the user already has is a no-op.
      *
      * @param userId The UUID of the user.
      * @param roleId The UUID of the role to assign.
@@ -306,45 +479,76 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto assignRoleToUser(String userId, String roleId) {
         log.info("Service: Assigning role ID {} to user ID {}", roleId, userId);
-        User user = userRepository.findById(UUID.fromString(userId))
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        Role role = entityManager.find(Role.class, UUID.fromString(roleId));
-        if (role == null) {
-            log.error("Service: Role assignment failed. Role not found with ID: {}", roleId);
-            throw new ResourceNotFoundException("Role not found with id: " + roleId);
+        UUID userUuid = UUID.fromString(userId);
+        Role role = findRole(roleId);
+        if (!userRepository.existsById(userUuid)) {
+            throw new UserNotFoundException("id", userId);
         }
 
-        user.getRoles().add(role);
-        User savedUser = userRepository.save(user);
-        log.info("Service: Role assigned successfully. User now has {} roles.", savedUser.getRoles().size());
-        return modelMapper.map(savedUser, UserDto.class);
+        boolean assigned = userRepository.insertRoleLink(userUuid, role.getId()) > 0;
+        UserDto userDto = getUserById(userId);
+        if (assigned) {
+            outboxWriter.record(UserChangeType.ROLE_ASSIGNED, userDto, role.getName());
+            log.info("Service: Role assigned successfully. User now has {} roles.", userDto.getRoles().size());
+        } else {
+            log.debug("Service: User ID {} already has role ID {}", userId, roleId);
+        }
+        return userDto;
     }
 
     /**
-     * Removes a role from a user.
+     * Removes a role from a user by deleting the single join table row.
      *
      * @param userId The UUID of the user.
      * @param roleId The UUID of the role to remove.
      * @return UserDto The updated user.
-     * @throws ResourceNotFoundException If the user is not found.
+     * @throws ResourceNotFoundException If the user or role is not found.
      */
     @Override
     @Transactional
     public UserDto removeRoleFromUser(String userId, String roleId) {
         log.info("Service: Removing role ID {} from user ID {}", roleId, userId);
-        User user = userRepository.findById(UUID.fromString(userId))
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        UUID userUuid = UUID.fromString(userId);
+        Role role = findRole(roleId);
+        if (!userRepository.existsById(userUuid)) {
+            throw new UserNotFoundException("id", userId);
+        }
 
-        boolean removed = user.getRoles().removeIf(r -> r.getId().equals(UUID.fromString(roleId)));
-        
+        boolean removed = userRepository.deleteRoleLink(userUuid, role.getId()) > 0;
+        UserDto userDto = getUserById(userId);
         if (removed) {
+            outboxWriter.record(UserChangeType.ROLE_REMOVED, userDto, role.getName());
             log.info("Service: Role removed successfully.");
         } else {
             log.warn("Service: Role ID {} was not found on user {}", roleId, userId);
         }
+        return userDto;
+    }
+
+    /**
+     * Grants a role to many users with set-based statements on the join table.
+     *
+     * @param roleId The UUID of the role to grant.
+     * @param request The users to target: explicit ids, a filter, or both.
+     * @return BulkRoleResultDto How many users matched and how many actually gained the role.
+     * @throws ResourceNotFoundException If the role is not found.
+     */
+    @Override
+    public BulkRoleResultDto grantRoleToUsers(String roleId, BulkRoleRequestDto request) {
+        return changeRoleInBulk(roleId, request, true);
+    }
 
-        return modelMapper.map(userRepository.save(user), UserDto.class);
+    /**
+     * Revokes a role from many users with set-based statements on the join table.
+     *
+     * @param roleId The UUID of the role to revoke.
+     * @param request The users to target: explicit ids, a filter, or both.
+     * @return BulkRoleResultDto How many users matched and how many actually lost the role.
+     * @throws ResourceNotFoundException If the role is not found.
+     */
+    @Override
+    public BulkRoleResultDto revokeRoleFromUsers(String roleId, BulkRoleRequestDto request) {
+        return changeRoleInBulk(roleId, request, false);
     }
 
     /**
@@ -356,15 +560,38 @@ public class UserServiceImpl implements UserService {
      * @throws ResourceNotFoundException If the user is not found.
      */
     @Override
+    @Transactional
     public UserDto changeUserPassword(String id, String newPassword) {
         log.info("Service: Request to change password for user ID: {}", id);
         User user = userRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+                .orElseThrow(() -> new UserNotFoundException("id", id));
         
         user.setPassword(newPassword);
         User savedUser = userRepository.save(user);
         log.info("Service: Password changed successfully for user ID: {}", id);
-        return modelMapper.map(savedUser, UserDto.class);
+        return publish(UserChangeType.PASSWORD_CHANGED, savedUser);
+    }
+
+    /**
+     * Sets or clears the profile image of a user.
+     *
+     * @param id The UUID of the user.
+     * @param imageKey Key of an image in the image store, or null to remove the image.
+     * @return UserDto The updated user.
+     * @throws ResourceNotFoundException If the user is not found.
+     */
+    @Override
+    @Transactional
+    public UserDto updateProfileImage(String id, String imageKey) {
+        log.info("Service: Request to set profile image of user ID: {} to {}", id, imageKey);
+        if (imageKey != null && !ImageStore.isKey(imageKey)) {
+            throw new IllegalArgumentException("Not an image key: " + imageKey);
+        }
+        User user = userRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new UserNotFoundException("id", id));
+        user.setProfileImage(imageKey);
+        User savedUser = userRepository.save(user);
+        return publish(UserChangeType.UPDATED, savedUser);
     }
 
     /**
@@ -387,11 +614,12 @@ public class UserServiceImpl implements UserService {
      * @param id The UUID of the user.
      */
     @Override
+    @Transactional
     public void updateLastLoginAt(String id) {
         log.debug("Service: Updating last login time for user ID: {}", id);
         userRepository.findById(UUID.fromString(id)).ifPresentOrElse(user -> {
             user.setLastLoginAt(Instant.now());
-            userRepository.save(user);
+            publish(UserChangeType.LAST_LOGIN_UPDATED, userRepository.save(user));
             log.debug("Service: Last login time updated for user ID: {}", id);
         }, () -> {
             log.warn("Service: Failed to update last login. User not found with ID: {}", id);
@@ -449,4 +677,168 @@ public class UserServiceImpl implements UserService {
         log.debug("Service: Checking existence of user ID '{}': {}", id, exists);
         return exists;
     }
+
+    /**
+     * Applies a bulk grant or revoke in chunks of {@link #BULK_ROLE_CHUNK} users, one short
+     * transaction per chunk, so a large selection never holds locks for long. Each chunk
+     * records one outbox event per user whose membership changed.
+     */
+    private BulkRoleResultDto changeRoleInBulk(String roleId, BulkRoleRequestDto request, boolean grant) {
+        boolean byIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean byFilter = request.getProvider() != null || request.getActive() != null;
+        if (!byIds && !byFilter && !request.isAllUsers()) {
+            throw new IllegalArgumentException("Either userIds, a filter (provider, active) or allUsers=true is required");
+        }
+        Role role = findRole(roleId);
+        log.info("Service: Bulk {} of role '{}' - ids: {}, provider: {}, active: {}", grant ? "grant" : "revoke",
+                role.getName(), byIds ? request.getUserIds().size() : "all", request.getProvider(), request.getActive());
+
+        long matched = 0;
+        long affected = 0;
+        if (byIds) {
+            List<UUID> ids = List.copyOf(new LinkedHashSet<>(request.getUserIds()));
+            for (int from = 0; from < ids.size(); from += BULK_ROLE_CHUNK) {
+                List<UUID> chunk = ids.subList(from, Math.min(from + BULK_ROLE_CHUNK, ids.size()));
+                List<UUID> matching = userRepository.findIdsMatchingAmong(chunk, request.getProvider(), request.getActive());
+                matched += matching.size();
+                affected += changeRoleForChunk(role, matching, grant);
+            }
+        } else {
+            UUID after = new UUID(0, 0);
+            while (true) {
+                List<UUID> matching = userRepository.findIdsMatching(request.getProvider(), request.getActive(), after,
+                        PageRequest.of(0, BULK_ROLE_CHUNK));
+                if (matching.isEmpty()) {
+                    break;
+                }
+                matched += matching.size();
+                affected += changeRoleForChunk(role, matching, grant);
+                after = matching.get(matching.size() - 1);
+            }
+        }
+        log.info("Service: Bulk {} of role '{}' matched {} users, changed {}", grant ? "grant" : "revoke",
+                role.getName(), matched, affected);
+        return BulkRoleResultDto.builder()
+                .roleId(role.getId())
+                .roleName(role.getName())
+                .granted(grant)
+                .matchedUsers(matched)
+                .affectedUsers(affected)
+                .build();
+    }
+
+    private int changeRoleForChunk(Role role, List<UUID> userIds, boolean grant) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Integer changed = transactionTemplate.execute(status -> {
+            Set<UUID> holders = new HashSet<>(userRepository.findUsersHavingRole(role.getId(), userIds));
+            List<UUID> changing = userIds.stream().filter(id -> holders.contains(id) != grant).toList();
+            if (changing.isEmpty()) {
+                return 0;
+            }
+            int rows = grant ? userRepository.insertRoleLinks(role.getId(), changing)
+                    : userRepository.deleteRoleLinks(role.getId(), changing);
+            outboxWriter.recordRoleChanges(grant ? UserChangeType.ROLE_ASSIGNED : UserChangeType.ROLE_REMOVED,
+                    changing, role.getName());
+            return rows;
+        });
+        return changed != null ? changed : 0;
+    }
+
+    private Role findRole(String roleId) {
+        Role role = entityManager.find(Role.class, UUID.fromString(roleId));
+        if (role == null) {
+            throw new RoleNotFoundException("id", roleId);
+        }
+        return role;
+    }
+
+    /**
+     * Accepts a key of the image store or a short external URL as profile image. Anything else,
+     * data URIs in particular, would bloat every fetch and response of the user.
+     *
+     * @param profileImage The requested value, may be null.
+     * @return The value to store.
+     * @throws IllegalArgumentException If the value is neither.
+     */
+    private static String requireImageReference(String profileImage) {
+        if (profileImage == null || profileImage.isBlank()) {
+            return null;
+        }
+        if (ImageStore.isKey(profileImage) || (profileImage.length() <= MAX_IMAGE_URL_LENGTH
+                && (profileImage.startsWith("https://") || profileImage.startsWith("http://")))) {
+            return profileImage;
+        }
+        throw new IllegalArgumentException("profileImage must be an uploaded image key or an http(s) URL of at most "
+                + MAX_IMAGE_URL_LENGTH + " characters; upload images to /api/v1/users/{id}/image");
+    }
+
+    /**
+     * Finds a user by a login identifier, by primary key when {@link IdentityDirectory} knows its
+     * id. The directory only proposes candidates, so the loaded user must carry exactly the key
+     * asked for; otherwise the entry is evicted and the unique-key query answers instead.
+     *
+     * @param kind The kind of identifier.
+     * @param value The identifier as requested.
+     * @param field Reads the identifier from a loaded user.
+     * @param query The repository query by the identifier.
+     * @return The user, if any.
+     */
+    private Optional<User> findByKey(IdentityDirectory.Kind kind, String value, Function<User, String> field,
+            Function<String, Optional<User>> query) {
+        UUID id = identityDirectory.find(kind, value);
+        if (id != null) {
+            Optional<User> user = userLookups.findById(id).filter(u -> value.equals(field.apply(u)));
+            if (user.isPresent()) {
+                return user;
+            }
+            identityDirectory.evict(kind, value, id);
+        }
+        Optional<User> user = query.apply(value);
+        user.ifPresent(u -> identityDirectory.put(kind, value, u.getId()));
+        return user;
+    }
+
+    /**
+     * Maps the user to its DTO, accounting the time to the request's mapping stage.
+     *
+     * @param user The user to map.
+     * @return UserDto The mapped user.
+     */
+    private UserDto toDto(User user) {
+        long start = RequestTimings.start();
+        UserDto userDto = modelMapper.map(user, UserDto.class);
+        RequestTimings.stop(Stage.MAPPING, start);
+        return userDto;
+    }
+
+    /**
+     * Maps the user to its DTO, records the change in the outbox and has the search index
+     * pick it up once the transaction commits.
+     *
+     * @param type The kind of change.
+     * @param user The user after the change.
+     * @return UserDto The mapped user, also used as the response body.
+     */
+    private UserDto publish(UserChangeType type, User user) {
+        UserDto userDto = toDto(user);
+        outboxWriter.record(type, userDto, null);
+        userSearchIndexMaintainer.record(type, userDto);
+        return userDto;
+    }
+
+    /**
+     * Maps a unique constraint violation on the {@code users} table to a field-level 409.
+     * Violations of any other constraint are rethrown unchanged.
+     *
+     * @param ex The exception raised by the flush.
+     * @param subject Username or ID of the user being written, for logging.
+     * @return DuplicateResourceException Naming the conflicting field.
+     */
+    private DuplicateResourceException translateDuplicate(DataIntegrityViolationException ex, String subject) {
+        DuplicateResourceException duplicate = UniqueConstraintTranslator.translate(ex).orElseThrow(() -> ex);
+        log.warn("Service: Write rejected for '{}'. {}", subject, duplicate.getMessage());
+        return duplicate;
+    }
 }
\ No newline at end of file
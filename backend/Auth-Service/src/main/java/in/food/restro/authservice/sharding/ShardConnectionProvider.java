@@ -0,0 +1,38 @@
+package in.food.restro.authservice.sharding;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.jdbc.connections.spi.AbstractDataSourceBasedMultiTenantConnectionProviderImpl;
+
+/**
+ * Hands Hibernate the connection pool of the shard a session belongs to.
+ * <p>
+ * Because every shard is a separate tenant to Hibernate, state Hibernate keeps per tenant
+ * stays per shard. In particular the pooled optimizer of {@code user_outbox_seq} allocates
+ * blocks from each shard's own sequence, so outbox sequence numbers stay unique and
+ * increasing within a shard.
+ */
+public class ShardConnectionProvider extends AbstractDataSourceBasedMultiTenantConnectionProviderImpl<String> {
+
+    private final List<? extends DataSource> shards;
+
+    public ShardConnectionProvider(List<? extends DataSource> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Used by Hibernate for metadata and schema tooling. Follows {@link ShardContext} so that
+     * {@link ShardSchemaInitializer} can point the schema tooling at each shard in turn.
+     */
+    @Override
+    protected DataSource selectAnyDataSource() {
+        return shards.get(ShardContext.current());
+    }
+
+    @Override
+    protected DataSource selectDataSource(String tenantIdentifier) {
+        return shards.get(Integer.parseInt(tenantIdentifier));
+    }
+}
@@ -0,0 +1,59 @@
+package in.food.restro.authservice.sharding;
+
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the shard the current thread works against.
+ * <p>
+ * The shard is read by {@link ShardTenantResolver} when Hibernate opens a session, which
+ * happens when a transaction begins. It therefore has to be chosen before the transaction
+ * starts and cannot change inside one; {@link #call} refuses to switch shards while a
+ * transaction is active. Threads that never choose a shard work against shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return The shard chosen by the current thread, or 0 if none was chosen.
+     */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Runs the action against the given shard and restores the previous shard afterwards.
+     *
+     * @throws IllegalStateException If a transaction on another shard is active on this thread.
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        if (shard != current() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard
+                    + " inside a transaction on shard " + current());
+        }
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable action) {
+        call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package in.food.restro.authservice.sharding;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves users to the shard they belong on after shards were added, and cleans up the directory.
+ * <p>
+ * Growing from N to M shards: append the new databases to {@code app.sharding.shards}, stop
+ * writes (or stop the application), run once with {@code --rebalance-shards} and restart.
+ * Because shards are chosen by jump consistent hash, only the users that belong on the new
+ * shards move. Shards can be added but not removed or reordered.
+ * <p>
+ * A run:
+ * <ol>
+ * <li>Advances the outbox sequence of every shard past the highest value on any shard, so the
+ * events of a moved user keep increasing sequence numbers. Consumers order a user's events by
+ * its change version, which moves with the user's row.</li>
+ * <li>Scans every shard in id order and moves misplaced users in batches, with their roles,
+ * role links, address and address link. Each batch is first copied to the target in one
+ * transaction, replacing any copy left by an interrupted run, and then deleted from the
+ * source in another, so a run can simply be repeated after a failure.</li>
+ * <li>Removes directory entries whose user does not exist on its shard, which a crash during
+ * registration can leave behind.</li>
+ * </ol>
+ * Undelivered outbox events stay on the source shard and are dispatched from there.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final UUID NIL = new UUID(0, 0);
+
+    private final List<? extends DataSource> shards;
+    private final ShardRouter shardRouter;
+    private final UserDirectory directory;
+    private final int batchSize;
+    private final Duration orphanGracePeriod;
+
+    public ShardRebalancer(List<? extends DataSource> shards, ShardRouter shardRouter, UserDirectory directory,
+            ShardingProperties.Rebalance properties) {
+        this.shards = shards;
+        this.shardRouter = shardRouter;
+        this.directory = directory;
+        this.batchSize = properties.getBatchSize();
+        this.orphanGracePeriod = properties.getOrphanGracePeriod();
+    }
+
+    public record Result(long movedUsers, long removedDirectoryUsers) {
+    }
+
+    public Result rebalance() {
+        long start = System.nanoTime();
+        alignOutboxSequences();
+        long moved = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            moved += drain(shard);
+        }
+        long orphans = removeOrphanedDirectoryEntries();
+        log.info("Sharding: Rebalance moved {} users and removed directory entries of {} missing users in {} ms",
+                moved, orphans, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return new Result(moved, orphans);
+    }
+
+    private void alignOutboxSequences() {
+        long highest = 0;
+        for (DataSource shard : shards) {
+            Long next = new JdbcTemplate(shard).queryForObject("SELECT nextval('user_outbox_seq')", Long.class);
+            highest = Math.max(highest, next != null ? next : 0);
+        }
+        // Past any block a running optimizer may still hold
+        long restartAt = highest + 1000;
+        for (DataSource shard : shards) {
+            new JdbcTemplate(shard).execute("ALTER SEQUENCE user_outbox_seq RESTART WITH " + restartAt);
+        }
+        log.info("Sharding: Outbox sequences restarted at {}", restartAt);
+    }
+
+    private long drain(int source) {
+        JdbcTemplate jdbc = new JdbcTemplate(shards.get(source));
+        long moved = 0;
+        UUID after = NIL;
+        while (true) {
+            List<UUID> ids = jdbc.queryForList("SELECT user_id FROM users WHERE user_id > ? ORDER BY user_id LIMIT ?",
+                    UUID.class, after, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<Integer, List<UUID>> misplaced = ids.stream()
+                    .collect(Collectors.groupingBy(shardRouter::shardFor));
+            misplaced.remove(source);
+            for (Map.Entry<Integer, List<UUID>> target : misplaced.entrySet()) {
+                move(source, target.getKey(), target.getValue());
+                moved += target.getValue().size();
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        if (moved > 0) {
+            log.info("Sharding: Moved {} users off shard {}", moved, source);
+        }
+        return moved;
+    }
+
+    private void move(int source, int target, List<UUID> userIds) {
+        NamedParameterJdbcTemplate from = new NamedParameterJdbcTemplate(shards.get(source));
+        NamedParameterJdbcTemplate to = new NamedParameterJdbcTemplate(shards.get(target));
+        Map<String, Object> users = Map.of("ids", userIds);
+
+        List<UUID> addressIds = from.queryForList("SELECT user_addr_id FROM user_user_addr WHERE user_id IN (:ids)",
+                users, UUID.class);
+        List<UUID> roleIds = from.queryForList("SELECT DISTINCT user_role_id FROM user_user_roles WHERE user_id IN (:ids)",
+                users, UUID.class);
+
+        transaction(target).executeWithoutResult(status -> {
+            delete(to, userIds, addressIds);
+            Set<UUID> presentRoles = roleIds.isEmpty() ? Set.of() : new HashSet<>(to.queryForList(
+                    "SELECT user_role_id FROM user_roles WHERE user_role_id IN (:ids)", Map.of("ids", roleIds), UUID.class));
+            copy(from, to, "user_roles", "user_role_id",
+                    roleIds.stream().filter(id -> !presentRoles.contains(id)).toList());
+            copy(from, to, "users", "user_id", userIds);
+            copy(from, to, "user_addr", "user_addr_id", addressIds);
+            copy(from, to, "user_user_addr", "user_id", userIds);
+            copy(from, to, "user_user_roles", "user_id", userIds);
+        });
+        transaction(source).executeWithoutResult(status -> delete(from, userIds, addressIds));
+        log.debug("Sharding: Moved {} users from shard {} to shard {}", userIds.size(), source, target);
+    }
+
+    private static void delete(NamedParameterJdbcTemplate jdbc, List<UUID> userIds, List<UUID> addressIds) {
+        Map<String, Object> users = Map.of("ids", userIds);
+        jdbc.update("DELETE FROM user_user_roles WHERE user_id IN (:ids)", users);
+        jdbc.update("DELETE FROM user_user_addr WHERE user_id IN (:ids)", users);
+        if (!addressIds.isEmpty()) {
+            jdbc.update("DELETE FROM user_addr WHERE user_addr_id IN (:ids)", Map.of("ids", addressIds));
+        }
+        jdbc.update("DELETE FROM users WHERE user_id IN (:ids)", users);
+    }
+
+    /**
+     * Copies the rows whose key is among the given values, column for column.
+     */
+    private static void copy(NamedParameterJdbcTemplate from, NamedParameterJdbcTemplate to, String table,
+            String keyColumn, List<UUID> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = from.queryForList(
+                "SELECT * FROM " + table + " WHERE " + keyColumn + " IN (:keys)", Map.of("keys", keys));
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        to.getJdbcTemplate().batchUpdate(sql, rows.stream().map(row -> row.values().toArray()).toList());
+    }
+
+    private long removeOrphanedDirectoryEntries() {
+        Instant createdBefore = Instant.now().minus(orphanGracePeriod);
+        long removed = 0;
+        UUID after = NIL;
+        while (true) {
+            List<UUID> ids = directory.findUserIds(createdBefore, after, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Map.Entry<Integer, List<UUID>> shard : ids.stream()
+                    .collect(Collectors.groupingBy(shardRouter::shardFor)).entrySet()) {
+                Set<UUID> present = new HashSet<>(new NamedParameterJdbcTemplate(shards.get(shard.getKey())).queryForList(
+                        "SELECT user_id FROM users WHERE user_id IN (:ids)", Map.of("ids", shard.getValue()), UUID.class));
+                List<UUID> missing = shard.getValue().stream().filter(id -> !present.contains(id)).toList();
+                directory.releaseAll(missing);
+                removed += missing.size();
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        return removed;
+    }
+
+    private TransactionTemplate transaction(int shard) {
+        return new TransactionTemplate(new DataSourceTransactionManager(shards.get(shard)));
+    }
+}
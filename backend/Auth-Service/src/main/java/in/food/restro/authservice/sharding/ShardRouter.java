@@ -0,0 +1,124 @@
+package in.food.restro.authservice.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Maps users to shards and runs work against one shard or all of them.
+ * <p>
+ * A user lives on the shard chosen by a jump consistent hash of its id. When the number of
+ * shards grows from N to N+1, only the users that belong on the new shard change place, about
+ * 1/(N+1) of them, which keeps {@link ShardRebalancer} runs short.
+ * <p>
+ * Without sharding there is a single shard and every method simply runs its action, so jobs
+ * can loop over {@link #forEachShard} unconditionally.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * @param id The id of a user.
+     * @return The shard the user lives on.
+     */
+    public int shardFor(UUID id) {
+        return jumpHash(mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits()), shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return ShardContext.call(shard, action);
+    }
+
+    public <T> T onShardOf(UUID id, Supplier<T> action) {
+        return onShard(shardFor(id), action);
+    }
+
+    /**
+     * Runs the action against every shard in turn, in shard order.
+     */
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            ShardContext.run(current, () -> action.accept(current));
+        }
+    }
+
+    /**
+     * Runs the action against every shard concurrently, one virtual thread per shard.
+     *
+     * @return The results, indexed by shard; null results are kept.
+     */
+    public <T> List<T> onAllShards(IntFunction<T> action) {
+        if (shardCount == 1) {
+            return Collections.singletonList(onShard(0, () -> action.apply(0)));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                int current = shard;
+                futures.add(executor.submit(() -> onShard(current, () -> action.apply(current))));
+            }
+            List<T> results = new ArrayList<>(shardCount);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Jump consistent hash (Lamping and Veach).
+     */
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    /** Finalizer of MurmurHash3, so that ids differing only in a few bits spread evenly. */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
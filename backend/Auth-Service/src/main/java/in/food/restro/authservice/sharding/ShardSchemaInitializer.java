@@ -0,0 +1,53 @@
+package in.food.restro.authservice.sharding;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.springframework.beans.factory.InitializingBean;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prepares the shards when the application starts, before any request or job touches them.
+ * <p>
+ * With {@code app.sharding.initialize-schema} set, the mapped tables are created on every
+ * shard after shard 0 that does not have them yet. Shard 0 is covered by the usual
+ * {@code ddl-auto}; this exists for local setups where every shard starts out empty.
+ * Production shards are expected to be migrated like any other database. The roles of
+ * shard 0 are then copied to the other shards.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRouter shardRouter;
+    private final ShardedRoleCatalog roleCatalog;
+    private final boolean initializeSchema;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardRouter shardRouter,
+            ShardedRoleCatalog roleCatalog, boolean initializeSchema) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRouter = shardRouter;
+        this.roleCatalog = roleCatalog;
+        this.initializeSchema = initializeSchema;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (initializeSchema) {
+            // The schema tooling connects through ShardConnectionProvider, which follows ShardContext
+            var schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+                ShardContext.run(shard, () -> {
+                    try {
+                        schemaManager.validateMappedObjects();
+                    } catch (SchemaManagementException ex) {
+                        log.info("Sharding: Creating schema on shard {} ({})", ShardContext.current(), ex.getMessage());
+                        schemaManager.exportMappedObjects(true);
+                    }
+                });
+            }
+        }
+        roleCatalog.synchronize();
+    }
+}
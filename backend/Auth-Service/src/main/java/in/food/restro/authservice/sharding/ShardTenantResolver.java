@@ -0,0 +1,20 @@
+package in.food.restro.authservice.sharding;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Tells Hibernate which shard a new session belongs to, taken from {@link ShardContext}.
+ * The shard number is used as the tenant identifier.
+ */
+public class ShardTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return String.valueOf(ShardContext.current());
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package in.food.restro.authservice.sharding;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.entities.Role;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the roles table identical on every shard.
+ * <p>
+ * Roles are shared reference data: role endpoints address them by id and bulk changes run
+ * on every shard, so a role must exist everywhere under the same id. Shard 0 is the source
+ * of truth; a role first seen in a registration is created there and then copied, id
+ * included, to the other shards before the user is written.
+ */
+@Slf4j
+public class ShardedRoleCatalog {
+
+    private final ShardRouter shardRouter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardedRoleCatalog(ShardRouter shardRouter, EntityManager entityManager,
+            TransactionTemplate transactionTemplate) {
+        this.shardRouter = shardRouter;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Makes sure a role of that name exists on every shard.
+     *
+     * @param name The role name.
+     */
+    public void ensure(String name) {
+        copyToOtherShards(shardRouter.onShard(0, () -> findOrCreate(name)));
+    }
+
+    /**
+     * Copies every role of shard 0 that is missing on another shard, e.g. roles created
+     * before sharding was enabled or before a shard was added.
+     */
+    public void synchronize() {
+        List<Role> roles = shardRouter.onShard(0, () -> transactionTemplate.execute(status ->
+                entityManager.createQuery("SELECT r FROM Role r", Role.class).getResultList()));
+        roles.forEach(this::copyToOtherShards);
+        log.info("Sharding: Synchronized {} roles across {} shards", roles.size(), shardRouter.shardCount());
+    }
+
+    private void copyToOtherShards(Role role) {
+        for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> {
+                if (entityManager.find(Role.class, role.getId()) == null) {
+                    entityManager.persist(Role.builder().id(role.getId()).name(role.getName()).build());
+                    log.debug("Sharding: Copied role '{}' to shard {}", role.getName(), ShardContext.current());
+                }
+                return null;
+            }));
+        }
+    }
+
+    private Role findOrCreate(String name) {
+        Optional<Role> existing = findByName(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                Role role = Role.builder().name(name).build();
+                entityManager.persist(role);
+                return role;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Created concurrently by another registration
+            return findByName(name).orElseThrow(() -> ex);
+        }
+    }
+
+    private Optional<Role> findByName(String name) {
+        return transactionTemplate.execute(status -> {
+            List<Role> roles = entityManager.createQuery("SELECT r FROM Role r WHERE r.name = :name", Role.class)
+                    .setParameter("name", name)
+                    .getResultList();
+            return roles.stream().findFirst();
+        });
+    }
+}
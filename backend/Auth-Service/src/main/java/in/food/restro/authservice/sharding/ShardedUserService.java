@@ -0,0 +1,377 @@
+package in.food.restro.authservice.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.BeanWrapperImpl;
+
+import in.food.restro.authservice.dtos.BulkRoleRequestDto;
+import in.food.restro.authservice.dtos.BulkRoleResultDto;
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.dtos.UserSearchResultDto;
+import in.food.restro.authservice.dtos.UserStatsDto;
+import in.food.restro.authservice.exception.DuplicateResourceException;
+import in.food.restro.authservice.exception.UserNotFoundException;
+import in.food.restro.authservice.ids.TimeOrderedUuidGenerator;
+import in.food.restro.authservice.search.UserSearchIndex;
+import in.food.restro.authservice.service.UserService;
+import in.food.restro.authservice.service.impl.UserServiceImpl;
+import in.food.restro.authservice.sharding.UserDirectory.Key;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link UserService} over hash-sharded storage.
+ * <p>
+ * Every call is routed to the shard of the user concerned and then handed to
+ * {@link UserServiceImpl}, whose transactions run entirely on that shard. Lookups by
+ * username, email or phone go through the {@link UserDirectory} first. Listings, searches and
+ * bulk role changes run on all shards concurrently and merge the results.
+ * <p>
+ * This class never opens a transaction itself, which is what lets it switch shards between
+ * calls; see {@link ShardContext}.
+ */
+@Slf4j
+public class ShardedUserService implements UserService {
+
+    private final UserServiceImpl delegate;
+    private final ShardRouter shardRouter;
+    private final UserDirectory directory;
+    private final ShardedRoleCatalog roleCatalog;
+    private final UserSearchIndex userSearchIndex;
+
+    public ShardedUserService(UserServiceImpl delegate, ShardRouter shardRouter, UserDirectory directory,
+            ShardedRoleCatalog roleCatalog, UserSearchIndex userSearchIndex) {
+        this.delegate = delegate;
+        this.shardRouter = shardRouter;
+        this.directory = directory;
+        this.roleCatalog = roleCatalog;
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    /**
+     * Registers a user on the shard of a freshly generated id.
+     * <p>
+     * The id is assigned here because it decides the shard. Username, email and phone number
+     * are reserved in the directory first, which is what rejects duplicates across shards, and
+     * released again if the user cannot be written.
+     *
+     * @throws DuplicateResourceException If Email, Username or Phone already exists on any shard.
+     */
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        UUID id = TimeOrderedUuidGenerator.next();
+        userDto.setId(id);
+        if (userDto.getRoles() != null) {
+            userDto.getRoles().stream().map(RoleDto::getName).filter(Objects::nonNull).forEach(roleCatalog::ensure);
+        }
+
+        directory.reserve(id, UserDirectory.keys(userDto.getUsername(), userDto.getEmail(), userDto.getPhoneNumber()));
+        try {
+            return shardRouter.onShardOf(id, () -> delegate.createUser(userDto));
+        } catch (RuntimeException ex) {
+            directory.releaseAll(List.of(id));
+            throw ex;
+        }
+    }
+
+    @Override
+    public UserDto getUserById(String id) {
+        return onShardOf(id, () -> delegate.getUserById(id));
+    }
+
+    @Override
+    public UserDto getUserByUsername(String username) {
+        return findVia(Key.USERNAME, "username", username, () -> delegate.getUserByUsername(username));
+    }
+
+    @Override
+    public UserDto getUserByEmail(String email) {
+        return findVia(Key.EMAIL, "email", email, () -> delegate.getUserByEmail(email));
+    }
+
+    @Override
+    public UserDto getUserByPhoneNumber(String phoneNumber) {
+        return findVia(Key.PHONE, "phone", phoneNumber, () -> delegate.getUserByPhoneNumber(phoneNumber));
+    }
+
+    /**
+     * Updates the profile on the user's shard. A new phone number is reserved in the
+     * directory before the write and the old one released after it.
+     */
+    @Override
+    public UserDto updateUser(String id, UserDto userDto) {
+        return changingPhone(id, userDto.getPhoneNumber(), () -> delegate.updateUser(id, userDto));
+    }
+
+    /**
+     * Patches the profile on the user's shard, reserving a new phone number like {@link #updateUser}
+     * when the patch sets one.
+     */
+    @Override
+    public UserDto patchUser(String id, Map<String, Object> patch) {
+        Object newPhone = patch.get("phoneNumber");
+        if (!patch.containsKey("phoneNumber") || !(newPhone == null || newPhone instanceof String)) {
+            // Nothing to reserve; a malformed value is rejected by the delegate
+            return shardRouter.onShardOf(UUID.fromString(id), () -> delegate.patchUser(id, patch));
+        }
+        return changingPhone(id, (String) newPhone, () -> delegate.patchUser(id, patch));
+    }
+
+    private UserDto changingPhone(String id, String newPhone, Supplier<UserDto> update) {
+        UUID userId = UUID.fromString(id);
+        String oldPhone = shardRouter.onShardOf(userId, () -> delegate.getUserById(id)).getPhoneNumber();
+        boolean phoneChanged = !Objects.equals(oldPhone, newPhone);
+        if (phoneChanged && newPhone != null) {
+            directory.reserve(userId, Map.of(Key.PHONE, newPhone));
+        }
+
+        UserDto updated;
+        try {
+            updated = shardRouter.onShardOf(userId, update);
+        } catch (RuntimeException ex) {
+            if (phoneChanged) {
+                directory.release(userId, Key.PHONE, newPhone);
+            }
+            throw ex;
+        }
+        if (phoneChanged) {
+            directory.release(userId, Key.PHONE, oldPhone);
+        }
+        return updated;
+    }
+
+    /**
+     * Soft-deletes the user on its shard. Its directory entries are released by the purge.
+     */
+    @Override
+    public UserDto deleteUser(String id) {
+        return onShardOf(id, () -> delegate.deleteUser(id));
+    }
+
+    @Override
+    public UserDto assignRoleToUser(String userId, String roleId) {
+        return onShardOf(userId, () -> delegate.assignRoleToUser(userId, roleId));
+    }
+
+    @Override
+    public UserDto removeRoleFromUser(String userId, String roleId) {
+        return onShardOf(userId, () -> delegate.removeRoleFromUser(userId, roleId));
+    }
+
+    @Override
+    public UserDto activateUser(String id) {
+        return onShardOf(id, () -> delegate.activateUser(id));
+    }
+
+    @Override
+    public UserDto deactivateUser(String id) {
+        return onShardOf(id, () -> delegate.deactivateUser(id));
+    }
+
+    @Override
+    public UserDto changeUserPassword(String id, String newPassword) {
+        return onShardOf(id, () -> delegate.changeUserPassword(id, newPassword));
+    }
+
+    @Override
+    public UserDto updateProfileImage(String id, String imageKey) {
+        return onShardOf(id, () -> delegate.updateProfileImage(id, imageKey));
+    }
+
+    @Override
+    public boolean isUsernameExists(String username) {
+        return directory.find(Key.USERNAME, username)
+                .map(id -> shardRouter.onShardOf(id, () -> delegate.isUsernameExists(username)))
+                .orElse(false);
+    }
+
+    @Override
+    public boolean isEmailExists(String email) {
+        return directory.find(Key.EMAIL, email)
+                .map(id -> shardRouter.onShardOf(id, () -> delegate.isEmailExists(email)))
+                .orElse(false);
+    }
+
+    @Override
+    public boolean isPhoneNumberExists(String phoneNumber) {
+        return directory.find(Key.PHONE, phoneNumber)
+                .map(id -> shardRouter.onShardOf(id, () -> delegate.isPhoneNumberExists(phoneNumber)))
+                .orElse(false);
+    }
+
+    @Override
+    public boolean isUserIdExists(String id) {
+        return onShardOf(id, () -> delegate.isUserIdExists(id));
+    }
+
+    @Override
+    public void updateLastLoginAt(String id) {
+        shardRouter.onShardOf(UUID.fromString(id), () -> {
+            delegate.updateLastLoginAt(id);
+            return null;
+        });
+    }
+
+    /**
+     * Scatter-gather listing: every shard returns its first {@code (pageNumber + 1) * pageSize}
+     * users in the requested order, and the requested page is cut from the merged result.
+     * The cost therefore grows with the page number; deep pages are better served by search
+     * or keyset paging.
+     * <p>
+     * The merge compares values in Java: strings by code point, which matches the database
+     * only under a binary ("C") collation, and UUIDs as unsigned bytes, as PostgreSQL does.
+     * Nulls sort last ascending and first descending, as in PostgreSQL.
+     *
+     * @throws IllegalArgumentException If {@code sortBy} is not a property of the user DTO.
+     */
+    @Override
+    public Iterable<UserDto> getAllUsers(int pageNumber, int pageSize, String sortBy, String sortDir) {
+        int window = Math.multiplyExact(pageNumber + 1, pageSize);
+        List<Iterable<UserDto>> pages = shardRouter.onAllShards(shard -> delegate.getAllUsers(0, window, sortBy, sortDir));
+
+        Comparator<SortKey> order = Comparator.comparing(SortKey::value, Comparator.nullsLast(ShardedUserService::compareValues));
+        if ("desc".equalsIgnoreCase(sortDir)) {
+            order = order.reversed();
+        }
+        return pages.stream()
+                .flatMap(page -> StreamSupport.stream(page.spliterator(), false))
+                .map(user -> SortKey.of(user, sortBy))
+                .sorted(order)
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize)
+                .map(SortKey::user)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public UserDto getUserRoleDetailsById(String id) {
+        return onShardOf(id, () -> delegate.getUserRoleDetailsById(id));
+    }
+
+    /**
+     * Ranks with the in-memory index, which covers all shards, then loads the users of the
+     * page from their shards and puts them back in rank order.
+     */
+    @Override
+    public UserSearchResultDto searchUsers(String query, int pageNumber, int pageSize) {
+        UserSearchIndex.SearchPage result = userSearchIndex.search(query, pageNumber, pageSize);
+        List<UUID> ids = result.hits().stream().map(UserSearchIndex.Hit::id).toList();
+
+        Map<Integer, List<UUID>> idsByShard = ids.stream().collect(Collectors.groupingBy(shardRouter::shardFor));
+        Map<UUID, UserDto> found = new HashMap<>();
+        shardRouter.onAllShards(shard -> delegate.getUsersByIds(idsByShard.getOrDefault(shard, List.of())))
+                .forEach(users -> users.forEach(user -> found.put(user.getId(), user)));
+        List<UserDto> ranked = ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+
+        return UserSearchResultDto.builder()
+                .query(query)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalMatches(result.total())
+                .users(ranked)
+                .build();
+    }
+
+    @Override
+    public UserStatsDto getUserStatistics() {
+        return delegate.getUserStatistics();
+    }
+
+    @Override
+    public BulkRoleResultDto grantRoleToUsers(String roleId, BulkRoleRequestDto request) {
+        return changeRoleOnShards(roleId, request, true);
+    }
+
+    @Override
+    public BulkRoleResultDto revokeRoleFromUsers(String roleId, BulkRoleRequestDto request) {
+        return changeRoleOnShards(roleId, request, false);
+    }
+
+    /**
+     * Runs the bulk change on every shard at once. Explicit ids are split by shard first and
+     * shards without any of them are skipped; a filter alone runs everywhere.
+     */
+    private BulkRoleResultDto changeRoleOnShards(String roleId, BulkRoleRequestDto request, boolean grant) {
+        if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+            return sum(shardRouter.onAllShards(shard -> changeRole(roleId, request, grant)));
+        }
+        Map<Integer, List<UUID>> idsByShard = new LinkedHashSet<>(request.getUserIds()).stream()
+                .collect(Collectors.groupingBy(shardRouter::shardFor));
+        return sum(shardRouter.onAllShards(shard -> {
+            List<UUID> ids = idsByShard.get(shard);
+            if (ids == null) {
+                return null;
+            }
+            return changeRole(roleId, BulkRoleRequestDto.builder()
+                    .userIds(ids)
+                    .provider(request.getProvider())
+                    .active(request.getActive())
+                    .allUsers(request.isAllUsers())
+                    .build(), grant);
+        }));
+    }
+
+    private BulkRoleResultDto changeRole(String roleId, BulkRoleRequestDto request, boolean grant) {
+        return grant ? delegate.grantRoleToUsers(roleId, request) : delegate.revokeRoleFromUsers(roleId, request);
+    }
+
+    private static BulkRoleResultDto sum(List<BulkRoleResultDto> results) {
+        List<BulkRoleResultDto> ran = new ArrayList<>(results);
+        ran.removeIf(Objects::isNull);
+        BulkRoleResultDto first = ran.get(0);
+        return BulkRoleResultDto.builder()
+                .roleId(first.getRoleId())
+                .roleName(first.getRoleName())
+                .granted(first.isGranted())
+                .matchedUsers(ran.stream().mapToLong(BulkRoleResultDto::getMatchedUsers).sum())
+                .affectedUsers(ran.stream().mapToLong(BulkRoleResultDto::getAffectedUsers).sum())
+                .build();
+    }
+
+    private <T> T onShardOf(String id, Supplier<T> action) {
+        return shardRouter.onShardOf(UUID.fromString(id), action);
+    }
+
+    /**
+     * Resolves the user through the directory and repeats the lookup on its shard, so that
+     * deleted users and directory entries without a user are misses as before.
+     */
+    private UserDto findVia(Key key, String field, String value, Supplier<UserDto> lookup) {
+        UUID id = directory.find(key, value).orElseThrow(() -> new UserNotFoundException(field, value));
+        return shardRouter.onShardOf(id, lookup);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof UUID x && b instanceof UUID y) {
+            int high = Long.compareUnsigned(x.getMostSignificantBits(), y.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(x.getLeastSignificantBits(), y.getLeastSignificantBits());
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private record SortKey(Object value, UserDto user) {
+
+        static SortKey of(UserDto user, String property) {
+            BeanWrapperImpl wrapper = new BeanWrapperImpl(user);
+            if (!wrapper.isReadableProperty(property)) {
+                throw new IllegalArgumentException("Cannot sort users by '" + property + "' across shards");
+            }
+            Object value = wrapper.getPropertyValue(property);
+            if (value != null && !(value instanceof Comparable)) {
+                throw new IllegalArgumentException("Cannot sort users by '" + property + "'");
+            }
+            return new SortKey(value, user);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package in.food.restro.authservice.sharding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of hash-sharded user storage, bound from {@code app.sharding.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+	/** When false, the single {@code spring.datasource} is used and everything below is ignored. */
+	private boolean enabled = false;
+
+	/**
+	 * One database per shard; the position in the list is the shard number. Shard 0 also
+	 * holds the statistics checkpoint. Only append to this list, see {@link ShardRebalancer}.
+	 */
+	private List<Database> shards = new ArrayList<>();
+
+	/** Database of the username, email and phone directory; shard 0's database when not set. */
+	private Database directory;
+
+	/** Create missing tables on shards 1..N at startup, for local setups with ddl-auto. */
+	private boolean initializeSchema = false;
+
+	private Rebalance rebalance = new Rebalance();
+
+	@Getter
+	@Setter
+	public static class Database {
+		private String url;
+		private String username;
+		private String password;
+		private int maximumPoolSize = 10;
+	}
+
+	@Getter
+	@Setter
+	public static class Rebalance {
+		/** Users moved per transaction. */
+		private int batchSize = 500;
+		/** Directory entries without a user are only removed once they are this old. */
+		private Duration orphanGracePeriod = Duration.ofHours(1);
+	}
+}
@@ -0,0 +1,153 @@
+package in.food.restro.authservice.sharding;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.exception.DuplicateResourceException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Global lookup table from username, email and phone number to user id, and from there to
+ * the user's shard.
+ * <p>
+ * The unique constraints of the {@code users} table only hold within one shard, so this
+ * table is where global uniqueness is enforced: a registration first reserves its keys here
+ * and only then writes the user to its shard, releasing the keys again if that fails. Keys of
+ * deleted users stay reserved until the purge removes the user, as they did before sharding.
+ * A crash between the two writes leaves entries without a user behind; lookups treat them as
+ * misses and {@link ShardRebalancer} removes them.
+ */
+@Slf4j
+public class UserDirectory {
+
+    public enum Key {
+        USERNAME("username", "Username already exists."),
+        EMAIL("email", "Email already exists."),
+        PHONE("phoneNumber", "Phone number already exists.");
+
+        private final String field;
+        private final String duplicateMessage;
+
+        Key(String field, String duplicateMessage) {
+            this.field = field;
+            this.duplicateMessage = duplicateMessage;
+        }
+    }
+
+    private static final String DDL = """
+            CREATE TABLE IF NOT EXISTS user_directory (
+                lookup_key VARCHAR(16) NOT NULL,
+                lookup_value VARCHAR(255) NOT NULL,
+                user_id UUID NOT NULL,
+                created_at TIMESTAMP NOT NULL,
+                PRIMARY KEY (lookup_key, lookup_value)
+            )""";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserDirectory(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Creates the directory table if it does not exist yet.
+     */
+    public void initializeSchema() {
+        jdbc.execute(DDL);
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_user_directory_user ON user_directory (user_id)");
+    }
+
+    /**
+     * Reserves all given keys for the user, or none of them.
+     *
+     * @param userId The user the keys will belong to.
+     * @param keys The keys to reserve; null and blank values are skipped.
+     * @throws DuplicateResourceException If any key already belongs to a user.
+     */
+    public void reserve(UUID userId, Map<Key, String> keys) {
+        Timestamp now = Timestamp.from(Instant.now());
+        transactionTemplate.executeWithoutResult(status -> keys.forEach((key, value) -> {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            try {
+                jdbc.update("INSERT INTO user_directory (lookup_key, lookup_value, user_id, created_at) VALUES (?, ?, ?, ?)",
+                        key.name(), value, userId, now);
+            } catch (DuplicateKeyException ex) {
+                throw new DuplicateResourceException(key.field, key.duplicateMessage);
+            }
+        }));
+    }
+
+    public static Map<Key, String> keys(String username, String email, String phoneNumber) {
+        Map<Key, String> keys = new EnumMap<>(Key.class);
+        keys.put(Key.USERNAME, username);
+        keys.put(Key.EMAIL, email);
+        keys.put(Key.PHONE, phoneNumber);
+        return keys;
+    }
+
+    public Optional<UUID> find(Key key, String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        List<UUID> ids = jdbc.queryForList("SELECT user_id FROM user_directory WHERE lookup_key = ? AND lookup_value = ?",
+                UUID.class, key.name(), value);
+        return ids.stream().findFirst();
+    }
+
+    /**
+     * Releases one key, but only if it still belongs to the given user.
+     */
+    public void release(UUID userId, Key key, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        jdbc.update("DELETE FROM user_directory WHERE lookup_key = ? AND lookup_value = ? AND user_id = ?",
+                key.name(), value, userId);
+    }
+
+    /**
+     * Releases the keys of a user that is gone or was never written.
+     */
+    public void releaseAll(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        int released = namedJdbc.update("DELETE FROM user_directory WHERE user_id IN (:ids)", Map.of("ids", userIds));
+        log.debug("Directory: Released {} keys of {} users", released, userIds.size());
+    }
+
+    /**
+     * Pages through the users that have directory entries older than the given instant.
+     *
+     * @param createdBefore Only entries reserved before this are returned.
+     * @param after Keyset position; the first page starts after the nil UUID.
+     * @param limit Page size.
+     * @return User ids in ascending order.
+     */
+    public List<UUID> findUserIds(Instant createdBefore, UUID after, int limit) {
+        return jdbc.queryForList("""
+                SELECT DISTINCT user_id FROM user_directory
+                WHERE created_at < ? AND user_id > ?
+                ORDER BY user_id LIMIT ?""", UUID.class, Timestamp.from(createdBefore), after, limit);
+    }
+}
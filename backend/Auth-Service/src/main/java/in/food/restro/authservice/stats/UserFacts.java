@@ -0,0 +1,22 @@
+package in.food.restro.authservice.stats;
+
+import java.time.Instant;
+
+import in.food.restro.authservice.entities.Address;
+import in.food.restro.authservice.entities.User;
+import in.food.restro.authservice.enums.Provider;
+
+/**
+ * The attributes of a user that {@link UserStatistics} counts by. Two equal facts mean
+ * a change left every counter untouched.
+ */
+public record UserFacts(Provider provider, boolean active, String city, String state, Instant createdAt) {
+
+    public static UserFacts of(User user) {
+        Address address = user.getAddress();
+        return new UserFacts(user.getProvider(), user.isActive(),
+                address != null ? address.getCity() : null,
+                address != null ? address.getState() : null,
+                user.getCreatedAt());
+    }
+}
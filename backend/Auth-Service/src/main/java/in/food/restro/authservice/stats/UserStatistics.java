@@ -0,0 +1,319 @@
+package in.food.restro.authservice.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import in.food.restro.authservice.dtos.UserStatsDto;
+
+/**
+ * In-memory user counters by status, provider, city, state and signup day.
+ * <p>
+ * Every user mutation reports the facts before and after the change; once the transaction
+ * commits the old buckets are decremented and the new ones incremented. Counters are
+ * {@link LongAdder}s, so concurrent writers never contend on a lock. Reading the stats costs
+ * O(buckets), never O(users), and the rendered snapshot is reused for a short while.
+ * <p>
+ * The counters only see changes made through this instance. {@link UserStatisticsMaintainer}
+ * periodically replaces them with a full recount, which corrects drift from other instances
+ * or writes that bypassed the service.
+ */
+@Component
+public class UserStatistics {
+
+    public enum Dimension {
+        TOTAL, STATUS, PROVIDER, CITY, STATE, SIGNUP_DAY
+    }
+
+    static final String ALL = "all";
+    static final String ACTIVE = "active";
+    static final String INACTIVE = "inactive";
+    static final String NONE = "(none)";
+
+    private final ZoneId zone;
+    private final int signupDays;
+    private final int topLocations;
+    private final Duration snapshotMaxAge;
+
+    private volatile Map<Dimension, ConcurrentMap<String, LongAdder>> counters = newCounters();
+    /** Deltas applied while a recount is running, replayed on top of its result. */
+    private volatile Map<Dimension, ConcurrentMap<String, LongAdder>> pending;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile Instant lastReconciledAt;
+
+    public UserStatistics(@Value("${app.stats.zone:UTC}") ZoneId zone,
+            @Value("${app.stats.signup-days:90}") int signupDays,
+            @Value("${app.stats.top-locations:50}") int topLocations,
+            @Value("${app.stats.snapshot-max-age:1s}") Duration snapshotMaxAge) {
+        this.zone = zone;
+        this.signupDays = signupDays;
+        this.topLocations = topLocations;
+        this.snapshotMaxAge = snapshotMaxAge;
+    }
+
+    /**
+     * Records a change from {@code before} to {@code after}; either side is {@code null} for a
+     * create or delete. Inside a transaction the counters move only after it commits.
+     */
+    public void record(UserFacts before, UserFacts after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    /**
+     * Records that {@code count} users changed status in a set-based update, which leaves
+     * every dimension but the status untouched. Inside a transaction the counters move only
+     * after it commits.
+     *
+     * @param active The status the users have now.
+     */
+    public void recordStatusChanges(long count, boolean active) {
+        if (count == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyStatusChanges(count, active);
+                }
+            });
+        } else {
+            applyStatusChanges(count, active);
+        }
+    }
+
+    public UserStatsDto snapshot() {
+        Snapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current != null && (current.version() == currentVersion
+                || current.stats().getGeneratedAt().plus(snapshotMaxAge).isAfter(Instant.now()))) {
+            return current.stats();
+        }
+        UserStatsDto stats = render();
+        snapshot = new Snapshot(currentVersion, stats);
+        return stats;
+    }
+
+    /**
+     * Starts buffering deltas so that changes committed during a recount are not lost. Call it
+     * only once the recount's snapshot is open, or a change committed in between is both in
+     * the snapshot and replayed on top of it.
+     */
+    void beginRecount() {
+        pending = newCounters();
+    }
+
+    /**
+     * Replaces the counters with a recount plus every delta applied since {@link #beginRecount()}.
+     *
+     * @return The total absolute difference between the old and the new counters.
+     */
+    long completeRecount(Map<Dimension, Map<String, Long>> recount) {
+        Map<Dimension, ConcurrentMap<String, LongAdder>> fresh = newCounters();
+        recount.forEach((dimension, buckets) -> buckets.forEach((bucket, count) -> add(fresh, dimension, bucket, count)));
+        Map<Dimension, ConcurrentMap<String, LongAdder>> buffered = pending;
+        if (buffered != null) {
+            buffered.forEach((dimension, buckets) -> buckets.forEach((bucket, delta) -> add(fresh, dimension, bucket, delta.sum())));
+        }
+        long drift = drift(counters, fresh);
+        counters = fresh;
+        pending = null;
+        lastReconciledAt = Instant.now();
+        version.incrementAndGet();
+        return drift;
+    }
+
+    void abortRecount() {
+        pending = null;
+    }
+
+    /**
+     * Seeds empty counters from a checkpoint; ignored once any change or recount has been applied.
+     */
+    boolean restore(Map<Dimension, Map<String, Long>> checkpoint) {
+        if (version.get() != 0) {
+            return false;
+        }
+        Map<Dimension, ConcurrentMap<String, LongAdder>> restored = newCounters();
+        checkpoint.forEach((dimension, buckets) -> buckets.forEach((bucket, count) -> add(restored, dimension, bucket, count)));
+        counters = restored;
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Start of the signup window; recounts only need to scan users created since then.
+     */
+    Instant signupWindowStart() {
+        return oldestSignupDay().atStartOfDay(zone).toInstant();
+    }
+
+    String signupDay(Instant createdAt) {
+        return LocalDate.ofInstant(createdAt, zone).toString();
+    }
+
+    static String bucket(String value) {
+        return value == null || value.isBlank() ? NONE : value;
+    }
+
+    private LocalDate oldestSignupDay() {
+        return LocalDate.now(zone).minusDays(signupDays - 1L);
+    }
+
+    private void apply(UserFacts before, UserFacts after) {
+        Map<Dimension, ConcurrentMap<String, LongAdder>> live = counters;
+        Map<Dimension, ConcurrentMap<String, LongAdder>> buffered = pending;
+        if (before != null) {
+            addFacts(live, buffered, before, -1);
+        }
+        if (after != null) {
+            addFacts(live, buffered, after, 1);
+        }
+        version.incrementAndGet();
+    }
+
+    private void applyStatusChanges(long count, boolean active) {
+        Map<Dimension, ConcurrentMap<String, LongAdder>> live = counters;
+        Map<Dimension, ConcurrentMap<String, LongAdder>> buffered = pending;
+        addBoth(live, buffered, Dimension.STATUS, active ? INACTIVE : ACTIVE, -count);
+        addBoth(live, buffered, Dimension.STATUS, active ? ACTIVE : INACTIVE, count);
+        version.incrementAndGet();
+    }
+
+    private void addFacts(Map<Dimension, ConcurrentMap<String, LongAdder>> live,
+            Map<Dimension, ConcurrentMap<String, LongAdder>> buffered, UserFacts facts, long delta) {
+        addBoth(live, buffered, Dimension.TOTAL, ALL, delta);
+        addBoth(live, buffered, Dimension.STATUS, facts.active() ? ACTIVE : INACTIVE, delta);
+        addBoth(live, buffered, Dimension.PROVIDER, facts.provider() != null ? facts.provider().name() : NONE, delta);
+        addBoth(live, buffered, Dimension.CITY, bucket(facts.city()), delta);
+        addBoth(live, buffered, Dimension.STATE, bucket(facts.state()), delta);
+        if (facts.createdAt() != null) {
+            addBoth(live, buffered, Dimension.SIGNUP_DAY, signupDay(facts.createdAt()), delta);
+        }
+    }
+
+    private static void addBoth(Map<Dimension, ConcurrentMap<String, LongAdder>> live,
+            Map<Dimension, ConcurrentMap<String, LongAdder>> buffered, Dimension dimension, String bucket, long delta) {
+        add(live, dimension, bucket, delta);
+        if (buffered != null) {
+            add(buffered, dimension, bucket, delta);
+        }
+    }
+
+    private static void add(Map<Dimension, ConcurrentMap<String, LongAdder>> target, Dimension dimension,
+            String bucket, long delta) {
+        target.get(dimension).computeIfAbsent(bucket, b -> new LongAdder()).add(delta);
+    }
+
+    private static long drift(Map<Dimension, ConcurrentMap<String, LongAdder>> before,
+            Map<Dimension, ConcurrentMap<String, LongAdder>> after) {
+        long drift = 0;
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, LongAdder> old = before.get(dimension);
+            Map<String, LongAdder> fresh = after.get(dimension);
+            for (Map.Entry<String, LongAdder> entry : fresh.entrySet()) {
+                LongAdder previous = old.get(entry.getKey());
+                drift += Math.abs(entry.getValue().sum() - (previous != null ? previous.sum() : 0));
+            }
+            for (Map.Entry<String, LongAdder> entry : old.entrySet()) {
+                if (!fresh.containsKey(entry.getKey())) {
+                    drift += Math.abs(entry.getValue().sum());
+                }
+            }
+        }
+        return drift;
+    }
+
+    private UserStatsDto render() {
+        Map<Dimension, ConcurrentMap<String, LongAdder>> live = counters;
+        String oldestDay = oldestSignupDay().toString();
+        Map<String, Long> signups = new TreeMap<>(Comparator.reverseOrder());
+        sums(live.get(Dimension.SIGNUP_DAY)).forEach((day, count) -> {
+            if (day.compareTo(oldestDay) >= 0) {
+                signups.put(day, count);
+            }
+        });
+        return UserStatsDto.builder()
+                .totalUsers(sum(live, Dimension.TOTAL, ALL))
+                .activeUsers(sum(live, Dimension.STATUS, ACTIVE))
+                .inactiveUsers(sum(live, Dimension.STATUS, INACTIVE))
+                .byProvider(new TreeMap<>(sums(live.get(Dimension.PROVIDER))))
+                .byCity(top(sums(live.get(Dimension.CITY))))
+                .byState(top(sums(live.get(Dimension.STATE))))
+                .signupsPerDay(signups)
+                .generatedAt(Instant.now())
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+
+    private static long sum(Map<Dimension, ConcurrentMap<String, LongAdder>> live, Dimension dimension, String bucket) {
+        LongAdder counter = live.get(dimension).get(bucket);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> buckets) {
+        Map<String, Long> sums = new LinkedHashMap<>();
+        buckets.forEach((bucket, counter) -> {
+            long sum = counter.sum();
+            if (sum > 0) {
+                sums.put(bucket, sum);
+            }
+        });
+        return sums;
+    }
+
+    /**
+     * The largest location buckets, biggest first.
+     */
+    private Map<String, Long> top(Map<String, Long> sums) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(sums.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(topLocations, entries.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    private static Map<Dimension, ConcurrentMap<String, LongAdder>> newCounters() {
+        Map<Dimension, ConcurrentMap<String, LongAdder>> counters = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            counters.put(dimension, new ConcurrentHashMap<>());
+        }
+        return counters;
+    }
+
+    private record Snapshot(long version, UserStatsDto stats) {
+    }
+}
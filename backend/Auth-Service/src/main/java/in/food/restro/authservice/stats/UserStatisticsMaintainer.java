@@ -0,0 +1,272 @@
+package in.food.restro.authservice.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.entities.UserStatsSummary;
+import in.food.restro.authservice.location.CanonicalLocation;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.repositories.UserStatsSummaryRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import in.food.restro.authservice.stats.UserStatistics.Dimension;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists and corrects {@link UserStatistics}: restores the last checkpoint when the
+ * application starts, replaces the counters with a full recount on a cron schedule and
+ * writes every recount to {@code user_stats_summary} as the new checkpoint.
+ * <p>
+ * Only recounts are checkpointed. They count the shared table, so every instance arrives at
+ * the same numbers, whereas the live counters also hold deltas that only this instance has
+ * seen. Instances finishing a recount together write one after the other, and a recount that
+ * started before the stored checkpoint's is not written.
+ * <p>
+ * The recount's GROUP BY queries run in one read-only repeatable-read transaction, so the
+ * buckets are taken from the same snapshot. With sharding, every shard is counted in its
+ * own such transaction, concurrently, and the counts are added up; the checkpoint lives on shard 0.
+ * Changes committed during the recount are replayed on top of it, so the snapshots are opened
+ * before {@link UserStatistics} starts buffering them. A change whose commit falls between its
+ * snapshot and its counter update can still be counted twice; the next recount corrects it.
+ */
+@Component
+@Slf4j
+public class UserStatisticsMaintainer {
+
+    private final UserStatistics statistics;
+    private final UserRepository userRepository;
+    private final UserStatsSummaryRepository summaryRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate recountTemplate;
+
+    private static final Duration SNAPSHOT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Timer recountTimer;
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    public UserStatisticsMaintainer(UserStatistics statistics, UserRepository userRepository,
+            UserStatsSummaryRepository summaryRepository, ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.statistics = statistics;
+        this.userRepository = userRepository;
+        this.summaryRepository = summaryRepository;
+        this.shardRouter = shardRouter;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.recountTemplate = new TransactionTemplate(transactionManager);
+        this.recountTemplate.setReadOnly(true);
+        this.recountTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.recountTimer = Timer.builder("auth.stats.recount")
+                .description("Time to recount user statistics from the users table")
+                .register(meterRegistry);
+        Gauge.builder("auth.stats.drift", lastDrift, AtomicLong::get)
+                .description("Total counter correction applied by the last recount")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serves the last checkpoint right away and recounts in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreAndRecount() {
+        try {
+            List<UserStatsSummary> rows = summaryRepository.findAll();
+            if (!rows.isEmpty() && statistics.restore(toCounts(rows))) {
+                log.info("Stats: Restored {} counters from checkpoint", rows.size());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Stats: Could not restore checkpoint: {}", ex.getMessage());
+        }
+        Thread.ofVirtual().name("user-stats-recount").start(this::recount);
+    }
+
+    /**
+     * Recounts every shard and checkpoints the result. Runs one at a time: the recount started
+     * at startup may still be running when the cron fires, and both would share one delta buffer.
+     */
+    @Scheduled(cron = "${app.stats.recount-cron:0 7 * * * *}")
+    public synchronized void recount() {
+        Instant startedAt = Instant.now();
+        CyclicBarrier snapshotsOpen = new CyclicBarrier(shardRouter.shardCount(), statistics::beginRecount);
+        Map<Dimension, Map<String, Long>> counts;
+        try {
+            counts = recountTimer.record(() -> add(shardRouter.onAllShards(shard -> countShard(snapshotsOpen))));
+            long drift = statistics.completeRecount(counts);
+            lastDrift.set(drift);
+            if (drift > 0) {
+                log.info("Stats: Recount corrected counters by {}", drift);
+            }
+        } catch (RuntimeException ex) {
+            statistics.abortRecount();
+            log.error("Stats: Recount failed: {}", ex.getMessage(), ex);
+            return;
+        }
+        try {
+            checkpoint(counts, startedAt);
+        } catch (RuntimeException ex) {
+            log.warn("Stats: Could not write checkpoint: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the checkpoint with the counts of a recount, unless the stored checkpoint comes
+     * from a recount started at the same time or later. The checkpoint rows are locked first,
+     * so a concurrent writer sees the result of the other.
+     *
+     * @param countedAt When the recount started.
+     * @return Whether the checkpoint was written.
+     */
+    boolean checkpoint(Map<Dimension, Map<String, Long>> counts, Instant countedAt) {
+        List<UserStatsSummary> rows = new ArrayList<>();
+        counts.forEach((dimension, buckets) -> buckets.forEach((bucket, count) -> {
+            if (count != 0) {
+                rows.add(UserStatsSummary.builder()
+                        .key(dimension.name() + ":" + bucket)
+                        .dimension(dimension.name())
+                        .bucket(bucket)
+                        .userCount(count)
+                        .checkpointedAt(countedAt)
+                        .build());
+            }
+        }));
+        Boolean written = writeTemplate.execute(status -> {
+            boolean superseded = summaryRepository.lockAll().stream()
+                    .anyMatch(row -> !row.getCheckpointedAt().isBefore(countedAt));
+            if (superseded) {
+                return false;
+            }
+            summaryRepository.saveAll(rows);
+            summaryRepository.deleteCheckpointedBefore(countedAt);
+            return true;
+        });
+        boolean checkpointed = Boolean.TRUE.equals(written);
+        log.debug("Stats: {} checkpoint of {} counters", checkpointed ? "Wrote" : "Skipped superseded", rows.size());
+        return checkpointed;
+    }
+
+    /**
+     * Counts one shard once the snapshots of all shards are open. Deltas are buffered only from
+     * then on: a change committed before a snapshot is in the recount and must not be replayed
+     * on top of it, a change committed after it is not and must be.
+     */
+    private Map<Dimension, Map<String, Long>> countShard(CyclicBarrier snapshotsOpen) {
+        return recountTemplate.execute(status -> {
+            try {
+                userRepository.openSnapshot();
+            } catch (RuntimeException ex) {
+                snapshotsOpen.reset();
+                throw ex;
+            }
+            try {
+                snapshotsOpen.await(SNAPSHOT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while opening the recount snapshots", ex);
+            } catch (BrokenBarrierException | TimeoutException ex) {
+                throw new IllegalStateException("Recount snapshots were not all opened", ex);
+            }
+            return countAll();
+        });
+    }
+
+    private Map<Dimension, Map<String, Long>> countAll() {
+        long start = System.nanoTime();
+        Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+
+        Map<String, Long> status = new HashMap<>();
+        long total = 0;
+        for (Object[] row : userRepository.countByActive()) {
+            long count = ((Number) row[1]).longValue();
+            status.merge(Boolean.TRUE.equals(row[0]) ? UserStatistics.ACTIVE : UserStatistics.INACTIVE, count, Long::sum);
+            total += count;
+        }
+        counts.put(Dimension.TOTAL, Map.of(UserStatistics.ALL, total));
+        counts.put(Dimension.STATUS, status);
+        counts.put(Dimension.PROVIDER, group(userRepository.countByProvider()));
+        List<Object[]> byLocation = userRepository.countByLocation();
+        counts.put(Dimension.CITY, groupLocations(byLocation, CanonicalLocation::city));
+        counts.put(Dimension.STATE, groupLocations(byLocation, CanonicalLocation::state));
+
+        Map<String, Long> signups = new HashMap<>();
+        try (Stream<Instant> createdAt = userRepository.streamCreatedAtSince(statistics.signupWindowStart())) {
+            createdAt.forEach(instant -> signups.merge(statistics.signupDay(instant), 1L, Long::sum));
+        }
+        counts.put(Dimension.SIGNUP_DAY, signups);
+
+        log.info("Stats: Recounted {} users in {} ms", total, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return counts;
+    }
+
+    private static Map<Dimension, Map<String, Long>> add(List<Map<Dimension, Map<String, Long>>> shardCounts) {
+        if (shardCounts.size() == 1) {
+            return shardCounts.get(0);
+        }
+        Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+        for (Map<Dimension, Map<String, Long>> shard : shardCounts) {
+            shard.forEach((dimension, buckets) -> buckets.forEach((bucket, count) ->
+                    counts.computeIfAbsent(dimension, d -> new HashMap<>()).merge(bucket, count, Long::sum)));
+        }
+        return counts;
+    }
+
+    /**
+     * Folds GROUP BY rows into buckets; null and blank values share the "(none)" bucket.
+     */
+    private static Map<String, Long> group(List<Object[]> rows) {
+        Map<String, Long> buckets = new HashMap<>();
+        for (Object[] row : rows) {
+            String value = row[0] != null ? row[0].toString() : null;
+            buckets.merge(UserStatistics.bucket(value), ((Number) row[1]).longValue(), Long::sum);
+        }
+        return buckets;
+    }
+
+    /**
+     * Folds per-location rows into buckets of one part of the location, e.g. the city. Addresses
+     * still in the old columns are counted by those names, as {@link UserFacts} does.
+     */
+    private static Map<String, Long> groupLocations(List<Object[]> rows, Function<CanonicalLocation, String> part) {
+        Map<String, Long> buckets = new HashMap<>();
+        for (Object[] row : rows) {
+            CanonicalLocation location = row[0] instanceof CanonicalLocation known ? known
+                    : new CanonicalLocation(0, (String) row[1], (String) row[2], (String) row[3]);
+            buckets.merge(UserStatistics.bucket(part.apply(location)), ((Number) row[4]).longValue(), Long::sum);
+        }
+        return buckets;
+    }
+
+    private static Map<Dimension, Map<String, Long>> toCounts(List<UserStatsSummary> rows) {
+        Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+        for (UserStatsSummary row : rows) {
+            try {
+                counts.computeIfAbsent(Dimension.valueOf(row.getDimension()), d -> new HashMap<>())
+                        .put(row.getBucket(), row.getUserCount());
+            } catch (IllegalArgumentException ex) {
+                log.debug("Stats: Ignoring checkpoint row of unknown dimension '{}'", row.getDimension());
+            }
+        }
+        return counts;
+    }
+}
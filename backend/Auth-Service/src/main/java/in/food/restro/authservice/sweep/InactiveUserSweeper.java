@@ -0,0 +1,310 @@
+package in.food.restro.authservice.sweep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.entities.JobCheckpoint;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.outbox.OutboxWriter;
+import in.food.restro.authservice.repositories.JobCheckpointRepository;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import in.food.restro.authservice.stats.UserStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deactivates users who have not logged in for longer than the configured horizon.
+ * <p>
+ * A pass walks the users table in primary key order, in chunks of a fixed number of rows.
+ * Chunk bounds are found one after the other with an index-only scan; each chunk is then
+ * handled in its own short transaction on a small pool: lock the eligible rows of the id
+ * range, deactivate them with one update, and record one outbox event per user. Chunks are
+ * started no faster than the configured row rate, and a run stops after a maximum number of
+ * deactivations, so a first pass over millions of dormant accounts is spread over several runs
+ * instead of flooding the database and the outbox consumers. Chunks not yet started when the
+ * limit is reached are skipped, but up to {@code parallelism} chunks may already be running, so
+ * a run deactivates at most {@code max-changes-per-run - 1 + parallelism * chunk-size} users.
+ * <p>
+ * Progress is checkpointed in {@code job_checkpoint} up to the last chunk below which every
+ * chunk has committed. A pass stopped by the limit, a failure or a crash resumes there with its
+ * original cutoff; redoing a chunk is harmless since deactivated users no longer match.
+ * With sharding, each shard has its own pass and checkpoint and is swept in turn.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sweep", name = "enabled", havingValue = "true")
+@Slf4j
+public class InactiveUserSweeper {
+
+    static final String JOB_NAME = "inactive-user-sweep";
+
+    private static final UUID START = new UUID(0, 0);
+    /** Largest uuid in PostgreSQL's unsigned byte order. */
+    private static final UUID END = new UUID(-1L, -1L);
+
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final OutboxWriter outboxWriter;
+    private final UserStatistics userStatistics;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Duration inactiveAfter;
+    private final Duration passInterval;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long maxRowsPerSecond;
+    private final long maxChangesPerRun;
+    private final ExecutorService executor;
+
+    private final Counter scannedCounter;
+    private final Counter deactivatedCounter;
+    private final Timer runTimer;
+
+    public InactiveUserSweeper(UserRepository userRepository, JobCheckpointRepository checkpointRepository,
+            OutboxWriter outboxWriter, UserStatistics userStatistics, TransactionTemplate transactionTemplate,
+            ShardRouter shardRouter, MeterRegistry meterRegistry,
+            @Value("${app.sweep.inactive-after:365d}") Duration inactiveAfter,
+            @Value("${app.sweep.pass-interval:24h}") Duration passInterval,
+            @Value("${app.sweep.chunk-size:5000}") int chunkSize,
+            @Value("${app.sweep.parallelism:2}") int parallelism,
+            @Value("${app.sweep.max-rows-per-second:20000}") long maxRowsPerSecond,
+            @Value("${app.sweep.max-changes-per-run:50000}") long maxChangesPerRun) {
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.outboxWriter = outboxWriter;
+        this.userStatistics = userStatistics;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.inactiveAfter = inactiveAfter;
+        this.passInterval = passInterval;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.maxChangesPerRun = maxChangesPerRun;
+        this.executor = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("sweep-", 0).daemon().factory());
+        this.scannedCounter = Counter.builder("auth.sweep.scanned")
+                .description("User rows examined by the inactive-account sweep")
+                .register(meterRegistry);
+        this.deactivatedCounter = Counter.builder("auth.sweep.deactivated")
+                .description("Users deactivated for not having logged in within the horizon")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("auth.sweep.run")
+                .description("Duration of one inactive-account sweep run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Continues the current pass of every shard, or starts a new one once the previous pass
+     * is older than the pass interval.
+     *
+     * @return What the run did.
+     */
+    @Scheduled(fixedDelayString = "${app.sweep.interval:900000}", initialDelayString = "${app.sweep.interval:900000}")
+    public synchronized SweepReport sweep() {
+        long started = System.nanoTime();
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong deactivated = new AtomicLong();
+        AtomicBoolean completed = new AtomicBoolean(true);
+        shardRouter.forEachShard(shard -> {
+            long budget = maxChangesPerRun - deactivated.get();
+            ShardResult result = budget > 0 ? sweepShard(shard, budget) : ShardResult.NOTHING;
+            scanned.addAndGet(result.scanned());
+            deactivated.addAndGet(result.deactivated());
+            completed.compareAndSet(true, result.passCompleted());
+        });
+        Duration duration = Duration.ofNanos(System.nanoTime() - started);
+        runTimer.record(duration);
+        SweepReport report = new SweepReport(scanned.get(), deactivated.get(), duration, completed.get());
+        if (report.scanned() > 0) {
+            log.info("Sweep: Scanned {} users and deactivated {} in {} ms{}", report.scanned(), report.deactivated(),
+                    duration.toMillis(), report.passCompleted() ? "" : ", pass continues in the next run");
+        }
+        return report;
+    }
+
+    private ShardResult sweepShard(int shard, long budget) {
+        Instant now = Instant.now();
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint == null || checkpoint.getPassCompletedAt() != null) {
+            if (checkpoint != null && checkpoint.getPassCompletedAt().plus(passInterval).isAfter(now)) {
+                return ShardResult.NOTHING;
+            }
+            checkpoint = JobCheckpoint.builder()
+                    .name(JOB_NAME)
+                    .cutoff(now.minus(inactiveAfter))
+                    .passStartedAt(now)
+                    .updatedAt(now)
+                    .build();
+            checkpointRepository.save(checkpoint);
+            log.info("Sweep: Starting a pass on shard {} for users not seen since {}", shard, checkpoint.getCutoff());
+        } else {
+            log.info("Sweep: Resuming the pass on shard {} after {}", shard, checkpoint.getPosition());
+        }
+        return new Pass(shard, checkpoint, budget).run();
+    }
+
+    /**
+     * One run over one shard: plans chunks on the calling thread and processes them on the pool.
+     */
+    private final class Pass {
+
+        private final int shard;
+        private final JobCheckpoint checkpoint;
+        private final long budget;
+        private final Semaphore inFlight = new Semaphore(parallelism * 2);
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong deactivated = new AtomicLong();
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final AtomicBoolean skipped = new AtomicBoolean();
+
+        // Guarded by this: chunks that committed ahead of an earlier, still running one
+        private final TreeMap<Integer, UUID> committedAhead = new TreeMap<>();
+        private int nextToCheckpoint;
+
+        Pass(int shard, JobCheckpoint checkpoint, long budget) {
+            this.shard = shard;
+            this.checkpoint = checkpoint;
+            this.budget = budget;
+        }
+
+        ShardResult run() {
+            long started = System.nanoTime();
+            UUID low = checkpoint.getPosition() != null ? checkpoint.getPosition() : START;
+            List<Future<?>> chunks = new ArrayList<>();
+            boolean reachedEnd = false;
+            try {
+                for (int index = 0; !failed.get() && deactivated.get() < budget; index++) {
+                    pace(started, (long) index * chunkSize);
+                    List<UUID> bound = userRepository.findIdAfter(low, chunkSize - 1);
+                    UUID high = bound.isEmpty() ? END : bound.get(0);
+                    long rows = bound.isEmpty() ? userRepository.countIdsAfter(low) : chunkSize;
+                    inFlight.acquire();
+                    int chunkIndex = index;
+                    UUID chunkLow = low;
+                    chunks.add(executor.submit(() -> {
+                        try {
+                            shardRouter.onShard(shard, () -> processChunk(chunkIndex, chunkLow, high, rows));
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                    low = high;
+                    if (bound.isEmpty()) {
+                        reachedEnd = true;
+                        break;
+                    }
+                }
+                for (Future<?> chunk : chunks) {
+                    chunk.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+            } catch (ExecutionException | RuntimeException ex) {
+                log.error("Sweep: Shard {} stopped after deactivating {} users: {}", shard, deactivated.get(),
+                        ex.getMessage(), ex);
+                failed.set(true);
+            }
+
+            boolean passCompleted = reachedEnd && !failed.get() && !skipped.get();
+            if (passCompleted) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    JobCheckpoint done = checkpointRepository.findById(JOB_NAME).orElse(checkpoint);
+                    done.setPassCompletedAt(Instant.now());
+                    done.setUpdatedAt(Instant.now());
+                    checkpointRepository.save(done);
+                });
+                log.info("Sweep: Pass on shard {} completed", shard);
+            }
+            return new ShardResult(scanned.get(), deactivated.get(), passCompleted);
+        }
+
+        private Void processChunk(int index, UUID low, UUID high, long rows) {
+            if (failed.get() || deactivated.get() >= budget) {
+                // Never committed, so the checkpoint stays below it and the next run redoes it
+                skipped.set(true);
+                return null;
+            }
+            try {
+                List<UUID> changed = transactionTemplate.execute(status -> {
+                    List<UUID> userIds = userRepository.lockInactiveBetween(low, high, checkpoint.getCutoff());
+                    if (!userIds.isEmpty()) {
+                        userRepository.deactivateAll(userIds, Instant.now());
+                        outboxWriter.recordStatusChanges(UserChangeType.DEACTIVATED, userIds);
+                        userStatistics.recordStatusChanges(userIds.size(), false);
+                    }
+                    return userIds;
+                });
+                int count = changed == null ? 0 : changed.size();
+                scanned.addAndGet(rows);
+                deactivated.addAndGet(count);
+                scannedCounter.increment(rows);
+                deactivatedCounter.increment(count);
+                committed(index, high, rows, count);
+                return null;
+            } catch (RuntimeException ex) {
+                failed.set(true);
+                throw ex;
+            }
+        }
+
+        /**
+         * Moves the checkpoint past every chunk that has committed without a gap before it.
+         */
+        private synchronized void committed(int index, UUID high, long rows, long changed) {
+            committedAhead.put(index, high);
+            checkpoint.setRowsScanned(checkpoint.getRowsScanned() + rows);
+            checkpoint.setRowsChanged(checkpoint.getRowsChanged() + changed);
+            UUID position = null;
+            while (committedAhead.containsKey(nextToCheckpoint)) {
+                position = committedAhead.remove(nextToCheckpoint++);
+            }
+            if (position != null) {
+                checkpoint.setPosition(position);
+                checkpoint.setUpdatedAt(Instant.now());
+                transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(checkpoint));
+            }
+        }
+
+        /**
+         * Holds back the next chunk until starting it keeps the run within the row rate.
+         */
+        private void pace(long startedNanos, long rowsSoFar) throws InterruptedException {
+            long dueNanos = startedNanos + rowsSoFar * 1_000_000_000L / maxRowsPerSecond;
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+
+    private record ShardResult(long scanned, long deactivated, boolean passCompleted) {
+        static final ShardResult NOTHING = new ShardResult(0, 0, true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,15 @@
+package in.food.restro.authservice.sweep;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one run of the {@link InactiveUserSweeper}, summed over shards.
+ *
+ * @param scanned Users whose rows were examined.
+ * @param deactivated Users deactivated.
+ * @param duration Wall-clock time of the run.
+ * @param passCompleted Whether every shard finished its pass, as opposed to stopping at a
+ *        per-run limit or a failure and leaving a checkpoint to resume from.
+ */
+public record SweepReport(long scanned, long deactivated, Duration duration, boolean passCompleted) {
+}
@@ -0,0 +1,151 @@
+package in.food.restro.authservice.timing;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times every request by the {@link Stage stages} reported to {@link RequestTimings} and
+ * tags its log lines with a correlation id.
+ * <p>
+ * The id is taken from the request id header when the caller sent a sane one, generated
+ * otherwise, echoed in the response and put into the MDC as {@code requestId}. The stage
+ * breakdown goes out as a {@code Server-Timing} header, added when the response body is
+ * first opened since headers cannot change after that: stages finishing later, such as
+ * streaming a list of users, are left out of the header but still count for the slow
+ * request log. Slow requests are recorded and logged by route pattern, not by URI, so that
+ * path variables such as emails or phone numbers do not end up in the log or the endpoint.
+ */
+@Slf4j
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+    private final String requestIdHeader;
+    private final long slowThresholdNanos;
+    private final SlowRequestLog slowRequestLog;
+
+    public RequestTimingFilter(TimingProperties properties, SlowRequestLog slowRequestLog) {
+        this.requestIdHeader = properties.getRequestIdHeader();
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Instant startedAt = Instant.now();
+        RequestTimings timings = RequestTimings.begin();
+        String requestId = requestId(request);
+        MDC.put(MDC_REQUEST_ID, requestId);
+        response.setHeader(requestIdHeader, requestId);
+        TimingResponse timingResponse = new TimingResponse(response, timings);
+        try {
+            chain.doFilter(request, timingResponse);
+        } finally {
+            timingResponse.addServerTiming();
+            long elapsedNanos = timings.elapsedNanos();
+            if (elapsedNanos >= slowThresholdNanos) {
+                SlowRequest slow = new SlowRequest(requestId, request.getMethod(), route(request),
+                        response.getStatus(), startedAt, elapsedNanos / 1e6, timings.toMillis());
+                slowRequestLog.record(slow);
+                log.info("Timing: Slow request {} {} answered {} in {} ms: {}", slow.method(), slow.route(),
+                        slow.status(), Math.round(slow.totalMillis()), slow.stages());
+            }
+            RequestTimings.end();
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+
+    /**
+     * The pattern of the handler mapping that matched, or a placeholder for requests that
+     * never reached one, like Micrometer's {@code uri} tag.
+     */
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private String requestId(HttpServletRequest request) {
+        String incoming = request.getHeader(requestIdHeader);
+        if (incoming != null && VALID_REQUEST_ID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        return HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Adds the {@code Server-Timing} header right before anything can commit the response.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                setHeader(SERVER_TIMING, timings.toServerTiming());
+            }
+            added = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package in.food.restro.authservice.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time spent in each {@link Stage} by the request being handled on the current thread.
+ * <p>
+ * Code that wants a stage measured brackets it with {@link #start()} and
+ * {@link #stop(Stage, long)}; outside of a request both are close to free, since
+ * {@code start()} then returns 0 without reading the clock. A stage may be entered many
+ * times per request: durations and counts add up. Work handed to other threads, such as
+ * the per-shard queries of a sharded listing, is not attributed to the request.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long startedNanos = System.nanoTime();
+    private final long[] nanos = new long[STAGES.length];
+    private final int[] counts = new int[STAGES.length];
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Starts accounting for a request on the current thread.
+     */
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Stops accounting on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The timings of the current request, or null outside of one.
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return A start time to pass to {@link #stop(Stage, long)}, 0 if no request is accounted for.
+     */
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Adds the time since {@code startNanos} to the stage.
+     */
+    public static void stop(Stage stage, long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    public void add(Stage stage, long durationNanos) {
+        nanos[stage.ordinal()] += durationNanos;
+        counts[stage.ordinal()]++;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+
+    /**
+     * @return Milliseconds per stage entered so far, in stage order, followed by the total as {@code total}.
+     */
+    public Map<String, Double> toMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (Stage stage : STAGES) {
+            if (counts[stage.ordinal()] > 0) {
+                millis.put(stage.getMetricName(), nanos[stage.ordinal()] / 1e6);
+            }
+        }
+        millis.put("total", elapsedNanos() / 1e6);
+        return millis;
+    }
+
+    /**
+     * Renders the stages entered so far and the time since the request started as a
+     * {@code Server-Timing} header value, e.g.
+     * {@code pool;dur=0.021, db;dur=1.874;desc="SQL execution (2)", total;dur=3.312}.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(160);
+        for (Stage stage : STAGES) {
+            int count = counts[stage.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(stage.getMetricName()).append(";dur=").append(format(nanos[stage.ordinal()]))
+                    .append(";desc=\"").append(stage.getDescription());
+            if (count > 1) {
+                header.append(" (").append(count).append(')');
+            }
+            header.append("\", ");
+        }
+        return header.append("total;dur=").append(format(elapsedNanos())).toString();
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
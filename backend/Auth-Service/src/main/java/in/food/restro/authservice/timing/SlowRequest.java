@@ -0,0 +1,20 @@
+package in.food.restro.authservice.timing;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A request that took longer than {@code app.timing.slow-threshold}.
+ *
+ * @param requestId The correlation id of the request, as logged.
+ * @param method The HTTP method.
+ * @param route The matched route pattern, such as {@code /api/v1/users/email/{email}}. Never the
+ *            request URI, whose path variables can be emails or phone numbers.
+ * @param status The response status.
+ * @param startedAt When the request arrived.
+ * @param totalMillis Time spent in the service.
+ * @param stages Milliseconds per {@link Stage} entered, by metric name.
+ */
+public record SlowRequest(String requestId, String method, String route, int status, Instant startedAt,
+        double totalMillis, Map<String, Double> stages) {
+}
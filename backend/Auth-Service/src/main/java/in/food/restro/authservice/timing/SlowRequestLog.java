@@ -0,0 +1,51 @@
+package in.food.restro.authservice.timing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The most recent slow requests, bounded so a burst of them cannot grow the heap.
+ */
+public class SlowRequestLog {
+
+    private final int capacity;
+    private final ArrayDeque<SlowRequest> requests;
+    private long recorded;
+
+    public SlowRequestLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.requests = new ArrayDeque<>(capacity);
+    }
+
+    public synchronized void record(SlowRequest request) {
+        if (requests.size() == capacity) {
+            requests.removeFirst();
+        }
+        requests.addLast(request);
+        recorded++;
+    }
+
+    /**
+     * @return The kept requests, newest first.
+     */
+    public synchronized List<SlowRequest> snapshot() {
+        List<SlowRequest> snapshot = new ArrayList<>(requests.size());
+        requests.descendingIterator().forEachRemaining(snapshot::add);
+        return snapshot;
+    }
+
+    /**
+     * @return The number of slow requests seen since startup, including dropped ones.
+     */
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    public synchronized void clear() {
+        requests.clear();
+    }
+}
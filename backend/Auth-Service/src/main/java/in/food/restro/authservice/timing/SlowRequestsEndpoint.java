@@ -0,0 +1,45 @@
+package in.food.restro.authservice.timing;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint listing the slow requests kept by {@link SlowRequestLog}, available at
+ * {@code /actuator/slowrequests} once exposed.
+ * <p>
+ * Not exposed over HTTP by default. Expose it on the management port, which stays off the
+ * public network, and leave its access read-only unless clearing the buffer is wanted.
+ */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+    private final TimingProperties properties;
+
+    public SlowRequestsEndpoint(SlowRequestLog slowRequestLog, TimingProperties properties) {
+        this.slowRequestLog = slowRequestLog;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Report slowRequests() {
+        return new Report(properties.getSlowThreshold().toMillis(), slowRequestLog.getRecorded(),
+                slowRequestLog.snapshot());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowRequestLog.clear();
+    }
+
+    /**
+     * @param thresholdMillis The configured slow request threshold.
+     * @param recorded Slow requests seen since startup.
+     * @param requests The kept requests, newest first.
+     */
+    public record Report(long thresholdMillis, long recorded, List<SlowRequest> requests) {
+    }
+}
@@ -0,0 +1,34 @@
+package in.food.restro.authservice.timing;
+
+/**
+ * Parts of a request that {@link RequestTimings} accounts for, named as in the
+ * {@code Server-Timing} header.
+ */
+public enum Stage {
+    /** Waiting for a connection from the pool. */
+    POOL("pool", "Connection pool wait"),
+    /** Executing SQL statements and batches. */
+    DB("db", "SQL execution"),
+    /** Mapping entities to DTOs. */
+    MAPPING("map", "Entity to DTO mapping"),
+    /** Resolving the roles of a new user. */
+    ROLES("roles", "Role lookups"),
+    /** Writing the JSON response body. */
+    JSON("json", "JSON serialization");
+
+    private final String metricName;
+    private final String description;
+
+    Stage(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,28 @@
+package in.food.restro.authservice.timing;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of per-request stage timing, bound from {@code app.timing.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.timing")
+public class TimingProperties {
+
+	private boolean enabled = true;
+
+	/** Header carrying the correlation id; a valid incoming value is reused, otherwise one is generated. */
+	private String requestIdHeader = "X-Request-Id";
+
+	/** Requests taking at least this long are logged and kept in the slow request buffer. */
+	private Duration slowThreshold = Duration.ofMillis(500);
+
+	/** Number of slow requests kept; the oldest are dropped first. */
+	private int slowBufferSize = 200;
+}
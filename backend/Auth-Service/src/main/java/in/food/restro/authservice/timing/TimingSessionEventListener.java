@@ -0,0 +1,45 @@
+package in.food.restro.authservice.timing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Reports connection acquisition and statement execution of Hibernate sessions to
+ * {@link RequestTimings}. Hibernate creates one instance per session, registered through
+ * {@code hibernate.session.events.auto}.
+ */
+public class TimingSessionEventListener implements SessionEventListener {
+
+    private long acquisitionStart;
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = RequestTimings.start();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTimings.stop(Stage.POOL, acquisitionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = RequestTimings.start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.stop(Stage.DB, statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = RequestTimings.start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.stop(Stage.DB, batchStart);
+    }
+}
@@ -0,0 +1,206 @@
+package in.food.restro.authservice.audit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import in.food.restro.authservice.enums.UserChangeType;
+
+class AuditSegmentWriterTest {
+
+    private static final int SEGMENT_SIZE = 8192;
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final UUID ALICE = UUID.fromString("0190f5d2-0000-7000-8000-000000000001");
+    private static final UUID BOB = UUID.fromString("0190f5d2-0000-7000-8000-000000000002");
+
+    @TempDir
+    Path directory;
+
+    private Instant now = START;
+
+    @Test
+    void readsBackWhatWasWrittenAcrossSegments() throws IOException {
+        try (AuditSegmentWriter writer = writer()) {
+            writeChanges(writer, 1000);
+        }
+        assertTrue(AuditSegment.list(directory).size() > 5);
+
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.Result result = reader().scan(AuditLogReader.Query.all(), records::add);
+
+        assertTrue(result.isIntact(), result.problems().toString());
+        assertEquals(1000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence());
+        }
+        assertEquals(new AuditRecord(2, START.plusSeconds(1), BOB, UserChangeType.ROLE_ASSIGNED, "ROLE_ADMIN"), records.get(1));
+    }
+
+    @Test
+    void filtersByUserAndTime() throws IOException {
+        try (AuditSegmentWriter writer = writer()) {
+            writeChanges(writer, 1000);
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.Result result = reader().scan(
+                new AuditLogReader.Query(ALICE, START.plusSeconds(500), START.plusSeconds(600)), records::add);
+
+        assertEquals(50, records.size());
+        assertTrue(records.stream().allMatch(record -> record.userId().equals(ALICE)));
+        assertEquals(501, records.get(0).sequence());
+        // Segments before the range are skipped and the scan stops after it
+        assertTrue(result.scanned() < 300, "Scanned " + result.scanned());
+    }
+
+    @Test
+    void continuesTheChainAfterRestart() throws IOException {
+        try (AuditSegmentWriter writer = writer()) {
+            writeChanges(writer, 10);
+        }
+        try (AuditSegmentWriter writer = writer()) {
+            assertEquals(11, writer.getNextSequence());
+            assertEquals(11, writer.appendGap(3));
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.Result result = reader().scan(AuditLogReader.Query.all(), records::add);
+
+        assertTrue(result.isIntact(), result.problems().toString());
+        assertEquals(11, records.size());
+        AuditRecord gap = records.get(10);
+        assertTrue(gap.isGap());
+        assertNull(gap.userId());
+        assertEquals("3", gap.detail());
+    }
+
+    @Test
+    void detectsEditedRecordsAndKeepsThem() throws IOException {
+        try (AuditSegmentWriter writer = writer()) {
+            writeChanges(writer, 10);
+        }
+        Path segment = AuditSegment.list(directory).get(0);
+        MappedByteBuffer mapped = AuditSegment.map(segment, FileChannel.MapMode.READ_WRITE, -1);
+        // Turn the third record, a deactivation, into an activation
+        int third = AuditFormat.HEADER_SIZE + 2 * AuditFormat.FIXED_SIZE + "ROLE_ADMIN".length();
+        mapped.put(third + 36, AuditFormat.typeCode(UserChangeType.ACTIVATED));
+        mapped.force();
+
+        try (AuditSegmentWriter writer = writer()) {
+            assertEquals(3, writer.getNextSequence());
+            writer.append(UserChangeType.UPDATED, ALICE, null);
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.Result result = reader().scan(AuditLogReader.Query.all(), records::add);
+
+        assertFalse(result.isIntact());
+        assertEquals(1, result.problems().size());
+        assertTrue(result.problems().get(0).contains("hash mismatch"), result.problems().get(0));
+        assertEquals(2, AuditSegment.list(directory).size());
+        assertEquals(List.of(1L, 2L, 3L), records.stream().map(AuditRecord::sequence).toList());
+    }
+
+    @Test
+    void quarantinesASegmentDamagedAtItsFirstRecord() throws IOException {
+        try (AuditSegmentWriter writer = writer()) {
+            writeChanges(writer, 10);
+        }
+        Path segment = AuditSegment.list(directory).get(0);
+        MappedByteBuffer mapped = AuditSegment.map(segment, FileChannel.MapMode.READ_WRITE, -1);
+        mapped.put(AuditFormat.HEADER_SIZE + 36, AuditFormat.typeCode(UserChangeType.ACTIVATED));
+        mapped.force();
+        byte[] evidence = Files.readAllBytes(segment);
+
+        try (AuditSegmentWriter writer = writer()) {
+            assertEquals(1, writer.getNextSequence());
+            writer.append(UserChangeType.UPDATED, ALICE, null);
+        }
+        // Damaged again before anything valid was written: the first copy is kept as well
+        mapped = AuditSegment.map(segment, FileChannel.MapMode.READ_WRITE, -1);
+        mapped.put(AuditFormat.HEADER_SIZE + 36, AuditFormat.typeCode(UserChangeType.DELETED));
+        mapped.force();
+        try (AuditSegmentWriter writer = writer()) {
+            writer.append(UserChangeType.UPDATED, BOB, null);
+        }
+
+        Path quarantined = segment.resolveSibling(segment.getFileName() + AuditSegmentWriter.DAMAGED_SUFFIX);
+        assertArrayEquals(evidence, Files.readAllBytes(quarantined));
+        assertTrue(Files.exists(quarantined.resolveSibling(quarantined.getFileName() + ".1")));
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.Result result = reader().scan(AuditLogReader.Query.all(), records::add);
+
+        assertTrue(result.isIntact(), result.problems().toString());
+        assertEquals(List.of(segment), AuditSegment.list(directory));
+        assertEquals(1, records.size());
+        assertEquals(BOB, records.get(0).userId());
+    }
+
+    @Test
+    void deletesSegmentsPastRetention() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_SIZE, Duration.ofMinutes(5), clock())) {
+            writeChanges(writer, 1000);
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.Result result = reader().scan(AuditLogReader.Query.all(), records::add);
+
+        assertTrue(result.isIntact(), result.problems().toString());
+        assertTrue(records.size() < 1000);
+        assertTrue(records.get(0).recordedAt().isAfter(START.plusSeconds(999 - 300 - 120)));
+    }
+
+    /** Alternates Alice's deactivation and Bob's role assignment, one second apart. */
+    private void writeChanges(AuditSegmentWriter writer, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                writer.append(UserChangeType.DEACTIVATED, ALICE, null);
+            } else {
+                writer.append(UserChangeType.ROLE_ASSIGNED, BOB, "ROLE_ADMIN");
+            }
+            now = now.plusSeconds(1);
+        }
+    }
+
+    private AuditSegmentWriter writer() throws IOException {
+        return new AuditSegmentWriter(directory, SEGMENT_SIZE, Duration.ofDays(1), clock());
+    }
+
+    private AuditLogReader reader() {
+        return new AuditLogReader(directory);
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public Instant instant() {
+                return now;
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package in.food.restro.authservice.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import in.food.restro.authservice.concurrency.AdaptiveConcurrencyLimiter.Outcome;
+
+/**
+ * Drives the limiter against a stand-in for a slow database: up to {@link #CAPACITY} operations
+ * run at their base latency, beyond that they queue and latency grows with the excess. Each
+ * round offers a burst of operations at once and completes the admitted ones together.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int CAPACITY = 10;
+    private static final long BASE_LATENCY = 2_000_000;
+
+    @Test
+    void settlesNearTheCapacityOfTheDatabase() {
+        AdaptiveConcurrencyLimiter limiter = startIdle();
+        int admitted = 0;
+        for (int round = 0; round < 500; round++) {
+            admitted = runRound(limiter, Priority.NORMAL, 150, BASE_LATENCY);
+        }
+        assertTrue(admitted >= CAPACITY && admitted <= 3 * CAPACITY, "Concurrency did not settle: " + admitted);
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimiter limiter = startIdle();
+        for (int round = 0; round < 200; round++) {
+            int admitted = admit(limiter, Priority.NORMAL, 300);
+            release(limiter, admitted, BASE_LATENCY);
+        }
+        assertTrue(limiter.getLimit() > 100, "Limit did not grow: " + limiter.getLimit());
+    }
+
+    @Test
+    void shrinksWhenTheDatabaseSlowsDown() {
+        AdaptiveConcurrencyLimiter limiter = startIdle();
+        for (int round = 0; round < 300; round++) {
+            runRound(limiter, Priority.NORMAL, 150, BASE_LATENCY);
+        }
+        int healthy = limiter.getLimit();
+        for (int round = 0; round < 20; round++) {
+            runRound(limiter, Priority.NORMAL, 150, 5 * BASE_LATENCY);
+        }
+        assertTrue(limiter.getLimit() < healthy, healthy + " -> " + limiter.getLimit());
+    }
+
+    @Test
+    void backsOffOnOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new ConcurrencyLimitProperties());
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        limiter.release("getUserById", 0, Outcome.OVERLOAD);
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void shedsLowPriorityBeforeCritical() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new ConcurrencyLimitProperties());
+        int low = admit(limiter, Priority.LOW, 100);
+        assertEquals(10, low);
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        int critical = admit(limiter, Priority.CRITICAL, 100);
+        assertEquals(10, critical);
+        assertFalse(limiter.tryAcquire(Priority.CRITICAL));
+        assertEquals(20, limiter.getInflight());
+    }
+
+    /** A few light rounds first, so that the baselines see the database unloaded, as after startup. */
+    private static AdaptiveConcurrencyLimiter startIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new ConcurrencyLimitProperties());
+        for (int round = 0; round < 5; round++) {
+            runRound(limiter, Priority.NORMAL, CAPACITY / 2, BASE_LATENCY);
+        }
+        return limiter;
+    }
+
+    private static int runRound(AdaptiveConcurrencyLimiter limiter, Priority priority, int demand, long baseLatency) {
+        int admitted = admit(limiter, priority, demand);
+        release(limiter, admitted, baseLatency * Math.max(CAPACITY, admitted) / CAPACITY);
+        return admitted;
+    }
+
+    private static int admit(AdaptiveConcurrencyLimiter limiter, Priority priority, int demand) {
+        int admitted = 0;
+        while (admitted < demand && limiter.tryAcquire(priority)) {
+            admitted++;
+        }
+        return admitted;
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter limiter, int admitted, long latency) {
+        for (int i = 0; i < admitted; i++) {
+            limiter.release("getUserById", latency, Outcome.SUCCESS);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package in.food.restro.authservice.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import in.food.restro.authservice.dtos.ErrorResponse;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final WebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/users/42"));
+
+    @Test
+    void missingResourcesAreNotFoundWithoutStackTrace() {
+        ResourceNotFoundException missing = new UserNotFoundException("id", "42");
+
+        ResponseEntity<ErrorResponse> response = handler.handleResourceNotFound(missing, request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("User not found with id: 42", response.getBody().getMessage());
+        assertEquals("/api/v1/users/42", response.getBody().getPath());
+        assertEquals(0, missing.getStackTrace().length);
+        assertEquals(0, new RoleNotFoundException("id", "7").getStackTrace().length);
+    }
+
+    @Test
+    void duplicatesKeepTheirField() {
+        ResponseEntity<ErrorResponse> response = handler.handleDuplicateResource(
+                new DuplicateResourceException("email", "Email already exists."), request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("email", response.getBody().getField());
+    }
+}
@@ -0,0 +1,102 @@
+package in.food.restro.authservice.exception;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import in.food.restro.authservice.dtos.ErrorResponse;
+import in.food.restro.authservice.dtos.UserDto;
+
+/**
+ * Cost of answering a lookup that finds a user versus one that does not.
+ * <p>
+ * {@code hit} returns a found user, {@code miss} throws a {@link UserNotFoundException} and
+ * renders it through {@link GlobalExceptionHandler}, and {@code legacyMiss} does the same with
+ * an ordinary exception carrying a stack trace and an eagerly concatenated message, as the
+ * service did before. Each is thrown from {@code depth} frames down to approximate the stack
+ * of a real request through the servlet filters and proxies. Repository access and log
+ * appenders are left out so only the error path itself is measured; before, each miss was
+ * also logged twice at ERROR, once with its full stack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotFoundPathBenchmark {
+
+    @Param({ "20", "120" })
+    private int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final UserDto user = new UserDto();
+    private String id;
+    private WebRequest request;
+
+    @Setup
+    public void setUp() {
+        id = UUID.randomUUID().toString();
+        user.setId(UUID.fromString(id));
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/users/" + id));
+    }
+
+    @Benchmark
+    public ResponseEntity<UserDto> hit() {
+        return ResponseEntity.ok(lookup(depth, true));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> miss() {
+        try {
+            return ResponseEntity.ok(lookup(depth, false));
+        } catch (UserNotFoundException ex) {
+            return handler.handleUserNotFoundException(ex, request);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacyMiss() {
+        try {
+            return ResponseEntity.ok(legacyLookup(depth));
+        } catch (RuntimeException ex) {
+            ErrorResponse body = new ErrorResponse(ex.getMessage(), 500, "Internal Server Error",
+                    LocalDateTime.now(), request.getDescription(false).replace("uri=", ""));
+            return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private UserDto lookup(int remaining, boolean found) {
+        if (remaining > 0) {
+            return lookup(remaining - 1, found);
+        }
+        if (!found) {
+            throw new UserNotFoundException("id", id);
+        }
+        return user;
+    }
+
+    private UserDto legacyLookup(int remaining) {
+        if (remaining > 0) {
+            return legacyLookup(remaining - 1);
+        }
+        throw new IllegalStateException("User not found with id: " + id);
+    }
+}
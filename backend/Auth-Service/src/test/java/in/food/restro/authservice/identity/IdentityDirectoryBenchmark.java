@@ -0,0 +1,122 @@
+package in.food.restro.authservice.identity;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Resolving a username to a user id through {@link IdentityDirectory} versus the unique-key
+ * query behind {@code UserRepository.findByUsername}, for {@code users} users with all three
+ * keys each.
+ * <p>
+ * The query runs against an in-process H2 table with the same unique index, so it leaves out
+ * the network round trip, the connection pool and Hibernate of the real lookup and is a lower
+ * bound on what the directory saves. Direct and heap memory per key are printed once the
+ * directory is filled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-XX:MaxDirectMemorySize=4g" })
+public class IdentityDirectoryBenchmark {
+
+    @Param({ "1000000", "10000000" })
+    private int users;
+
+    private IdentityDirectory directory;
+    private Connection connection;
+    private PreparedStatement query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        long heapBefore = usedHeap();
+        long directBefore = directMemory();
+        directory = new IdentityDirectory(new SimpleMeterRegistry(), true, users);
+        for (int i = 0; i < users; i++) {
+            directory.load(new IdentityKeys(new UUID(0, i), username(i), "user" + i + "@example.com",
+                    "+91" + (9_000_000_000L + i)));
+        }
+        long keys = directory.size();
+        System.out.printf("%n%d keys: %.1f direct bytes/key, %.1f heap bytes/key%n", keys,
+                (double) (directMemory() - directBefore) / keys, (double) (usedHeap() - heapBefore) / keys);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:identity;MODE=PostgreSQL", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE users (user_id UUID PRIMARY KEY, user_name VARCHAR(255) NOT NULL UNIQUE)");
+            // The table is capped: filling H2 with ten million rows only slows the setup down
+            ddl.execute("INSERT INTO users SELECT RANDOM_UUID(), 'user' || X FROM SYSTEM_RANGE(0, "
+                    + (Math.min(users, 1_000_000) - 1) + ")");
+        }
+        query = connection.prepareStatement("SELECT user_id FROM users WHERE user_name = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public UUID directoryHit() {
+        return directory.find(IdentityDirectory.Kind.USERNAME, username(next()));
+    }
+
+    @Benchmark
+    public UUID directoryMiss() {
+        return directory.find(IdentityDirectory.Kind.USERNAME, "nobody" + next());
+    }
+
+    @Benchmark
+    public UUID repositoryQuery() throws SQLException {
+        query.setString(1, username(next() % 1_000_000));
+        try (ResultSet rows = query.executeQuery()) {
+            return rows.next() ? rows.getObject(1, UUID.class) : null;
+        }
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private static String username(int i) {
+        return "user" + i;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long directMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
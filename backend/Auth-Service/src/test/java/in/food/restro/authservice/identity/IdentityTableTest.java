@@ -0,0 +1,92 @@
+package in.food.restro.authservice.identity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdentityTableTest {
+
+    @Test
+    void keepsEntriesAcrossGrowth() {
+        IdentityTable table = new IdentityTable(16);
+        Map<Long, UUID> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long fingerprint = random.nextLong() | 1;
+            UUID id = UUID.randomUUID();
+            table.put(fingerprint, id);
+            expected.put(fingerprint, id);
+        }
+
+        assertEquals(expected.size(), table.size());
+        assertTrue(table.capacity() >= expected.size() / 0.7);
+        expected.forEach((fingerprint, id) -> assertEquals(id, table.get(fingerprint)));
+    }
+
+    @Test
+    void removesFromTheMiddleOfACollisionRun() {
+        IdentityTable table = new IdentityTable(16);
+        long mask = table.capacity() - 1;
+        // Same home slot, plus one homed right after it that gets pushed along by the run
+        long first = 5, second = 5 + (mask + 1), third = 5 + 2 * (mask + 1), neighbour = 6;
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID(), d = UUID.randomUUID();
+        table.put(first, a);
+        table.put(second, b);
+        table.put(neighbour, d);
+        table.put(third, c);
+
+        assertFalse(table.remove(second, UUID.randomUUID()));
+        assertTrue(table.remove(second, b));
+
+        assertNull(table.get(second));
+        assertEquals(a, table.get(first));
+        assertEquals(c, table.get(third));
+        assertEquals(d, table.get(neighbour));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void putIfAbsentKeepsTheExistingEntry() {
+        IdentityTable table = new IdentityTable(16);
+        UUID original = UUID.randomUUID();
+        table.put(7, original);
+
+        assertFalse(table.putIfAbsent(7, UUID.randomUUID()));
+        assertEquals(original, table.get(7));
+    }
+
+    @Test
+    void fingerprintsNormalizedKeysPerKind() {
+        assertEquals(IdentityDirectory.fingerprint(IdentityDirectory.Kind.EMAIL, "Jane.Doe@Example.com "),
+                IdentityDirectory.fingerprint(IdentityDirectory.Kind.EMAIL, "jane.doe@example.com"));
+        assertEquals(IdentityDirectory.fingerprint(IdentityDirectory.Kind.PHONE, "+91 (98765) 43-210"),
+                IdentityDirectory.fingerprint(IdentityDirectory.Kind.PHONE, "+919876543210"));
+        assertTrue(IdentityDirectory.fingerprint(IdentityDirectory.Kind.USERNAME, "jane")
+                != IdentityDirectory.fingerprint(IdentityDirectory.Kind.EMAIL, "jane"));
+    }
+
+    @Test
+    void disabledDirectoryMissesAndIgnoresChanges() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IdentityDirectory directory = new IdentityDirectory(meterRegistry, false, 1_000_000);
+        UUID id = UUID.randomUUID();
+
+        directory.put(IdentityDirectory.Kind.USERNAME, "jane", id);
+        directory.record(null, new IdentityKeys(id, "jane", "jane@example.com", null));
+
+        assertFalse(directory.isEnabled());
+        assertNull(directory.find(IdentityDirectory.Kind.USERNAME, "jane"));
+        assertEquals(0, directory.size());
+        assertNull(meterRegistry.find("auth.identity.memory").gauge());
+    }
+}
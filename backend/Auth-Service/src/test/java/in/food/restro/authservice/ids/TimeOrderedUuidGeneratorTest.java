@@ -0,0 +1,43 @@
+package in.food.restro.authservice.ids;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void layoutFollowsVersion7() {
+        Instant time = Instant.parse("2026-03-01T10:15:30.123456Z");
+        UUID id = TimeOrderedUuidGenerator.create(time, -1L);
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(time.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+        assertEquals(36, id.toString().length());
+    }
+
+    @Test
+    void generatesTheKnownId() {
+        // The load-test's TimeOrderedUuids checks the same id, so dataset keys stay shaped like these
+        UUID id = TimeOrderedUuidGenerator.create(Instant.parse("2026-03-01T10:15:30.123456Z"), 0x0123_4567_89AB_CDEFL);
+
+        assertEquals(UUID.fromString("019ca8e5-5e4b-774b-8123-456789abcdef"), id);
+    }
+
+    @Test
+    void laterIdsSortAfterEarlierOnes() {
+        Instant time = Instant.parse("2026-03-01T10:15:30.123000Z");
+        UUID first = TimeOrderedUuidGenerator.create(time, -1L);
+        UUID sameMillisecond = TimeOrderedUuidGenerator.create(time.plusNanos(500_000), 0L);
+        UUID nextMillisecond = TimeOrderedUuidGenerator.create(time.plusMillis(1), 0L);
+
+        // Compare as the database does: unsigned, byte by byte, i.e. by canonical text
+        assertTrue(first.toString().compareTo(sameMillisecond.toString()) < 0);
+        assertTrue(sameMillisecond.toString().compareTo(nextMillisecond.toString()) < 0);
+    }
+}
@@ -0,0 +1,33 @@
+package in.food.restro.authservice.images;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ImageResponseWriterTest {
+
+    @Test
+    void parsesSingleByteRanges() {
+        assertArrayEquals(new long[] { 0, 100 }, ImageResponseWriter.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[] { 500, 1000 }, ImageResponseWriter.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[] { 900, 1000 }, ImageResponseWriter.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[] { 0, 1000 }, ImageResponseWriter.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[] { 990, 1000 }, ImageResponseWriter.parseRange("bytes=990-2000", 1000));
+    }
+
+    @Test
+    void rejectsRangesBeyondTheFile() {
+        assertEquals(0, ImageResponseWriter.parseRange("bytes=1000-", 1000).length);
+        assertEquals(0, ImageResponseWriter.parseRange("bytes=-0", 1000).length);
+    }
+
+    @Test
+    void ignoresRangesItDoesNotServe() {
+        assertNull(ImageResponseWriter.parseRange("bytes=0-9,20-29", 1000));
+        assertNull(ImageResponseWriter.parseRange("items=0-9", 1000));
+        assertNull(ImageResponseWriter.parseRange("bytes=9-0", 1000));
+        assertNull(ImageResponseWriter.parseRange("bytes=a-b", 1000));
+    }
+}
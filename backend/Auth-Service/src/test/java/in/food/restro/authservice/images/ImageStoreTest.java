@@ -0,0 +1,113 @@
+package in.food.restro.authservice.images;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class ImageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ImageProperties properties;
+    private ImageStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new ImageProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxSize(DataSize.ofKilobytes(256));
+        store = new ImageStore(properties);
+    }
+
+    @Test
+    void storesImagesUnderTheHashOfTheirContent() throws IOException {
+        byte[] png = image(400, 300, "png");
+
+        StoredImage image = store.store(new ByteArrayInputStream(png));
+
+        assertTrue(ImageStore.isKey(image.key()), image.key());
+        assertTrue(image.key().endsWith(".png"));
+        assertEquals(ImageFormat.PNG, image.format());
+        assertEquals(400, image.width());
+        assertEquals(300, image.height());
+        assertEquals(png.length, Files.size(store.find(image.key()).orElseThrow()));
+        assertEquals(image, store.store(new ByteArrayInputStream(png)));
+    }
+
+    @Test
+    void detectsTheFormatFromTheContent() throws IOException {
+        StoredImage image = store.store(new ByteArrayInputStream(image(40, 40, "jpg")));
+
+        assertEquals(ImageFormat.JPEG, image.format());
+        assertTrue(image.key().endsWith(".jpg"));
+    }
+
+    @Test
+    void rejectsWhatIsNotAnAcceptableImage() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.store(new ByteArrayInputStream("data:image/png;base64,iVBORw0KGgo=".getBytes())));
+
+        byte[] truncated = Arrays.copyOf(image(40, 40, "png"), 12);
+        assertThrows(IllegalArgumentException.class, () -> store.store(new ByteArrayInputStream(truncated)));
+
+        properties.setMaxPixels(1000);
+        ImageStore small = new ImageStore(properties);
+        assertThrows(IllegalArgumentException.class, () -> small.store(new ByteArrayInputStream(image(40, 40, "png"))));
+
+        try (var uploads = Files.list(directory.resolve("uploads"))) {
+            assertEquals(0, uploads.count());
+        }
+    }
+
+    @Test
+    void rejectsImagesOverTheSizeLimitWhileStreaming() {
+        byte[] large = new byte[300 * 1024];
+        System.arraycopy(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' }, 0, large, 0, 8);
+
+        assertThrows(IllegalArgumentException.class, () -> store.store(new ByteArrayInputStream(large)));
+    }
+
+    @Test
+    void generatesSquareThumbnails() throws IOException {
+        StoredImage image = store.store(new ByteArrayInputStream(image(1200, 800, "jpg")));
+        ThumbnailGenerator thumbnails = new ThumbnailGenerator(store, properties);
+
+        thumbnails.generate(image.key());
+
+        for (int size : properties.getThumbnailSizes()) {
+            BufferedImage thumbnail = ImageIO.read(store.thumbnailPath(image.key(), size).toFile());
+            assertEquals(size, thumbnail.getWidth());
+            assertEquals(size, thumbnail.getHeight());
+        }
+        thumbnails.shutdown();
+    }
+
+    private static byte[] image(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package in.food.restro.authservice.json;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import in.food.restro.authservice.dtos.AddressDto;
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.enums.Provider;
+
+/**
+ * Fully populated users, shared by the serialization test and benchmark.
+ */
+final class UserFixtures {
+
+    private UserFixtures() {
+    }
+
+    static UserDto user(int n) {
+        Instant created = Instant.parse("2026-01-15T08:30:00.123456Z").plusSeconds(n);
+        return UserDto.builder()
+                .id(UUID.nameUUIDFromBytes(("user-" + n).getBytes()))
+                .username("user" + n)
+                .password("secret-" + n)
+                .email("user" + n + "@example.com")
+                .isActive(n % 7 != 0)
+                .phoneNumber("98" + String.format("%08d", n))
+                .dob("1990-04-0" + (n % 9 + 1))
+                .gender(n % 2 == 0 ? "F" : "M")
+                .profileImage("https://cdn.example.com/u/" + n + ".png")
+                .address(AddressDto.builder()
+                        .id(UUID.nameUUIDFromBytes(("address-" + n).getBytes()))
+                        .street(n + " MG Road \"Block B\"")
+                        .city("Bengaluru")
+                        .state("Karnataka")
+                        .country("India")
+                        .zipCode("5600" + (n % 100))
+                        .build())
+                .firstName("First" + n)
+                .middleName(null)
+                .lastName("Lasté" + n)
+                .createdAt(created)
+                .updatedAt(created.plusSeconds(3600))
+                .lastLoginAt(created.plusSeconds(7200))
+                .provider(n % 3 == 0 ? Provider.GOOGLE : Provider.LOCAL)
+                .roles(Set.of(RoleDto.builder().id(UUID.nameUUIDFromBytes("role-user".getBytes())).name("ROLE_USER").build()))
+                .changeVersion(n)
+                .build();
+    }
+
+    static List<UserDto> users(int count) {
+        List<UserDto> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+}
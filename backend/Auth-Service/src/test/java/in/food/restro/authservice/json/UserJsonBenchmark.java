@@ -0,0 +1,76 @@
+package in.food.restro.authservice.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import in.food.restro.authservice.dtos.UserDto;
+
+/**
+ * Default Jackson versus {@link UserJsonWriter} for a single user and a 1000-user page.
+ * Run with {@code -prof gc} to compare allocation per operation ({@code gc.alloc.rate.norm}).
+ * Output goes to a null stream so only serialization itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private UserDto user;
+    private List<UserDto> page;
+
+    @Setup
+    public void setUp() {
+        user = UserFixtures.user(1);
+        page = UserFixtures.users(1000);
+    }
+
+    @Benchmark
+    public void jacksonSingle() throws IOException {
+        objectMapper.writeValue(sink, user);
+    }
+
+    @Benchmark
+    public void writerSingle() throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(sink, JsonEncoding.UTF8)) {
+            new UserJsonWriter().writeUser(json, user);
+        }
+    }
+
+    @Benchmark
+    public void jacksonPage() throws IOException {
+        objectMapper.writeValue(sink, page);
+    }
+
+    @Benchmark
+    public void writerPage() throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(sink, JsonEncoding.UTF8)) {
+            new UserJsonWriter().writeUsers(json, page);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package in.food.restro.authservice.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import in.food.restro.authservice.dtos.UserDto;
+
+class UserJsonWriterTest {
+
+    /** Configured like the ObjectMapper Spring Boot creates. */
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void matchesJacksonOutputWithoutPassword() throws IOException {
+        UserDto full = UserFixtures.user(1);
+        UserDto sparse = new UserDto();
+        sparse.setAddress(null);
+        sparse.setRoles(null);
+        sparse.setProvider(null);
+        sparse.setCreatedAt(null);
+
+        for (UserDto user : List.of(full, sparse)) {
+            String expected = objectMapper.writeValueAsString(user);
+            String actual = write(json -> new UserJsonWriter().writeUser(json, user));
+            assertEquals(expected, actual);
+            assertFalse(objectMapper.readTree(actual).has("password"));
+        }
+    }
+
+    @Test
+    void writesListsAsArrays() throws IOException {
+        List<UserDto> users = UserFixtures.users(3);
+        assertEquals(objectMapper.writeValueAsString(users),
+                write(json -> new UserJsonWriter().writeUsers(json, users)));
+    }
+
+    private String write(JsonWrite body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            body.write(json);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface JsonWrite {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
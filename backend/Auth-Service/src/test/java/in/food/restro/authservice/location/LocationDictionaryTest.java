@@ -0,0 +1,62 @@
+package in.food.restro.authservice.location;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class LocationDictionaryTest {
+
+    @Test
+    void canonicalizesCaseAndWhitespace() {
+        assertEquals("New Delhi", LocationDictionary.canonicalName("  new   DELHI "));
+        assertEquals("Bengaluru", LocationDictionary.canonicalName("bengaluru,"));
+        assertEquals("Jammu-Kashmir", LocationDictionary.canonicalName("JAMMU-kashmir"));
+        assertEquals("St. Louis", LocationDictionary.canonicalName("st. louis."));
+    }
+
+    @Test
+    void treatsBlankNamesAsMissing() {
+        assertNull(LocationDictionary.canonicalName(null));
+        assertNull(LocationDictionary.canonicalName("   "));
+        assertNull(LocationDictionary.canonicalName(" . "));
+    }
+
+    @Test
+    void keepsCountryCodesUpperCase() {
+        assertEquals("IN", LocationDictionary.canonicalCountry(" in "));
+        assertEquals("USA", LocationDictionary.canonicalCountry("usa"));
+        assertEquals("India", LocationDictionary.canonicalCountry("INDIA"));
+    }
+
+    @Test
+    void entriesOutliveTheCallersRollback() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:location_dictionary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE location (location_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                country VARCHAR(255) NOT NULL, state VARCHAR(255) NOT NULL, city VARCHAR(255) NOT NULL,
+                CONSTRAINT uk_location_name UNIQUE (country, state, city))""");
+        LocationDictionary dictionary = new LocationDictionary(List.of(dataSource));
+
+        // The registration's transaction is bound to the same pool, as a JPA transaction exposes it
+        CanonicalLocation created = new TransactionTemplate(new DataSourceTransactionManager(dataSource)).execute(status -> {
+            CanonicalLocation location = dictionary.canonicalize("india", "karnataka", "bengaluru");
+            jdbc.update("INSERT INTO location (country, state, city) VALUES ('IN', 'Goa', 'Panaji')");
+            status.setRollbackOnly();
+            return location;
+        });
+
+        assertEquals(List.of("Bengaluru"), jdbc.queryForList("SELECT city FROM location", String.class));
+        LocationDictionary restarted = new LocationDictionary(List.of(dataSource));
+        restarted.load();
+        assertEquals(created, restarted.get(created.id()));
+    }
+}
@@ -0,0 +1,138 @@
+package in.food.restro.authservice.lookup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchLoaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    private Map<Integer, String> lookUp(List<Integer> keys) {
+        batches.add(keys);
+        Map<Integer, String> found = new HashMap<>();
+        for (Integer key : keys) {
+            if (key >= 0) {
+                found.put(key, "user" + key);
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void idleLoaderSendsALoneLookupWithoutWaiting() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::lookUp, 64, Duration.ofSeconds(10), meterRegistry);
+
+        long start = System.nanoTime();
+        assertEquals("user1", loader.load(1));
+        assertNull(loader.load(-1));
+
+        assertEquals(List.of(List.of(1), List.of(-1)), batches);
+        assertEquals(2, meterRegistry.get("auth.lookup.batch.size").summary().count());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void lookupsArrivingDuringARunningBatchShareTheNextQuery() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+            if (keys.contains(0)) {
+                firstRunning.countDown();
+                await(releaseFirst);
+            }
+            return lookUp(keys);
+        }, 5, Duration.ofSeconds(10), meterRegistry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            Future<String> first = executor.submit(() -> loader.load(0));
+            firstRunning.await();
+            List<Future<String>> joined = new ArrayList<>();
+            for (int key = 1; key <= 5; key++) {
+                int current = key;
+                joined.add(executor.submit(() -> loader.load(current)));
+            }
+            // The fifth lookup fills the batch, which is sent while the first query is still running
+            for (int key = 1; key <= 5; key++) {
+                assertEquals("user" + key, joined.get(key - 1).get(5, TimeUnit.SECONDS));
+            }
+            releaseFirst.countDown();
+            assertEquals("user0", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(1, 5), batches.stream().map(List::size).sorted().toList());
+        assertEquals(6, meterRegistry.get("auth.lookup.batch.wait").timer().count());
+    }
+
+    @Test
+    void everyCallerOfAFailedBatchSeesTheFailure() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+            throw new IllegalStateException("database down");
+        }, 64, Duration.ZERO, meterRegistry);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> loader.load(1));
+        assertEquals("database down", failure.getMessage());
+    }
+
+    @Test
+    void duplicateKeysAreQueriedOnce() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+            if (keys.contains(0)) {
+                firstRunning.countDown();
+                await(releaseFirst);
+            }
+            return lookUp(keys);
+        }, 3, Duration.ofSeconds(10), meterRegistry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> loader.load(0));
+            firstRunning.await();
+            List<Future<String>> same = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                same.add(executor.submit(() -> loader.load(7)));
+            }
+            for (Future<String> result : same) {
+                assertEquals("user7", result.get(5, TimeUnit.SECONDS));
+            }
+            releaseFirst.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, batches.size());
+        assertTrue(batches.contains(List.of(7)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package in.food.restro.authservice.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import in.food.restro.authservice.entities.OutboxEvent;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.repositories.OutboxEventRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs dispatchers against the outbox table of an in-memory database of its own, with the
+ * application's dispatcher switched off so it cannot take the events first.
+ */
+@SpringBootTest(properties = { OutboxDispatcherTest.DATABASE, OutboxDispatcherTest.NO_DISPATCHER })
+@ActiveProfiles("embedded")
+class OutboxDispatcherTest {
+
+	static final String DATABASE = "spring.datasource.url=jdbc:h2:mem:outbox_test;MODE=PostgreSQL;"
+			+ "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+	static final String NO_DISPATCHER = "app.outbox.dispatcher-enabled=false";
+
+	private static final Duration LEASE = Duration.ofMillis(500);
+	private static final Duration BACKOFF = Duration.ofMillis(500);
+
+	@Autowired
+	private OutboxEventRepository repository;
+
+	@Autowired
+	private OutboxWriter outboxWriter;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final RecordingSink sink = new RecordingSink("recording");
+
+	@BeforeEach
+	void emptyOutbox() {
+		jdbcTemplate.update("DELETE FROM user_outbox");
+	}
+
+	@Test
+	void deliversTheEventsOfAUserInVersionOrderWhateverTheirSequence() {
+		UUID alice = UUID.randomUUID();
+		UUID bob = UUID.randomUUID();
+		// Written by two instances: the later change got the lower id from its block
+		long later = write(alice, 2);
+		long earlier = write(alice, 1);
+		write(bob, 1);
+		assertTrue(later < earlier);
+
+		dispatcher(sink).dispatch();
+
+		assertEquals(List.of(1L, 2L), sink.versionsOf(alice));
+		assertEquals(List.of(1L), sink.versionsOf(bob));
+		assertEquals(0, pending());
+	}
+
+	@Test
+	void aFailingEventHoldsBackOnlyTheLaterEventsOfItsUser() throws InterruptedException {
+		UUID alice = UUID.randomUUID();
+		UUID bob = UUID.randomUUID();
+		write(alice, 1);
+		long failing = write(alice, 2);
+		long heldBack = write(alice, 3);
+		write(bob, 1);
+		sink.failing.add(failing);
+		OutboxDispatcher dispatcher = dispatcher(sink);
+
+		dispatcher.dispatch();
+
+		assertEquals(List.of(1L), sink.versionsOf(alice));
+		assertEquals(List.of(1L), sink.versionsOf(bob));
+		OutboxEvent failed = repository.findById(failing).orElseThrow();
+		assertEquals(1, failed.getAttempts());
+		assertTrue(failed.getNextAttemptAt().isAfter(Instant.now()));
+		assertNull(repository.findById(heldBack).orElseThrow().getNextAttemptAt());
+
+		// While the failed event waits for its retry, the one after it must not overtake it
+		dispatcher.dispatch();
+		assertEquals(List.of(1L), sink.versionsOf(alice));
+
+		sink.failing.clear();
+		Thread.sleep(BACKOFF.plusMillis(200).toMillis());
+		dispatcher.dispatch();
+
+		assertEquals(List.of(1L, 2L, 3L), sink.versionsOf(alice));
+		assertEquals(0, pending());
+	}
+
+	@Test
+	void parksEventsOutOfAttemptsOrUndecodableAndLetsLaterEventsPass() throws InterruptedException {
+		UUID alice = UUID.randomUUID();
+		UUID carol = UUID.randomUUID();
+		long doomed = write(alice, 1);
+		long next = write(alice, 2);
+		OutboxEvent garbage = repository.save(OutboxEvent.builder()
+				.userId(carol)
+				.userVersion(1)
+				.eventType(UserChangeType.UPDATED)
+				.payload("not json")
+				.createdAt(Instant.now())
+				.build());
+		sink.failing.add(doomed);
+		OutboxDispatcher dispatcher = dispatcher(sink);
+
+		dispatcher.dispatch();
+		OutboxEvent parkedGarbage = repository.findById(garbage.getId()).orElseThrow();
+		assertNotNull(parkedGarbage.getParkedAt());
+		assertEquals(0, parkedGarbage.getAttempts());
+
+		Thread.sleep(BACKOFF.plusMillis(200).toMillis());
+		dispatcher.dispatch();
+		OutboxEvent parked = repository.findById(doomed).orElseThrow();
+		assertNotNull(parked.getParkedAt());
+		assertEquals(2, parked.getAttempts());
+		assertNull(parked.getDispatchedAt());
+
+		dispatcher.dispatch();
+		assertEquals(List.of(2L), sink.versionsOf(alice));
+		assertNotNull(repository.findById(next).orElseThrow().getDispatchedAt());
+	}
+
+	@Test
+	void redeliversToEverySinkUntilAllAcceptTheEvent() throws InterruptedException {
+		RecordingSink flaky = new RecordingSink("flaky");
+		UUID alice = UUID.randomUUID();
+		long sequence = write(alice, 1);
+		flaky.failing.add(sequence);
+		OutboxDispatcher dispatcher = dispatcher(sink, flaky);
+
+		dispatcher.dispatch();
+		assertNull(repository.findById(sequence).orElseThrow().getDispatchedAt());
+
+		flaky.failing.clear();
+		Thread.sleep(BACKOFF.plusMillis(200).toMillis());
+		dispatcher.dispatch();
+
+		// Once as part of the batch, once on its own, once more on the retry
+		assertEquals(List.of(1L, 1L, 1L), sink.versionsOf(alice));
+		assertEquals(List.of(1L), flaky.versionsOf(alice));
+		assertNotNull(repository.findById(sequence).orElseThrow().getDispatchedAt());
+	}
+
+	@Test
+	void eventsClaimedByADispatcherThatDiedAreRedeliveredOnceTheLeaseExpires() throws InterruptedException {
+		UUID alice = UUID.randomUUID();
+		long sequence = write(alice, 1);
+		UserChangeSink crashing = new UserChangeSink() {
+			@Override
+			public String name() {
+				return "crashing";
+			}
+
+			@Override
+			public void deliver(List<UserChangeEvent> events) {
+				throw new Crash();
+			}
+		};
+
+		assertThrows(Crash.class, () -> dispatcher(crashing).dispatch());
+		OutboxEvent claimed = repository.findById(sequence).orElseThrow();
+		assertTrue(claimed.getNextAttemptAt().isAfter(Instant.now()));
+		assertEquals(0, claimed.getAttempts());
+
+		OutboxDispatcher survivor = dispatcher(sink);
+		survivor.dispatch();
+		assertTrue(sink.delivered.isEmpty());
+
+		Thread.sleep(LEASE.plusMillis(200).toMillis());
+		survivor.dispatch();
+
+		assertEquals(List.of(1L), sink.versionsOf(alice));
+		assertNotNull(repository.findById(sequence).orElseThrow().getDispatchedAt());
+	}
+
+	@Test
+	void ordersEachUsersEventsWithinTheirSlotsOfABatch() {
+		UUID alice = UUID.randomUUID();
+		UUID bob = UUID.randomUUID();
+		List<UserChangeEvent> batch = List.of(event(alice, 3), event(bob, 1), event(alice, 2), event(alice, 4));
+
+		List<UserChangeEvent> ordered = OutboxDispatcher.inVersionOrder(batch);
+
+		assertEquals(List.of(alice, bob, alice, alice), ordered.stream().map(UserChangeEvent::getUserId).toList());
+		assertEquals(List.of(2L, 1L, 3L, 4L), ordered.stream().map(UserChangeEvent::getVersion).toList());
+	}
+
+	private OutboxDispatcher dispatcher(UserChangeSink... sinks) {
+		OutboxProperties properties = new OutboxProperties();
+		properties.setBatchSize(50);
+		properties.setLease(LEASE);
+		properties.setRetryBackoff(BACKOFF);
+		properties.setMaxRetryBackoff(BACKOFF);
+		properties.setMaxAttempts(2);
+		return new OutboxDispatcher(repository, outboxWriter, List.of(sinks), transactionTemplate, properties,
+				shardRouter, new SimpleMeterRegistry());
+	}
+
+	private long write(UUID userId, long version) {
+		return repository.save(OutboxEvent.builder()
+				.userId(userId)
+				.userVersion(version)
+				.eventType(UserChangeType.UPDATED)
+				.payload("{\"type\":\"UPDATED\",\"userId\":\"" + userId + "\"}")
+				.createdAt(Instant.now())
+				.build()).getId();
+	}
+
+	private long pending() {
+		Long count = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM user_outbox WHERE dispatched_at IS NULL AND parked_at IS NULL", Long.class);
+		return count == null ? 0 : count;
+	}
+
+	private static UserChangeEvent event(UUID userId, long version) {
+		return UserChangeEvent.builder().userId(userId).version(version).sequence(version * 10).build();
+	}
+
+	/**
+	 * Keeps what it was given, failing every call whose events include a sequence in {@code failing}.
+	 */
+	private static final class RecordingSink implements UserChangeSink {
+
+		private final String name;
+		private final List<UserChangeEvent> delivered = new CopyOnWriteArrayList<>();
+		private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+		RecordingSink(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public void deliver(List<UserChangeEvent> events) throws Exception {
+			if (events.stream().anyMatch(event -> failing.contains(event.getSequence()))) {
+				throw new IllegalStateException("Sink unavailable");
+			}
+			delivered.addAll(events);
+		}
+
+		List<Long> versionsOf(UUID userId) {
+			return delivered.stream()
+					.filter(event -> event.getUserId().equals(userId))
+					.map(UserChangeEvent::getVersion)
+					.toList();
+		}
+	}
+
+	/** Stands in for the dispatcher's instance dying mid-batch. */
+	private static final class Crash extends Error {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,119 @@
+package in.food.restro.authservice.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.entities.OutboxEvent;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.repositories.OutboxEventRepository;
+import in.food.restro.authservice.service.UserService;
+
+/**
+ * Change versions and payloads of the events written through the user service, on the same
+ * database and context as {@link OutboxDispatcherTest}.
+ */
+@SpringBootTest(properties = { OutboxDispatcherTest.DATABASE, OutboxDispatcherTest.NO_DISPATCHER })
+@ActiveProfiles("embedded")
+class OutboxWriterTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private OutboxWriter outboxWriter;
+
+	@Autowired
+	private OutboxEventRepository repository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void everyChangeOfAUserGetsTheNextVersion() {
+		UserDto created = userService.createUser(user("versioned"));
+		UUID id = created.getId();
+		created.setFirstName("Renamed");
+		userService.updateUser(id.toString(), created);
+		userService.deactivateUser(id.toString());
+
+		assertEquals(List.of(1L, 2L, 3L), versionsOf(id));
+		assertEquals(3L, jdbcTemplate.queryForObject("SELECT change_version FROM users WHERE user_id = ?",
+				Long.class, id));
+	}
+
+	@Test
+	void decodedEventsCarryTheirSequenceAndVersionButNoPassword() {
+		UserDto created = userService.createUser(user("decoded"));
+		OutboxEvent row = rowsOf(created.getId()).get(0);
+
+		UserChangeEvent event = outboxWriter.decode(row);
+
+		assertEquals(row.getId(), event.getSequence());
+		assertEquals(1L, event.getVersion());
+		assertEquals(UserChangeType.CREATED, event.getType());
+		assertEquals(created.getUsername(), event.getUser().getUsername());
+		assertNull(event.getUser().getPassword());
+		assertFalse(row.getPayload().contains("password"));
+	}
+
+	@Test
+	void bulkChangesBumpEachUserOnce() {
+		UUID first = userService.createUser(user("bulk")).getId();
+		UUID second = userService.createUser(user("bulk")).getId();
+
+		transactionTemplate.executeWithoutResult(status ->
+				outboxWriter.recordStatusChanges(UserChangeType.DEACTIVATED, List.of(first, second)));
+
+		assertEquals(List.of(1L, 2L), versionsOf(first));
+		assertEquals(List.of(1L, 2L), versionsOf(second));
+	}
+
+	@Test
+	void refusesEventsOfUnknownUsers() {
+		UUID known = userService.createUser(user("known")).getId();
+		UUID unknown = UUID.randomUUID();
+
+		assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status ->
+				outboxWriter.recordStatusChanges(UserChangeType.DEACTIVATED, List.of(known, unknown))));
+
+		assertEquals(List.of(1L), versionsOf(known));
+		assertEquals(List.of(), versionsOf(unknown));
+	}
+
+	private List<OutboxEvent> rowsOf(UUID userId) {
+		return repository.findAll().stream()
+				.filter(row -> row.getUserId().equals(userId))
+				.sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+				.toList();
+	}
+
+	private List<Long> versionsOf(UUID userId) {
+		return rowsOf(userId).stream().map(OutboxEvent::getUserVersion).toList();
+	}
+
+	private static UserDto user(String prefix) {
+		String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+		return UserDto.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("secret")
+				.build();
+	}
+}
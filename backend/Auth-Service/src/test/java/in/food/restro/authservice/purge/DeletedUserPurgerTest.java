@@ -0,0 +1,139 @@
+package in.food.restro.authservice.purge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import in.food.restro.authservice.dtos.AddressDto;
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.exception.UserNotFoundException;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Soft delete and the purge of soft-deleted users, on the in-memory database of the
+ * {@code embedded} profile.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class DeletedUserPurgerTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private DeletedUserPurger purger;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void deletedUsersAreHiddenFromFindersChecksAndListings() {
+		UserDto deleted = userService.createUser(user("hidden").build());
+		UserDto kept = userService.createUser(user("kept").build());
+		UUID id = deleted.getId();
+
+		userService.deleteUser(id.toString());
+
+		assertThrows(UserNotFoundException.class, () -> userService.getUserById(id.toString()));
+		assertThrows(UserNotFoundException.class, () -> userService.getUserByUsername(deleted.getUsername()));
+		assertThrows(UserNotFoundException.class, () -> userService.getUserByEmail(deleted.getEmail()));
+		assertFalse(userService.isUsernameExists(deleted.getUsername()));
+		assertFalse(userService.isEmailExists(deleted.getEmail()));
+		assertFalse(userService.isUserIdExists(id.toString()));
+		assertFalse(userRepository.findById(id).isPresent());
+		assertFalse(userRepository.existsById(id));
+
+		List<UUID> listed = new ArrayList<>();
+		userService.getAllUsers(0, 100, "createdAt", "desc").forEach(user -> listed.add(user.getId()));
+		assertTrue(listed.contains(kept.getId()));
+		assertFalse(listed.contains(id));
+
+		// Still in the table until the purge
+		assertEquals(1, count("SELECT COUNT(*) FROM users WHERE user_id = ? AND deleted = true", id));
+	}
+
+	@Test
+	void purgeRemovesLinksAndAddressesBeforeTheUserAndKeepsRecentDeletions() {
+		String roleName = "ROLE_PURGE_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+		UserDto expired = userService.createUser(user("expired")
+				.roles(Set.of(RoleDto.builder().name(roleName).build()))
+				.address(AddressDto.builder().street("1 MG Road").city("Pune").state("MH").country("IN").build())
+				.build());
+		UserDto recent = userService.createUser(user("recent")
+				.roles(Set.of(RoleDto.builder().name(roleName).build()))
+				.build());
+		UUID addressId = jdbcTemplate.queryForObject("SELECT user_addr_id FROM user_user_addr WHERE user_id = ?",
+				UUID.class, expired.getId());
+		userService.deleteUser(expired.getId().toString());
+		userService.deleteUser(recent.getId().toString());
+		// Only the first deletion is past the grace period
+		jdbcTemplate.update("UPDATE users SET deleted_at = DATEADD('DAY', -1, deleted_at) WHERE user_id = ?",
+				expired.getId());
+
+		purger.purge();
+
+		// The links and the address would block the user row's delete; the purge fails quietly then
+		assertEquals(0, count("SELECT COUNT(*) FROM users WHERE user_id = ?", expired.getId()));
+		assertEquals(0, count("SELECT COUNT(*) FROM user_user_roles WHERE user_id = ?", expired.getId()));
+		assertEquals(0, count("SELECT COUNT(*) FROM user_user_addr WHERE user_id = ?", expired.getId()));
+		assertEquals(0, count("SELECT COUNT(*) FROM user_addr WHERE user_addr_id = ?", addressId));
+		assertEquals(1, count("SELECT COUNT(*) FROM user_roles WHERE user_role_name = ?", roleName));
+
+		assertEquals(1, count("SELECT COUNT(*) FROM users WHERE user_id = ? AND deleted = true", recent.getId()));
+		assertEquals(1, count("SELECT COUNT(*) FROM user_user_roles WHERE user_id = ?", recent.getId()));
+	}
+
+	@Test
+	void backlogIsRecountedOnlyAfterAPurge() {
+		purger.purge();
+		double before = backlog();
+		UserDto deleted = userService.createUser(user("backlog").build());
+		userService.deleteUser(deleted.getId().toString());
+
+		purger.purge();
+		assertEquals(before, backlog());
+
+		jdbcTemplate.update("UPDATE users SET deleted_at = DATEADD('DAY', -1, deleted_at) WHERE user_id = ?",
+				deleted.getId());
+		purger.purge();
+		assertEquals(count("SELECT COUNT(*) FROM users WHERE deleted = true"), backlog());
+	}
+
+	private double backlog() {
+		return meterRegistry.get("auth.purge.backlog").gauge().value();
+	}
+
+	private int count(String sql, Object... args) {
+		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, args);
+		return count == null ? 0 : count;
+	}
+
+	private static UserDto.UserDtoBuilder user(String prefix) {
+		String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+		return UserDto.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("secret");
+	}
+}
@@ -0,0 +1,75 @@
+package in.food.restro.authservice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import in.food.restro.authservice.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitInterceptor interceptor;
+
+    RateLimitInterceptorTest() {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPaths(List.of("/api/v1/users/exists/**"));
+        group.setCapacity(2);
+        group.setRefillPerSecond(0.001);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setApiKeys(Set.of("partner-key"));
+        properties.getGroups().put("exists", group);
+        interceptor = new RateLimitInterceptor(new ClientRateLimiter(properties, meterRegistry), properties);
+    }
+
+    @Test
+    void unknownApiKeysAreLimitedByRemoteAddress() {
+        assertEquals("ip:10.0.0.1", interceptor.clientKey(request("10.0.0.1", "made-up")));
+        assertEquals("key:partner-key", interceptor.clientKey(request("10.0.0.1", "partner-key")));
+
+        assertTrue(preHandle(request("10.0.0.1", "first")));
+        assertTrue(preHandle(request("10.0.0.1", "second")));
+        // A fresh key per request does not buy a fresh bucket
+        assertThrows(RateLimitExceededException.class, () -> preHandle(request("10.0.0.1", "third")));
+        assertEquals(1, meterRegistry.get("auth.ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void knownApiKeysHaveTheirOwnBucket() {
+        assertTrue(preHandle(request("10.0.0.2", null)));
+        assertTrue(preHandle(request("10.0.0.2", null)));
+        assertThrows(RateLimitExceededException.class, () -> preHandle(request("10.0.0.2", null)));
+
+        assertTrue(preHandle(request("10.0.0.2", "partner-key")));
+    }
+
+    @Test
+    void pathsOutsideTheGroupsAreNotLimited() {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("10.0.0.3", null);
+            request.setRequestURI("/api/v1/users/7");
+            assertTrue(preHandle(request));
+        }
+    }
+
+    private boolean preHandle(MockHttpServletRequest request) {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/exists/username/alice");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        return request;
+    }
+}
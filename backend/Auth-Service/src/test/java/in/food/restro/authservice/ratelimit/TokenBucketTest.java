@@ -0,0 +1,39 @@
+package in.food.restro.authservice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsABurstOfCapacityThenRefillsAtTheConfiguredRate() {
+        long start = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(3, 2, start);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(start));
+        }
+        assertEquals(SECOND / 2, bucket.tryAcquire(start));
+
+        assertEquals(0, bucket.tryAcquire(start + SECOND / 2));
+        assertTrue(bucket.tryAcquire(start + SECOND / 2) > 0);
+    }
+
+    @Test
+    void isIdleOnceFullyRefilled() {
+        long start = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(3, 2, start);
+        bucket.tryAcquire(start);
+        bucket.tryAcquire(start);
+
+        assertFalse(bucket.isIdleSince(start));
+        assertTrue(bucket.isIdleSince(start + SECOND + 1));
+    }
+}
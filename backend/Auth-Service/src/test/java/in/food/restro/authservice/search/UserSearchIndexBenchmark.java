@@ -0,0 +1,113 @@
+package in.food.restro.authservice.search;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Searches and updates on a {@link UserSearchIndex} holding {@code users} users, with names
+ * drawn from small pools so that last names and email domains are as common as in real data.
+ * <p>
+ * The {@code mixed} group runs searches while another thread keeps updating users, which
+ * also drives compactions; its search score shows what writers and compactions cost readers.
+ * Heap per user is printed once the index is filled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx16g" })
+public class UserSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = { "Aarav", "Vivaan", "Aditya", "Ananya", "Diya", "Ishaan", "Kavya",
+            "Meera", "Rohan", "Saanvi", "Arjun", "Priya", "Rahul", "Sneha", "Vikram", "Zoya" };
+    private static final String[] LAST_NAMES = { "Sharma", "Verma", "Iyer", "Nair", "Reddy", "Patel", "Gupta",
+            "Singh", "Kumar", "Das", "Menon", "Joshi", "Rao", "Bose", "Khan", "Mehta" };
+    private static final String[] DOMAINS = { "gmail.com", "yahoo.co.in", "outlook.com", "example.com" };
+
+    @Param({ "1000000", "5000000" })
+    private int users;
+
+    private UserSearchIndex index;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long heapBefore = usedHeap();
+        index = new UserSearchIndex();
+        ids = new UUID[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = new UUID(0, i);
+            put(i, i);
+        }
+        System.out.printf("%n%d users: %.1f heap bytes/user%n", users, (double) (usedHeap() - heapBefore) / users);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchPage usernamePrefix() {
+        return index.search("user" + next(), 0, 20);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchPage commonLastName() {
+        return index.search("sharma", 0, 20);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchPage misspelledName() {
+        return index.search("mehat" + next() % 100, 0, 20);
+    }
+
+    @Benchmark
+    public void update() {
+        int i = next();
+        put(i, ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public UserSearchIndex.SearchPage mixedSearch() {
+        return index.search("user" + next(), 0, 20);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedUpdate() {
+        update();
+    }
+
+    private void put(int i, int variant) {
+        int pick = Math.floorMod(variant, FIRST_NAMES.length);
+        String last = LAST_NAMES[Math.floorMod(i, LAST_NAMES.length)];
+        index.put(ids[i], FIRST_NAMES[pick], last, "user" + i,
+                "user" + i + "@" + DOMAINS[Math.floorMod(i, DOMAINS.length)], "+91" + (9_000_000_000L + i));
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,146 @@
+package in.food.restro.authservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import in.food.restro.authservice.dtos.UserChangeEvent;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.enums.UserChangeType;
+import in.food.restro.authservice.repositories.UserIdentityView;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+
+class UserSearchIndexMaintainerTest {
+
+    private final UserSearchIndex index = new UserSearchIndex();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserSearchIndexMaintainer maintainer =
+            new UserSearchIndexMaintainer(index, userRepository, new ShardRouter(1), 2);
+
+    @Test
+    void loadIndexesEveryPage() {
+        List<Identity> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(new Identity(new UUID(0, i + 1), "loaded" + i));
+        }
+        when(userRepository.findIdentitiesAfter(any(UUID.class), any(Pageable.class)))
+                .thenAnswer(call -> page(users, call.getArgument(0)));
+
+        maintainer.load();
+
+        assertEquals(5, index.size());
+        assertEquals(List.of(users.get(3).getId()), ids(index.search("loaded3", 0, 10)));
+    }
+
+    @Test
+    void loadDoesNotBringBackAUserDeletedAfterItsPageWasRead() {
+        Identity deleted = new Identity(new UUID(0, 1), "deleted");
+        when(userRepository.findIdentitiesAfter(any(UUID.class), any(Pageable.class))).thenAnswer(call -> {
+            // The deletion commits and is applied between the page query and its indexing
+            maintainer.onUserChange(event(UserChangeType.DELETED, deleted.getId()));
+            maintainer.applyPending();
+            return page(List.of(deleted), call.getArgument(0));
+        });
+
+        maintainer.load();
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void changesAreQueuedOnCommitAndAppliedInOrder() {
+        UserDto user = user("before");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            maintainer.record(UserChangeType.CREATED, user);
+            assertEquals(0, maintainer.applyPending());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        UserDto renamed = user("after");
+        renamed.setId(user.getId());
+        maintainer.record(UserChangeType.UPDATED, renamed);
+
+        assertEquals(0, index.size());
+        assertEquals(2, maintainer.applyPending());
+        assertEquals(List.of(user.getId()), ids(index.search("after", 0, 10)));
+        assertEquals(0, index.search("before", 0, 10).total());
+    }
+
+    @Test
+    void changesOfUnindexedFieldsAreSkipped() {
+        UserDto user = user("skipped");
+
+        maintainer.record(UserChangeType.ROLE_ASSIGNED, user);
+        maintainer.onUserChange(event(UserChangeType.DEACTIVATED, user.getId()));
+        maintainer.applyPending();
+
+        assertEquals(0, index.size());
+    }
+
+    private static List<UserIdentityView> page(List<Identity> users, UUID after) {
+        return users.stream()
+                .filter(user -> user.getId().compareTo(after) > 0)
+                .limit(2)
+                .map(UserIdentityView.class::cast)
+                .toList();
+    }
+
+    private static UserChangeEvent event(UserChangeType type, UUID userId) {
+        return UserChangeEvent.builder().type(type).userId(userId).build();
+    }
+
+    private static UserDto user(String username) {
+        return UserDto.builder().id(UUID.randomUUID()).username(username).build();
+    }
+
+    private static List<UUID> ids(UserSearchIndex.SearchPage page) {
+        return page.hits().stream().map(UserSearchIndex.Hit::id).toList();
+    }
+
+    private record Identity(UUID id, String username) implements UserIdentityView {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getEmail() {
+            return null;
+        }
+
+        @Override
+        public String getPhoneNumber() {
+            return null;
+        }
+
+        @Override
+        public String getFirstName() {
+            return null;
+        }
+
+        @Override
+        public String getLastName() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package in.food.restro.authservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UserSearchIndexTest {
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    @Test
+    void ranksPrefixMatchesBeforeSubstringMatchesBeforeSimilarOnes() {
+        UUID prefix = put("Ravi", "Sharma", "ravi.s");
+        UUID substring = put(null, null, "psharma1");
+        UUID similar = put(null, "Sherma", "sherma");
+        put("Arun", "Kumar", "akumar");
+
+        UserSearchIndex.SearchPage page = index.search("sharma", 0, 10);
+
+        assertEquals(3, page.total());
+        assertEquals(List.of(prefix, substring, similar), ids(page));
+    }
+
+    @Test
+    void searchesEmailAndPhoneAndIgnoresCaseAndPunctuation() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "Meera", "Nair", "meeran", "Meera.Nair@Example.com", "+91 98450 12345");
+
+        assertEquals(List.of(id), ids(index.search("meera.nair@", 0, 10)));
+        assertEquals(List.of(id), ids(index.search("9845012345", 0, 10)));
+        assertEquals(List.of(id), ids(index.search("MEERA NAIR", 0, 10)));
+        assertEquals(0, index.search(" -- ", 0, 10).total());
+    }
+
+    @Test
+    void pagesThroughAllHitsAndReportsTheTotal() {
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add(put(null, null, "cook" + i));
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        for (int page = 0; page < 3; page++) {
+            UserSearchIndex.SearchPage result = index.search("cook", page, 10);
+            assertEquals(25, result.total());
+            assertEquals(page < 2 ? 10 : 5, result.hits().size());
+            result.hits().forEach(hit -> assertTrue(seen.add(hit.id())));
+        }
+        assertEquals(expected, seen);
+        assertTrue(index.search("cook", 3, 10).hits().isEmpty());
+    }
+
+    @Test
+    void removedAndUpdatedUsersAreNoLongerFoundUnderTheirOldNames() {
+        UUID id = put("Zubin", "Mehta", "zubin");
+
+        index.remove(id);
+        assertEquals(0, index.search("zubin", 0, 10).total());
+        assertEquals(0, index.size());
+
+        index.put(id, "Zara", "Mehta", "zara", null, null);
+        assertEquals(List.of(id), ids(index.search("zara", 0, 10)));
+        assertEquals(0, index.search("zubin", 0, 10).total());
+
+        index.put(id, "Yusuf", "Mehta", "yusuf", null, null);
+        assertEquals(List.of(id), ids(index.search("yusuf", 0, 10)));
+        assertEquals(0, index.search("zara", 0, 10).total());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactsOnceAQuarterOfTheDocumentsAreDead() {
+        int users = 40_000;
+        UUID[] ids = new UUID[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = UUID.randomUUID();
+            index.put(ids[i], "First" + i, "Old", "old" + i, null, null);
+        }
+        for (int i = 0; i < users; i++) {
+            index.put(ids[i], "First" + i, "New", "new" + i, null, null);
+        }
+
+        assertEquals(users, index.size());
+        assertTrue(index.docCount() < 2 * users, "dead documents were never dropped");
+        assertEquals(List.of(ids[12_345]), ids(index.search("new12345", 0, 1)));
+        assertEquals(0, index.search("old12345", 0, 10).total());
+    }
+
+    @Test
+    void putIfAbsentKeepsNewerEntriesAndUsersRemovedDuringTheLoad() {
+        UUID updated = put(null, null, "newer");
+        UUID deleted = UUID.randomUUID();
+
+        index.startLoad();
+        index.remove(deleted);
+        index.putIfAbsent(updated, null, null, "older", null, null);
+        index.putIfAbsent(deleted, null, null, "deleted", null, null);
+        index.finishLoad();
+
+        assertEquals(List.of(updated), ids(index.search("newer", 0, 10)));
+        assertEquals(0, index.search("older", 0, 10).total());
+        assertEquals(0, index.search("deleted", 0, 10).total());
+
+        // Outside a load, an earlier removal no longer holds the user back
+        index.putIfAbsent(deleted, null, null, "deleted", null, null);
+        assertEquals(List.of(deleted), ids(index.search("deleted", 0, 10)));
+    }
+
+    @Test
+    void trigramsAreDistinctSortedAndPaddedWithStartMarkers() {
+        long[] grams = UserSearchIndex.trigrams("aaaa");
+
+        // Two start-marker grams, then "aaa" once
+        assertEquals(3, grams.length);
+        for (int i = 1; i < grams.length; i++) {
+            assertTrue(grams[i - 1] < grams[i]);
+        }
+        assertEquals(0, UserSearchIndex.trigrams("").length);
+    }
+
+    private UUID put(String firstName, String lastName, String username) {
+        UUID id = UUID.randomUUID();
+        index.put(id, firstName, lastName, username, null, null);
+        return id;
+    }
+
+    private static List<UUID> ids(UserSearchIndex.SearchPage page) {
+        return page.hits().stream().map(UserSearchIndex.Hit::id).toList();
+    }
+}
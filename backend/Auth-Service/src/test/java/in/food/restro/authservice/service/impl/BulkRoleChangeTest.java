@@ -0,0 +1,161 @@
+package in.food.restro.authservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import in.food.restro.authservice.dtos.BulkRoleRequestDto;
+import in.food.restro.authservice.dtos.BulkRoleResultDto;
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.enums.Provider;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.service.UserService;
+
+/**
+ * Bulk and single role grants and revokes on the join table, on the in-memory database of the
+ * {@code embedded} profile. Every test works on a role of its own.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class BulkRoleChangeTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void grantByIdsChangesOnlyUsersWithoutTheRoleAndRevokeUndoesIt() {
+		UserDto holder = holderOfNewRole();
+		String roleId = roleId(holder);
+		UserDto first = userService.createUser(user("first").build());
+		UserDto second = userService.createUser(user("second").build());
+		List<UUID> ids = List.of(holder.getId(), first.getId(), second.getId(), UUID.randomUUID());
+
+		BulkRoleResultDto granted = userService.grantRoleToUsers(roleId, BulkRoleRequestDto.builder().userIds(ids).build());
+		assertEquals(3, granted.getMatchedUsers());
+		assertEquals(2, granted.getAffectedUsers());
+		assertEquals(3, holders(roleId));
+
+		BulkRoleResultDto repeated = userService.grantRoleToUsers(roleId, BulkRoleRequestDto.builder().userIds(ids).build());
+		assertEquals(3, repeated.getMatchedUsers());
+		assertEquals(0, repeated.getAffectedUsers());
+		assertEquals(3, holders(roleId));
+
+		BulkRoleResultDto revoked = userService.revokeRoleFromUsers(roleId,
+				BulkRoleRequestDto.builder().userIds(List.of(first.getId(), second.getId())).build());
+		assertEquals(2, revoked.getAffectedUsers());
+		assertEquals(1, holders(roleId));
+		assertEquals(1, roles(roleId));
+		assertEquals(1, userService.getUserRoleDetailsById(holder.getId().toString()).getRoles().size());
+	}
+
+	@Test
+	void grantByFilterReachesOnlyMatchingUsers() {
+		String roleId = roleId(holderOfNewRole());
+		UserDto matching = userService.createUser(user("matching").provider(Provider.GITLAB).build());
+		UserDto inactive = userService.createUser(user("inactive").provider(Provider.GITLAB).build());
+		userService.deactivateUser(inactive.getId().toString());
+		List<UUID> expected = userRepository.findIdsMatching(Provider.GITLAB, true, new UUID(0, 0), PageRequest.of(0, 10_000));
+
+		BulkRoleResultDto granted = userService.grantRoleToUsers(roleId,
+				BulkRoleRequestDto.builder().provider(Provider.GITLAB).active(true).build());
+
+		assertEquals(expected.size(), granted.getMatchedUsers());
+		assertEquals(expected.size(), granted.getAffectedUsers());
+		assertEquals(1, holding(roleId, matching.getId()));
+		assertEquals(0, holding(roleId, inactive.getId()));
+	}
+
+	@Test
+	void grantToAllUsersAndRevokeFromAllUsers() {
+		String roleId = roleId(holderOfNewRole());
+		userService.createUser(user("everyone").build());
+		int users = userRepository.findIdsMatching(null, null, new UUID(0, 0), PageRequest.of(0, 10_000)).size();
+
+		BulkRoleResultDto granted = userService.grantRoleToUsers(roleId, BulkRoleRequestDto.builder().allUsers(true).build());
+		assertEquals(users, granted.getMatchedUsers());
+		assertEquals(users - 1, granted.getAffectedUsers());
+		assertEquals(users, holders(roleId));
+
+		BulkRoleResultDto revoked = userService.revokeRoleFromUsers(roleId, BulkRoleRequestDto.builder().allUsers(true).build());
+		assertEquals(users, revoked.getAffectedUsers());
+		assertEquals(0, holders(roleId));
+		assertEquals(1, roles(roleId));
+	}
+
+	@Test
+	void singleAssignAndRemoveAreIdempotent() {
+		String roleId = roleId(holderOfNewRole());
+		String userId = userService.createUser(user("single").build()).getId().toString();
+
+		assertEquals(1, userService.assignRoleToUser(userId, roleId).getRoles().size());
+		assertEquals(1, userService.assignRoleToUser(userId, roleId).getRoles().size());
+		assertEquals(1, holding(roleId, UUID.fromString(userId)));
+
+		assertEquals(0, userService.removeRoleFromUser(userId, roleId).getRoles().size());
+		assertEquals(0, userService.removeRoleFromUser(userId, roleId).getRoles().size());
+		assertEquals(0, holding(roleId, UUID.fromString(userId)));
+		assertEquals(1, holders(roleId));
+		assertEquals(1, roles(roleId));
+	}
+
+	@Test
+	void aBulkRequestWithoutASelectionIsRejected() {
+		String roleId = roleId(holderOfNewRole());
+
+		assertThrows(IllegalArgumentException.class, () -> userService.grantRoleToUsers(roleId, new BulkRoleRequestDto()));
+		assertThrows(IllegalArgumentException.class, () -> userService.revokeRoleFromUsers(roleId,
+				BulkRoleRequestDto.builder().userIds(List.of()).build()));
+	}
+
+	private UserDto holderOfNewRole() {
+		String roleName = "ROLE_BULK_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+		return userService.createUser(user("holder").roles(Set.of(RoleDto.builder().name(roleName).build())).build());
+	}
+
+	private static String roleId(UserDto holder) {
+		return holder.getRoles().iterator().next().getId().toString();
+	}
+
+	private int holders(String roleId) {
+		return count("SELECT COUNT(*) FROM user_user_roles WHERE user_role_id = ?", UUID.fromString(roleId));
+	}
+
+	private int holding(String roleId, UUID userId) {
+		return count("SELECT COUNT(*) FROM user_user_roles WHERE user_role_id = ? AND user_id = ?",
+				UUID.fromString(roleId), userId);
+	}
+
+	private int roles(String roleId) {
+		return count("SELECT COUNT(*) FROM user_roles WHERE user_role_id = ?", UUID.fromString(roleId));
+	}
+
+	private int count(String sql, Object... args) {
+		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, args);
+		return count == null ? 0 : count;
+	}
+
+	private static UserDto.UserDtoBuilder user(String prefix) {
+		String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+		return UserDto.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("secret");
+	}
+}
@@ -0,0 +1,140 @@
+package in.food.restro.authservice.service.impl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Changing a user's first name with the full-row UPDATE Hibernate issues by default versus
+ * the changed-columns-only UPDATE of a {@code @DynamicUpdate} entity, on a scratch copy of
+ * {@code users} with the same three unique indexes.
+ * <p>
+ * Needs a PostgreSQL database, given with {@code -Dbench.url}, {@code -Dbench.user} and
+ * {@code -Dbench.password}; H2 keeps no write-ahead log to compare. WAL bytes per update and
+ * the share of HOT updates are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileUpdateBenchmark {
+
+    private static final String TABLE = "bench_profile_update";
+
+    @Param({ "100000" })
+    private int users;
+
+    private Connection connection;
+    private PreparedStatement fullRow;
+    private PreparedStatement changedColumns;
+    private String walStart;
+    private long updates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("bench.user", "postgres"), System.getProperty("bench.password", "postgres"));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + TABLE);
+            // Free space on each page so the table can take HOT updates, as a table with some churn has
+            ddl.execute("CREATE TABLE " + TABLE + " (id INT PRIMARY KEY, user_name VARCHAR(255) UNIQUE,"
+                    + " user_email VARCHAR(255) UNIQUE, mobile VARCHAR(255) UNIQUE, password VARCHAR(255),"
+                    + " first_name VARCHAR(255), middle_name VARCHAR(255), last_name VARCHAR(255), gender VARCHAR(255),"
+                    + " dob VARCHAR(255), profile_image VARCHAR(255), is_active BOOLEAN, updated_at TIMESTAMP)"
+                    + " WITH (fillfactor = 80)");
+            ddl.execute("INSERT INTO " + TABLE + " SELECT i, 'user' || i, 'user' || i || '@example.com',"
+                    + " '+91' || (9000000000 + i), 'hash' || i, 'First', NULL, 'Last', 'Other', '1990-01-01', NULL,"
+                    + " TRUE, now() FROM generate_series(0, " + (users - 1) + ") i");
+            ddl.execute("VACUUM ANALYZE " + TABLE);
+        }
+        fullRow = connection.prepareStatement("UPDATE " + TABLE + " SET user_name = ?, user_email = ?, mobile = ?,"
+                + " password = ?, first_name = ?, middle_name = ?, last_name = ?, gender = ?, dob = ?,"
+                + " profile_image = ?, is_active = ?, updated_at = ? WHERE id = ?");
+        changedColumns = connection.prepareStatement("UPDATE " + TABLE + " SET first_name = ?, updated_at = ? WHERE id = ?");
+        walStart = walPosition();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement report = connection.createStatement();
+                ResultSet wal = report.executeQuery("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walStart + "')")) {
+            wal.next();
+            System.out.printf("%n%d updates: %.0f WAL bytes/update%n", updates, wal.getDouble(1) / Math.max(updates, 1));
+        }
+        try (Statement report = connection.createStatement();
+                ResultSet hot = report.executeQuery("SELECT n_tup_upd, n_tup_hot_upd FROM pg_stat_user_tables"
+                        + " WHERE relname = '" + TABLE + "'")) {
+            if (hot.next()) {
+                System.out.printf("%d of %d updates were HOT%n", hot.getLong(2), hot.getLong(1));
+            }
+        }
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE " + TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int fullRowUpdate() throws SQLException {
+        int i = next();
+        fullRow.setString(1, "user" + i);
+        fullRow.setString(2, "user" + i + "@example.com");
+        fullRow.setString(3, "+91" + (9_000_000_000L + i));
+        fullRow.setString(4, "hash" + i);
+        fullRow.setString(5, "First" + i);
+        fullRow.setString(6, null);
+        fullRow.setString(7, "Last");
+        fullRow.setString(8, "Other");
+        fullRow.setString(9, "1990-01-01");
+        fullRow.setString(10, null);
+        fullRow.setBoolean(11, true);
+        fullRow.setTimestamp(12, new Timestamp(System.currentTimeMillis()));
+        fullRow.setInt(13, i);
+        updates++;
+        return fullRow.executeUpdate();
+    }
+
+    @Benchmark
+    public int changedColumnsUpdate() throws SQLException {
+        int i = next();
+        changedColumns.setString(1, "First" + i);
+        changedColumns.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+        changedColumns.setInt(3, i);
+        updates++;
+        return changedColumns.executeUpdate();
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private String walPosition() throws SQLException {
+        try (Statement query = connection.createStatement();
+                ResultSet lsn = query.executeQuery("SELECT pg_current_wal_lsn()")) {
+            lsn.next();
+            return lsn.getString(1);
+        }
+    }
+}
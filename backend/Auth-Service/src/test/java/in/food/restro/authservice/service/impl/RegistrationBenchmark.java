@@ -0,0 +1,113 @@
+package in.food.restro.authservice.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import in.food.restro.authservice.AuthServiceApplication;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.exception.DuplicateResourceException;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.service.UserService;
+
+/**
+ * Registrations per second through {@link UserService#createUser}, which relies on the unique
+ * constraints, versus the same call preceded by the {@code existsByEmail} and
+ * {@code existsByUsername} queries the service ran before, for new users and for duplicates of
+ * an existing email.
+ * <p>
+ * The service runs in the {@code embedded} profile against in-memory H2, so the saved round
+ * trips cost far less than over a network and the difference is a lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Dspring.main.banner-mode=off" })
+public class RegistrationBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private UserDto existing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("embedded")
+                .web(WebApplicationType.NONE)
+                .run();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        existing = userService.createUser(user(sequence.incrementAndGet()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto register() {
+        return userService.createUser(user(sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public UserDto registerWithPreChecks() {
+        UserDto user = user(sequence.incrementAndGet());
+        if (userRepository.existsByEmail(user.getEmail()) || userRepository.existsByUsername(user.getUsername())) {
+            throw new IllegalStateException("Generated user already exists: " + user.getUsername());
+        }
+        return userService.createUser(user);
+    }
+
+    @Benchmark
+    public DuplicateResourceException duplicateEmail() {
+        UserDto user = user(sequence.incrementAndGet());
+        user.setEmail(existing.getEmail());
+        try {
+            userService.createUser(user);
+        } catch (DuplicateResourceException ex) {
+            return ex;
+        }
+        throw new IllegalStateException("Duplicate email was accepted");
+    }
+
+    @Benchmark
+    public DuplicateResourceException duplicateEmailWithPreChecks() {
+        UserDto user = user(sequence.incrementAndGet());
+        user.setEmail(existing.getEmail());
+        if (userRepository.existsByEmail(user.getEmail())) {
+            return new DuplicateResourceException("email", "Email already exists: " + user.getEmail());
+        }
+        throw new IllegalStateException("Duplicate email was not found");
+    }
+
+    private static UserDto user(long n) {
+        return UserDto.builder()
+                .username("bench-" + n)
+                .email("bench-" + n + "@example.com")
+                .password("secret")
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package in.food.restro.authservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.entities.User;
+import in.food.restro.authservice.lookup.UserLookupBatcher;
+import in.food.restro.authservice.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs the lookups of {@link UserServiceImpl} on the in-memory database of the {@code embedded}
+ * profile and checks which of them go through {@link UserLookupBatcher}.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class UserLookupBatchingTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserLookupBatcher userLookupBatcher;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void lookupsOutsideATransactionAreBatched() {
+		UserDto created = userService.createUser(user("batched"));
+		long before = batches();
+
+		assertEquals(created.getId(), userService.getUserById(created.getId().toString()).getId());
+		assertEquals(created.getId(), userService.getUserByEmail(created.getEmail()).getId());
+
+		assertEquals(before + 2, batches());
+	}
+
+	@Test
+	void lookupsInsideATransactionBypassBatchingAndSeeItsChanges() {
+		long before = batches();
+
+		UserDto found = transactionTemplate.execute(status -> {
+			UserDto created = userService.createUser(user("uncommitted"));
+			// A batch led from here would run on a connection that cannot see the new row yet
+			return userService.getUserById(created.getId().toString());
+		});
+
+		assertEquals(before, batches());
+		assertEquals(found.getId(), userService.getUserById(found.getId().toString()).getId());
+	}
+
+	@Test
+	void batchesStayOutOfAnOpenInViewEntityManager() {
+		UserDto created = userService.createUser(user("detached"));
+		EntityManager requestScoped = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestScoped));
+		try {
+			User user = userLookupBatcher.findById(created.getId()).orElseThrow();
+
+			assertFalse(requestScoped.contains(user));
+			assertEquals(0, requestScoped.unwrap(Session.class).getStatistics().getEntityCount());
+			assertEquals(created.getUsername(), user.getUsername());
+			assertEquals(0, user.getRoles().size());
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			requestScoped.close();
+		}
+	}
+
+	private long batches() {
+		return meterRegistry.get("auth.lookup.batch.size").summaries().stream()
+				.mapToLong(summary -> summary.count())
+				.sum();
+	}
+
+	private static UserDto user(String prefix) {
+		String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+		return UserDto.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("secret")
+				.build();
+	}
+}
@@ -0,0 +1,172 @@
+package in.food.restro.authservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.service.UserService;
+
+/**
+ * JSON Merge Patch of the profile, on the in-memory database of the {@code embedded} profile.
+ * The SQL sent to the database is recorded to check what a patch writes.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "in.food.restro.authservice.service.impl.UserPatchTest$RecordingInspector")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class UserPatchTest {
+
+	private static final String MERGE_PATCH = "application/merge-patch+json";
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private UserDto user;
+
+	@BeforeEach
+	void createUser() {
+		String name = "patch-" + UUID.randomUUID().toString().substring(0, 8);
+		user = userService.createUser(UserDto.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("secret")
+				.build());
+		userService.updateUser(user.getId().toString(), UserDto.builder()
+				.firstName("Asha")
+				.middleName("K")
+				.lastName("Rao")
+				.gender("F")
+				.build());
+		RecordingInspector.STATEMENTS.clear();
+	}
+
+	@Test
+	void absentMembersAreLeftAlone() {
+		UserDto patched = patchUser(Map.of("lastName", "Iyer"));
+
+		assertEquals("Iyer", patched.getLastName());
+		assertEquals("Asha", patched.getFirstName());
+		assertEquals("K", patched.getMiddleName());
+		assertEquals("F", patched.getGender());
+	}
+
+	@Test
+	void nullMembersClearTheField() {
+		Map<String, Object> patch = new HashMap<>();
+		patch.put("middleName", null);
+
+		UserDto patched = patchUser(patch);
+
+		assertNull(patched.getMiddleName());
+		assertNull(jdbcTemplate.queryForObject("SELECT middle_name FROM users WHERE user_id = ?", String.class,
+				user.getId()));
+		assertEquals("Asha", patched.getFirstName());
+	}
+
+	@Test
+	void unknownMembersAreRejected() throws Exception {
+		mockMvc.perform(patch("/api/v1/users/{id}", user.getId())
+				.contentType(MERGE_PATCH)
+				.content("{\"email\": \"someone@example.com\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Field 'email' cannot be changed with PATCH"));
+
+		assertEquals(user.getEmail(), userService.getUserById(user.getId().toString()).getEmail());
+	}
+
+	@Test
+	void nonStringMembersAreRejected() throws Exception {
+		mockMvc.perform(patch("/api/v1/users/{id}", user.getId())
+				.contentType(MERGE_PATCH)
+				.content("{\"firstName\": 42}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Field 'firstName' must be a string or null"));
+
+		assertEquals("Asha", userService.getUserById(user.getId().toString()).getFirstName());
+	}
+
+	@Test
+	void patchesChangingNothingWriteNothing() {
+		long events = outboxEvents();
+
+		patchUser(Map.of("firstName", "Asha", "lastName", "Rao"));
+
+		assertTrue(updates().isEmpty(), "Unexpected UPDATE: " + updates());
+		assertEquals(events, outboxEvents());
+	}
+
+	@Test
+	void updatesNameOnlyTheChangedColumns() {
+		long events = outboxEvents();
+
+		patchUser(Map.of("firstName", "Asha", "lastName", "Iyer"));
+
+		List<String> updates = updates();
+		assertEquals(1, updates.size(), updates.toString());
+		String update = updates.get(0);
+		assertTrue(update.contains("last_name"), update);
+		assertFalse(update.contains("first_name"), update);
+		assertFalse(update.contains("middle_name"), update);
+		assertFalse(update.contains("user_email"), update);
+		assertFalse(update.contains("password"), update);
+		assertEquals(events + 1, outboxEvents());
+	}
+
+	private UserDto patchUser(Map<String, Object> patch) {
+		return userService.patchUser(user.getId().toString(), patch);
+	}
+
+	private long outboxEvents() {
+		Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_outbox WHERE user_id = ?", Long.class,
+				user.getId());
+		return count == null ? 0 : count;
+	}
+
+	private static List<String> updates() {
+		return RecordingInspector.STATEMENTS.stream()
+				.map(String::toLowerCase)
+				.filter(sql -> sql.startsWith("update users "))
+				.toList();
+	}
+
+	/**
+	 * Keeps every statement Hibernate prepares, unchanged.
+	 */
+	public static class RecordingInspector implements StatementInspector {
+
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package in.food.restro.authservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.exception.DuplicateResourceException;
+import in.food.restro.authservice.service.UserService;
+
+/**
+ * Parallel registrations and role assignments on the in-memory database of the {@code embedded}
+ * profile. Users are removed from the tables afterwards, as a soft delete would leave them behind.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class UserServiceImplConcurrencyTest {
+
+	private static final int PARALLEL_REGISTRATIONS = 8;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void parallelRegistrationsWithSameEmailYieldOneUserAndConflicts() throws Exception {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		String email = "race-" + suffix + "@example.com";
+
+		ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_REGISTRATIONS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<UserDto>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < PARALLEL_REGISTRATIONS; i++) {
+				UserDto dto = UserDto.builder()
+						.username("race-" + suffix + "-" + i)
+						.email(email)
+						.password("secret")
+						.build();
+				results.add(pool.submit(() -> {
+					start.await();
+					return userService.createUser(dto);
+				}));
+			}
+			start.countDown();
+
+			List<UserDto> created = new ArrayList<>();
+			int conflicts = 0;
+			for (Future<UserDto> result : results) {
+				try {
+					created.add(result.get());
+				} catch (ExecutionException ex) {
+					assertTrue(ex.getCause() instanceof DuplicateResourceException, "Unexpected failure: " + ex.getCause());
+					assertEquals("email", ((DuplicateResourceException) ex.getCause()).getField());
+					conflicts++;
+				}
+			}
+
+			assertEquals(1, created.size());
+			assertEquals(PARALLEL_REGISTRATIONS - 1, conflicts);
+			remove(created.get(0).getId());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void parallelAssignmentsOfTheSameRoleAllSucceed() throws Exception {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		UserDto holder = userService.createUser(UserDto.builder()
+				.username("holder-" + suffix)
+				.email("holder-" + suffix + "@example.com")
+				.password("secret")
+				.roles(Set.of(RoleDto.builder().name("ROLE_RACE_" + suffix).build()))
+				.build());
+		String roleId = holder.getRoles().iterator().next().getId().toString();
+		UserDto user = userService.createUser(UserDto.builder()
+				.username("assignee-" + suffix)
+				.email("assignee-" + suffix + "@example.com")
+				.password("secret")
+				.build());
+		String userId = user.getId().toString();
+
+		ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_REGISTRATIONS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<UserDto>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < PARALLEL_REGISTRATIONS; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return userService.assignRoleToUser(userId, roleId);
+				}));
+			}
+			start.countDown();
+
+			// Links inserted concurrently must not surface as primary key violations
+			for (Future<UserDto> result : results) {
+				assertEquals(1, result.get().getRoles().size());
+			}
+			assertEquals(1, userService.getUserRoleDetailsById(userId).getRoles().size());
+		} finally {
+			pool.shutdownNow();
+			remove(user.getId());
+			remove(holder.getId());
+			jdbcTemplate.update("DELETE FROM user_roles WHERE user_role_id = ?", UUID.fromString(roleId));
+		}
+	}
+
+	private void remove(UUID userId) {
+		jdbcTemplate.update("DELETE FROM user_user_roles WHERE user_id = ?", userId);
+		jdbcTemplate.update("DELETE FROM user_user_addr WHERE user_id = ?", userId);
+		jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId);
+	}
+}
@@ -0,0 +1,60 @@
+package in.food.restro.authservice.sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import in.food.restro.authservice.ids.TimeOrderedUuidGenerator;
+
+class ShardRouterTest {
+
+    private static final int USERS = 100_000;
+
+    @Test
+    void mixesWithTheMurmurHash3Finalizer() {
+        // fmix64(1) of the reference implementation
+        assertEquals(0xb456bcfc34c2cb2cL, ShardRouter.mix(1));
+    }
+
+    @Test
+    void placesAKnownIdOnTheSameShardEveryRelease() {
+        // Changing this moves users already stored on a shard; it takes a rebalance, not just a release
+        UUID id = UUID.fromString("019ca8e5-5e4b-774b-8123-456789abcdef");
+        int[] expected = { 0, 0, 0, 3, 3, 5, 5, 7 };
+        for (int shards = 1; shards <= expected.length; shards++) {
+            assertEquals(expected[shards - 1], new ShardRouter(shards).shardFor(id), shards + " shards");
+        }
+    }
+
+    @Test
+    void spreadsTimeOrderedIdsEvenly() {
+        ShardRouter router = new ShardRouter(4);
+        int[] perShard = new int[4];
+        for (int i = 0; i < USERS; i++) {
+            perShard[router.shardFor(TimeOrderedUuidGenerator.next())]++;
+        }
+        for (int count : perShard) {
+            assertTrue(Math.abs(count - USERS / 4) < USERS / 40, "Uneven shard: " + count);
+        }
+    }
+
+    @Test
+    void addingAShardOnlyMovesUsersOntoIt() {
+        ShardRouter before = new ShardRouter(4);
+        ShardRouter after = new ShardRouter(5);
+        int moved = 0;
+        for (int i = 0; i < USERS; i++) {
+            UUID id = UUID.randomUUID();
+            int from = before.shardFor(id);
+            int to = after.shardFor(id);
+            if (from != to) {
+                assertEquals(4, to);
+                moved++;
+            }
+        }
+        assertTrue(Math.abs(moved - USERS / 5) < USERS / 50, "Moved " + moved);
+    }
+}
@@ -0,0 +1,220 @@
+package in.food.restro.authservice.sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import in.food.restro.authservice.config.ShardingConfig.ShardDataSources;
+import in.food.restro.authservice.dtos.AddressDto;
+import in.food.restro.authservice.dtos.BulkRoleRequestDto;
+import in.food.restro.authservice.dtos.BulkRoleResultDto;
+import in.food.restro.authservice.dtos.RoleDto;
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.exception.DuplicateResourceException;
+import in.food.restro.authservice.exception.UserNotFoundException;
+import in.food.restro.authservice.service.UserService;
+import in.food.restro.authservice.sharding.UserDirectory.Key;
+
+/**
+ * Runs the service on the three in-memory H2 shards of the {@code sharded} profile.
+ */
+@SpringBootTest
+@ActiveProfiles("sharded")
+class ShardedUserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private UserDirectory directory;
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Test
+    void routesEveryCallToTheShardOfTheUser() {
+        String name = unique("route");
+        UserDto created = userService.createUser(user(name).phoneNumber(phone()).build());
+        UUID id = created.getId();
+        int home = shardRouter.shardFor(id);
+
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            assertEquals(shard == home ? 1 : 0, count(shard, "SELECT COUNT(*) FROM users WHERE user_id = ?", id));
+        }
+        assertEquals(id, userService.getUserById(id.toString()).getId());
+        assertEquals(id, userService.getUserByUsername(name).getId());
+        assertEquals(id, userService.getUserByEmail(name + "@example.com").getId());
+        assertEquals(id, userService.getUserByPhoneNumber(created.getPhoneNumber()).getId());
+        assertTrue(userService.isUsernameExists(name));
+
+        String newPhone = phone();
+        UserDto update = user(name).firstName("Asha").phoneNumber(newPhone).build();
+        assertEquals("Asha", userService.updateUser(id.toString(), update).getFirstName());
+        assertEquals(Optional.of(id), directory.find(Key.PHONE, newPhone));
+        assertEquals(Optional.empty(), directory.find(Key.PHONE, created.getPhoneNumber()));
+        assertEquals("Asha", new JdbcTemplate(shards.pools().get(home))
+                .queryForObject("SELECT first_name FROM users WHERE user_id = ?", String.class, id));
+
+        userService.deleteUser(id.toString());
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(id.toString()));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserByUsername(name));
+        assertFalse(userService.isUsernameExists(name));
+        // Soft-deleted on its shard; the keys stay reserved until the purge
+        assertEquals(1, count(home, "SELECT COUNT(*) FROM users WHERE user_id = ? AND deleted = true", id));
+        assertEquals(Optional.of(id), directory.find(Key.USERNAME, name));
+    }
+
+    @Test
+    void reservesKeysAcrossShardsAndReleasesThemWhenTheWriteFails() {
+        String name = unique("first");
+        UserDto first = userService.createUser(user(name).phoneNumber(phone()).build());
+
+        String second = unique("second");
+        DuplicateResourceException duplicate = assertThrows(DuplicateResourceException.class,
+                () -> userService.createUser(user(second).email(name + "@example.com").build()));
+        assertEquals("email", duplicate.getField());
+        // All keys of a registration are reserved together or not at all
+        assertEquals(Optional.empty(), directory.find(Key.USERNAME, second));
+
+        String third = unique("third");
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.createUser(user(third).profileImage("data:image/png;base64,AAAA").build()));
+        assertEquals(Optional.empty(), directory.find(Key.USERNAME, third));
+        assertEquals(Optional.empty(), directory.find(Key.EMAIL, third + "@example.com"));
+        UserDto retried = userService.createUser(user(third).build());
+        assertEquals(Optional.of(retried.getId()), directory.find(Key.USERNAME, third));
+
+        String taken = first.getPhoneNumber();
+        String ownPhone = phone();
+        UserDto other = userService.createUser(user(unique("other")).phoneNumber(ownPhone).build());
+        assertThrows(DuplicateResourceException.class,
+                () -> userService.updateUser(other.getId().toString(), user(other.getUsername()).phoneNumber(taken).build()));
+        assertEquals(Optional.of(first.getId()), directory.find(Key.PHONE, taken));
+        assertEquals(Optional.of(other.getId()), directory.find(Key.PHONE, ownPhone));
+    }
+
+    @Test
+    void copiesNewRolesToEveryShardUnderTheSameId() {
+        String roleName = "ROLE_" + unique("catalog").toUpperCase();
+        UserDto holder = userService.createUser(user(unique("holder"))
+                .roles(Set.of(RoleDto.builder().name(roleName).build()))
+                .build());
+        UUID roleId = holder.getRoles().iterator().next().getId();
+
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            assertEquals(List.of(roleId), new JdbcTemplate(shards.pools().get(shard)).queryForList(
+                    "SELECT user_role_id FROM user_roles WHERE user_role_name = ?", UUID.class, roleName));
+        }
+
+        List<UUID> ids = usersOnEveryShard("grantee");
+        BulkRoleResultDto granted = userService.grantRoleToUsers(roleId.toString(),
+                BulkRoleRequestDto.builder().userIds(ids).build());
+        assertEquals(ids.size(), granted.getAffectedUsers());
+        for (UUID id : ids) {
+            assertEquals(1, count(shardRouter.shardFor(id),
+                    "SELECT COUNT(*) FROM user_user_roles WHERE user_id = ? AND user_role_id = ?", id, roleId));
+        }
+    }
+
+    @Test
+    void rebalancerMovesAUserWithItsRolesAndAddress() {
+        UUID id = null;
+        String name = null;
+        for (int i = 0; i < 50 && id == null; i++) {
+            String candidate = unique("moving");
+            UserDto created = userService.createUser(user(candidate)
+                    .roles(Set.of(RoleDto.builder().name("ROLE_MOVER").build(),
+                            RoleDto.builder().name("ROLE_TRAVELLER").build()))
+                    .address(AddressDto.builder().street("1 MG Road").city("Pune").state("MH").country("IN").build())
+                    .build());
+            if (shardRouter.shardFor(created.getId()) == 2) {
+                id = created.getId();
+                name = candidate;
+            }
+        }
+        assertTrue(id != null, "No user landed on shard 2");
+
+        // Go back to two shards, as before the third was added, then grow again
+        new ShardRebalancer(shards.pools(), new ShardRouter(2), directory, new ShardingProperties.Rebalance()).rebalance();
+        int before = new ShardRouter(2).shardFor(id);
+        assertNotEquals(2, before);
+        assertEquals(0, count(2, "SELECT COUNT(*) FROM users WHERE user_id = ?", id));
+        assertEquals(1, count(before, "SELECT COUNT(*) FROM users WHERE user_id = ?", id));
+
+        ShardRebalancer.Result result = rebalancer.rebalance();
+
+        assertTrue(result.movedUsers() >= 1);
+        assertUserRows(2, id, 1);
+        assertUserRows(before, id, 0);
+        UserDto moved = userService.getUserByUsername(name);
+        assertEquals(id, moved.getId());
+        assertEquals("Pune", moved.getAddress().getCity());
+        Set<String> roles = new HashSet<>();
+        moved.getRoles().forEach(role -> roles.add(role.getName()));
+        assertEquals(Set.of("ROLE_MOVER", "ROLE_TRAVELLER"), roles);
+    }
+
+    private void assertUserRows(int shard, UUID id, int expected) {
+        assertEquals(expected, count(shard, "SELECT COUNT(*) FROM users WHERE user_id = ?", id));
+        assertEquals(2 * expected, count(shard, "SELECT COUNT(*) FROM user_user_roles WHERE user_id = ?", id));
+        assertEquals(expected, count(shard, "SELECT COUNT(*) FROM user_user_addr WHERE user_id = ?", id));
+        assertEquals(expected, count(shard, "SELECT COUNT(*) FROM user_addr a JOIN user_user_addr l "
+                + "ON l.user_addr_id = a.user_addr_id WHERE l.user_id = ?", id));
+    }
+
+    /**
+     * Creates users until every shard holds at least one of them.
+     */
+    private List<UUID> usersOnEveryShard(String prefix) {
+        Set<Integer> covered = new HashSet<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50 && covered.size() < shardRouter.shardCount(); i++) {
+            UUID id = userService.createUser(user(unique(prefix)).build()).getId();
+            ids.add(id);
+            covered.add(shardRouter.shardFor(id));
+        }
+        assertEquals(shardRouter.shardCount(), covered.size());
+        return ids;
+    }
+
+    private int count(int shard, String sql, Object... args) {
+        Integer count = new JdbcTemplate(shards.pools().get(shard)).queryForObject(sql, Integer.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private static UserDto.UserDtoBuilder user(String username) {
+        return UserDto.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret");
+    }
+
+    private static String unique(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static String phone() {
+        return "9" + String.format("%09d", Math.floorMod(UUID.randomUUID().getLeastSignificantBits(), 1_000_000_000L));
+    }
+}
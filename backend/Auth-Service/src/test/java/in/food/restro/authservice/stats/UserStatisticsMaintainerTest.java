@@ -0,0 +1,134 @@
+package in.food.restro.authservice.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import in.food.restro.authservice.dtos.UserDto;
+import in.food.restro.authservice.enums.Provider;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.repositories.UserStatsSummaryRepository;
+import in.food.restro.authservice.service.UserService;
+import in.food.restro.authservice.sharding.ShardRouter;
+import in.food.restro.authservice.stats.UserStatistics.Dimension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Recounts and checkpoints on the in-memory database of the {@code embedded} profile. A second
+ * instance is simulated by a second pair of statistics and maintainer over the same database.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class UserStatisticsMaintainerTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserStatsSummaryRepository summaryRepository;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clearCheckpoint() {
+		summaryRepository.deleteAll();
+	}
+
+	@Test
+	void everyInstanceCheckpointsTheTableNotItsOwnCounters() {
+		userService.createUser(user("counted"));
+		UserStatistics first = statistics();
+		UserStatistics second = statistics();
+		// Changes only one instance saw, e.g. made before a restart; the recount drops them
+		first.record(null, new UserFacts(Provider.LOCAL, true, "Pune", "MH", Instant.now()));
+		second.record(null, new UserFacts(Provider.GOOGLE, false, "Agra", "UP", Instant.now()));
+
+		maintainer(first).recount();
+		assertEquals(liveUsers(), checkpointed("TOTAL:all"));
+		maintainer(second).recount();
+		assertEquals(liveUsers(), checkpointed("TOTAL:all"));
+
+		assertEquals(liveUsers(), first.snapshot().getTotalUsers());
+		assertEquals(liveUsers(), second.snapshot().getTotalUsers());
+		assertEquals(0, count("SELECT COUNT(*) FROM user_stats_summary WHERE bucket = 'Agra'"));
+	}
+
+	@Test
+	void aRecountStartedBeforeTheStoredCheckpointIsNotWritten() {
+		UserStatisticsMaintainer maintainer = maintainer(statistics());
+		Instant now = Instant.now();
+
+		assertTrue(maintainer.checkpoint(counts(7, "Pune"), now));
+		assertFalse(maintainer.checkpoint(counts(99, "Agra"), now.minusSeconds(60)));
+		assertEquals(7, checkpointed("TOTAL:all"));
+		assertEquals(0, count("SELECT COUNT(*) FROM user_stats_summary WHERE bucket = 'Agra'"));
+
+		// A later recount replaces the whole checkpoint, buckets it no longer has included
+		assertTrue(maintainer.checkpoint(counts(8, "Delhi"), now.plusSeconds(60)));
+		assertEquals(8, checkpointed("TOTAL:all"));
+		assertEquals(0, count("SELECT COUNT(*) FROM user_stats_summary WHERE bucket = 'Pune'"));
+	}
+
+	private UserStatistics statistics() {
+		return new UserStatistics(ZoneId.of("UTC"), 90, 50, Duration.ZERO);
+	}
+
+	private UserStatisticsMaintainer maintainer(UserStatistics statistics) {
+		return new UserStatisticsMaintainer(statistics, userRepository, summaryRepository, shardRouter,
+				transactionManager, new SimpleMeterRegistry());
+	}
+
+	private long liveUsers() {
+		return count("SELECT COUNT(*) FROM users WHERE deleted = false");
+	}
+
+	private long checkpointed(String key) {
+		return summaryRepository.findById(key).orElseThrow().getUserCount();
+	}
+
+	private long count(String sql) {
+		Long count = jdbcTemplate.queryForObject(sql, Long.class);
+		return count == null ? 0 : count;
+	}
+
+	private static Map<Dimension, Map<String, Long>> counts(long total, String city) {
+		Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+		counts.put(Dimension.TOTAL, Map.of(UserStatistics.ALL, total));
+		counts.put(Dimension.CITY, Map.of(city, total));
+		return counts;
+	}
+
+	private static UserDto user(String prefix) {
+		String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+		return UserDto.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("secret")
+				.build();
+	}
+}
@@ -0,0 +1,150 @@
+package in.food.restro.authservice.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import in.food.restro.authservice.dtos.UserStatsDto;
+import in.food.restro.authservice.enums.Provider;
+import in.food.restro.authservice.stats.UserStatistics.Dimension;
+
+class UserStatisticsTest {
+
+    private final UserStatistics statistics = new UserStatistics(ZoneId.of("UTC"), 90, 2, Duration.ZERO);
+
+    @Test
+    void countsAChangeOnlyOnceItsTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statistics.record(null, facts(Provider.LOCAL, true, "Pune"));
+            assertEquals(0, statistics.snapshot().getTotalUsers());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, statistics.snapshot().getTotalUsers());
+    }
+
+    @Test
+    void movesUsersBetweenBucketsOnUpdatesAndStatusChanges() {
+        UserFacts before = facts(Provider.LOCAL, true, "Pune");
+        statistics.record(null, before);
+        statistics.record(null, facts(Provider.LOCAL, true, "Pune"));
+        statistics.record(null, facts(Provider.GOOGLE, true, "Mumbai"));
+
+        statistics.record(before, facts(Provider.LOCAL, true, "Mumbai"));
+        statistics.recordStatusChanges(2, false);
+
+        UserStatsDto stats = statistics.snapshot();
+        assertEquals(3, stats.getTotalUsers());
+        assertEquals(1, stats.getActiveUsers());
+        assertEquals(2, stats.getInactiveUsers());
+        assertEquals(Map.of("GOOGLE", 1L, "LOCAL", 2L), stats.getByProvider());
+        assertEquals(Map.of("Mumbai", 2L, "Pune", 1L), stats.getByCity());
+    }
+
+    @Test
+    void recountReplacesTheCountersAndKeepsChangesCommittedWhileItRan() {
+        statistics.record(null, facts(Provider.GOOGLE, true, "Pune"));
+        statistics.record(null, facts(Provider.GOOGLE, true, "Pune"));
+
+        statistics.beginRecount();
+        statistics.record(null, facts(Provider.LOCAL, false, "Mumbai"));
+        long drift = statistics.completeRecount(recount(10, 7, 6));
+
+        UserStatsDto stats = statistics.snapshot();
+        assertEquals(11, stats.getTotalUsers());
+        assertEquals(7, stats.getActiveUsers());
+        assertEquals(4, stats.getInactiveUsers());
+        assertEquals(Map.of("GOOGLE", 4L, "LOCAL", 7L), stats.getByProvider());
+        assertEquals(1L, stats.getSignupsPerDay().get(today()));
+        assertTrue(drift > 0);
+        assertNotNull(stats.getLastReconciledAt());
+
+        // Nothing changed since: the same recount corrects nothing
+        statistics.beginRecount();
+        assertEquals(0, statistics.completeRecount(counts(statistics.snapshot())));
+    }
+
+    @Test
+    void anAbortedRecountStopsBufferingChanges() {
+        statistics.beginRecount();
+        statistics.record(null, facts(Provider.LOCAL, true, "Pune"));
+        statistics.abortRecount();
+
+        statistics.completeRecount(recount(10, 7, 6));
+
+        assertEquals(10, statistics.snapshot().getTotalUsers());
+    }
+
+    @Test
+    void restoresACheckpointOnlyIntoUntouchedCounters() {
+        assertTrue(statistics.restore(recount(10, 7, 6)));
+        assertEquals(10, statistics.snapshot().getTotalUsers());
+        assertFalse(statistics.restore(recount(20, 10, 10)));
+
+        UserStatistics changed = new UserStatistics(ZoneId.of("UTC"), 90, 2, Duration.ZERO);
+        changed.record(null, facts(Provider.LOCAL, true, "Pune"));
+        assertFalse(changed.restore(recount(10, 7, 6)));
+        assertEquals(1, changed.snapshot().getTotalUsers());
+    }
+
+    @Test
+    void reportsTheLargestLocationsAndTheSignupWindowOnly() {
+        for (String city : List.of("Pune", "Pune", "Pune", "Mumbai", "Mumbai", "Delhi")) {
+            statistics.record(null, facts(Provider.LOCAL, true, city));
+        }
+        statistics.record(null, new UserFacts(Provider.LOCAL, true, "Chennai", "TN", Instant.now().minus(Duration.ofDays(200))));
+
+        UserStatsDto stats = statistics.snapshot();
+        assertEquals(List.of("Pune", "Mumbai"), List.copyOf(stats.getByCity().keySet()));
+        assertEquals(Map.of(today(), 6L), stats.getSignupsPerDay());
+    }
+
+    private static String today() {
+        return LocalDate.now(ZoneOffset.UTC).toString();
+    }
+
+    private static UserFacts facts(Provider provider, boolean active, String city) {
+        return new UserFacts(provider, active, city, "MH", Instant.now());
+    }
+
+    private static Map<Dimension, Map<String, Long>> recount(long total, long active, long local) {
+        Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+        counts.put(Dimension.TOTAL, Map.of(UserStatistics.ALL, total));
+        counts.put(Dimension.STATUS, Map.of(UserStatistics.ACTIVE, active, UserStatistics.INACTIVE, total - active));
+        counts.put(Dimension.PROVIDER, Map.of("LOCAL", local, "GOOGLE", total - local));
+        counts.put(Dimension.CITY, Map.of("Pune", total));
+        counts.put(Dimension.STATE, Map.of("MH", total));
+        counts.put(Dimension.SIGNUP_DAY, Map.of());
+        return counts;
+    }
+
+    private static Map<Dimension, Map<String, Long>> counts(UserStatsDto stats) {
+        Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+        counts.put(Dimension.TOTAL, Map.of(UserStatistics.ALL, stats.getTotalUsers()));
+        counts.put(Dimension.STATUS, Map.of(UserStatistics.ACTIVE, stats.getActiveUsers(),
+                UserStatistics.INACTIVE, stats.getInactiveUsers()));
+        counts.put(Dimension.PROVIDER, stats.getByProvider());
+        counts.put(Dimension.CITY, stats.getByCity());
+        counts.put(Dimension.STATE, stats.getByState());
+        counts.put(Dimension.SIGNUP_DAY, stats.getSignupsPerDay());
+        return counts;
+    }
+}
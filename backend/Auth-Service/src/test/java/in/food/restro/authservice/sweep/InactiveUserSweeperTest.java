@@ -0,0 +1,225 @@
+package in.food.restro.authservice.sweep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import in.food.restro.authservice.entities.JobCheckpoint;
+import in.food.restro.authservice.outbox.OutboxWriter;
+import in.food.restro.authservice.repositories.JobCheckpointRepository;
+import in.food.restro.authservice.repositories.UserRepository;
+import in.food.restro.authservice.sharding.ShardRouter;
+import in.food.restro.authservice.stats.UserStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the sweeper against an in-memory users table that answers its queries the way
+ * PostgreSQL would, including the unsigned uuid order.
+ */
+class InactiveUserSweeperTest {
+
+    private static final Comparator<UUID> UNSIGNED = Comparator
+            .<UUID>comparingLong(id -> id.getMostSignificantBits() ^ Long.MIN_VALUE)
+            .thenComparingLong(id -> id.getLeastSignificantBits() ^ Long.MIN_VALUE);
+    private static final int CHUNK_SIZE = 10;
+    private static final int PARALLELISM = 2;
+
+    /** Users by id, true while active. */
+    private final ConcurrentSkipListMap<UUID, Boolean> users = new ConcurrentSkipListMap<>(UNSIGNED);
+    private final Set<UUID> dormant = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Integer> deactivations = new ConcurrentHashMap<>();
+    private final List<UUID[]> chunks = new CopyOnWriteArrayList<>();
+    private final Map<String, JobCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private volatile UUID failOnce;
+
+    private InactiveUserSweeper sweeper;
+
+    @AfterEach
+    void tearDown() {
+        sweeper.shutdown();
+    }
+
+    @Test
+    void walksTheTableInChunksOfChunkSizeRows() {
+        addUsers(25);
+        sweeper = sweeper(Long.MAX_VALUE);
+
+        SweepReport report = sweeper.sweep();
+
+        assertEquals(25, report.scanned());
+        assertEquals(20, report.deactivated());
+        assertTrue(report.passCompleted());
+        List<String> bounds = chunks.stream().sorted(Comparator.comparing(chunk -> chunk[0], UNSIGNED))
+                .map(chunk -> chunk[0].getLeastSignificantBits() + ".." + chunk[1].getLeastSignificantBits())
+                .toList();
+        assertEquals(List.of("0..10", "10..20", "20..-1"), bounds);
+        dormant.forEach(id -> assertEquals(1, deactivations.get(id)));
+        assertEquals(20, deactivations.size());
+
+        JobCheckpoint checkpoint = checkpoints.get(InactiveUserSweeper.JOB_NAME);
+        assertNotNull(checkpoint.getPassCompletedAt());
+        assertEquals(25, checkpoint.getRowsScanned());
+        assertEquals(20, checkpoint.getRowsChanged());
+    }
+
+    @Test
+    void stopsNearThePerRunCapAndResumesFromTheCheckpoint() {
+        addUsers(100);
+        int cap = 25;
+        sweeper = sweeper(cap);
+
+        SweepReport first = sweeper.sweep();
+
+        assertFalse(first.passCompleted());
+        assertTrue(first.deactivated() >= cap, "Stopped early at " + first.deactivated());
+        // Only chunks already running when the cap is reached may add to it
+        assertTrue(first.deactivated() <= cap - 1 + PARALLELISM * CHUNK_SIZE, "Overshot to " + first.deactivated());
+        assertNotNull(checkpoints.get(InactiveUserSweeper.JOB_NAME).getPosition());
+
+        long total = first.deactivated();
+        for (int run = 0; run < 10 && total < dormant.size(); run++) {
+            SweepReport next = sweeper.sweep();
+            assertTrue(next.deactivated() <= cap - 1 + PARALLELISM * CHUNK_SIZE, "Overshot to " + next.deactivated());
+            total += next.deactivated();
+        }
+
+        assertEquals(dormant.size(), total);
+        assertEquals(dormant, deactivations.keySet());
+        deactivations.values().forEach(count -> assertEquals(1, count));
+    }
+
+    @Test
+    void resumesAfterAFailedChunkFromTheLastContiguousCommit() {
+        addUsers(50);
+        failOnce = new UUID(0, 34);
+        sweeper = sweeper(Long.MAX_VALUE);
+
+        SweepReport failed = sweeper.sweep();
+
+        assertFalse(failed.passCompleted());
+        JobCheckpoint checkpoint = checkpoints.get(InactiveUserSweeper.JOB_NAME);
+        assertTrue(checkpoint.getPosition() == null || UNSIGNED.compare(checkpoint.getPosition(), new UUID(0, 30)) <= 0,
+                "Checkpoint moved past the failed chunk to " + checkpoint.getPosition());
+        Instant cutoff = checkpoint.getCutoff();
+
+        SweepReport resumed = sweeper.sweep();
+
+        assertTrue(resumed.passCompleted());
+        assertEquals(cutoff, checkpoints.get(InactiveUserSweeper.JOB_NAME).getCutoff());
+        assertEquals(dormant, deactivations.keySet());
+    }
+
+    /**
+     * Users {@code 00..01} to {@code 00..n}; every fifth has logged in recently.
+     */
+    private void addUsers(int count) {
+        for (int i = 1; i <= count; i++) {
+            UUID id = new UUID(0, i);
+            users.put(id, true);
+            if (i % 5 != 0) {
+                dormant.add(id);
+            }
+        }
+    }
+
+    private InactiveUserSweeper sweeper(long maxChangesPerRun) {
+        return new InactiveUserSweeper(userRepository(), checkpointRepository(), mock(OutboxWriter.class),
+                mock(UserStatistics.class), new TransactionTemplate(new NoOpTransactionManager()), new ShardRouter(1),
+                new SimpleMeterRegistry(), Duration.ofDays(365), Duration.ofHours(24), CHUNK_SIZE, PARALLELISM,
+                1_000_000_000L, maxChangesPerRun);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserRepository userRepository() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findIdAfter(any(UUID.class), anyInt())).thenAnswer(call -> {
+            UUID after = call.getArgument(0);
+            int offset = call.getArgument(1);
+            return users.tailMap(after, false).keySet().stream().skip(offset).limit(1).toList();
+        });
+        when(repository.countIdsAfter(any(UUID.class)))
+                .thenAnswer(call -> (long) users.tailMap(call.getArgument(0), false).size());
+        when(repository.lockInactiveBetween(any(UUID.class), any(UUID.class), any(Instant.class))).thenAnswer(call -> {
+            UUID low = call.getArgument(0);
+            UUID high = call.getArgument(1);
+            chunks.add(new UUID[] { low, high });
+            List<UUID> eligible = new ArrayList<>();
+            users.subMap(low, false, high, true).forEach((id, active) -> {
+                if (active && dormant.contains(id)) {
+                    eligible.add(id);
+                }
+            });
+            return eligible;
+        });
+        when(repository.deactivateAll(any(Collection.class), any(Instant.class))).thenAnswer(call -> {
+            Collection<UUID> ids = call.getArgument(0);
+            UUID failing = failOnce;
+            if (failing != null && ids.contains(failing)) {
+                failOnce = null;
+                throw new IllegalStateException("connection reset");
+            }
+            ids.forEach(id -> {
+                users.put(id, false);
+                deactivations.merge(id, 1, Integer::sum);
+            });
+            return ids.size();
+        });
+        return repository;
+    }
+
+    private JobCheckpointRepository checkpointRepository() {
+        JobCheckpointRepository repository = mock(JobCheckpointRepository.class);
+        when(repository.findById(anyString()))
+                .thenAnswer(call -> Optional.ofNullable(checkpoints.get((String) call.getArgument(0))));
+        when(repository.save(any(JobCheckpoint.class))).thenAnswer(call -> {
+            JobCheckpoint checkpoint = call.getArgument(0);
+            checkpoints.put(checkpoint.getName(), checkpoint);
+            return checkpoint;
+        });
+        return repository;
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
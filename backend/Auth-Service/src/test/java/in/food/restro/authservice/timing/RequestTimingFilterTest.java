@@ -0,0 +1,36 @@
+package in.food.restro.authservice.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class RequestTimingFilterTest {
+
+    private final SlowRequestLog slowRequestLog = new SlowRequestLog(10);
+    private final RequestTimingFilter filter;
+
+    RequestTimingFilterTest() {
+        TimingProperties properties = new TimingProperties();
+        properties.setSlowThreshold(Duration.ZERO);
+        filter = new RequestTimingFilter(properties, slowRequestLog);
+    }
+
+    @Test
+    void recordsSlowRequestsByRoutePatternInsteadOfUri() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/email/jane@example.com");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.setAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/email/{email}"));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/phone/9876543210"),
+                new MockHttpServletResponse(), (req, res) -> { });
+
+        List<String> routes = slowRequestLog.snapshot().stream().map(SlowRequest::route).toList();
+        assertEquals(List.of("UNKNOWN", "/api/v1/users/email/{email}"), routes);
+    }
+}
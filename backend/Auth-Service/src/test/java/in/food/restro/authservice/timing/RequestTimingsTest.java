@@ -0,0 +1,49 @@
+package in.food.restro.authservice.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void endRequest() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void ignoresStagesOutsideOfARequest() {
+        assertEquals(0, RequestTimings.start());
+        RequestTimings.stop(Stage.DB, 0);
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void rendersEnteredStagesInOrder() {
+        RequestTimings timings = RequestTimings.begin();
+        timings.add(Stage.DB, TimeUnit.MICROSECONDS.toNanos(1500));
+        timings.add(Stage.DB, TimeUnit.MICROSECONDS.toNanos(250));
+        timings.add(Stage.POOL, 21_000);
+
+        String header = timings.toServerTiming();
+
+        assertTrue(header.startsWith("pool;dur=0.021;desc=\"Connection pool wait\", "
+                + "db;dur=1.750;desc=\"SQL execution (2)\", total;dur="), header);
+        assertEquals(3, timings.toMillis().size());
+        assertEquals(1.75, timings.toMillis().get("db"), 1e-9);
+    }
+
+    @Test
+    void addsTimedSectionsToTheCurrentRequest() {
+        RequestTimings timings = RequestTimings.begin();
+        long start = RequestTimings.start();
+        RequestTimings.stop(Stage.MAPPING, start);
+
+        assertTrue(timings.toServerTiming().startsWith("map;dur="));
+    }
+}
@@ -0,0 +1,191 @@
+package in.indian.food.restro.userservice.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.indian.food.restro.userservice.dtos.AuthUserDto;
+import in.indian.food.restro.userservice.exception.AuthServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * HTTP client for the Auth-Service user API.
+ * <p>
+ * Built to stay cheap and bounded when Auth-Service is slow or down:
+ * <ul>
+ * <li>One shared {@link HttpClient}, which keeps a pool of keep-alive HTTP/1.1 connections.</li>
+ * <li>Single-flight: concurrent lookups of the same user id share one request.</li>
+ * <li>A short-TTL near cache in front of user lookups.</li>
+ * <li>Connect and request timeouts on every call.</li>
+ * <li>A circuit breaker; while it is open or a call fails, the last known (stale) copy of the user is served.</li>
+ * <li>Per-call timers tagged by operation and outcome.</li>
+ * </ul>
+ * Configured through {@link AuthServiceClientProperties} ({@code auth-service.*}).
+ */
+@Component
+@EnableConfigurationProperties(AuthServiceClientProperties.class)
+public class AuthServiceClient {
+
+    private static final TypeReference<List<AuthUserDto>> USER_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<AuthUserDto> USER = new TypeReference<>() {
+    };
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final AuthServiceClientProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final SingleFlight<UUID, Optional<AuthUserDto>> userLookups = new SingleFlight<>();
+    private final ConcurrentHashMap<UUID, CachedUser> nearCache = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHits;
+    private final Counter coalescedCalls;
+    private final Counter staleFallbacks;
+
+    public AuthServiceClient(ObjectMapper objectMapper, AuthServiceClientProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        this.circuitBreaker = new CircuitBreaker(properties.getBreakerFailureThreshold(), properties.getBreakerOpenDuration());
+        this.cacheHits = Counter.builder("userservice.authclient.cache.hits").register(meterRegistry);
+        this.coalescedCalls = Counter.builder("userservice.authclient.coalesced").register(meterRegistry);
+        this.staleFallbacks = Counter.builder("userservice.authclient.stale.fallbacks").register(meterRegistry);
+        Gauge.builder("userservice.authclient.breaker.open", circuitBreaker,
+                breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches one page of users ordered by id.
+     *
+     * @param page Page number, 0-based.
+     * @param size Page size.
+     * @return The users of the page; fewer than {@code size} on the last page.
+     */
+    public List<AuthUserDto> fetchUsers(int page, int size) {
+        return call("list", "/api/v1/users/all?page=" + page + "&size=" + size + "&sortBy=id&sortDir=asc", USER_LIST)
+                .orElse(List.of());
+    }
+
+    /**
+     * Looks up a single user.
+     *
+     * @param id The user id.
+     * @return The user, or empty if Auth-Service does not know it.
+     * @throws AuthServiceException If Auth-Service is unavailable and no earlier copy of the user is cached.
+     */
+    public Optional<AuthUserDto> fetchUser(UUID id) {
+        long now = System.nanoTime();
+        CachedUser cached = nearCache.get(id);
+        if (cached != null && now - cached.fetchedAt() < properties.getCacheTtl().toNanos()) {
+            cacheHits.increment();
+            return cached.user();
+        }
+        try {
+            Optional<AuthUserDto> user = userLookups.execute(id,
+                    () -> call("get", "/api/v1/users/" + id, USER), coalescedCalls::increment);
+            cache(id, user);
+            return user;
+        } catch (AuthServiceException ex) {
+            if (cached != null && now - cached.fetchedAt() < properties.getStaleTtl().toNanos()) {
+                staleFallbacks.increment();
+                return cached.user();
+            }
+            throw ex;
+        }
+    }
+
+    public CircuitBreaker.State breakerState() {
+        return circuitBreaker.state();
+    }
+
+    private void cache(UUID id, Optional<AuthUserDto> user) {
+        if (nearCache.size() >= properties.getCacheMaxEntries()) {
+            long staleBefore = System.nanoTime() - properties.getStaleTtl().toNanos();
+            nearCache.values().removeIf(entry -> entry.fetchedAt() < staleBefore);
+            if (nearCache.size() >= properties.getCacheMaxEntries()) {
+                nearCache.clear();
+            }
+        }
+        nearCache.put(id, new CachedUser(user, System.nanoTime()));
+    }
+
+    /**
+     * Performs a GET guarded by the circuit breaker. 404 is a valid answer (empty result)
+     * and does not count as a failure.
+     */
+    private <T> Optional<T> call(String operation, String path, TypeReference<T> type) {
+        if (!circuitBreaker.tryAcquire()) {
+            record(operation, "rejected", 0);
+            throw new AuthServiceException("Circuit breaker open, not calling Auth-Service for " + path);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(properties.getBaseUrl() + path))
+                .timeout(properties.getTimeout())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                circuitBreaker.onSuccess();
+                record(operation, "not_found", start);
+                return Optional.empty();
+            }
+            if (response.statusCode() != 200) {
+                throw new AuthServiceException("Auth-Service answered " + response.statusCode() + " for " + path);
+            }
+            T body = objectMapper.readValue(response.body(), type);
+            circuitBreaker.onSuccess();
+            record(operation, "success", start);
+            return Optional.of(body);
+        } catch (AuthServiceException ex) {
+            failed(operation, start);
+            throw ex;
+        } catch (IOException ex) {
+            failed(operation, start);
+            throw new AuthServiceException("Auth-Service call failed for " + path, ex);
+        } catch (InterruptedException ex) {
+            failed(operation, start);
+            Thread.currentThread().interrupt();
+            throw new AuthServiceException("Interrupted while calling Auth-Service for " + path, ex);
+        }
+    }
+
+    private void failed(String operation, long start) {
+        circuitBreaker.onFailure();
+        record(operation, "error", start);
+    }
+
+    private void record(String operation, String outcome, long start) {
+        Timer.builder("userservice.authclient.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(start == 0 ? 0 : System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private record CachedUser(Optional<AuthUserDto> user, long fetchedAt) {
+    }
+}
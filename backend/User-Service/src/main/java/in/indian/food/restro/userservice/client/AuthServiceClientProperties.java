@@ -0,0 +1,38 @@
+package in.indian.food.restro.userservice.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of {@link AuthServiceClient}, bound from {@code auth-service.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth-service")
+public class AuthServiceClientProperties {
+
+    private String baseUrl = "http://localhost:9091";
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /** Per-request timeout, including waiting for the response body. */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /** How long a fetched user is served from the near cache without calling Auth-Service. */
+    private Duration cacheTtl = Duration.ofSeconds(2);
+
+    /** How long an expired entry is still kept as fallback while Auth-Service is failing. */
+    private Duration staleTtl = Duration.ofMinutes(10);
+
+    private int cacheMaxEntries = 10_000;
+
+    /** Consecutive failures that open the circuit breaker. */
+    private int breakerFailureThreshold = 5;
+
+    /** How long the breaker stays open before letting a trial call through. */
+    private Duration breakerOpenDuration = Duration.ofSeconds(10);
+}
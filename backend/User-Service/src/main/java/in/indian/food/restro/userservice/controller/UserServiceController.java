@@ -1,16 +1,105 @@
 package in.indian.food.restro.userservice.controller;
 
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import in.indian.food.restro.userservice.dtos.SyncStatus;
+import in.indian.food.restro.userservice.dtos.UserChangeEvent;
+import in.indian.food.restro.userservice.entities.User;
+import in.indian.food.restro.userservice.exception.AuthServiceException;
 import in.indian.food.restro.userservice.service.UserService;
+import in.indian.food.restro.userservice.service.UserSyncService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+/**
+ * User profile endpoints served from the local read model.
+ * <p>
+ * Every read carries the {@code X-Read-Model-Sequence} header: the highest Auth-Service
+ * change applied when the response was produced.
+ */
 @RestController
 @RequestMapping("/indianfoodrestro/users")
 public class UserServiceController {
 
+    static final String WATERMARK_HEADER = "X-Read-Model-Sequence";
+    static final String BEARER = "Bearer ";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserSyncService userSyncService;
+
+    /** Shared with the Auth-Service webhook sink; pushed events are refused while it is unset. */
+    @Value("${user-sync.webhook-token:}")
+    private String webhookToken;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getUserById(@PathVariable UUID id) {
+        return withWatermark(userService.getUserById(id));
+    }
+
+    @GetMapping("/username/{username}")
+    public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
+        return withWatermark(userService.getUserByUsername(username));
+    }
+
+    /**
+     * Freshness of the read model: bulk sync state and last applied change.
+     */
+    @GetMapping("/sync/status")
+    public ResponseEntity<SyncStatus> getSyncStatus() {
+        return ResponseEntity.ok(userSyncService.status());
+    }
+
+    /**
+     * Receives change events from the Auth-Service outbox webhook, which authenticates with
+     * the shared token as a bearer token.
+     */
+    @PostMapping("/sync/events")
+    public ResponseEntity<Void> receiveChangeEvents(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody List<UserChangeEvent> events) {
+        if (!isWebhookToken(authorization)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        userSyncService.apply(events);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(AuthServiceException.class)
+    public ResponseEntity<Void> handleAuthServiceUnavailable(AuthServiceException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    private boolean isWebhookToken(String authorization) {
+        if (webhookToken == null || webhookToken.isBlank()
+                || authorization == null || !authorization.startsWith(BEARER)) {
+            return false;
+        }
+        return MessageDigest.isEqual(webhookToken.getBytes(StandardCharsets.UTF_8),
+                authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ResponseEntity<User> withWatermark(Optional<User> user) {
+        String watermark = String.valueOf(userSyncService.status().getLastSequence());
+        return user.map(found -> ResponseEntity.ok().header(WATERMARK_HEADER, watermark).body(found))
+                .orElseGet(() -> ResponseEntity.notFound().header(WATERMARK_HEADER, watermark).build());
+    }
 }
@@ -0,0 +1,62 @@
+package in.indian.food.restro.userservice.dtos;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * User as returned by Auth-Service, both from {@code /api/v1/users/all} and inside change events.
+ * Fields not needed by the read model (such as the password) are ignored.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AuthUserDto {
+    private UUID id;
+    private String username;
+    private String email;
+    private boolean active;
+    private String phoneNumber;
+    private String dob;
+    private String gender;
+    private String profileImage;
+    private Address address;
+    private String firstName;
+    private String middleName;
+    private String lastName;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant lastLoginAt;
+    private String provider;
+    private Set<Role> roles;
+    /** Auth-Service change version of the user when read; 0 from an Auth-Service that does not report it. */
+    private long changeVersion;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Address {
+        private String street;
+        private String city;
+        private String state;
+        private String country;
+        private String zipCode;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Role {
+        private UUID id;
+        private String name;
+    }
+}
@@ -0,0 +1,26 @@
+package in.indian.food.restro.userservice.dtos;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Freshness watermark of the local user read model.
+ */
+@Getter
+@AllArgsConstructor
+public class SyncStatus {
+    /** Whether the initial bulk sync has completed. */
+    private boolean bootstrapped;
+    /** When the last bulk sync completed. */
+    private Instant bootstrappedAt;
+    /** Highest Auth-Service outbox sequence applied. */
+    private long lastSequence;
+    /** When the change behind {@code lastSequence} happened in Auth-Service. */
+    private Instant lastEventOccurredAt;
+    /** When the last change event was applied locally. */
+    private Instant lastEventAppliedAt;
+    /** Number of users held. */
+    private int users;
+}
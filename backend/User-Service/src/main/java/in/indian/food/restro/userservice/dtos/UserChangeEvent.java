@@ -0,0 +1,39 @@
+package in.indian.food.restro.userservice.dtos;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Change event pushed by the Auth-Service outbox webhook.
+ * {@code user} holds the state after the change; bulk role changes leave it empty and
+ * only carry the {@code role} that was assigned or removed, bulk status changes such as the
+ * inactive-account sweep only carry their type.
+ * <p>
+ * {@code sequence} is the outbox id and only identifies the event; {@code version} is the
+ * user's change version after it and orders the events of one user.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserChangeEvent {
+    public static final String DELETED = "DELETED";
+    public static final String ROLE_ASSIGNED = "ROLE_ASSIGNED";
+    public static final String ROLE_REMOVED = "ROLE_REMOVED";
+    public static final String ACTIVATED = "ACTIVATED";
+    public static final String DEACTIVATED = "DEACTIVATED";
+
+    private long sequence;
+    private long version;
+    private String type;
+    private UUID userId;
+    private Instant occurredAt;
+    private String role;
+    private AuthUserDto user;
+}
@@ -0,0 +1,18 @@
+package in.indian.food.restro.userservice.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Address {
+    private String street;
+    private String city;
+    private String state;
+    private String country;
+    private String zipCode;
+}
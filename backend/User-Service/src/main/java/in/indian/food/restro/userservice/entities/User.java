@@ -1,4 +1,46 @@
 package in.indian.food.restro.userservice.entities;
 
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Locally held, denormalized copy of a user owned by Auth-Service.
+ * <p>
+ * Instances are immutable once stored: every change from Auth-Service replaces the whole
+ * entry, so readers never observe a half-applied update.
+ */
+@Getter
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class User {
+    private UUID id;
+    private String username;
+    private String email;
+    private String phoneNumber;
+    private String firstName;
+    private String middleName;
+    private String lastName;
+    private String gender;
+    private String dob;
+    private String profileImage;
+    private boolean active;
+    private String provider;
+    private Address address;
+    private Set<String> roles;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant lastLoginAt;
+
+    /**
+     * Auth-Service change version of the user after the last applied change or as read by the
+     * bulk sync; 0 when the bulk sync got no version.
+     */
+    private long version;
 }
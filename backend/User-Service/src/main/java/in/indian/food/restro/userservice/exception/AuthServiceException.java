@@ -0,0 +1,15 @@
+package in.indian.food.restro.userservice.exception;
+
+/**
+ * Thrown when Auth-Service cannot be reached or answers with an error.
+ */
+public class AuthServiceException extends RuntimeException {
+
+    public AuthServiceException(String message) {
+        super(message);
+    }
+
+    public AuthServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,147 @@
+package in.indian.food.restro.userservice.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Repository;
+
+import in.indian.food.restro.userservice.entities.User;
+
+/**
+ * In-memory store of the user read model.
+ * <p>
+ * Writes are last-writer-wins on the change order: an entry is only replaced by a newer
+ * one, so redelivered or late events and bulk-sync pages that race with live events
+ * never roll a user back. Deleted users leave a tombstone so a bulk-sync page read
+ * before the deletion cannot resurrect them.
+ */
+@Repository
+public class UserReadModelRepository {
+
+    private final ConcurrentHashMap<UUID, User> usersById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UUID> idsByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Instant> tombstones = new ConcurrentHashMap<>();
+
+    public Optional<User> findById(UUID id) {
+        return Optional.ofNullable(usersById.get(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        UUID id = idsByUsername.get(username);
+        return Optional.ofNullable(id == null ? null : usersById.get(id))
+                .filter(user -> username.equals(user.getUsername()));
+    }
+
+    public int count() {
+        return usersById.size();
+    }
+
+    /**
+     * Stores the user unless a newer version is already held or the user was deleted. The
+     * username index is moved inside the same per-user update, so two versions of one user
+     * stored concurrently cannot leave the index pointing at a name the user no longer has.
+     *
+     * @return true if the given version was stored.
+     */
+    public boolean upsert(User candidate) {
+        boolean[] stored = new boolean[1];
+        usersById.compute(candidate.getId(), (id, existing) -> {
+            if (tombstones.containsKey(id) || existing != null && !isNewer(candidate, existing)) {
+                return existing;
+            }
+            if (existing != null && existing.getUsername() != null
+                    && !existing.getUsername().equals(candidate.getUsername())) {
+                idsByUsername.remove(existing.getUsername(), id);
+            }
+            if (candidate.getUsername() != null) {
+                idsByUsername.put(candidate.getUsername(), id);
+            }
+            stored[0] = true;
+            return candidate;
+        });
+        return stored[0];
+    }
+
+    public void delete(UUID id) {
+        tombstones.put(id, Instant.now());
+        usersById.computeIfPresent(id, (key, removed) -> {
+            if (removed.getUsername() != null) {
+                idsByUsername.remove(removed.getUsername(), key);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Adds or removes a role on a held user, for change events that carry no user snapshot.
+     * Users not held yet are skipped; they arrive with their roles through the bulk sync.
+     *
+     * @return true if the user's roles were changed.
+     */
+    public boolean changeRole(UUID id, String role, boolean assigned, long version) {
+        boolean[] changed = new boolean[1];
+        usersById.computeIfPresent(id, (key, existing) -> {
+            if (existing.getVersion() >= version) {
+                return existing;
+            }
+            Set<String> roles = new HashSet<>(existing.getRoles() == null ? Set.of() : existing.getRoles());
+            if (assigned) {
+                roles.add(role);
+            } else {
+                roles.remove(role);
+            }
+            changed[0] = true;
+            return existing.toBuilder().roles(Set.copyOf(roles)).version(version).build();
+        });
+        return changed[0];
+    }
+
+    /**
+     * Activates or deactivates a held user, for change events that carry no user snapshot.
+     * Users not held yet are skipped; they arrive with their status through the bulk sync.
+     *
+     * @return true if the user's status was changed.
+     */
+    public boolean changeStatus(UUID id, boolean active, long version) {
+        boolean[] changed = new boolean[1];
+        usersById.computeIfPresent(id, (key, existing) -> {
+            if (existing.getVersion() >= version) {
+                return existing;
+            }
+            changed[0] = true;
+            return existing.toBuilder().active(active).version(version).build();
+        });
+        return changed[0];
+    }
+
+    /**
+     * Drops tombstones older than the given age.
+     */
+    public void pruneTombstones(Duration maxAge) {
+        Instant threshold = Instant.now().minus(maxAge);
+        tombstones.entrySet().removeIf(entry -> entry.getValue().isBefore(threshold));
+    }
+
+    /**
+     * Orders by change version where both sides have one. An unversioned snapshot only replaces
+     * a versioned entry when it was updated strictly later: role and status changes do not touch
+     * {@code updatedAt}, so a snapshot with the same timestamp may predate them.
+     */
+    private static boolean isNewer(User candidate, User existing) {
+        if (candidate.getVersion() > 0 && existing.getVersion() > 0) {
+            return candidate.getVersion() > existing.getVersion();
+        }
+        if (candidate.getUpdatedAt() == null || existing.getUpdatedAt() == null) {
+            return candidate.getVersion() >= existing.getVersion();
+        }
+        if (candidate.getVersion() == 0 && existing.getVersion() > 0) {
+            return candidate.getUpdatedAt().isAfter(existing.getUpdatedAt());
+        }
+        return !candidate.getUpdatedAt().isBefore(existing.getUpdatedAt());
+    }
+}
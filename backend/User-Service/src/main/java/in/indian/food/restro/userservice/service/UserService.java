@@ -1,9 +1,43 @@
 package in.indian.food.restro.userservice.service;
 
-import org.springframework.stereotype.Service;
+import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
 
+import in.indian.food.restro.userservice.client.AuthServiceClient;
+import in.indian.food.restro.userservice.entities.User;
+import in.indian.food.restro.userservice.repository.UserReadModelRepository;
 
+/**
+ * Serves user profile data from the local read model.
+ * <p>
+ * Only a miss by id (a user created moments ago, or a lookup before the bulk sync has
+ * finished) reads through to Auth-Service, via the coalescing and caching {@link AuthServiceClient}.
+ */
 @Service
 public class UserService {
+
+    @Autowired
+    private UserReadModelRepository userReadModelRepository;
+
+    @Autowired
+    private AuthServiceClient authServiceClient;
+
+    public Optional<User> getUserById(UUID id) {
+        Optional<User> local = userReadModelRepository.findById(id);
+        if (local.isPresent()) {
+            return local;
+        }
+        return authServiceClient.fetchUser(id).map(dto -> {
+            User user = UserSyncService.toUser(dto, 0);
+            userReadModelRepository.upsert(user);
+            return user;
+        });
+    }
+
+    public Optional<User> getUserByUsername(String username) {
+        return userReadModelRepository.findByUsername(username);
+    }
 }
@@ -0,0 +1,182 @@
+package in.indian.food.restro.userservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import in.indian.food.restro.userservice.client.AuthServiceClient;
+import in.indian.food.restro.userservice.dtos.AuthUserDto;
+import in.indian.food.restro.userservice.dtos.SyncStatus;
+import in.indian.food.restro.userservice.dtos.UserChangeEvent;
+import in.indian.food.restro.userservice.entities.Address;
+import in.indian.food.restro.userservice.entities.User;
+import in.indian.food.restro.userservice.repository.UserReadModelRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the local user read model in sync with Auth-Service.
+ * <p>
+ * On startup the whole user table is copied page by page ({@link #bootstrap()}); afterwards
+ * the model is kept current by change events pushed from the Auth-Service outbox
+ * ({@link #apply(List)}). Both paths may overlap: the repository only ever keeps the newest
+ * version of each user, so the order in which pages and events arrive does not matter.
+ */
+@Service
+@Slf4j
+public class UserSyncService {
+
+    private final UserReadModelRepository repository;
+    private final AuthServiceClient authServiceClient;
+    private final int pageSize;
+    private final boolean bootstrapOnStartup;
+    private final Duration retryDelay;
+
+    private final AtomicLong lastSequence = new AtomicLong();
+    private volatile Instant lastEventOccurredAt;
+    private volatile Instant lastEventAppliedAt;
+    private volatile Instant bootstrappedAt;
+
+    public UserSyncService(UserReadModelRepository repository, AuthServiceClient authServiceClient,
+            @Value("${user-sync.page-size:500}") int pageSize,
+            @Value("${user-sync.bootstrap-on-startup:true}") boolean bootstrapOnStartup,
+            @Value("${user-sync.retry-delay:10s}") Duration retryDelay) {
+        this.repository = repository;
+        this.authServiceClient = authServiceClient;
+        this.pageSize = pageSize;
+        this.bootstrapOnStartup = bootstrapOnStartup;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrapInBackground() {
+        if (!bootstrapOnStartup) {
+            return;
+        }
+        Thread.ofVirtual().name("user-sync-bootstrap").start(() -> {
+            while (bootstrappedAt == null && !Thread.currentThread().isInterrupted()) {
+                try {
+                    bootstrap();
+                } catch (RuntimeException ex) {
+                    log.warn("Sync: Bulk sync failed, retrying in {}: {}", retryDelay, ex.getMessage());
+                    try {
+                        Thread.sleep(retryDelay);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Copies every user from Auth-Service into the read model.
+     *
+     * @return Number of users fetched.
+     */
+    public synchronized int bootstrap() {
+        long start = System.nanoTime();
+        int fetched = 0;
+        for (int page = 0; ; page++) {
+            List<AuthUserDto> users = authServiceClient.fetchUsers(page, pageSize);
+            users.forEach(user -> repository.upsert(toUser(user, user.getChangeVersion())));
+            fetched += users.size();
+            if (users.size() < pageSize) {
+                break;
+            }
+        }
+        bootstrappedAt = Instant.now();
+        log.info("Sync: Bulk sync fetched {} users in {} ms", fetched, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return fetched;
+    }
+
+    /**
+     * Applies a batch of change events. Redelivered and out-of-date events are ignored.
+     *
+     * @return Number of events that changed the read model.
+     */
+    public int apply(List<UserChangeEvent> events) {
+        int applied = 0;
+        for (UserChangeEvent event : events) {
+            if (UserChangeEvent.DELETED.equals(event.getType())) {
+                repository.delete(event.getUserId());
+                applied++;
+            } else if (event.getUser() != null) {
+                if (repository.upsert(toUser(event.getUser(), event.getVersion()))) {
+                    applied++;
+                }
+            } else if (event.getRole() != null && isRoleChange(event.getType())
+                    && repository.changeRole(event.getUserId(), event.getRole(),
+                            UserChangeEvent.ROLE_ASSIGNED.equals(event.getType()), event.getVersion())) {
+                applied++;
+            } else if (isStatusChange(event.getType()) && repository.changeStatus(event.getUserId(),
+                    UserChangeEvent.ACTIVATED.equals(event.getType()), event.getVersion())) {
+                applied++;
+            }
+            if (lastSequence.accumulateAndGet(event.getSequence(), Math::max) == event.getSequence()) {
+                lastEventOccurredAt = event.getOccurredAt();
+            }
+        }
+        lastEventAppliedAt = Instant.now();
+        log.debug("Sync: Applied {} of {} change events", applied, events.size());
+        return applied;
+    }
+
+    private static boolean isRoleChange(String type) {
+        return UserChangeEvent.ROLE_ASSIGNED.equals(type) || UserChangeEvent.ROLE_REMOVED.equals(type);
+    }
+
+    private static boolean isStatusChange(String type) {
+        return UserChangeEvent.ACTIVATED.equals(type) || UserChangeEvent.DEACTIVATED.equals(type);
+    }
+
+    public SyncStatus status() {
+        return new SyncStatus(bootstrappedAt != null, bootstrappedAt, lastSequence.get(),
+                lastEventOccurredAt, lastEventAppliedAt, repository.count());
+    }
+
+    @Scheduled(fixedDelayString = "${user-sync.tombstone-prune-interval:600000}")
+    public void pruneTombstones() {
+        repository.pruneTombstones(Duration.ofHours(1));
+    }
+
+    static User toUser(AuthUserDto dto, long version) {
+        AuthUserDto.Address address = dto.getAddress();
+        Set<String> roles = dto.getRoles() == null ? Set.of()
+                : dto.getRoles().stream().map(AuthUserDto.Role::getName).collect(Collectors.toUnmodifiableSet());
+        return User.builder()
+                .id(dto.getId())
+                .username(dto.getUsername())
+                .email(dto.getEmail())
+                .phoneNumber(dto.getPhoneNumber())
+                .firstName(dto.getFirstName())
+                .middleName(dto.getMiddleName())
+                .lastName(dto.getLastName())
+                .gender(dto.getGender())
+                .dob(dto.getDob())
+                .profileImage(dto.getProfileImage())
+                .active(dto.isActive())
+                .provider(dto.getProvider())
+                .address(address == null ? null : Address.builder()
+                        .street(address.getStreet())
+                        .city(address.getCity())
+                        .state(address.getState())
+                        .country(address.getCountry())
+                        .zipCode(address.getZipCode())
+                        .build())
+                .roles(roles)
+                .createdAt(dto.getCreatedAt())
+                .updatedAt(dto.getUpdatedAt())
+                .lastLoginAt(dto.getLastLoginAt())
+                .version(version)
+                .build();
+    }
+}
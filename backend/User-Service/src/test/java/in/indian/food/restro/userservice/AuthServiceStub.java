@@ -0,0 +1,138 @@
+package in.indian.food.restro.userservice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal in-process stand-in for Auth-Service, serving {@code /api/v1/users/all} and
+ * {@code /api/v1/users/{id}} from an in-memory list of users. Latency and error responses
+ * can be injected to exercise the client's timeouts and circuit breaker.
+ */
+public class AuthServiceStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper;
+    private final List<Map<String, Object>> users = new ArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger userRequests = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int failWithStatus;
+
+    public AuthServiceStub(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/users/all", this::handleAll);
+        server.createContext("/api/v1/users/", this::handleUser);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public synchronized void addUser(Map<String, Object> user) {
+        users.add(user);
+    }
+
+    /** Delays every response by the given duration. */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /** Answers every request with the given status; 0 restores normal responses. */
+    public void setFailWithStatus(int status) {
+        this.failWithStatus = status;
+    }
+
+    /** Number of single-user lookups received. */
+    public int userRequests() {
+        return userRequests.get();
+    }
+
+    private void handleUser(HttpExchange exchange) throws IOException {
+        userRequests.incrementAndGet();
+        if (injectFaults(exchange)) {
+            return;
+        }
+        String id = exchange.getRequestURI().getPath().substring("/api/v1/users/".length());
+        Map<String, Object> user;
+        synchronized (this) {
+            user = users.stream().filter(u -> id.equals(u.get("id"))).findFirst().orElse(null);
+        }
+        if (user == null) {
+            respond(exchange, 404, new byte[0]);
+        } else {
+            respond(exchange, 200, objectMapper.writeValueAsBytes(user));
+        }
+    }
+
+    private boolean injectFaults(HttpExchange exchange) throws IOException {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failWithStatus != 0) {
+            respond(exchange, failWithStatus, new byte[0]);
+            return true;
+        }
+        return false;
+    }
+
+    private void handleAll(HttpExchange exchange) throws IOException {
+        if (injectFaults(exchange)) {
+            return;
+        }
+        Map<String, String> query = query(exchange.getRequestURI());
+        int page = Integer.parseInt(query.getOrDefault("page", "0"));
+        int size = Integer.parseInt(query.getOrDefault("size", "10"));
+        List<Map<String, Object>> slice;
+        synchronized (this) {
+            int from = Math.min(users.size(), page * size);
+            slice = new ArrayList<>(users.subList(from, Math.min(users.size(), from + size)));
+        }
+        respond(exchange, 200, objectMapper.writeValueAsBytes(slice));
+    }
+
+    protected void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String pair : uri.getRawQuery().split("&")) {
+                String[] kv = pair.split("=", 2);
+                params.put(kv[0], kv.length > 1 ? kv[1] : "");
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,121 @@
+package in.indian.food.restro.userservice.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import in.indian.food.restro.userservice.AuthServiceStub;
+import in.indian.food.restro.userservice.dtos.AuthUserDto;
+import in.indian.food.restro.userservice.exception.AuthServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthServiceClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID userId = UUID.randomUUID();
+
+    private AuthServiceStub authService;
+    private AuthServiceClientProperties properties;
+    private AuthServiceClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authService = new AuthServiceStub(objectMapper);
+        authService.addUser(Map.of("id", userId.toString(), "username", "carol", "active", true));
+        properties = new AuthServiceClientProperties();
+        properties.setBaseUrl(authService.baseUrl());
+        properties.setTimeout(Duration.ofMillis(500));
+        properties.setCacheTtl(Duration.ofMillis(50));
+        properties.setBreakerFailureThreshold(3);
+        properties.setBreakerOpenDuration(Duration.ofMillis(200));
+        client = new AuthServiceClient(objectMapper, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        authService.close();
+    }
+
+    @Test
+    void concurrentLookupsOfTheSameUserShareOneRequest() throws Exception {
+        authService.setLatency(Duration.ofMillis(200));
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<AuthUserDto>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return client.fetchUser(userId);
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<AuthUserDto>> result : results) {
+                assertEquals("carol", result.get().orElseThrow().getUsername());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, authService.userRequests());
+    }
+
+    @Test
+    void nearCacheAnswersWithinTtl() {
+        client.fetchUser(userId);
+        client.fetchUser(userId);
+        assertEquals(1, authService.userRequests());
+    }
+
+    @Test
+    void unknownUserIsEmptyAndNotAFailure() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(client.fetchUser(UUID.randomUUID()).isEmpty());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.breakerState());
+    }
+
+    @Test
+    void failuresOpenTheBreakerAndStaleCopyIsServed() throws Exception {
+        client.fetchUser(userId);
+        Thread.sleep(60);
+        authService.setFailWithStatus(503);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("carol", client.fetchUser(userId).orElseThrow().getUsername());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.breakerState());
+        int requestsWhenOpened = authService.userRequests();
+
+        assertEquals("carol", client.fetchUser(userId).orElseThrow().getUsername());
+        assertEquals(requestsWhenOpened, authService.userRequests());
+        assertThrows(AuthServiceException.class, () -> client.fetchUser(UUID.randomUUID()));
+
+        authService.setFailWithStatus(0);
+        Thread.sleep(250);
+        client.fetchUser(userId);
+        assertEquals(CircuitBreaker.State.CLOSED, client.breakerState());
+    }
+
+    @Test
+    void slowResponsesTimeOut() {
+        authService.setLatency(Duration.ofSeconds(2));
+        assertThrows(AuthServiceException.class, () -> client.fetchUser(userId));
+    }
+}
@@ -0,0 +1,58 @@
+package in.indian.food.restro.userservice.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import in.indian.food.restro.userservice.service.UserSyncService;
+
+class UserServiceControllerTest {
+
+    private static final String EVENTS = "/indianfoodrestro/users/sync/events";
+
+    private final UserSyncService userSyncService = mock(UserSyncService.class);
+
+    @Test
+    void pushedEventsNeedTheWebhookToken() throws Exception {
+        MockMvc mockMvc = mockMvc("s3cret");
+
+        mockMvc.perform(events()).andExpect(status().isUnauthorized());
+        mockMvc.perform(events().header(HttpHeaders.AUTHORIZATION, "Bearer wrong")).andExpect(status().isUnauthorized());
+        mockMvc.perform(events().header(HttpHeaders.AUTHORIZATION, "s3cret")).andExpect(status().isUnauthorized());
+        verify(userSyncService, never()).apply(anyList());
+
+        mockMvc.perform(events().header(HttpHeaders.AUTHORIZATION, "Bearer s3cret")).andExpect(status().isNoContent());
+        verify(userSyncService, times(1)).apply(anyList());
+    }
+
+    @Test
+    void pushedEventsAreRefusedWithoutAConfiguredToken() throws Exception {
+        MockMvc mockMvc = mockMvc("");
+
+        mockMvc.perform(events().header(HttpHeaders.AUTHORIZATION, "Bearer ")).andExpect(status().isUnauthorized());
+        verify(userSyncService, never()).apply(anyList());
+    }
+
+    private MockMvc mockMvc(String webhookToken) {
+        UserServiceController controller = new UserServiceController();
+        ReflectionTestUtils.setField(controller, "userSyncService", userSyncService);
+        ReflectionTestUtils.setField(controller, "webhookToken", webhookToken);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static MockHttpServletRequestBuilder events() {
+        return post(EVENTS).contentType(MediaType.APPLICATION_JSON).content("[]");
+    }
+}
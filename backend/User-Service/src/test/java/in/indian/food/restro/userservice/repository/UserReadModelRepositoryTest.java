@@ -0,0 +1,85 @@
+package in.indian.food.restro.userservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Set;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import in.indian.food.restro.userservice.entities.User;
+
+class UserReadModelRepositoryTest {
+
+    private static final int VERSIONS = 200;
+
+    private final UserReadModelRepository repository = new UserReadModelRepository();
+
+    @Test
+    void renamesStoredConcurrentlyKeepTheNewestNameFindable() {
+        for (int round = 0; round < 50; round++) {
+            UUID id = UUID.randomUUID();
+            String even = "even-" + round;
+            String odd = "odd-" + round;
+
+            // The user switches back and forth between two names, one version after the other
+            IntStream.rangeClosed(1, VERSIONS).parallel()
+                    .forEach(version -> repository.upsert(user(id, version % 2 == 0 ? even : odd, version)));
+
+            assertEquals(even, repository.findById(id).orElseThrow().getUsername());
+            assertEquals(id, repository.findByUsername(even).orElseThrow().getId());
+            assertFalse(repository.findByUsername(odd).isPresent());
+        }
+    }
+
+    @Test
+    void deletedUsersAreNotStoredAgain() {
+        UUID id = UUID.randomUUID();
+        repository.upsert(user(id, "erin", 1));
+
+        repository.delete(id);
+
+        assertFalse(repository.upsert(user(id, "erin", 2)));
+        assertFalse(repository.findById(id).isPresent());
+        assertFalse(repository.findByUsername("erin").isPresent());
+    }
+
+    @Test
+    void unversionedSnapshotsDoNotUndoLaterRoleChanges() {
+        UUID id = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2026-01-01T00:00:00Z");
+        repository.upsert(user(id, "frank", 1).toBuilder().updatedAt(updatedAt).roles(Set.of("CUSTOMER")).build());
+        repository.changeRole(id, "ADMIN", true, 2);
+
+        // A bulk-sync page read before the grant: the grant did not move updatedAt
+        User page = user(id, "frank", 0).toBuilder().updatedAt(updatedAt).roles(Set.of("CUSTOMER")).build();
+        assertFalse(repository.upsert(page));
+
+        User held = repository.findById(id).orElseThrow();
+        assertEquals(Set.of("CUSTOMER", "ADMIN"), held.getRoles());
+        assertEquals(2, held.getVersion());
+
+        // One read after a later profile change still gets in
+        assertTrue(repository.upsert(page.toBuilder().updatedAt(updatedAt.plusSeconds(1)).build()));
+    }
+
+    @Test
+    void versionedSnapshotsAreOrderedByVersion() {
+        UUID id = UUID.randomUUID();
+        repository.upsert(user(id, "grace", 3));
+
+        assertFalse(repository.upsert(user(id, "stale", 2)));
+        assertFalse(repository.upsert(user(id, "same", 3)));
+        assertTrue(repository.upsert(user(id, "newer", 4)));
+        assertEquals("newer", repository.findById(id).orElseThrow().getUsername());
+    }
+
+    private static User user(UUID id, String username, long version) {
+        return User.builder().id(id).username(username).version(version).build();
+    }
+}
@@ -0,0 +1,179 @@
+package in.indian.food.restro.userservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import in.indian.food.restro.userservice.AuthServiceStub;
+import in.indian.food.restro.userservice.client.AuthServiceClient;
+import in.indian.food.restro.userservice.client.AuthServiceClientProperties;
+import in.indian.food.restro.userservice.dtos.AuthUserDto;
+import in.indian.food.restro.userservice.dtos.UserChangeEvent;
+import in.indian.food.restro.userservice.repository.UserReadModelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserSyncServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private AuthServiceStub authService;
+    private UserReadModelRepository repository;
+    private UserSyncService syncService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authService = new AuthServiceStub(objectMapper);
+        repository = new UserReadModelRepository();
+        AuthServiceClientProperties properties = new AuthServiceClientProperties();
+        properties.setBaseUrl(authService.baseUrl());
+        AuthServiceClient client = new AuthServiceClient(objectMapper, properties, new SimpleMeterRegistry());
+        syncService = new UserSyncService(repository, client, 2, false, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        authService.close();
+    }
+
+    @Test
+    void bootstrapCopiesAllPages() {
+        for (int i = 0; i < 5; i++) {
+            authService.addUser(user(UUID.randomUUID(), "user" + i, Instant.parse("2026-01-01T00:00:00Z")));
+        }
+
+        assertEquals(5, syncService.bootstrap());
+        assertEquals(5, syncService.status().getUsers());
+        assertTrue(syncService.status().isBootstrapped());
+        assertTrue(repository.findByUsername("user3").isPresent());
+    }
+
+    @Test
+    void eventsReplaceOlderStateAndStaleEventsAreIgnored() {
+        UUID id = UUID.randomUUID();
+        authService.addUser(user(id, "alice", Instant.parse("2026-01-01T00:00:00Z")));
+        syncService.bootstrap();
+
+        UserChangeEvent rename = event(7, "UPDATED", id, "alice", "Alicia", Instant.parse("2026-01-02T00:00:00Z"));
+        UserChangeEvent stale = event(5, "UPDATED", id, "alice", "Old", Instant.parse("2026-01-01T12:00:00Z"));
+        syncService.apply(List.of(rename, stale));
+
+        assertEquals("Alicia", repository.findById(id).orElseThrow().getFirstName());
+        assertEquals(7, syncService.status().getLastSequence());
+    }
+
+    @Test
+    void deletedUsersAreNotResurrectedByBulkSync() {
+        UUID id = UUID.randomUUID();
+        authService.addUser(user(id, "bob", Instant.parse("2026-01-01T00:00:00Z")));
+        syncService.bootstrap();
+
+        UserChangeEvent delete = event(3, "DELETED", id, "bob", null, Instant.parse("2026-01-02T00:00:00Z"));
+        syncService.apply(List.of(delete));
+        syncService.bootstrap();
+
+        assertFalse(repository.findById(id).isPresent());
+    }
+
+    @Test
+    void roleEventsWithoutSnapshotChangeHeldRoles() {
+        UUID id = UUID.randomUUID();
+        authService.addUser(user(id, "carol", Instant.parse("2026-01-01T00:00:00Z")));
+        syncService.bootstrap();
+
+        UserChangeEvent grant = roleEvent(4, "ROLE_ASSIGNED", id, "ADMIN");
+        UserChangeEvent revoke = roleEvent(5, "ROLE_REMOVED", id, "CUSTOMER");
+        UserChangeEvent redelivered = roleEvent(4, "ROLE_ASSIGNED", id, "ADMIN");
+        assertEquals(2, syncService.apply(List.of(grant, revoke, redelivered)));
+
+        assertEquals(Set.of("ADMIN"), repository.findById(id).orElseThrow().getRoles());
+    }
+
+    @Test
+    void statusEventsWithoutSnapshotChangeHeldStatus() {
+        UUID id = UUID.randomUUID();
+        authService.addUser(user(id, "dave", Instant.parse("2026-01-01T00:00:00Z")));
+        syncService.bootstrap();
+
+        UserChangeEvent swept = statusEvent(6, "DEACTIVATED", id);
+        UserChangeEvent stale = statusEvent(2, "ACTIVATED", id);
+        assertEquals(1, syncService.apply(List.of(swept, stale)));
+
+        assertFalse(repository.findById(id).orElseThrow().isActive());
+    }
+
+    @Test
+    void bulkSyncPagesCarryTheUserVersion() {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> user = new HashMap<>(user(id, "erin", Instant.parse("2026-01-01T00:00:00Z")));
+        user.put("changeVersion", 9);
+        authService.addUser(user);
+        syncService.bootstrap();
+
+        UserChangeEvent applied = roleEvent(10, "ROLE_ASSIGNED", id, "ADMIN");
+        UserChangeEvent older = roleEvent(8, "ROLE_ASSIGNED", id, "AUDITOR");
+        assertEquals(1, syncService.apply(List.of(applied, older)));
+
+        assertEquals(Set.of("CUSTOMER", "ADMIN"), repository.findById(id).orElseThrow().getRoles());
+        assertEquals(10, repository.findById(id).orElseThrow().getVersion());
+    }
+
+    private Map<String, Object> user(UUID id, String username, Instant updatedAt) {
+        return Map.of("id", id.toString(), "username", username, "email", username + "@example.com",
+                "active", true, "updatedAt", updatedAt.toString(),
+                "roles", List.of(Map.of("id", UUID.randomUUID().toString(), "name", "CUSTOMER")));
+    }
+
+    private UserChangeEvent roleEvent(long sequence, String type, UUID id, String role) {
+        UserChangeEvent event = new UserChangeEvent();
+        event.setSequence(sequence);
+        event.setVersion(sequence);
+        event.setType(type);
+        event.setUserId(id);
+        event.setOccurredAt(Instant.now());
+        event.setRole(role);
+        return event;
+    }
+
+    private UserChangeEvent statusEvent(long sequence, String type, UUID id) {
+        UserChangeEvent event = new UserChangeEvent();
+        event.setSequence(sequence);
+        event.setVersion(sequence);
+        event.setType(type);
+        event.setUserId(id);
+        event.setOccurredAt(Instant.now());
+        return event;
+    }
+
+    private UserChangeEvent event(long sequence, String type, UUID id, String username, String firstName, Instant updatedAt) {
+        AuthUserDto user = new AuthUserDto();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setUpdatedAt(updatedAt);
+        UserChangeEvent event = new UserChangeEvent();
+        event.setSequence(sequence);
+        event.setVersion(sequence);
+        event.setType(type);
+        event.setUserId(id);
+        event.setOccurredAt(updatedAt);
+        event.setUser(user);
+        return event;
+    }
+}
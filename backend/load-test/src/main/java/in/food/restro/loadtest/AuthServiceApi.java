@@ -0,0 +1,115 @@
+package in.food.restro.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import in.food.restro.loadtest.UserPool.KnownUser;
+
+/**
+ * Issues the UserController calls over one shared HTTP/1.1 client. Usernames and emails carry
+ * a per-run tag, so repeated runs against the same database do not collide.
+ */
+final class AuthServiceApi {
+
+    private static final String USERS = "/api/v1/users";
+    private static final int LIST_PAGES = 20;
+
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration timeout;
+    private final String runTag = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong created = new AtomicLong();
+
+    AuthServiceApi(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Creates a user with the given role and records both in the pool.
+     *
+     * @return The HTTP status of the create call.
+     */
+    int createUser(UserPool pool, String roleName) throws IOException, InterruptedException {
+        long n = created.incrementAndGet();
+        String username = "lt-" + runTag + "-" + n;
+        ObjectNode body = mapper.createObjectNode()
+                .put("username", username)
+                .put("email", username + "@loadtest.local")
+                .put("password", "Secret#" + n)
+                .put("firstName", "Load")
+                .put("lastName", "Tester " + n);
+        body.putArray("roles").addObject().put("name", roleName);
+
+        HttpResponse<byte[]> response = send(request(USERS + "/create")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body))));
+        if (response.statusCode() == 201) {
+            JsonNode user = mapper.readTree(response.body());
+            pool.add(new KnownUser(user.path("id").asText(), username, user.path("email").asText()));
+            for (JsonNode role : user.path("roles")) {
+                pool.addRole(role.path("id").asText());
+            }
+        }
+        return response.statusCode();
+    }
+
+    /**
+     * Runs one operation against random pool members.
+     *
+     * @return The HTTP status of the call.
+     */
+    int call(Operation operation, UserPool pool) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case CREATE -> createUser(pool, "ROLE_USER");
+            case GET_BY_ID -> get("/" + pool.randomUser().id());
+            case GET_BY_USERNAME -> get("/username/" + encode(pool.randomUser().username()));
+            case GET_BY_EMAIL -> get("/search/email?email=" + encode(pool.randomUser().email()));
+            case EXISTS_USERNAME -> get("/exists/username?username=" + encode(pool.randomUser().username()));
+            case EXISTS_EMAIL -> get("/exists/email?email=" + encode(pool.randomUser().email()));
+            case LIST -> get("/all?page=" + random.nextInt(LIST_PAGES) + "&size=20");
+            case ASSIGN_ROLE -> send(request(USERS + "/" + pool.randomUser().id() + "/roles/" + pool.randomRoleId())
+                    .PUT(HttpRequest.BodyPublishers.noBody())).statusCode();
+            case CHANGE_PASSWORD -> send(request(USERS + "/" + pool.randomUser().id() + "/password")
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"password\":\"Changed#" + random.nextInt(1_000_000) + "\"}"))).statusCode();
+        };
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return send(request(USERS + path).GET()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package in.food.restro.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import in.food.restro.loadtest.OpenLoopDriver.OperationStats;
+import in.food.restro.loadtest.OpenLoopDriver.Results;
+
+/**
+ * Turns the recorded histograms into one row per operation plus an {@code all} row.
+ * <p>
+ * The rows are written as {@code <label>.csv} in a fixed column and row order, so two runs
+ * can be compared with any diff tool or with {@code --baseline}. The full latency distribution
+ * of every operation is also written as {@code <label>-<operation>.hgrm}, which the HdrHistogram
+ * plotter reads directly.
+ */
+final class LatencyReport {
+
+    static final String HEADER = "operation,requests,errors,dropped,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms";
+
+    record Row(String operation, long requests, long errors, long dropped, double throughput,
+            double p50, double p90, double p99, double p999, double max, double serviceP99) {
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    operation, requests, errors, dropped, throughput, p50, p90, p99, p999, max, serviceP99);
+        }
+
+        static Row fromCsv(String line) {
+            String[] f = line.split(",");
+            return new Row(f[0], Long.parseLong(f[1]), Long.parseLong(f[2]), Long.parseLong(f[3]),
+                    Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+                    Double.parseDouble(f[7]), Double.parseDouble(f[8]), Double.parseDouble(f[9]),
+                    Double.parseDouble(f[10]));
+        }
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+
+    LatencyReport(Results results) {
+        double seconds = results.measuredNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        Histogram allLatency = new Histogram(OpenLoopDriver.HIGHEST_TRACKABLE_MICROS, 3);
+        Histogram allService = new Histogram(OpenLoopDriver.HIGHEST_TRACKABLE_MICROS, 3);
+        long allErrors = 0;
+        long allDropped = 0;
+        for (Map.Entry<Operation, OperationStats> entry : results.stats().entrySet()) {
+            OperationStats stats = entry.getValue();
+            rows.add(row(entry.getKey().label(), stats.latency, stats.serviceTime,
+                    stats.errors.sum(), stats.dropped.sum(), seconds));
+            latencies.put(entry.getKey().label(), stats.latency);
+            allLatency.add(stats.latency);
+            allService.add(stats.serviceTime);
+            allErrors += stats.errors.sum();
+            allDropped += stats.dropped.sum();
+        }
+        rows.add(row("all", allLatency, allService, allErrors, allDropped, seconds));
+        latencies.put("all", allLatency);
+    }
+
+    List<Row> rows() {
+        return rows;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-16s %9s %7s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        for (Row row : rows) {
+            out.printf(Locale.ROOT, "%-16s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.operation(), row.requests(), row.errors(), row.dropped(), row.throughput(),
+                    row.p50(), row.p90(), row.p99(), row.p999(), row.max());
+        }
+    }
+
+    /**
+     * Writes the CSV summary and one percentile distribution per operation.
+     *
+     * @return The path of the CSV summary.
+     */
+    Path write(Path directory, String label) throws IOException {
+        Files.createDirectories(directory);
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        rows.forEach(row -> lines.add(row.toCsv()));
+        Path csv = directory.resolve(label + ".csv");
+        Files.write(csv, lines, StandardCharsets.UTF_8);
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    directory.resolve(label + "-" + entry.getKey() + ".hgrm")), false, StandardCharsets.UTF_8)) {
+                // Values are recorded in microseconds; scale the output to milliseconds
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return csv;
+    }
+
+    /**
+     * Prints the relative change of throughput and tail latency against an earlier run's CSV.
+     */
+    void compare(Path baselineCsv, PrintStream out) throws IOException {
+        Map<String, Row> baseline = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(baselineCsv, StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("operation,")) {
+                Row row = Row.fromCsv(line);
+                baseline.put(row.operation(), row);
+            }
+        }
+        out.printf("%nChange against %s%n", baselineCsv);
+        out.printf("%-16s %10s %10s %10s %10s%n", "operation", "req/s", "p50", "p99", "p999");
+        for (Row row : rows) {
+            Row before = baseline.get(row.operation());
+            if (before == null) {
+                out.printf("%-16s %s%n", row.operation(), "(not in baseline)");
+                continue;
+            }
+            out.printf("%-16s %10s %10s %10s %10s%n", row.operation(),
+                    change(before.throughput(), row.throughput()), change(before.p50(), row.p50()),
+                    change(before.p99(), row.p99()), change(before.p999(), row.p999()));
+        }
+    }
+
+    private static Row row(String operation, Histogram latency, Histogram serviceTime, long errors, long dropped,
+            double seconds) {
+        return new Row(operation, latency.getTotalCount(), errors, dropped, latency.getTotalCount() / seconds,
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()), millis(serviceTime.getValueAtPercentile(99)));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", (after - before) / before * 100);
+    }
+}
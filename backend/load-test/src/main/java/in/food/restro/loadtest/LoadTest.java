@@ -0,0 +1,95 @@
+package in.food.restro.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Entry point: seeds users on the target, drives the configured request mix and writes the report.
+ * <pre>
+ *   java -jar target/load-test.jar --rate=500 --duration=120 --label=main-abc123
+ *   java -jar target/load-test.jar --rate=500 --duration=120 --label=pr-42 \
+ *        --baseline=target/load-test-reports/main-abc123.csv
+ * </pre>
+ * See README.md for every option and how to start the Auth-Service on its embedded database.
+ */
+public final class LoadTest {
+
+    private static final String[] SEED_ROLES = { "ROLE_USER", "ROLE_LOAD_A", "ROLE_LOAD_B", "ROLE_LOAD_C" };
+    private static final int SEED_CONCURRENCY = 32;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Options: --base-url --rate --warm-up --duration --seed-users --mix --max-in-flight "
+                    + "--timeout-ms --report-dir --label --baseline");
+            System.exit(2);
+            return;
+        }
+
+        AuthServiceApi api = new AuthServiceApi(options.baseUrl(), options.requestTimeout());
+        UserPool pool = new UserPool(options.seedUsers() * 4);
+
+        System.out.printf("Seeding %d users on %s%n", options.seedUsers(), options.baseUrl());
+        seed(api, pool, options.seedUsers());
+        if (pool.size() == 0 || pool.roleCount() == 0) {
+            System.err.println("Seeding failed: no users could be created. Is the Auth-Service running?");
+            System.exit(1);
+        }
+
+        System.out.printf("Driving %.0f req/s for %ds after a %ds warm-up, mix %s%n", options.rate(),
+                options.duration().toSeconds(), options.warmUp().toSeconds(), options.mix());
+        OpenLoopDriver.Results results = new OpenLoopDriver(options, api, pool).run();
+
+        LatencyReport report = new LatencyReport(results);
+        System.out.println();
+        report.print(System.out);
+        Path csv = report.write(options.reportDir(), options.label());
+        System.out.printf("%nReport written to %s%n", csv.toAbsolutePath());
+        if (options.baseline() != null) {
+            report.compare(options.baseline(), System.out);
+        }
+    }
+
+    private static void seed(AuthServiceApi api, UserPool pool, int users) throws InterruptedException {
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<Future<Integer>> calls = new ArrayList<>(users);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                String role = SEED_ROLES[i % SEED_ROLES.length];
+                permits.acquire();
+                calls.add(executor.submit(() -> {
+                    try {
+                        return api.createUser(pool, role);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        int failed = 0;
+        for (Future<Integer> call : calls) {
+            try {
+                if (call.get() != 201) {
+                    failed++;
+                }
+            } catch (ExecutionException ex) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.out.printf("  %d of %d seed users could not be created%n", failed, users);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package in.food.restro.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a default so a bare
+ * run drives a local Auth-Service on port 9091.
+ */
+record LoadTestOptions(
+        String baseUrl,
+        double rate,
+        Duration warmUp,
+        Duration duration,
+        int seedUsers,
+        Map<Operation, Integer> mix,
+        int maxInFlight,
+        Duration requestTimeout,
+        Path reportDir,
+        String label,
+        Path baseline) {
+
+    static final String DEFAULT_MIX = "create=5,get-by-id=25,get-by-username=15,get-by-email=10,"
+            + "exists-username=10,exists-email=10,list=10,assign-role=5,change-password=10";
+
+    private static final Set<String> KNOWN = Set.of("base-url", "rate", "warm-up", "duration",
+            "seed-users", "mix", "max-in-flight", "timeout-ms", "report-dir", "label", "baseline");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                values.getOrDefault("base-url", "http://localhost:9091"),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warm-up", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Integer.parseInt(values.getOrDefault("seed-users", "500")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("timeout-ms", "5000"))),
+                Path.of(values.getOrDefault("report-dir", "target/load-test-reports")),
+                values.getOrDefault("label", "run"),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null);
+        values.keySet().removeAll(KNOWN);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate() <= 0 || options.seedUsers() < 1 || options.maxInFlight() < 1) {
+            throw new IllegalArgumentException("rate, seed-users and max-in-flight must be positive");
+        }
+        return options;
+    }
+
+    /**
+     * Parses {@code name=weight} pairs; operations left out of the mix are not run.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected name=weight in mix but got: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.byName(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must contain at least one operation");
+        }
+        return weights;
+    }
+}
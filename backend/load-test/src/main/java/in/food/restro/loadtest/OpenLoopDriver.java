@@ -0,0 +1,141 @@
+package in.food.restro.loadtest;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Fires requests on a fixed schedule regardless of how fast the server answers (open loop).
+ * <p>
+ * Each request has an intended start time of {@code start + i / rate} and runs on its own
+ * virtual thread. Latency is measured from the intended start, not from the moment the request
+ * was actually sent, so time a request spent waiting behind a stalled server or a late
+ * scheduler is counted; this is what corrects for coordinated omission. The pure round-trip
+ * time is recorded separately as service time. Requests that would exceed the in-flight cap
+ * are not sent and are reported as dropped.
+ */
+final class OpenLoopDriver {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    static final class OperationStats {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        void record(long latencyNanos, long serviceNanos, boolean ok) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            serviceTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(serviceNanos), HIGHEST_TRACKABLE_MICROS));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+    }
+
+    record Results(Map<Operation, OperationStats> stats, long measuredNanos) {
+    }
+
+    private final LoadTestOptions options;
+    private final AuthServiceApi api;
+    private final UserPool pool;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoopDriver(LoadTestOptions options, AuthServiceApi api, UserPool pool) {
+        this.options = options;
+        this.api = api;
+        this.pool = pool;
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Results run() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long measureFrom = start + options.warmUp().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(10);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0;; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (intended >= nextProgress) {
+                    System.out.printf("  %s: %d requests scheduled, %d in flight%n",
+                            intended < measureFrom ? "warm-up" : "measuring", i, inFlight.get());
+                    nextProgress += TimeUnit.SECONDS.toNanos(10);
+                }
+
+                Operation operation = pick();
+                boolean measured = intended >= measureFrom;
+                if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        stats.get(operation).dropped.increment();
+                    }
+                    continue;
+                }
+                executor.execute(() -> execute(operation, intended, measured ? stats.get(operation) : null));
+            }
+        }
+        return new Results(stats, end - measureFrom);
+    }
+
+    private void execute(Operation operation, long intended, OperationStats stats) {
+        try {
+            long sent = System.nanoTime();
+            boolean ok;
+            try {
+                int status = api.call(operation, pool);
+                ok = status >= 200 && status < 300;
+            } catch (IOException | RuntimeException ex) {
+                ok = false;
+            }
+            long done = System.nanoTime();
+            if (stats != null) {
+                stats.record(done - intended, done - sent, ok);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,35 @@
+package in.food.restro.loadtest;
+
+/**
+ * The UserController calls the generator can issue; the report has one row per operation.
+ */
+enum Operation {
+    CREATE("create"),
+    GET_BY_ID("get-by-id"),
+    GET_BY_USERNAME("get-by-username"),
+    GET_BY_EMAIL("get-by-email"),
+    EXISTS_USERNAME("exists-username"),
+    EXISTS_EMAIL("exists-email"),
+    LIST("list"),
+    ASSIGN_ROLE("assign-role"),
+    CHANGE_PASSWORD("change-password");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation byName(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "'");
+    }
+}
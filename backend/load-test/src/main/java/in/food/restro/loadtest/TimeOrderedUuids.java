@@ -0,0 +1,33 @@
+package in.food.restro.loadtest;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUIDv7 keys laid out exactly as the Auth-Service's TimeOrderedUuidGenerator lays them out:
+ * a 48-bit Unix millisecond timestamp, 12 bits of sub-millisecond time and 62 random bits.
+ * Both sides check the same known id in their tests, so the two cannot drift apart unnoticed.
+ */
+public final class TimeOrderedUuids {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+
+    private TimeOrderedUuids() {
+    }
+
+    public static UUID next() {
+        return create(Instant.now(), ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * The id for the given time, with the random bits supplied, so generated datasets are reproducible.
+     */
+    public static UUID create(Instant time, long random) {
+        long subMillis = (time.getNano() % 1_000_000L) * 4096 / 1_000_000L;
+        long mostSignificant = (time.toEpochMilli() & 0xFFFF_FFFF_FFFFL) << 16 | VERSION_7 | subMillis;
+        long leastSignificant = VARIANT_RFC | (random & 0x3FFF_FFFF_FFFF_FFFFL);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
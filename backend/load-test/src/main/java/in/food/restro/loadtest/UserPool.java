@@ -0,0 +1,67 @@
+package in.food.restro.loadtest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Users and roles known to exist on the target, which lookups and updates pick from at random.
+ * Users created during the run are appended, so lookups also hit recently written rows.
+ */
+final class UserPool {
+
+    record KnownUser(String id, String username, String email) {
+    }
+
+    private final AtomicReferenceArray<KnownUser> users;
+    private final AtomicInteger size = new AtomicInteger();
+    private final List<String> roleIds = new CopyOnWriteArrayList<>();
+
+    UserPool(int capacity) {
+        this.users = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Adds a user; once the pool is full a random slot is replaced instead.
+     */
+    void add(KnownUser user) {
+        int slot = size.getAndUpdate(n -> Math.min(n + 1, users.length()));
+        if (slot >= users.length()) {
+            slot = ThreadLocalRandom.current().nextInt(users.length());
+        }
+        users.set(slot, user);
+    }
+
+    void addRole(String roleId) {
+        if (!roleIds.contains(roleId)) {
+            roleIds.add(roleId);
+        }
+    }
+
+    KnownUser randomUser() {
+        int n = size.get();
+        if (n == 0) {
+            throw new IllegalStateException("The user pool is empty");
+        }
+        KnownUser user;
+        do {
+            // A slot is claimed before it is written, so it may still be empty for an instant
+            user = users.get(ThreadLocalRandom.current().nextInt(n));
+        } while (user == null);
+        return user;
+    }
+
+    String randomRoleId() {
+        return roleIds.get(ThreadLocalRandom.current().nextInt(roleIds.size()));
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int roleCount() {
+        return roleIds.size();
+    }
+}
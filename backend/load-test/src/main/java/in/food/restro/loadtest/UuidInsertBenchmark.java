@@ -0,0 +1,95 @@
+package in.food.restro.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares bulk insert throughput and primary key index size of random (v4) and
+ * time-ordered (v7) UUID keys on PostgreSQL.
+ * <pre>
+ *   java -cp target/load-test.jar in.food.restro.loadtest.UuidInsertBenchmark \
+ *        --jdbc-url=jdbc:postgresql://localhost:5432/indian_food_db --user=indian_food_restro \
+ *        --password=indian_food_restro --rows=2000000
+ * </pre>
+ * Each key kind is inserted into its own scratch table shaped like {@code user_user_roles}
+ * (a uuid primary key plus a uuid column). The tables are dropped at the end. The v7
+ * keys come from {@link TimeOrderedUuids}, laid out like the Auth-Service's.
+ */
+public final class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String url = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/indian_food_db");
+        String user = options.getOrDefault("user", "indian_food_restro");
+        String password = options.getOrDefault("password", "indian_food_restro");
+        int rows = Integer.parseInt(options.getOrDefault("rows", "1000000"));
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            System.out.printf("%-12s %12s %14s %14s%n", "keys", "rows/s", "pk index MB", "table MB");
+            run(connection, "random", UUID::randomUUID, rows);
+            run(connection, "time", TimeOrderedUuids::next, rows);
+        }
+    }
+
+    private static void run(Connection connection, String kind, Supplier<UUID> keys, int rows) throws SQLException {
+        String table = "uuid_bench_" + kind;
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, ref uuid NOT NULL)");
+            connection.commit();
+        }
+
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (id, ref) VALUES (?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, keys.get());
+                insert.setObject(2, UUID.randomUUID());
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long indexBytes = size(connection, "pg_relation_size('" + table + "_pkey')");
+        long tableBytes = size(connection, "pg_relation_size('" + table + "')");
+        System.out.printf(Locale.ROOT, "%-12s %12.0f %14.1f %14.1f%n", kind, rows / seconds,
+                indexBytes / 1048576.0, tableBytes / 1048576.0);
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE " + table);
+            connection.commit();
+        }
+    }
+
+    private static long size(Connection connection, String expression) throws SQLException {
+        try (Statement query = connection.createStatement(); ResultSet result = query.executeQuery("SELECT " + expression)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package in.food.restro.loadtest.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes rows with batched prepared INSERTs, for databases without a COPY protocol such as H2.
+ */
+final class BatchInsertLoader implements BulkLoader {
+
+    private final int batchSize;
+
+    BatchInsertLoader(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long load(Connection connection, String table, List<String> columns, Rows rows) throws SQLException {
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            BatchRows out = new BatchRows(insert);
+            rows.writeTo(out);
+            if (out.pending > 0) {
+                insert.executeBatch();
+            }
+            return out.rows;
+        }
+    }
+
+    private final class BatchRows implements RowWriter {
+
+        private final PreparedStatement insert;
+        private int column;
+        private int pending;
+        private long rows;
+
+        BatchRows(PreparedStatement insert) {
+            this.insert = insert;
+        }
+
+        @Override
+        public void add(String value) throws SQLException {
+            insert.setString(++column, value);
+        }
+
+        @Override
+        public void add(UUID value) throws SQLException {
+            insert.setObject(++column, value);
+        }
+
+        @Override
+        public void add(Instant value) throws SQLException {
+            if (value == null) {
+                insert.setNull(++column, Types.TIMESTAMP_WITH_TIMEZONE);
+            } else {
+                insert.setObject(++column, value.atOffset(ZoneOffset.UTC));
+            }
+        }
+
+        @Override
+        public void add(long value) throws SQLException {
+            insert.setLong(++column, value);
+        }
+
+        @Override
+        public void add(boolean value) throws SQLException {
+            insert.setBoolean(++column, value);
+        }
+
+        @Override
+        public void endRow() throws SQLException {
+            insert.addBatch();
+            column = 0;
+            rows++;
+            if (++pending == batchSize) {
+                insert.executeBatch();
+                pending = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package in.food.restro.loadtest.dataset;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes generated rows into one table. The caller owns the transaction.
+ */
+interface BulkLoader {
+
+    /**
+     * Produces the rows of one load.
+     */
+    @FunctionalInterface
+    interface Rows {
+        void writeTo(RowWriter out) throws SQLException;
+    }
+
+    /**
+     * @return The number of rows written.
+     */
+    long load(Connection connection, String table, List<String> columns, Rows rows) throws SQLException;
+}
@@ -0,0 +1,244 @@
+package in.food.restro.loadtest.dataset;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills an Auth-Service database with a synthetic, production-shaped user base.
+ * <pre>
+ *   java -cp target/load-test.jar in.food.restro.loadtest.dataset.DatasetGenerator \
+ *        --jdbc-url=jdbc:postgresql://localhost:5432/indian_food_db --users=5000000 --seed=42
+ * </pre>
+ * The schema must already exist: start the Auth-Service once against the database so Hibernate
+ * creates it. Locations and roles are written first, then users in chunks, each chunk with its
+ * addresses and role memberships in one transaction, on {@code --threads} connections.
+ * PostgreSQL is loaded with COPY, anything else (H2) with batched INSERTs. See
+ * {@link UserDataset} for the distributions.
+ */
+public final class DatasetGenerator {
+
+    /** Children before parents, the order rows can be removed in. */
+    private static final List<String> TABLES = List.of("user_user_roles", "user_user_addr", "user_addr", "users",
+            "user_roles", "location");
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetOptions options;
+        try {
+            options = DatasetOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Options: --jdbc-url --user --password --users --seed --as-of --history-days "
+                    + "--locations --roles --threads --chunk-size --batch-size --truncate");
+            System.exit(2);
+            return;
+        }
+
+        UserDataset dataset = new UserDataset(options);
+        BulkLoader loader = options.postgres() ? new CopyLoader() : new BatchInsertLoader(options.batchSize());
+        System.out.printf("Generating %d users (seed %d, as of %s) into %s with %s on %d connections%n",
+                options.users(), options.seed(), options.asOf(), options.jdbcUrl(),
+                options.postgres() ? "COPY" : "batched INSERTs", options.threads());
+
+        try (Connection connection = connect(options)) {
+            if (!prepare(connection, options)) {
+                System.exit(1);
+                return;
+            }
+            loader.load(connection, "location", List.of("location_id", "country", "state", "city"), out -> {
+                for (UserDataset.Location location : dataset.locations()) {
+                    out.add(location.id());
+                    out.add(location.country());
+                    out.add(location.state());
+                    out.add(location.city());
+                    out.endRow();
+                }
+            });
+            loader.load(connection, "user_roles", List.of("user_role_id", "user_role_name"), out -> {
+                for (UserDataset.Role role : dataset.roles()) {
+                    out.add(role.id());
+                    out.add(role.name());
+                    out.endRow();
+                }
+            });
+            connection.commit();
+        }
+
+        LongAdder[] rows = new LongAdder[UserTable.values().length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new LongAdder();
+        }
+        long start = System.nanoTime();
+        loadUsers(options, dataset, loader, rows);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try (Connection connection = connect(options)) {
+            finish(connection, options, dataset);
+        }
+
+        long total = 0;
+        System.out.printf("%n%-16s %12s%n", "table", "rows");
+        for (UserTable table : UserTable.values()) {
+            long count = rows[table.ordinal()].sum();
+            total += count;
+            System.out.printf("%-16s %12d%n", table.table(), count);
+        }
+        System.out.printf(Locale.ROOT, "%nLoaded %d rows in %.1f s: %.0f rows/s, %.0f users/s%n", total, seconds,
+                total / seconds, options.users() / seconds);
+        System.out.println("Restart the Auth-Service so its startup loaders (identity directory, location "
+                + "dictionary, search index, statistics) pick up the new rows.");
+    }
+
+    /**
+     * Checks that the schema exists and the tables are empty, or empties them with {@code --truncate=true}.
+     */
+    private static boolean prepare(Connection connection, DatasetOptions options) throws SQLException {
+        List<String> filled = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    count.next();
+                    if (count.getLong(1) > 0) {
+                        filled.add(table);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            System.err.println("Cannot read the Auth-Service tables (" + ex.getMessage().strip() + "). Start the "
+                    + "Auth-Service once against this database so the schema is created.");
+            return false;
+        }
+        if (filled.isEmpty()) {
+            return true;
+        }
+        if (!options.truncate()) {
+            System.err.println("These tables already hold rows: " + filled + ". Pass --truncate=true to replace them.");
+            return false;
+        }
+        System.out.println("Emptying " + TABLES);
+        try (Statement statement = connection.createStatement()) {
+            if (options.postgres()) {
+                statement.execute("TRUNCATE " + String.join(", ", TABLES));
+            } else {
+                for (String table : TABLES) {
+                    statement.executeUpdate("DELETE FROM " + table);
+                }
+            }
+        }
+        connection.commit();
+        return true;
+    }
+
+    private static void loadUsers(DatasetOptions options, UserDataset dataset, BulkLoader loader, LongAdder[] rows)
+            throws Exception {
+        int chunks = (int) ((options.users() + (long) options.chunkSize() - 1) / options.chunkSize());
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicLong loadedUsers = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        progress.scheduleAtFixedRate(() -> System.out.printf(Locale.ROOT, "%d of %d users, %.0f users/s%n",
+                loadedUsers.get(), options.users(), loadedUsers.get() / ((System.nanoTime() - start) / 1e9)),
+                5, 5, TimeUnit.SECONDS);
+
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(options.threads())) {
+            for (int i = 0; i < options.threads(); i++) {
+                workers.add(executor.submit(() -> {
+                    try (Connection connection = connect(options)) {
+                        for (int chunk = nextChunk.getAndIncrement(); chunk < chunks && !failed.get();
+                                chunk = nextChunk.getAndIncrement()) {
+                            int from = (int) ((long) chunk * options.chunkSize());
+                            int to = (int) Math.min(options.users(), (long) from + options.chunkSize());
+                            loadChunk(connection, dataset, loader, from, to, rows);
+                            loadedUsers.addAndGet(to - from);
+                        }
+                    } catch (Exception ex) {
+                        failed.set(true);
+                        throw ex;
+                    }
+                    return null;
+                }));
+            }
+        } finally {
+            progress.shutdownNow();
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException ex) {
+                throw ex.getCause() instanceof Exception cause ? cause : ex;
+            }
+        }
+    }
+
+    /**
+     * Generates users {@code [from, to)} and writes them with their addresses and roles in one transaction.
+     */
+    private static void loadChunk(Connection connection, UserDataset dataset, BulkLoader loader, int from, int to,
+            LongAdder[] rows) throws SQLException {
+        List<GeneratedUser> users = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            users.add(dataset.user(index));
+        }
+        for (UserTable table : UserTable.values()) {
+            rows[table.ordinal()].add(loader.load(connection, table.table(), table.columns(), out -> {
+                for (GeneratedUser user : users) {
+                    table.write(user, out);
+                }
+            }));
+        }
+        connection.commit();
+    }
+
+    /**
+     * Moves the location id sequence past the loaded ids, so the service can add new locations,
+     * and refreshes the planner statistics.
+     */
+    private static void finish(Connection connection, DatasetOptions options, UserDataset dataset) throws SQLException {
+        int nextLocationId = dataset.locations().size() + 1;
+        try (Statement statement = connection.createStatement()) {
+            if (options.postgres()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('location', 'location_id'), "
+                        + (nextLocationId - 1) + ")");
+                for (String table : TABLES) {
+                    statement.execute("ANALYZE " + table);
+                }
+            } else {
+                statement.execute("ALTER TABLE location ALTER COLUMN location_id RESTART WITH " + nextLocationId);
+            }
+        }
+        connection.commit();
+    }
+
+    private static Connection connect(DatasetOptions options) throws SQLException {
+        Connection connection = DriverManager.getConnection(options.jdbcUrl(), options.user(), options.password());
+        connection.setAutoCommit(false);
+        if (options.postgres()) {
+            try (Statement statement = connection.createStatement()) {
+                // Each chunk is one commit; a crash only loses a rerun of the load
+                statement.execute("SET synchronous_commit = off");
+            }
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,77 @@
+package in.food.restro.loadtest.dataset;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options of {@link DatasetGenerator}, given as {@code --name=value}. The same
+ * seed, user count and {@code --as-of} always produce the same rows.
+ */
+record DatasetOptions(
+        String jdbcUrl,
+        String user,
+        String password,
+        int users,
+        long seed,
+        Instant asOf,
+        Duration history,
+        int locations,
+        int roles,
+        int threads,
+        int chunkSize,
+        int batchSize,
+        boolean truncate) {
+
+    private static final Set<String> KNOWN = Set.of("jdbc-url", "user", "password", "users", "seed", "as-of",
+            "history-days", "locations", "roles", "threads", "chunk-size", "batch-size", "truncate");
+
+    static DatasetOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        // Midnight today by default, so runs on the same day produce identical timestamps
+        Instant today = LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant();
+        DatasetOptions options = new DatasetOptions(
+                values.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/indian_food_db"),
+                values.getOrDefault("user", "indian_food_restro"),
+                values.getOrDefault("password", "indian_food_restro"),
+                Integer.parseInt(values.getOrDefault("users", "1000000")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("as-of") ? Instant.parse(values.get("as-of")) : today,
+                Duration.ofDays(Long.parseLong(values.getOrDefault("history-days", "1825"))),
+                Integer.parseInt(values.getOrDefault("locations", "2000")),
+                Integer.parseInt(values.getOrDefault("roles", "24")),
+                Integer.parseInt(values.getOrDefault("threads",
+                        String.valueOf(Math.min(4, Runtime.getRuntime().availableProcessors())))),
+                Integer.parseInt(values.getOrDefault("chunk-size", "50000")),
+                Integer.parseInt(values.getOrDefault("batch-size", "1000")),
+                Boolean.parseBoolean(values.getOrDefault("truncate", "false")));
+        values.keySet().removeAll(KNOWN);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.users() < 1 || options.threads() < 1 || options.chunkSize() < 1 || options.batchSize() < 1
+                || options.history().toDays() < 1) {
+            throw new IllegalArgumentException("users, threads, chunk-size, batch-size and history-days must be positive");
+        }
+        if (options.locations() < UserDataset.KNOWN_CITIES || options.roles() < UserDataset.NAMED_ROLES) {
+            throw new IllegalArgumentException("locations must be at least " + UserDataset.KNOWN_CITIES
+                    + " and roles at least " + UserDataset.NAMED_ROLES);
+        }
+        return options;
+    }
+
+    boolean postgres() {
+        return jdbcUrl.startsWith("jdbc:postgresql:");
+    }
+}
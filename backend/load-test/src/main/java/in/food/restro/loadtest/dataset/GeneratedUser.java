@@ -0,0 +1,32 @@
+package in.food.restro.loadtest.dataset;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One generated user with its address and role memberships, as the Auth-Service stores them.
+ * {@code addressId} is null for users without an address.
+ */
+record GeneratedUser(
+        UUID id,
+        String username,
+        String password,
+        String email,
+        boolean active,
+        String phoneNumber,
+        String dob,
+        String gender,
+        String firstName,
+        String middleName,
+        String lastName,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant lastLoginAt,
+        String provider,
+        UUID addressId,
+        String street,
+        int locationId,
+        String zipCode,
+        List<UUID> roleIds) {
+}
@@ -0,0 +1,24 @@
+package in.food.restro.loadtest.dataset;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Receives rows column by column, in the order of the table's column list. A {@code null}
+ * value is written as SQL NULL.
+ */
+interface RowWriter {
+
+    void add(String value) throws SQLException;
+
+    void add(UUID value) throws SQLException;
+
+    void add(Instant value) throws SQLException;
+
+    void add(long value) throws SQLException;
+
+    void add(boolean value) throws SQLException;
+
+    void endRow() throws SQLException;
+}
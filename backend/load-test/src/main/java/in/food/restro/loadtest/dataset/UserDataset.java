@@ -0,0 +1,338 @@
+package in.food.restro.loadtest.dataset;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import in.food.restro.loadtest.TimeOrderedUuids;
+
+/**
+ * Deterministic, production-shaped users, locations and roles.
+ * <p>
+ * Every user is derived from the seed and its index alone, so any range of users can be
+ * generated on its own thread and the dataset comes out the same however it is split. The
+ * distributions follow what a consumer sign-up base looks like:
+ * <ul>
+ * <li>sign-ups grow steadily over the history, and sign-up times ascend with the index, so ids
+ * are time-ordered exactly like those the service assigns;</li>
+ * <li>first and last names follow a Zipf popularity, which also gives realistic length spread;</li>
+ * <li>most users sign in with a password, a quarter through an OAuth provider;</li>
+ * <li>everyone has ROLE_USER, a few have staff or partner roles, and group roles are Zipf distributed;</li>
+ * <li>85% have an address, concentrated in the big cities with a long tail of small towns;</li>
+ * <li>recent logins are exponentially distributed, with a share of dormant and one-visit users.</li>
+ * </ul>
+ */
+final class UserDataset {
+
+    /** Role names every dataset has; further roles are synthetic groups. */
+    private static final String[] NAMED_ROLE_NAMES = { "ROLE_USER", "ROLE_DELIVERY_PARTNER",
+            "ROLE_RESTAURANT_OWNER", "ROLE_SUPPORT", "ROLE_ADMIN" };
+    private static final double[] NAMED_ROLE_SHARE = { 1.0, 0.04, 0.015, 0.002, 0.0005 };
+    static final int NAMED_ROLES = NAMED_ROLE_NAMES.length;
+
+    /** State and city of real cities, most populous first; further locations are synthetic towns. */
+    private static final String[][] CITIES = {
+            { "Maharashtra", "Mumbai" }, { "Delhi", "New Delhi" }, { "Karnataka", "Bengaluru" },
+            { "Telangana", "Hyderabad" }, { "Gujarat", "Ahmedabad" }, { "Tamil Nadu", "Chennai" },
+            { "West Bengal", "Kolkata" }, { "Maharashtra", "Pune" }, { "Rajasthan", "Jaipur" },
+            { "Gujarat", "Surat" }, { "Uttar Pradesh", "Lucknow" }, { "Uttar Pradesh", "Kanpur" },
+            { "Maharashtra", "Nagpur" }, { "Madhya Pradesh", "Indore" }, { "Maharashtra", "Thane" },
+            { "Madhya Pradesh", "Bhopal" }, { "Andhra Pradesh", "Visakhapatnam" }, { "Bihar", "Patna" },
+            { "Gujarat", "Vadodara" }, { "Uttar Pradesh", "Ghaziabad" }, { "Punjab", "Ludhiana" },
+            { "Uttar Pradesh", "Agra" }, { "Maharashtra", "Nashik" }, { "Haryana", "Faridabad" },
+            { "Uttar Pradesh", "Meerut" }, { "Gujarat", "Rajkot" }, { "Uttar Pradesh", "Varanasi" },
+            { "Jammu And Kashmir", "Srinagar" }, { "Punjab", "Amritsar" }, { "Uttar Pradesh", "Prayagraj" },
+            { "Jharkhand", "Ranchi" }, { "Tamil Nadu", "Coimbatore" }, { "Madhya Pradesh", "Jabalpur" },
+            { "Madhya Pradesh", "Gwalior" }, { "Andhra Pradesh", "Vijayawada" }, { "Rajasthan", "Jodhpur" },
+            { "Tamil Nadu", "Madurai" }, { "Chhattisgarh", "Raipur" }, { "Rajasthan", "Kota" },
+            { "Assam", "Guwahati" }, { "Chandigarh", "Chandigarh" }, { "Karnataka", "Mysuru" },
+            { "Kerala", "Kochi" }, { "Kerala", "Thiruvananthapuram" }, { "Odisha", "Bhubaneswar" },
+            { "Uttarakhand", "Dehradun" }, { "Goa", "Panaji" }, { "Haryana", "Gurugram" } };
+    static final int KNOWN_CITIES = CITIES.length;
+    private static final String COUNTRY = "IN";
+    private static final String[] TOWN_SYLLABLES = { "ra", "ma", "na", "ga", "ko", "li", "ta", "sa", "va", "ni",
+            "de", "ha", "ba", "chi", "ku", "pa", "ro", "shi", "du", "me" };
+    private static final String[] TOWN_SUFFIXES = { "pur", "nagar", "abad", "garh", "puram", "gaon", "ganj", "halli" };
+
+    // Most common first, so the Zipf weights land on the popular names
+    private static final String[] MALE_NAMES = { "Rahul", "Amit", "Rohit", "Aarav", "Arjun", "Suresh", "Ramesh",
+            "Vikram", "Anil", "Sanjay", "Rajesh", "Aditya", "Vivaan", "Manoj", "Deepak", "Karthik", "Sai", "Ishaan",
+            "Pranav", "Siddharth", "Abhishek", "Nikhil", "Harsh", "Mohammed", "Imran", "Krishna", "Reyansh",
+            "Gurpreet", "Venkatesh", "Ayaan", "Rajendra", "Devendra", "Subramanian", "Lakshmanan", "Jay", "Om", "Dev" };
+    private static final String[] FEMALE_NAMES = { "Priya", "Pooja", "Neha", "Ananya", "Sneha", "Divya", "Anjali",
+            "Kavya", "Shreya", "Aadhya", "Diya", "Saanvi", "Sunita", "Lakshmi", "Meera", "Fatima", "Ayesha", "Anika",
+            "Navya", "Harpreet", "Deepika", "Swati", "Nandini", "Radhika", "Ishita", "Riya", "Tanvi", "Pari",
+            "Bhavana", "Jayalakshmi", "Vijayalakshmi", "Uma", "Ira", "Ria" };
+    private static final String[] LAST_NAMES = { "Sharma", "Singh", "Kumar", "Patel", "Gupta", "Verma", "Reddy",
+            "Yadav", "Shah", "Rao", "Das", "Jain", "Khan", "Nair", "Joshi", "Mishra", "Iyer", "Agarwal", "Mehta",
+            "Chaudhary", "Patil", "Pandey", "Ghosh", "Menon", "Kulkarni", "Tiwari", "Banerjee", "Pillai", "Ahmed",
+            "Chatterjee", "Mukherjee", "Bose", "Deshpande", "Fernandes", "Gill", "Sandhu", "Ali", "Srinivasan",
+            "Bhattacharya", "Venkataraman", "Krishnamurthy" };
+    private static final String[] GENDERS = { "Male", "Female", "Other", null };
+    private static final double[] GENDER_CUMULATIVE = cumulative(49, 47, 1, 3);
+    private static final String[] DOMAINS = { "gmail.com", "yahoo.com", "outlook.com", "hotmail.com",
+            "rediffmail.com", "icloud.com", "proton.me" };
+    // The last share goes to company domains
+    private static final double[] DOMAIN_CUMULATIVE = cumulative(55, 12, 9, 6, 5, 4, 2, 7);
+    private static final String[] PROVIDERS = { "LOCAL", "GOOGLE", "FACEBOOK", "GITHUB", "GITLAB" };
+    private static final double[] PROVIDER_CUMULATIVE = cumulative(74, 19, 4, 2, 1);
+    private static final int[] AGE_BANDS = { 18, 25, 35, 45, 55, 71 };
+    private static final double[] AGE_CUMULATIVE = cumulative(22, 34, 22, 12, 10);
+    private static final double[] GROUP_COUNT_CUMULATIVE = cumulative(55, 25, 12, 8);
+    private static final String[] STREETS = { "MG", "Station", "Temple", "Gandhi", "Nehru", "Market", "Lake",
+            "Church", "Park", "Old Mill", "Ring", "Main", "Cross", "Hill", "College" };
+    private static final String[] STREET_KINDS = { "Road", "Street", "Marg", "Lane", "Nagar", "Colony", "Layout" };
+    private static final String BCRYPT_ALPHABET = "./ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private static final int ADDRESS_PERCENT = 85;
+    private static final long MEAN_LOGIN_AGE_SECONDS = Duration.ofDays(10).toSeconds();
+    private static final long DORMANT_AFTER_SECONDS = Duration.ofDays(180).toSeconds();
+    /** Odd and not a multiple of 5, so index to phone number is one-to-one within the range. */
+    private static final long PHONE_MULTIPLIER = 1_234_567_891L;
+    private static final long PHONE_RANGE = 4_000_000_000L;
+
+    private static final long USER_SALT = 1;
+    private static final long LOCATION_SALT = 2;
+    private static final long ROLE_SALT = 3;
+
+    record Location(int id, String country, String state, String city) {
+    }
+
+    record Role(UUID id, String name) {
+    }
+
+    private final long seed;
+    private final int users;
+    private final Instant asOf;
+    private final Instant start;
+    private final long historyNanos;
+    private final List<Location> locations;
+    private final int[] zipBases;
+    private final List<Role> roles;
+    private final double[] locationCumulative;
+    private final double[] groupCumulative;
+    private final double[] maleCumulative = zipf(MALE_NAMES.length, 0.8);
+    private final double[] femaleCumulative = zipf(FEMALE_NAMES.length, 0.8);
+    private final double[] lastNameCumulative = zipf(LAST_NAMES.length, 0.8);
+    private final long phoneOffset;
+
+    UserDataset(DatasetOptions options) {
+        this.seed = options.seed();
+        this.users = options.users();
+        this.asOf = options.asOf();
+        this.start = asOf.minus(options.history());
+        this.historyNanos = options.history().toNanos();
+        this.locations = createLocations(options.locations());
+        this.zipBases = new int[locations.size()];
+        for (int i = 0; i < zipBases.length; i++) {
+            zipBases[i] = 110_001 + (int) Math.floorMod(seedFor(LOCATION_SALT, -1 - i), 7000L) * 100;
+        }
+        this.roles = createRoles(options.roles());
+        this.locationCumulative = zipf(locations.size(), 1.0);
+        this.groupCumulative = roles.size() > NAMED_ROLES ? zipf(roles.size() - NAMED_ROLES, 1.0) : new double[0];
+        this.phoneOffset = Math.floorMod(seedFor(USER_SALT, -1), PHONE_RANGE);
+    }
+
+    List<Location> locations() {
+        return locations;
+    }
+
+    List<Role> roles() {
+        return roles;
+    }
+
+    /**
+     * The user with the given index, always the same for the same options.
+     */
+    GeneratedUser user(int index) {
+        SplittableRandom random = new SplittableRandom(seedFor(USER_SALT, index));
+
+        // The sign-up rate grows linearly, so sign-up times follow the square root of the index
+        double position = Math.sqrt((index + random.nextDouble()) / users);
+        Instant createdAt = start.plusNanos((long) (historyNanos * position)).truncatedTo(ChronoUnit.MICROS);
+        UUID id = TimeOrderedUuids.create(createdAt, random.nextLong());
+
+        String gender = GENDERS[pick(GENDER_CUMULATIVE, random)];
+        boolean female = "Female".equals(gender) || !"Male".equals(gender) && random.nextBoolean();
+        String[] firstNames = female ? FEMALE_NAMES : MALE_NAMES;
+        double[] firstNameCumulative = female ? femaleCumulative : maleCumulative;
+        String firstName = firstNames[pick(firstNameCumulative, random)];
+        String middleName = random.nextInt(100) < 18 ? firstNames[pick(firstNameCumulative, random)] : null;
+        String lastName = LAST_NAMES[pick(lastNameCumulative, random)];
+
+        // The index suffix keeps usernames and emails unique: the prefixes never contain digits
+        String username = handle(firstName, lastName, random) + index;
+        String email = handle(firstName, lastName, random) + index + "@" + domain(random);
+        String phoneNumber = "+91" + (6_000_000_000L + Math.floorMod(index * PHONE_MULTIPLIER + phoneOffset, PHONE_RANGE));
+
+        int band = pick(AGE_CUMULATIVE, random);
+        int age = AGE_BANDS[band] + random.nextInt(AGE_BANDS[band + 1] - AGE_BANDS[band]);
+        String dob = LocalDate.ofInstant(asOf, ZoneOffset.UTC).minusYears(age).minusDays(random.nextInt(365)).toString();
+
+        String provider = PROVIDERS[pick(PROVIDER_CUMULATIVE, random)];
+        String password = provider.equals("LOCAL") ? bcryptShaped(random) : null;
+
+        long sinceSignup = Math.max(0, Duration.between(createdAt, asOf).toSeconds());
+        int visitor = random.nextInt(100);
+        Instant lastLoginAt;
+        boolean active;
+        if (visitor < 8) {
+            // Signed up and never came back
+            lastLoginAt = createdAt;
+            active = random.nextInt(100) < 90;
+        } else if (visitor < 28) {
+            long activeSeconds = Math.max(0, sinceSignup - DORMANT_AFTER_SECONDS);
+            lastLoginAt = createdAt.plusSeconds((long) (activeSeconds * random.nextDouble()));
+            active = random.nextInt(100) < 75;
+        } else {
+            long ago = (long) (-Math.log(1 - random.nextDouble()) * MEAN_LOGIN_AGE_SECONDS);
+            lastLoginAt = asOf.minusSeconds(Math.min(ago, sinceSignup));
+            active = random.nextInt(100) < 99;
+        }
+        lastLoginAt = lastLoginAt.plusMillis(random.nextInt(1000)).truncatedTo(ChronoUnit.MICROS);
+        Instant updatedAt = createdAt.plusMillis(
+                (long) (Duration.between(createdAt, lastLoginAt).toMillis() * random.nextDouble()));
+
+        UUID addressId = null;
+        String street = null;
+        int locationId = 0;
+        String zipCode = null;
+        if (random.nextInt(100) < ADDRESS_PERCENT) {
+            int location = pick(locationCumulative, random);
+            addressId = TimeOrderedUuids.create(createdAt, random.nextLong());
+            street = (1 + random.nextInt(400)) + " " + STREETS[random.nextInt(STREETS.length)] + " "
+                    + STREET_KINDS[random.nextInt(STREET_KINDS.length)];
+            locationId = locations.get(location).id();
+            zipCode = String.valueOf(zipBases[location] + random.nextInt(60));
+        }
+
+        List<UUID> roleIds = new ArrayList<>(4);
+        for (int i = 0; i < NAMED_ROLES; i++) {
+            if (random.nextDouble() < NAMED_ROLE_SHARE[i]) {
+                roleIds.add(roles.get(i).id());
+            }
+        }
+        for (int groups = groupCumulative.length == 0 ? 0 : pick(GROUP_COUNT_CUMULATIVE, random); groups > 0; groups--) {
+            UUID group = roles.get(NAMED_ROLES + pick(groupCumulative, random)).id();
+            if (!roleIds.contains(group)) {
+                roleIds.add(group);
+            }
+        }
+
+        return new GeneratedUser(id, username, password, email, active, phoneNumber, dob, gender, firstName,
+                middleName, lastName, createdAt, updatedAt, lastLoginAt, provider, addressId, street, locationId,
+                zipCode, roleIds);
+    }
+
+    private List<Location> createLocations(int count) {
+        List<Location> created = new ArrayList<>(count);
+        Set<String> names = new HashSet<>();
+        for (String[] city : CITIES) {
+            created.add(new Location(created.size() + 1, COUNTRY, city[0], city[1]));
+            names.add(city[0] + "/" + city[1]);
+        }
+        String[] states = new LinkedHashSet<>(Arrays.stream(CITIES).map(city -> city[0]).toList()).toArray(String[]::new);
+        SplittableRandom random = new SplittableRandom(seedFor(LOCATION_SALT, 0));
+        while (created.size() < count) {
+            String state = states[random.nextInt(states.length)];
+            String town = town(random);
+            if (names.add(state + "/" + town)) {
+                created.add(new Location(created.size() + 1, COUNTRY, state, town));
+            }
+        }
+        return List.copyOf(created);
+    }
+
+    private List<Role> createRoles(int count) {
+        List<Role> created = new ArrayList<>(count);
+        SplittableRandom random = new SplittableRandom(seedFor(ROLE_SALT, 0));
+        for (int i = 0; i < count; i++) {
+            String name = i < NAMED_ROLES ? NAMED_ROLE_NAMES[i] : String.format(Locale.ROOT, "ROLE_GROUP_%03d", i - NAMED_ROLES + 1);
+            // Created a day before the first user, in order
+            created.add(new Role(TimeOrderedUuids.create(start.minus(Duration.ofDays(1)).plusMillis(i), random.nextLong()), name));
+        }
+        return List.copyOf(created);
+    }
+
+    private static String town(SplittableRandom random) {
+        StringBuilder town = new StringBuilder();
+        for (int syllables = 1 + random.nextInt(3); syllables > 0; syllables--) {
+            town.append(TOWN_SYLLABLES[random.nextInt(TOWN_SYLLABLES.length)]);
+        }
+        town.append(TOWN_SUFFIXES[random.nextInt(TOWN_SUFFIXES.length)]);
+        town.setCharAt(0, Character.toUpperCase(town.charAt(0)));
+        return town.toString();
+    }
+
+    private static String handle(String firstName, String lastName, SplittableRandom random) {
+        String first = firstName.toLowerCase(Locale.ROOT);
+        String last = lastName.toLowerCase(Locale.ROOT);
+        return switch (random.nextInt(10)) {
+            case 0, 1, 2, 3 -> first + "." + last;
+            case 4, 5, 6 -> first + last;
+            case 7, 8 -> first.charAt(0) + last;
+            default -> first + "_";
+        };
+    }
+
+    private static String domain(SplittableRandom random) {
+        int domain = pick(DOMAIN_CUMULATIVE, random);
+        return domain < DOMAINS.length ? DOMAINS[domain] : "corp" + random.nextInt(500) + ".co.in";
+    }
+
+    private static String bcryptShaped(SplittableRandom random) {
+        StringBuilder hash = new StringBuilder(60).append("$2a$10$");
+        while (hash.length() < 60) {
+            hash.append(BCRYPT_ALPHABET.charAt(random.nextInt(BCRYPT_ALPHABET.length())));
+        }
+        return hash.toString();
+    }
+
+    private long seedFor(long salt, long index) {
+        return mix(seed ^ mix(salt * 0x9E37_79B9_7F4A_7C15L + index));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double... weights) {
+        double total = Arrays.stream(weights).sum();
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum / total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Draws an index with the probabilities of a cumulative distribution.
+     */
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        int found = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(found >= 0 ? found + 1 : -found - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,89 @@
+package in.food.restro.loadtest.dataset;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The Auth-Service tables that hold per-user rows, in the order they are loaded so that
+ * foreign keys are always satisfied. Column names are those Hibernate derives from the entities.
+ */
+enum UserTable {
+    USERS("users", "user_id", "user_name", "password", "user_email", "is_active", "mobile", "dob", "gender",
+            "first_name", "middle_name", "last_name", "created_at", "updated_at", "last_login_at", "provider",
+            "deleted") {
+        @Override
+        void write(GeneratedUser user, RowWriter out) throws SQLException {
+            out.add(user.id());
+            out.add(user.username());
+            out.add(user.password());
+            out.add(user.email());
+            out.add(user.active());
+            out.add(user.phoneNumber());
+            out.add(user.dob());
+            out.add(user.gender());
+            out.add(user.firstName());
+            out.add(user.middleName());
+            out.add(user.lastName());
+            out.add(user.createdAt());
+            out.add(user.updatedAt());
+            out.add(user.lastLoginAt());
+            out.add(user.provider());
+            out.add(false);
+            out.endRow();
+        }
+    },
+    ADDRESSES("user_addr", "user_addr_id", "street", "location_id", "zip_code") {
+        @Override
+        void write(GeneratedUser user, RowWriter out) throws SQLException {
+            if (user.addressId() != null) {
+                out.add(user.addressId());
+                out.add(user.street());
+                out.add(user.locationId());
+                out.add(user.zipCode());
+                out.endRow();
+            }
+        }
+    },
+    USER_ADDRESSES("user_user_addr", "user_id", "user_addr_id") {
+        @Override
+        void write(GeneratedUser user, RowWriter out) throws SQLException {
+            if (user.addressId() != null) {
+                out.add(user.id());
+                out.add(user.addressId());
+                out.endRow();
+            }
+        }
+    },
+    USER_ROLES("user_user_roles", "user_id", "user_role_id") {
+        @Override
+        void write(GeneratedUser user, RowWriter out) throws SQLException {
+            for (UUID roleId : user.roleIds()) {
+                out.add(user.id());
+                out.add(roleId);
+                out.endRow();
+            }
+        }
+    };
+
+    private final String table;
+    private final List<String> columns;
+
+    UserTable(String table, String... columns) {
+        this.table = table;
+        this.columns = List.of(columns);
+    }
+
+    String table() {
+        return table;
+    }
+
+    List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Writes the user's rows in this table, if it has any.
+     */
+    abstract void write(GeneratedUser user, RowWriter out) throws SQLException;
+}
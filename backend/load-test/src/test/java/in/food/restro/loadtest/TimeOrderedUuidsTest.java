@@ -0,0 +1,19 @@
+package in.food.restro.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidsTest {
+
+    @Test
+    void matchesTheIdTheAuthServiceGenerates() {
+        // Same time, random bits and expected id as TimeOrderedUuidGeneratorTest in the Auth-Service
+        UUID id = TimeOrderedUuids.create(Instant.parse("2026-03-01T10:15:30.123456Z"), 0x0123_4567_89AB_CDEFL);
+
+        assertEquals(UUID.fromString("019ca8e5-5e4b-774b-8123-456789abcdef"), id);
+    }
+}
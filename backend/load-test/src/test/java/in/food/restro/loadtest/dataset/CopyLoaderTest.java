@@ -0,0 +1,51 @@
+package in.food.restro.loadtest.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class CopyLoaderTest {
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    private final CopyLoader.TextRows rows = new CopyLoader.TextRows(written::write);
+
+    @Test
+    void escapesTheCharactersThatDelimitTextFormat() throws SQLException {
+        rows.add("tab\there");
+        rows.add("line\nbreak\r");
+        rows.add("back\\slash \\N");
+        rows.add("Müller, Śrī");
+        rows.endRow();
+        rows.flush();
+
+        assertEquals("tab\\there\tline\\nbreak\\r\tback\\\\slash \\\\N\tMüller, Śrī\n", text());
+    }
+
+    @Test
+    void writesNullsAndTypedValuesInColumnOrder() throws SQLException {
+        UUID id = UUID.fromString("019ca8e5-5e4b-774b-8123-456789abcdef");
+        rows.add(id);
+        rows.add((String) null);
+        rows.add((UUID) null);
+        rows.add(Instant.parse("2026-03-01T10:15:30.123456Z"));
+        rows.add(42L);
+        rows.add(true);
+        rows.endRow();
+        rows.add("");
+        rows.add(false);
+        rows.endRow();
+        rows.flush();
+
+        assertEquals(id + "\t\\N\t\\N\t2026-03-01T10:15:30.123456Z\t42\tt\n\tf\n", text());
+    }
+
+    private String text() {
+        return written.toString(StandardCharsets.UTF_8);
+    }
+}
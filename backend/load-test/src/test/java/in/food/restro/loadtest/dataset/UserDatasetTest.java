@@ -0,0 +1,87 @@
+package in.food.restro.loadtest.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class UserDatasetTest {
+
+    private static final int USERS = 100_000;
+    private static final int CHUNK_SIZE = 7_000;
+
+    @Test
+    void theSameSeedGivesTheSameRowsOnAnyNumberOfThreads() throws Exception {
+        GeneratedUser[] single = generate(new UserDataset(options(42)), 1);
+        GeneratedUser[] parallel = generate(new UserDataset(options(42)), 4);
+
+        assertEquals(Arrays.asList(single), Arrays.asList(parallel));
+        assertNotEquals(single[0], new UserDataset(options(43)).user(0));
+    }
+
+    @Test
+    void keysAreUniqueAndIdsAscendWithTheIndex() throws Exception {
+        GeneratedUser[] users = generate(new UserDataset(options(42)), 4);
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        Set<UUID> ids = new HashSet<>();
+
+        for (int i = 0; i < users.length; i++) {
+            GeneratedUser user = users[i];
+            assertTrue(usernames.add(user.username()), "Duplicate username " + user.username());
+            assertTrue(emails.add(user.email()), "Duplicate email " + user.email());
+            assertTrue(phoneNumbers.add(user.phoneNumber()), "Duplicate phone number " + user.phoneNumber());
+            assertTrue(ids.add(user.id()), "Duplicate id " + user.id());
+            if (user.addressId() != null) {
+                assertTrue(ids.add(user.addressId()), "Duplicate address id " + user.addressId());
+            }
+            assertEquals(user.roleIds().size(), new HashSet<>(user.roleIds()).size());
+            if (i > 0) {
+                assertTrue(users[i - 1].createdAt().compareTo(user.createdAt()) <= 0);
+            }
+        }
+    }
+
+    /**
+     * Generates every user on the given number of threads, taking chunks in turn as the generator does.
+     */
+    private static GeneratedUser[] generate(UserDataset dataset, int threads) throws Exception {
+        GeneratedUser[] users = new GeneratedUser[USERS];
+        AtomicInteger nextChunk = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    for (int from = nextChunk.getAndIncrement() * CHUNK_SIZE; from < USERS;
+                            from = nextChunk.getAndIncrement() * CHUNK_SIZE) {
+                        for (int index = from; index < Math.min(USERS, from + CHUNK_SIZE); index++) {
+                            users[index] = dataset.user(index);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        return users;
+    }
+
+    private static DatasetOptions options(long seed) {
+        return DatasetOptions.parse(new String[] { "--users=" + USERS, "--seed=" + seed,
+                "--as-of=2026-03-01T00:00:00Z" });
+    }
+}